@@ -46,7 +46,9 @@ public enum AtlasPrivilege {
 
      TYPE_READ("type-read"),
 
-     ADMIN_AUDITS("admin-audits");
+     ADMIN_AUDITS("admin-audits"),
+
+     ADMIN_TASKS("admin-tasks");
 
      private final String type;
 
@@ -21,6 +21,7 @@ import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,6 +34,13 @@ public class AggregationContext {
     private final Map<String, String>  indexFieldNameCache;
     private final boolean              excludeDeletedEntities;
     private final boolean              includeSubTypes;
+    private final Set<String>          classificationNames;
+    private final String               rangeFieldName;
+    private final long                 rangeStart;
+    private final long                 rangeEnd;
+    private final long                 rangeGap;
+    private final List<Long>           rangeBoundaries;
+    private final int                  facetLimit;
 
     /**
      * @param queryString the query string whose aggregation metrics need to be retrieved.
@@ -49,6 +57,34 @@ public class AggregationContext {
                               Map<String, String>  indexFieldNameCache,
                               boolean              excludeDeletedEntities,
                               boolean              includeSubTypes) {
+        this(queryString, filterCriteria, searchForEntityType, aggregationFieldNames, aggregationAttributes, indexFieldNameCache,
+             excludeDeletedEntities, includeSubTypes, null, null, 0, 0, 0, null, 0);
+    }
+
+    /**
+     * @param classificationNames limit to entities having one of these classifications, directly or propagated; can be
+     *                            SearchParameters.ALL_CLASSIFICATIONS or NO_CLASSIFICATIONS
+     * @param rangeFieldName name of the numeric field to count in buckets of rangeGap, from rangeStart (inclusive) to
+     *                       rangeEnd (exclusive); index field name is looked up in indexFieldNameCache
+     * @param rangeBoundaries bucket boundaries of rangeFieldName, for buckets of varying size like calendar months:
+     *                        bucket i is [rangeBoundaries[i], rangeBoundaries[i + 1]); null for buckets of rangeGap
+     * @param facetLimit maximum number of values returned per aggregation field; 0 for the index default
+     */
+    public AggregationContext(String               queryString,
+                              FilterCriteria       filterCriteria,
+                              Set<AtlasEntityType> searchForEntityType,
+                              Set<String>          aggregationFieldNames,
+                              Set<AtlasAttribute>  aggregationAttributes,
+                              Map<String, String>  indexFieldNameCache,
+                              boolean              excludeDeletedEntities,
+                              boolean              includeSubTypes,
+                              Set<String>          classificationNames,
+                              String               rangeFieldName,
+                              long                 rangeStart,
+                              long                 rangeEnd,
+                              long                 rangeGap,
+                              List<Long>           rangeBoundaries,
+                              int                  facetLimit) {
         this.queryString            = queryString;
         this.filterCriteria         = filterCriteria;
         this.searchForEntityTypes   = searchForEntityType;
@@ -57,6 +93,13 @@ public class AggregationContext {
         this.indexFieldNameCache    = indexFieldNameCache;
         this.excludeDeletedEntities = excludeDeletedEntities;
         this.includeSubTypes        = includeSubTypes;
+        this.classificationNames    = classificationNames;
+        this.rangeFieldName         = rangeFieldName;
+        this.rangeStart             = rangeStart;
+        this.rangeEnd               = rangeEnd;
+        this.rangeGap               = rangeGap;
+        this.rangeBoundaries        = rangeBoundaries;
+        this.facetLimit             = facetLimit;
     }
 
     public String getQueryString() {
@@ -90,4 +133,32 @@ public class AggregationContext {
     public boolean isIncludeSubTypes() {
         return includeSubTypes;
     }
+
+    public Set<String> getClassificationNames() {
+        return classificationNames;
+    }
+
+    public String getRangeFieldName() {
+        return rangeFieldName;
+    }
+
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public long getRangeGap() {
+        return rangeGap;
+    }
+
+    public List<Long> getRangeBoundaries() {
+        return rangeBoundaries;
+    }
+
+    public int getFacetLimit() {
+        return facetLimit;
+    }
 }
@@ -26,6 +26,7 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -145,6 +146,18 @@ public interface AtlasGraph<V, E> {
      */
     Iterable<AtlasVertex<V, E>> getVertices(String key, Object value);
 
+    /**
+     * Finds the vertices where the given property key has one of the specified
+     * values, querying the values in batches rather than one at a time. Meant
+     * for properties that identify a vertex, like the entity guid; if more than
+     * one vertex has the same value, only one of them is returned.
+     *
+     * @param key
+     * @param values
+     * @return map of property value to the vertex having it; values not found are absent
+     */
+    Map<Object, AtlasVertex<V, E>> getVerticesByPropertyValues(String key, Collection<?> values);
+
     /**
      * Creates a graph query.
      *
@@ -152,6 +165,15 @@ public interface AtlasGraph<V, E> {
      */
     AtlasGraphQuery<V, E> query();
 
+    /**
+     * Creates a query against the given vertices, to retrieve their edges with a single
+     * batched call to the storage backend.
+     *
+     * @param vertices vertices to query
+     * @return
+     */
+    AtlasMultiVertexQuery<V, E> multiQuery(Collection<AtlasVertex<V, E>> vertices);
+
     /**
      * Start a graph traversal
      * @return
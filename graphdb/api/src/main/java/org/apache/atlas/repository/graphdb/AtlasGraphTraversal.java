@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSo
 import org.apache.tinkerpop.gremlin.structure.Graph;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,6 +51,11 @@ public abstract class AtlasGraphTraversal<V extends AtlasVertex, E extends Atlas
 
     public abstract List<V> getAtlasVertexList();
 
+    /**
+     * @return vertices of the traversal result, read as the iterator advances, instead of being collected into a list first
+     */
+    public abstract Iterator<V> getAtlasVertexIterator();
+
     public abstract Set<V> getAtlasVertexSet();
 
     public abstract Map<String, Collection<V>> getAtlasVertexMap();
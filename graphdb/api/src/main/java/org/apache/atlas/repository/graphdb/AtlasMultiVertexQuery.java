@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb;
+
+import java.util.Map;
+
+/**
+ * A query against a set of vertices, executed as a single batched call to the storage backend
+ * instead of one call per vertex.
+ *
+ * @param <V> vertex class used by the graph
+ * @param <E> edge class used by the graph
+ */
+public interface AtlasMultiVertexQuery<V, E> {
+
+    /**
+     * Specifies the edge direction that should be queried.
+     *
+     * @param queryDirection
+     * @return
+     */
+    AtlasMultiVertexQuery<V, E> direction(AtlasEdgeDirection queryDirection);
+
+    /**
+     * Specifies the edge label that should be queried.
+     *
+     * @param label
+     * @return
+     */
+    AtlasMultiVertexQuery<V, E> label(String label);
+
+    /**
+     * Returns the incident edges of each of the vertices that satisfy the query condition.
+     *
+     * @return map of vertex to its edges; vertices with no matching edges may be absent in the map
+     */
+    Map<AtlasVertex<V, E>, Iterable<AtlasEdge<V, E>>> edges();
+
+    /**
+     * Loads the properties of all the vertices. Subsequent reads of these properties in the current
+     * transaction are served from the transaction cache, without further calls to the storage backend.
+     */
+    void prefetchProperties();
+}
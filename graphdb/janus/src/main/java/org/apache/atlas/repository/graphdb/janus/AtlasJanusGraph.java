@@ -22,6 +22,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.exception.AtlasBaseException;
@@ -35,6 +36,7 @@ import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
 import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasIndexQueryParameter;
+import org.apache.atlas.repository.graphdb.AtlasMultiVertexQuery;
 import org.apache.atlas.repository.graphdb.AtlasPropertyKey;
 import org.apache.atlas.repository.graphdb.AtlasSchemaViolationException;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
@@ -61,6 +63,7 @@ import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphIndexQuery;
+import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.SchemaViolationException;
 import org.janusgraph.core.schema.JanusGraphIndex;
@@ -76,9 +79,12 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -94,6 +100,7 @@ import static org.apache.atlas.type.Constants.STATE_PROPERTY_KEY;
 public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusEdge> {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasJanusGraph.class);
     private static final Parameter[] EMPTY_PARAMETER_ARRAY  = new Parameter[0];
+    private static final int         FIND_BATCH_SIZE        = Math.max(AtlasConfiguration.GRAPH_FIND_BATCH_SIZE.getInt(), 1);
 
 
     private static       Configuration APPLICATION_PROPERTIES = null;
@@ -157,6 +164,17 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return new AtlasJanusGraphQuery(this);
     }
 
+    @Override
+    public AtlasMultiVertexQuery<AtlasJanusVertex, AtlasJanusEdge> multiQuery(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices) {
+        List<JanusGraphVertex> janusVertices = new ArrayList<>(vertices.size());
+
+        for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : vertices) {
+            janusVertices.add((JanusGraphVertex) vertex.getV().getWrappedElement());
+        }
+
+        return new AtlasJanusMultiVertexQuery(this, getGraph().multiQuery(janusVertices));
+    }
+
     @Override
     public AtlasGraphTraversal<AtlasVertex, AtlasEdge> V(final Object... vertexIds) {
         AtlasGraphTraversal traversal = new AtlasJanusGraphTraversal(this, getGraph().traversal());
@@ -327,6 +345,28 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return query.vertices();
     }
 
+    @Override
+    public Map<Object, AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> getVerticesByPropertyValues(String key, Collection<?> values) {
+        Map<Object, AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> ret = new HashMap<>();
+
+        if (values != null && !values.isEmpty()) {
+            List<Object> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+
+            // one IN query per batch; JanusGraph answers it from the composite index in a single round of lookups
+            for (List<Object> batch : Lists.partition(distinctValues, FIND_BATCH_SIZE)) {
+                for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : query().in(key, batch).vertices()) {
+                    Object value = vertex.getProperty(key, Object.class);
+
+                    if (value != null) {
+                        ret.putIfAbsent(value, vertex);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
     @Override
     public GremlinVersion getSupportedGremlinVersion() {
         return GremlinVersion.THREE;
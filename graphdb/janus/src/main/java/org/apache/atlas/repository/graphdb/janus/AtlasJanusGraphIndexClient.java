@@ -39,6 +39,7 @@ import org.apache.solr.client.solrj.request.RequestWriter;
 import org.apache.solr.client.solrj.request.V2Request;
 import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.RangeFacet;
 import org.apache.solr.client.solrj.response.TermsResponse;
 import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.params.CommonParams;
@@ -162,7 +163,7 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
             if (CollectionUtils.isEmpty(aggregationCommonFields)) {
                 LOG.warn("There are no fields provided for aggregation purpose.");
 
-                if (CollectionUtils.isEmpty(aggregationAttributes)) {
+                if (CollectionUtils.isEmpty(aggregationAttributes) && aggregationContext.getRangeFieldName() == null) {
                     LOG.warn("There are no aggregation fields or attributes are provided. Will return empty metrics.");
 
                     return Collections.EMPTY_MAP;
@@ -179,6 +180,7 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
             solrQueryBuilder.withEntityTypes(aggregationContext.getSearchForEntityTypes())
                             .withQueryString(aggregationContext.getQueryString())
                             .withCriteria(aggregationContext.getFilterCriteria())
+                            .withClassifications(aggregationContext.getClassificationNames())
                             .withExcludedDeletedEntities(aggregationContext.isExcludeDeletedEntities())
                             .withIncludeSubTypes(aggregationContext.isIncludeSubTypes())
                             .withCommonIndexFieldNames(indexFieldNameCache);
@@ -191,8 +193,9 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
                 LOG.debug("Final query string prepared is {}", finalSolrQuery);
             }
 
-            solrQuery.setQuery(finalSolrQuery);
+            solrQuery.setQuery(StringUtils.isNotBlank(finalSolrQuery) ? finalSolrQuery : "*:*");
             solrQuery.setRequestHandler(FREETEXT_REQUEST_HANDLER);
+            solrQuery.setRows(0); // only facet counts are needed
 
             if (CollectionUtils.isNotEmpty(aggregationCommonFields)) {
                 for (String propertyName : aggregationCommonFields) {
@@ -215,27 +218,79 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
                 }
             }
 
+            if (aggregationContext.getRangeFieldName() != null) {
+                String indexFieldName = indexFieldNameCache.get(aggregationContext.getRangeFieldName());
+
+                indexFieldName2PropertyKeyNameMap.put(indexFieldName, aggregationContext.getRangeFieldName());
+
+                if (aggregationContext.getRangeBoundaries() != null) {
+                    // index has epoch milliseconds for dates, hence a facet query per bucket for buckets of varying size like calendar months
+                    for (String bucketQuery : getRangeBucketQueries(indexFieldName, aggregationContext.getRangeBoundaries())) {
+                        solrQuery.addFacetQuery(bucketQuery);
+                    }
+                } else {
+                    solrQuery.addNumericRangeFacet(indexFieldName, aggregationContext.getRangeStart(), aggregationContext.getRangeEnd(), aggregationContext.getRangeGap());
+                }
+            }
+
+            if (aggregationContext.getFacetLimit() > 0) {
+                solrQuery.setFacetLimit(aggregationContext.getFacetLimit());
+            }
+
             solrQuery.setFacetMinCount(MIN_FACET_COUNT_REQUIRED);
 
-            QueryResponse    queryResponse = solrClient.query(VERTEX_INDEX, solrQuery, SolrRequest.METHOD.POST);
-            List<FacetField> facetFields   = queryResponse == null ? null : queryResponse.getFacetFields();
+            QueryResponse        queryResponse = solrClient.query(VERTEX_INDEX, solrQuery, SolrRequest.METHOD.POST);
+            List<FacetField>     facetFields   = queryResponse == null ? null : queryResponse.getFacetFields();
+            List<RangeFacet>     facetRanges   = queryResponse == null ? null : queryResponse.getFacetRanges();
+            Map<String, Integer> facetQueries  = queryResponse == null ? null : queryResponse.getFacetQuery();
 
-            if (CollectionUtils.isNotEmpty(facetFields)) {
+            if (CollectionUtils.isNotEmpty(facetFields) || CollectionUtils.isNotEmpty(facetRanges) || MapUtils.isNotEmpty(facetQueries)) {
                 Map<String, List<AtlasAggregationEntry>> ret = new HashMap<>();
 
-                for (FacetField facetField : facetFields) {
-                    String                      indexFieldName = facetField.getName();
-                    List<AtlasAggregationEntry> entries        = new ArrayList<>(facetField.getValueCount());
-                    List<FacetField.Count>      values         = facetField.getValues();
+                if (MapUtils.isNotEmpty(facetQueries) && aggregationContext.getRangeBoundaries() != null) {
+                    String                      indexFieldName = indexFieldNameCache.get(aggregationContext.getRangeFieldName());
+                    List<Long>                  boundaries     = aggregationContext.getRangeBoundaries();
+                    List<String>                bucketQueries  = getRangeBucketQueries(indexFieldName, boundaries);
+                    List<AtlasAggregationEntry> entries        = new ArrayList<>(bucketQueries.size());
+
+                    for (int i = 0; i < bucketQueries.size(); i++) {
+                        Integer count = facetQueries.get(bucketQueries.get(i));
+
+                        if (count != null && count >= MIN_FACET_COUNT_REQUIRED) {
+                            entries.add(new AtlasAggregationEntry(String.valueOf(boundaries.get(i)), count));
+                        }
+                    }
+
+                    ret.put(aggregationContext.getRangeFieldName(), entries);
+                }
+
+                if (facetRanges != null) {
+                    for (RangeFacet<?, ?> facetRange : facetRanges) {
+                        List<AtlasAggregationEntry> entries = new ArrayList<>(facetRange.getCounts().size());
+
+                        for (RangeFacet.Count count : facetRange.getCounts()) {
+                            entries.add(new AtlasAggregationEntry(count.getValue(), count.getCount()));
+                        }
 
-                    for (FacetField.Count count : values) {
-                        entries.add(new AtlasAggregationEntry(count.getName(), count.getCount()));
+                        ret.put(indexFieldName2PropertyKeyNameMap.get(facetRange.getName()), entries);
                     }
+                }
+
+                if (facetFields != null) {
+                    for (FacetField facetField : facetFields) {
+                        String                      indexFieldName = facetField.getName();
+                        List<AtlasAggregationEntry> entries        = new ArrayList<>(facetField.getValueCount());
+                        List<FacetField.Count>      values         = facetField.getValues();
 
-                    //get the original propertyName from the index field name.
-                    String propertyKeyName = indexFieldName2PropertyKeyNameMap.get(indexFieldName);
+                        for (FacetField.Count count : values) {
+                            entries.add(new AtlasAggregationEntry(count.getName(), count.getCount()));
+                        }
 
-                    ret.put(propertyKeyName, entries);
+                        //get the original propertyName from the index field name.
+                        String propertyKeyName = indexFieldName2PropertyKeyNameMap.get(indexFieldName);
+
+                        ret.put(propertyKeyName, entries);
+                    }
                 }
 
                 return ret;
@@ -249,6 +304,17 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
         return Collections.EMPTY_MAP;
     }
 
+    @VisibleForTesting
+    static List<String> getRangeBucketQueries(String indexFieldName, List<Long> boundaries) {
+        List<String> ret = new ArrayList<>(boundaries.size());
+
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            ret.add(indexFieldName + ":[" + boundaries.get(i) + " TO " + boundaries.get(i + 1) + "}");
+        }
+
+        return ret;
+    }
+
     @Override
     public void applySuggestionFields(String collectionName, List<String> suggestionProperties) {
         SolrClient solrClient = null;
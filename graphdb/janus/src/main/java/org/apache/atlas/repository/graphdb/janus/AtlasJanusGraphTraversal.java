@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.graphdb.janus;
 
+import com.google.common.collect.Iterators;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.commons.collections.CollectionUtils;
@@ -33,6 +34,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,6 +87,13 @@ public class AtlasJanusGraphTraversal extends AtlasGraphTraversal<AtlasJanusVert
         return ret;
     }
 
+    @Override
+    public Iterator<AtlasJanusVertex> getAtlasVertexIterator() {
+        Iterator<Vertex> vertices = Iterators.filter(this, Vertex.class);
+
+        return Iterators.transform(vertices, v -> GraphDbObjectFactory.createVertex((AtlasJanusGraph) atlasGraph, v));
+    }
+
     @Override
     public Set<AtlasJanusVertex> getAtlasVertexSet() {
         Set                   set = getResultSet();
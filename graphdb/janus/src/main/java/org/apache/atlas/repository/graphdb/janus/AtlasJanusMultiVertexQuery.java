@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.janus;
+
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasMultiVertexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.janusgraph.core.JanusGraphEdge;
+import org.janusgraph.core.JanusGraphMultiVertexQuery;
+import org.janusgraph.core.JanusGraphVertex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Janus implementation of AtlasMultiVertexQuery.
+ */
+public class AtlasJanusMultiVertexQuery implements AtlasMultiVertexQuery<AtlasJanusVertex, AtlasJanusEdge> {
+
+    private final AtlasJanusGraph               graph;
+    private final JanusGraphMultiVertexQuery<?> query;
+
+    public AtlasJanusMultiVertexQuery(AtlasJanusGraph graph, JanusGraphMultiVertexQuery<?> query) {
+        this.graph = graph;
+        this.query = query;
+    }
+
+    @Override
+    public AtlasMultiVertexQuery<AtlasJanusVertex, AtlasJanusEdge> direction(AtlasEdgeDirection queryDirection) {
+        query.direction(AtlasJanusObjectFactory.createDirection(queryDirection));
+        return this;
+    }
+
+    @Override
+    public AtlasMultiVertexQuery<AtlasJanusVertex, AtlasJanusEdge> label(String label) {
+        query.labels(label);
+        return this;
+    }
+
+    @Override
+    public Map<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>, Iterable<AtlasEdge<AtlasJanusVertex, AtlasJanusEdge>>> edges() {
+        Map<JanusGraphVertex, Iterable<JanusGraphEdge>> edges = query.edges();
+
+        Map<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>, Iterable<AtlasEdge<AtlasJanusVertex, AtlasJanusEdge>>> ret = new HashMap<>(edges.size());
+
+        for (Map.Entry<JanusGraphVertex, Iterable<JanusGraphEdge>> entry : edges.entrySet()) {
+            ret.put(GraphDbObjectFactory.createVertex(graph, entry.getKey()), graph.wrapEdges(entry.getValue()));
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void prefetchProperties() {
+        // results are cached in each vertex of the transaction, and serve later property() calls on these vertices
+        query.properties();
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.graphdb.janus;
 
 import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.model.discovery.SearchParameters.Operator;
 import org.apache.atlas.model.instance.AtlasEntity;
@@ -37,6 +38,7 @@ public class AtlasSolrQueryBuilder {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasSolrQueryBuilder.class);
 
     private Set<AtlasEntityType> entityTypes;
+    private Set<String>          classificationNames;
     private String               queryString;
     private FilterCriteria       criteria;
     private boolean              excludeDeletedEntities;
@@ -55,6 +57,12 @@ public class AtlasSolrQueryBuilder {
         return this;
     }
 
+    public AtlasSolrQueryBuilder withClassifications(Set<String> classificationNames) {
+        this.classificationNames = classificationNames;
+
+        return this;
+    }
+
     public AtlasSolrQueryBuilder withQueryString(String queryString) {
         this.queryString = queryString;
 
@@ -119,6 +127,16 @@ public class AtlasSolrQueryBuilder {
             isAndNeeded = true;
         }
 
+        if (CollectionUtils.isNotEmpty(classificationNames)) {
+            if (isAndNeeded) {
+                queryBuilder.append(" AND ");
+            }
+
+            buildForClassifications(queryBuilder);
+
+            isAndNeeded = true;
+        }
+
         if (criteria != null) {
             StringBuilder attrFilterQueryBuilder = new StringBuilder();
 
@@ -158,6 +176,40 @@ public class AtlasSolrQueryBuilder {
 
     }
 
+    private void buildForClassifications(StringBuilder queryBuilder) throws AtlasBaseException {
+        String traitsIndexFieldName           = getCommonIndexFieldName(Constants.TRAIT_NAMES_PROPERTY_KEY);
+        String propagatedTraitsIndexFieldName = getCommonIndexFieldName(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY);
+
+        if (classificationNames.contains(SearchParameters.NO_CLASSIFICATIONS)) {
+            queryBuilder.append(" -").append(traitsIndexFieldName).append(":*")
+                        .append(" -").append(propagatedTraitsIndexFieldName).append(":* ");
+        } else if (classificationNames.contains(SearchParameters.ALL_CLASSIFICATIONS) ||
+                   classificationNames.contains(SearchParameters.ALL_CLASSIFICATION_TYPES) ||
+                   classificationNames.contains(SearchParameters.WILDCARD_CLASSIFICATIONS)) {
+            queryBuilder.append(" +(").append(traitsIndexFieldName).append(":* OR ")
+                        .append(propagatedTraitsIndexFieldName).append(":* ) ");
+        } else {
+            String names = StringUtils.join(classificationNames, " ");
+
+            queryBuilder.append(" +(").append(traitsIndexFieldName).append(":(").append(names).append(") OR ")
+                        .append(propagatedTraitsIndexFieldName).append(":(").append(names).append(") ) ");
+        }
+    }
+
+    private String getCommonIndexFieldName(String propertyName) throws AtlasBaseException {
+        String ret = indexFieldNameCache.get(propertyName);
+
+        if (ret == null) {
+            String msg = String.format("There is no index field name defined for attribute '%s'", propertyName);
+
+            LOG.error(msg);
+
+            throw new AtlasBaseException(msg);
+        }
+
+        return ret;
+    }
+
     private void dropDeletedEntities(StringBuilder queryBuilder) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("excluding the deleted entities.");
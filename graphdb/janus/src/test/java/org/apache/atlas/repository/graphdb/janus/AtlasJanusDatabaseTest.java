@@ -39,6 +39,7 @@ import org.testng.annotations.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -286,6 +287,29 @@ public class AtlasJanusDatabaseTest {
         assertEdgesMatch(v2.getEdges(AtlasEdgeDirection.BOTH, "delivers"));
     }
 
+    @Test
+    public <V, E> void testMultiQueryEdges() throws Exception {
+
+        AtlasGraph<V, E> graph = (AtlasGraph<V, E>) getGraph();
+        AtlasVertex<V, E> v1 = graph.addVertex();
+        AtlasVertex<V, E> v2 = graph.addVertex();
+        AtlasVertex<V, E> v3 = graph.addVertex();
+
+        AtlasEdge<V, E> knows = graph.addEdge(v2, v1, "knows");
+        AtlasEdge<V, E> eats = graph.addEdge(v3, v1, "eats");
+        AtlasEdge<V, E> knows2 = graph.addEdge(v3, v2, "knows");
+
+        Map<AtlasVertex<V, E>, Iterable<AtlasEdge<V, E>>> edges = graph.multiQuery(Arrays.asList(v1, v2, v3)).direction(AtlasEdgeDirection.IN).label("knows").edges();
+
+        assertEdgesMatch(edges.get(v1), knows);
+        assertEdgesMatch(edges.get(v2), knows2);
+        assertTrue(edges.get(v3) == null || toList(edges.get(v3)).isEmpty());
+
+        edges = graph.multiQuery(Arrays.asList(v2, v3)).direction(AtlasEdgeDirection.OUT).label("eats").edges();
+
+        assertEdgesMatch(edges.get(v3), eats);
+    }
+
     private <V, E> void assertEdgesMatch(Iterable<AtlasEdge<V, E>> edgesIt, AtlasEdge<V, E>... expected) {
         List<AtlasEdge<V, E>> edges = toList(edgesIt);
         assertEquals(expected.length, edges.size());
@@ -21,6 +21,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -120,6 +121,13 @@ public class AtlasJanusGraphIndexClientTest {
         Assert.assertEquals(generatedString, " one^10 two^1 three^15");
     }
 
+    @Test
+    public void testGetRangeBucketQueries() {
+        List<String> queries = AtlasJanusGraphIndexClient.getRangeBucketQueries("ts_l", Arrays.asList(0L, 100L, 250L));
+
+        Assert.assertEquals(queries, Arrays.asList("ts_l:[0 TO 100}", "ts_l:[100 TO 250}"));
+    }
+
     private void assertOrder(List<String> topTerms, int ... indices) {
         Assert.assertEquals(topTerms.size(), indices.length);
         int i = 0;
@@ -32,8 +32,11 @@ import org.testng.annotations.Test;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -97,6 +100,8 @@ public class AtlasSolrQueryBuilderTest {
         indexFieldNamesMap.put("created", "created__index");
         indexFieldNamesMap.put("started", "started__index");
         indexFieldNamesMap.put(Constants.ENTITY_TYPE_PROPERTY_KEY, Constants.ENTITY_TYPE_PROPERTY_KEY + "__index");
+        indexFieldNamesMap.put(Constants.TRAIT_NAMES_PROPERTY_KEY, "__traitNames_index");
+        indexFieldNamesMap.put(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY, "__propagatedTraitNames_index");
 
 
         when(hiveTableEntityTypeMock.getTypeName()).thenReturn("hive_table");
@@ -235,6 +240,28 @@ public class AtlasSolrQueryBuilderTest {
 
 
 
+    @Test
+    public void testGenerateSolrQueryStringWithClassifications() throws AtlasBaseException {
+        AtlasSolrQueryBuilder underTest = new AtlasSolrQueryBuilder();
+
+        underTest.withEntityTypes(Collections.singleton(hiveTableEntityTypeMock))
+                 .withClassifications(new LinkedHashSet<>(Arrays.asList("PII", "PII_sub")))
+                 .withCommonIndexFieldNames(indexFieldNamesMap);
+
+        Assert.assertEquals(underTest.build(), " +__typeName__index:(hive_table )  AND  +(__traitNames_index:(PII PII_sub) OR __propagatedTraitNames_index:(PII PII_sub) ) ");
+    }
+
+    @Test
+    public void testGenerateSolrQueryStringWithNotClassified() throws AtlasBaseException {
+        AtlasSolrQueryBuilder underTest = new AtlasSolrQueryBuilder();
+
+        underTest.withEntityTypes(Collections.singleton(hiveTableEntityTypeMock))
+                 .withClassifications(Collections.singleton(SearchParameters.NO_CLASSIFICATIONS))
+                 .withCommonIndexFieldNames(indexFieldNamesMap);
+
+        Assert.assertEquals(underTest.build(), " +__typeName__index:(hive_table )  AND  -__traitNames_index:* -__propagatedTraitNames_index:* ");
+    }
+
     private void validateOrder(List<String> topTerms, int ... indices) {
         Assert.assertEquals(topTerms.size(), indices.length);
         int i = 0;
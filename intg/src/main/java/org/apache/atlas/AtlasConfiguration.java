@@ -62,6 +62,13 @@ public enum AtlasConfiguration {
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
     SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100),
+    SEARCH_STREAM_PAGE_SIZE("atlas.search.stream.page.size", 1000),
+    SEARCH_STREAM_MAX_OFFSET_PAGES("atlas.search.stream.max.offset.pages", 100),
+    SEARCH_PARALLEL_INTERSECT_ENABLED("atlas.search.parallel.intersect.enabled", false),
+    SEARCH_PARALLEL_INTERSECT_THREADS("atlas.search.parallel.intersect.threads", 4),
+    SEARCH_PARALLEL_INTERSECT_MAX_IDS("atlas.search.parallel.intersect.max.ids", 5000000),
+    SEARCH_PARALLEL_INTERSECT_CACHE_MAX_IDS("atlas.search.parallel.intersect.cache.max.ids", 10000000),
+    SEARCH_PARALLEL_INTERSECT_CACHE_TTL_SECONDS("atlas.search.parallel.intersect.cache.ttl.seconds", 300),
 
     CUSTOM_ATTRIBUTE_KEY_MAX_LENGTH("atlas.custom.attribute.key.max.length", 50),
     CUSTOM_ATTRIBUTE_VALUE_MAX_LENGTH("atlas.custom.attribute.value.max.length", 500),
@@ -69,13 +76,44 @@ public enum AtlasConfiguration {
 
     LABEL_MAX_LENGTH("atlas.entity.label.max.length", 50),
     IMPORT_TEMP_DIRECTORY("atlas.import.temp.directory", ""),
+    IMPORT_STREAMING_ENABLED("atlas.import.streaming.enabled", false),   // stream entities from a spooled ZIP instead of loading all entries up-front
+    EXPORT_PARALLEL_ENABLED("atlas.export.parallel.enabled", false),
+    EXPORT_PARALLEL_THREADS("atlas.export.parallel.threads", 4),
+    EXPORT_PARALLEL_WINDOW("atlas.export.parallel.window", 500),   // max number of entities fetched ahead of the export traversal
     MIGRATION_IMPORT_START_POSITION("atlas.migration.import.start.position", 0),
     LINEAGE_USING_GREMLIN("atlas.lineage.query.use.gremlin", false),
+    LINEAGE_MAX_RELATIONS("atlas.lineage.max.relations", 10000),
+    LINEAGE_FRONTIER_BATCH_SIZE("atlas.lineage.frontier.batch.size", 500),
+    LINEAGE_CURSOR_CACHE_SIZE("atlas.lineage.cursor.cache.size", 100),
+    LINEAGE_CURSOR_TTL_SECONDS("atlas.lineage.cursor.ttl.seconds", 600),
+
+    TASKS_ENABLED("atlas.tasks.enabled", false),
+    TASKS_WORKER_COUNT("atlas.tasks.worker.count", 2),
+    TASKS_MAX_ATTEMPTS("atlas.tasks.max.attempts", 3),
+    TASKS_RETRY_DELAY_MS("atlas.tasks.retry.delay.ms", 30000),
+    TASKS_PROPAGATION_CHUNK_SIZE("atlas.tasks.propagation.chunk.size", 1000),
+
+    ENTITY_GUID_CACHE_ENABLED("atlas.entity.guid.cache.enabled", true),
+    ENTITY_GUID_CACHE_MAX_SIZE("atlas.entity.guid.cache.max.size", 100000),
+    GRAPH_FIND_BATCH_SIZE("atlas.graph.find.batch.size", 100),
+
+    ENTITY_LOCK_WAIT_TIMEOUT_MS("atlas.entity.lock.wait.timeout.ms", 0),  // 0: wait until the lock is available, or a deadlock is detected
+    ENTITY_LOCK_WAIT_WARN_INTERVAL_MS("atlas.entity.lock.wait.warn.interval.ms", 10000),
 
     HTTP_HEADER_SERVER_VALUE("atlas.http.header.server.value","Apache Atlas"),
     STORAGE_CONSISTENCY_LOCK_ENABLED("atlas.graph.storage.consistency-lock.enabled", true),
     REBUILD_INDEX("atlas.rebuild.index", false),
     STORE_DIFFERENTIAL_AUDITS("atlas.entity.audit.differential", false),
+    AUDIT_DIFFERENTIAL_KEYFRAME_INTERVAL("atlas.entity.audit.differential.keyframe.interval", 10), // full snapshot after every n differential audits; 0 to disable
+    AUDIT_DIFFERENTIAL_KEYFRAME_CACHE_SIZE("atlas.entity.audit.differential.keyframe.cache.size", 100000),
+    AUDIT_COMPRESSION_ENABLED("atlas.audit.compression.enabled", false),
+    AUDIT_COMPRESSION_MIN_SIZE("atlas.audit.compression.min.size", 1024),     // payloads smaller than this are stored uncompressed
+    AUDIT_ASYNC_WRITE_ENABLED("atlas.audit.async.write.enabled", false),
+    AUDIT_ASYNC_QUEUE_SIZE("atlas.audit.async.queue.size", 50000),   // max number of events waiting to be written
+    AUDIT_ASYNC_WRITER_THREADS("atlas.audit.async.writer.threads", 2),
+    AUDIT_ASYNC_BATCH_SIZE("atlas.audit.async.batch.size", 500),
+    AUDIT_ASYNC_WRITE_RETRIES("atlas.audit.async.write.retries", 3),
+    AUDIT_ASYNC_JOURNAL_DIR("atlas.audit.async.journal.dir", ""),     // default: ${atlas.data}/audit-journal
     DSL_EXECUTOR_TRAVERSAL("atlas.dsl.executor.traversal", true);
 
     private static final Configuration APPLICATION_PROPERTIES;
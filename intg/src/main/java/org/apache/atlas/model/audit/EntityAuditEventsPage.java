@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.model.audit;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * A page of audit events of an entity. nextCursor, when set, is passed to fetch the following page; totalCount is -1
+ * when the number of matching events is not known.
+ */
+@JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EntityAuditEventsPage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<EntityAuditEventV2> events     = new ArrayList<>();
+    private String                   nextCursor;
+    private long                     totalCount = -1;
+
+    public EntityAuditEventsPage() { }
+
+    public EntityAuditEventsPage(List<EntityAuditEventV2> events, String nextCursor, long totalCount) {
+        setEvents(events);
+        setNextCursor(nextCursor);
+        setTotalCount(totalCount);
+    }
+
+    public List<EntityAuditEventV2> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<EntityAuditEventV2> events) {
+        this.events = events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        EntityAuditEventsPage that = (EntityAuditEventsPage) o;
+
+        return totalCount == that.totalCount &&
+               Objects.equals(events, that.events) &&
+               Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(events, nextCursor, totalCount);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("EntityAuditEventsPage{");
+
+        sb.append("events=").append(events);
+        sb.append(", nextCursor='").append(nextCursor).append('\'');
+        sb.append(", totalCount=").append(totalCount);
+        sb.append('}');
+
+        return sb.toString();
+    }
+}
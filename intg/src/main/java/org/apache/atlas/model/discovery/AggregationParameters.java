@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.model.discovery;
+
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+@JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+/**
+ * Input for aggregation (facet counts) over the entities matching basic search parameters.
+ */
+public class AggregationParameters implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private SearchParameters searchParameters;
+    private Set<String>      attributes;
+    private boolean          includeClassifications;
+    private RangeParameters  range;
+    private int              limit;
+
+    /**
+     * for framework use.
+     */
+    public AggregationParameters() {
+    }
+
+    public AggregationParameters(SearchParameters searchParameters,
+                                 Set<String>      attributes,
+                                 boolean          includeClassifications,
+                                 RangeParameters  range,
+                                 int              limit) {
+        this.searchParameters       = searchParameters;
+        this.attributes             = attributes;
+        this.includeClassifications = includeClassifications;
+        this.range                  = range;
+        this.limit                  = limit;
+    }
+
+    /**
+     * @return filter for the entities to aggregate; limit, offset, sortBy and attributes are ignored
+     */
+    public SearchParameters getSearchParameters() {
+        return searchParameters;
+    }
+
+    public void setSearchParameters(SearchParameters searchParameters) {
+        this.searchParameters = searchParameters;
+    }
+
+    /**
+     * @return names of indexed attributes to count values of - like owner, or system attributes like __typeName, __state
+     */
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Set<String> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @return true to count entities by classification names, both directly added and propagated
+     */
+    public boolean getIncludeClassifications() {
+        return includeClassifications;
+    }
+
+    public void setIncludeClassifications(boolean includeClassifications) {
+        this.includeClassifications = includeClassifications;
+    }
+
+    public RangeParameters getRange() {
+        return range;
+    }
+
+    public void setRange(RangeParameters range) {
+        this.range = range;
+    }
+
+    /**
+     * @return maximum number of values returned per attribute, most frequent first; 0 to use the default
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregationParameters{" +
+                "searchParameters=" + searchParameters +
+                ", attributes=" + attributes +
+                ", includeClassifications=" + includeClassifications +
+                ", range=" + range +
+                ", limit=" + limit +
+                '}';
+    }
+
+    /**
+     * Bucketed counts over a numeric or date attribute: [start, end) in buckets of size gap. Date attributes are
+     * given in milliseconds since epoch. The attribute defaults to __timestamp, the create time of the entity.
+     * For date attributes, gapUnit MONTH or YEAR makes gap a number of calendar months or years, in UTC - for example
+     * gap 1 and gapUnit MONTH counts per month; without gapUnit, gap is in milliseconds.
+     */
+    @JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+    @JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class RangeParameters implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String attributeName;
+        private long   start;
+        private long   end;
+        private long   gap;
+        private String gapUnit;
+
+        public RangeParameters() {
+        }
+
+        public RangeParameters(String attributeName, long start, long end, long gap) {
+            this(attributeName, start, end, gap, null);
+        }
+
+        public RangeParameters(String attributeName, long start, long end, long gap, String gapUnit) {
+            this.attributeName = attributeName;
+            this.start         = start;
+            this.end           = end;
+            this.gap           = gap;
+            this.gapUnit       = gapUnit;
+        }
+
+        public String getAttributeName() {
+            return attributeName;
+        }
+
+        public void setAttributeName(String attributeName) {
+            this.attributeName = attributeName;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public void setStart(long start) {
+            this.start = start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public void setEnd(long end) {
+            this.end = end;
+        }
+
+        public long getGap() {
+            return gap;
+        }
+
+        public void setGap(long gap) {
+            this.gap = gap;
+        }
+
+        /**
+         * @return MONTH or YEAR, for calendar buckets over a date attribute; null when gap is in units of the attribute
+         */
+        public String getGapUnit() {
+            return gapUnit;
+        }
+
+        public void setGapUnit(String gapUnit) {
+            this.gapUnit = gapUnit;
+        }
+
+        @Override
+        public String toString() {
+            return "RangeParameters{" +
+                    "attributeName='" + attributeName + '\'' +
+                    ", start=" + start +
+                    ", end=" + end +
+                    ", gap=" + gap +
+                    ", gapUnit=" + gapUnit +
+                    '}';
+        }
+    }
+}
@@ -57,6 +57,7 @@ public class SearchParameters implements Serializable {
     private FilterCriteria tagFilters;
     private Set<String>    attributes;
     private SortOrder      sortOrder;
+    private String         cursor;
 
     public static final String WILDCARD_CLASSIFICATIONS = "*";
     public static final String ALL_CLASSIFICATIONS      = "_CLASSIFIED";
@@ -287,6 +288,17 @@ public class SearchParameters implements Serializable {
      */
     public void setSortOrder(SortOrder sortOrder) { this.sortOrder = sortOrder; }
 
+    /**
+     * @return Cursor returned by the previous page of this search, if any
+     */
+    public String getCursor() { return cursor; }
+
+    /**
+     * Resume the search from the position encoded in this cursor; offset is ignored when a cursor is given
+     * @param cursor nextCursor from the previous search result
+     */
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -304,13 +316,14 @@ public class SearchParameters implements Serializable {
                 Objects.equals(tagFilters, that.tagFilters) &&
                 Objects.equals(attributes, that.attributes) &&
                 Objects.equals(sortBy, that.sortBy) &&
-                Objects.equals(sortOrder, that.sortOrder);
+                Objects.equals(sortOrder, that.sortOrder) &&
+                Objects.equals(cursor, that.cursor);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(query, typeName, classification, termName, excludeDeletedEntities, includeClassificationAttributes,
-                            limit, offset, entityFilters, tagFilters, attributes, sortBy, sortOrder);
+                            limit, offset, entityFilters, tagFilters, attributes, sortBy, sortOrder, cursor);
     }
 
     public StringBuilder toString(StringBuilder sb) {
@@ -332,6 +345,7 @@ public class SearchParameters implements Serializable {
         sb.append(", attributes=").append(attributes);
         sb.append(", sortBy=").append(sortBy).append('\'');
         sb.append(", sortOrder=").append(sortOrder).append('\'');
+        sb.append(", cursor=").append(cursor);
         sb.append('}');
 
         return sb;
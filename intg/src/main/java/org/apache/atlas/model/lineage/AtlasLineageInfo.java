@@ -46,6 +46,8 @@ public class AtlasLineageInfo implements Serializable {
     private int                            lineageDepth;
     private Map<String, AtlasEntityHeader> guidEntityMap;
     private Set<LineageRelation>           relations;
+    private boolean                        hasMore;
+    private String                         continuationToken;
 
     public AtlasLineageInfo() {}
 
@@ -109,21 +111,42 @@ public class AtlasLineageInfo implements Serializable {
         this.lineageDepth = lineageDepth;
     }
 
+    /**
+     * @return true if the lineage has more relations than returned in this response; use continuationToken to get them
+     */
+    public boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AtlasLineageInfo that = (AtlasLineageInfo) o;
         return lineageDepth == that.lineageDepth &&
+                hasMore == that.hasMore &&
                 Objects.equals(baseEntityGuid, that.baseEntityGuid) &&
                 lineageDirection == that.lineageDirection &&
                 Objects.equals(guidEntityMap, that.guidEntityMap) &&
-                Objects.equals(relations, that.relations);
+                Objects.equals(relations, that.relations) &&
+                Objects.equals(continuationToken, that.continuationToken);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(baseEntityGuid, lineageDirection, lineageDepth, guidEntityMap, relations);
+        return Objects.hash(baseEntityGuid, lineageDirection, lineageDepth, guidEntityMap, relations, hasMore, continuationToken);
     }
 
     @Override
@@ -134,6 +157,8 @@ public class AtlasLineageInfo implements Serializable {
                 ", relations=" + relations +
                 ", lineageDirection=" + lineageDirection +
                 ", lineageDepth=" + lineageDepth +
+                ", hasMore=" + hasMore +
+                ", continuationToken=" + continuationToken +
                 '}';
     }
 
@@ -18,6 +18,7 @@
 package org.apache.atlas.model.notification;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
@@ -71,6 +72,16 @@ public class EntityNotification implements Serializable {
 
     public void normalize() { }
 
+    /**
+     * Key that identifies the entity this notification is about: qualifiedName of the entity, or its guid when
+     * qualifiedName is not available.
+     * @return key of the entity; null if the notification has no entity
+     */
+    @JsonIgnore
+    public String getEntityKey() {
+        return null;
+    }
+
     @Override
     public String toString() {
         return toString(new StringBuilder()).toString();
@@ -170,6 +181,24 @@ public class EntityNotification implements Serializable {
             this.eventTime = eventTime;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            final String ret;
+
+            if (entity != null) {
+                Object qualifiedName = entity.getAttribute("qualifiedName");
+
+                ret = qualifiedName != null ? qualifiedName.toString() : entity.getGuid();
+            } else if (relationship != null) {
+                ret = relationship.getGuid();
+            } else {
+                ret = null;
+            }
+
+            return ret;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) { return true; }
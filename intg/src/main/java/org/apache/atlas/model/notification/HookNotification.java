@@ -18,6 +18,7 @@
 package org.apache.atlas.model.notification;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
@@ -26,6 +27,8 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasObjectId;
 
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -50,6 +53,8 @@ public class HookNotification implements Serializable {
 
     public static final String UNKNOW_USER = "UNKNOWN";
 
+    protected static final String ATTRIBUTE_QUALIFIED_NAME = "qualifiedName";
+
     /**
      * Type of the hook message.
      */
@@ -91,11 +96,54 @@ public class HookNotification implements Serializable {
 
     public void normalize() { }
 
+    /**
+     * Key that identifies the primary entity of this message: typeName:qualifiedName of the first entity, or its guid
+     * when qualifiedName is not available - see getEntityKey(typeName, qualifiedName, guid). Messages with the same key
+     * update the same entity and must be processed in order.
+     * @return key of the primary entity; null if the message has no entity
+     */
+    @JsonIgnore
+    public String getEntityKey() {
+        return null;
+    }
+
     @Override
     public String toString() {
         return toString(new StringBuilder()).toString();
     }
 
+    /**
+     * @return key of an entity: typeName:qualifiedName, or its guid when qualifiedName is not available; null for an
+     *         unassigned (negative) guid, as it is local to a message
+     */
+    public static String getEntityKey(String typeName, Object qualifiedName, String guid) {
+        String ret = null;
+
+        if (qualifiedName != null) {
+            ret = typeName + ":" + qualifiedName;
+        } else if (StringUtils.isNotEmpty(guid) && guid.charAt(0) != '-') {
+            ret = guid;
+        }
+
+        return ret;
+    }
+
+    protected static String getEntityKey(AtlasEntity entity) {
+        return entity != null ? getEntityKey(entity.getTypeName(), entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME), entity.getGuid()) : null;
+    }
+
+    protected static String getEntityKey(AtlasObjectId objId) {
+        String ret = null;
+
+        if (objId != null) {
+            Object qualifiedName = MapUtils.isNotEmpty(objId.getUniqueAttributes()) ? objId.getUniqueAttributes().get(ATTRIBUTE_QUALIFIED_NAME) : null;
+
+            ret = getEntityKey(objId.getTypeName(), qualifiedName, objId.getGuid());
+        }
+
+        return ret;
+    }
+
     public StringBuilder toString(StringBuilder sb) {
         if (sb == null) {
             sb = new StringBuilder();
@@ -130,6 +178,12 @@ public class HookNotification implements Serializable {
             return entities;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return entities != null && CollectionUtils.isNotEmpty(entities.getEntities()) ? getEntityKey(entities.getEntities().get(0)) : null;
+        }
+
         @Override
         public String toString() {
             return entities == null ? "null" : entities.toString();
@@ -157,6 +211,12 @@ public class HookNotification implements Serializable {
             return entities;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return entities != null && CollectionUtils.isNotEmpty(entities.getEntities()) ? getEntityKey(entities.getEntities().get(0)) : null;
+        }
+
         @Override
         public String toString() {
             return entities == null ? "null" : entities.toString();
@@ -190,6 +250,18 @@ public class HookNotification implements Serializable {
             return entity;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            String ret = getEntityKey(entityId);
+
+            if (ret == null && entity != null) {
+                ret = getEntityKey(entity.getEntity());
+            }
+
+            return ret;
+        }
+
         @Override
         public String toString() {
             return "entityId=" + entityId + "; entity=" + entity;
@@ -217,6 +289,12 @@ public class HookNotification implements Serializable {
             return entities;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return CollectionUtils.isNotEmpty(entities) ? getEntityKey(entities.get(0)) : null;
+        }
+
         @Override
         public String toString() {
             return entities == null ? "null" : entities.toString();
@@ -51,6 +51,7 @@ public class AtlasTypeRegistry {
     private static final int    DEFAULT_LOCK_MAX_WAIT_TIME_IN_SECONDS = 15;
 
     protected       RegistryData                   registryData;
+    private volatile long                          version; // incremented, under update lock, on every commit of type updates
     private   final TypeRegistryUpdateSynchronizer updateSynchronizer;
     private   final Set<String>                    missingRelationshipDefs;
     private   final Map<String, String>            commonIndexFieldNameCache;
@@ -76,6 +77,11 @@ public class AtlasTypeRegistry {
         resolveIndexFieldNamesForRootTypes();
     }
 
+    /**
+     * @return number of type updates committed to this registry; can be used to invalidate data derived from types
+     */
+    public long getVersion() { return version; }
+
     public Collection<String> getAllTypeNames() { return registryData.allTypes.getAllTypeNames(); }
 
     public Collection<AtlasType> getAllTypes() { return registryData.allTypes.getAllTypes(); }
@@ -999,6 +1005,7 @@ public class AtlasTypeRegistry {
                             copyIndexNameFromCurrent(ttr.getAllBusinessMetadataTypes());
 
                             typeRegistry.registryData = ttr.registryData;
+                            typeRegistry.version++;
                         }
                     }
 
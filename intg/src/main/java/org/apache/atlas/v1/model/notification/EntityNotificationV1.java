@@ -127,6 +127,24 @@ public class EntityNotificationV1 extends EntityNotification implements Serializ
         this.traits = traits;
     }
 
+    @JsonIgnore
+    @Override
+    public String getEntityKey() {
+        String ret = null;
+
+        if (entity != null) {
+            Object qualifiedName = entity.get("qualifiedName");
+
+            if (qualifiedName != null) {
+                ret = qualifiedName.toString();
+            } else if (entity.getId() != null) {
+                ret = entity.getId()._getId();
+            }
+        }
+
+        return ret;
+    }
+
     @JsonIgnore
     public List<Struct> getAllTraits() {
         return traits;
@@ -18,6 +18,7 @@
 package org.apache.atlas.v1.model.notification;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
@@ -25,6 +26,7 @@ import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.model.typedef.AtlasBaseTypeDef;
 import org.apache.atlas.v1.model.instance.Referenceable;
 import org.apache.atlas.v1.model.typedef.TypesDef;
+import org.apache.commons.collections.CollectionUtils;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -41,6 +43,22 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  */
 public class HookNotificationV1 {
 
+    private static final String ATTRIBUTE_QUALIFIED_NAME = "qualifiedName";
+
+    private static String getKey(Referenceable entity) {
+        String ret = null;
+
+        if (entity != null) {
+            ret = HookNotification.getEntityKey(entity.getTypeName(), entity.get(ATTRIBUTE_QUALIFIED_NAME), entity.getId() != null ? entity.getId()._getId() : null);
+        }
+
+        return ret;
+    }
+
+    private static String getKey(String typeName, String attribute, String attributeValue) {
+        return ATTRIBUTE_QUALIFIED_NAME.equals(attribute) ? HookNotification.getEntityKey(typeName, attributeValue, null) : null;
+    }
+
     /**
      * Hook message for create type definitions.
      */
@@ -126,6 +144,12 @@ public class HookNotificationV1 {
             this.entities = entities;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return CollectionUtils.isNotEmpty(entities) ? getKey(entities.get(0)) : null;
+        }
+
         @Override
         public void normalize() {
             super.normalize();
@@ -247,6 +271,12 @@ public class HookNotificationV1 {
             this.attributeValue = attributeValue;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return getKey(typeName, attribute, attributeValue);
+        }
+
         public Referenceable getEntity() {
             return entity;
         }
@@ -339,6 +369,12 @@ public class HookNotificationV1 {
             this.attributeValue = attributeValue;
         }
 
+        @JsonIgnore
+        @Override
+        public String getEntityKey() {
+            return getKey(typeName, attribute, attributeValue);
+        }
+
         @Override
         public StringBuilder toString(StringBuilder sb) {
             if (sb == null) {
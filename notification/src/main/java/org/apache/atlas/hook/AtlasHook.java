@@ -24,8 +24,10 @@ import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasConstants;
 import org.apache.atlas.kafka.NotificationProvider;
 import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.AbstractNotification;
 import org.apache.atlas.notification.NotificationException;
 import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.notification.spool.AtlasFileSpool;
 import org.apache.atlas.utils.AtlasConfigurationUtil;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.StringUtils;
@@ -34,11 +36,17 @@ import org.apache.hadoop.util.ShutdownHookManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.security.PrivilegedExceptionAction;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -54,6 +62,7 @@ public abstract class AtlasHook {
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_MAX_THREADS        = "atlas.notification.hook.asynchronous.maxThreads";
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_KEEP_ALIVE_TIME_MS = "atlas.notification.hook.asynchronous.keepAliveTimeMs";
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_SIZE         = "atlas.notification.hook.asynchronous.queueSize";
+    public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY  = "atlas.notification.hook.asynchronous.queueFullPolicy";
     public static final String ATLAS_NOTIFICATION_MAX_RETRIES                     = "atlas.notification.hook.retry.maxRetries";
     public static final String ATLAS_NOTIFICATION_RETRY_INTERVAL                  = "atlas.notification.hook.retry.interval";
     public static final String ATLAS_NOTIFICATION_FAILED_MESSAGES_FILENAME_KEY    = "atlas.notification.failed.messages.filename";
@@ -62,17 +71,29 @@ public abstract class AtlasHook {
     public static final String CONF_METADATA_NAMESPACE                            = "atlas.metadata.namespace";
     public static final String CLUSTER_NAME_KEY                                   = "atlas.cluster.name";
     public static final String DEFAULT_CLUSTER_NAME                               = "primary";
+    public static final String NOTIFICATION_METRICS_MBEAN_NAME                    = "org.apache.atlas:type=HookNotifications";
 
     protected static Configuration         atlasProperties;
     protected static NotificationInterface notificationInterface;
 
-    private static final String               metadataNamespace;
-    private static final int                  SHUTDOWN_HOOK_WAIT_TIME_MS = 3000;
-    private static final boolean              logFailedMessages;
-    private static final FailedMessagesLogger failedMessagesLogger;
-    private static final int                  notificationMaxRetries;
-    private static final int                  notificationRetryInterval;
-    private static       ExecutorService      executor = null;
+    private static final String                  metadataNamespace;
+    private static final int                     SHUTDOWN_HOOK_WAIT_TIME_MS = 3000;
+    private static final int                     BLOCK_RETRY_INTERVAL_MS    = 1000;
+    private static final boolean                 logFailedMessages;
+    private static final FailedMessagesLogger    failedMessagesLogger;
+    private static final int                     notificationMaxRetries;
+    private static final int                     notificationRetryInterval;
+    private static final HookNotificationMetrics notificationMetrics = new HookNotificationMetrics();
+    private static       ExecutorService         executor = null;
+
+    /**
+     * What to do with a notification when the queue of the asynchronous send path is full.
+     */
+    public enum QueueFullPolicy {
+        BLOCK, // wait for space in the queue
+        SPOOL, // write the notification to the file spool; it will be published by the spool publisher later
+        FAIL   // drop the notification; it will be written to failed messages log, if enabled
+    }
 
 
     static {
@@ -116,9 +137,19 @@ public abstract class AtlasHook {
             long keepAliveTimeMs = atlasProperties.getLong(ATLAS_NOTIFICATION_ASYNCHRONOUS_KEEP_ALIVE_TIME_MS, 10000);
             int  queueSize       = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_SIZE, 10000);
 
-            executor = new ThreadPoolExecutor(minThreads, maxThreads, keepAliveTimeMs, TimeUnit.MILLISECONDS,
-                                              new LinkedBlockingDeque<>(queueSize),
-                                              new ThreadFactoryBuilder().setNameFormat("Atlas Notifier %d").setDaemon(true).build());
+            QueueFullPolicy queueFullPolicy = getQueueFullPolicy(atlasProperties);
+
+            LOG.info("{}={}", ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, queueFullPolicy);
+
+            LinkedBlockingDeque<Runnable> queue = new LinkedBlockingDeque<>(queueSize);
+
+            notificationMetrics.setQueue(queue);
+
+            registerNotificationMetrics(notificationMetrics, NOTIFICATION_METRICS_MBEAN_NAME);
+
+            executor = new ThreadPoolExecutor(minThreads, maxThreads, keepAliveTimeMs, TimeUnit.MILLISECONDS, queue,
+                                              new ThreadFactoryBuilder().setNameFormat("Atlas Notifier %d").setDaemon(true).build(),
+                                              new QueueFullHandler(queueFullPolicy, notificationInterface, logFailedMessages, failedMessagesLogger, notificationMetrics));
 
             ShutdownHookManager.get().addShutdownHook(new Thread() {
                 @Override
@@ -133,6 +164,7 @@ public abstract class AtlasHook {
                     } catch (InterruptedException excp) {
                         LOG.info("Interrupt received in shutdown.", excp);
                     } finally {
+                        LOG.info("Atlas Hook notifications: {}", notificationMetrics);
                         LOG.info("<== Shutdown of Atlas Hook");
                     }
                 }
@@ -156,6 +188,9 @@ public abstract class AtlasHook {
      * complex entity with reference to other entities.
      * De-duping of entities is done on server side depending on the
      * unique attribute on the entities.
+     * With atlas.notification.message.key.enabled set to true (default: false), each message is sent with the key of
+     * its primary entity (see HookNotification.getEntityKey()), so that messages for an entity are delivered to the
+     * same partition, in order; otherwise messages are sent without a key.
      *
      * @param messages   hook notification messages
      * @param maxRetries maximum number of retries while sending message to messaging system
@@ -164,21 +199,46 @@ public abstract class AtlasHook {
         if (executor == null) { // send synchronously
             notifyEntitiesInternal(messages, maxRetries, ugi, notificationInterface, logFailedMessages, failedMessagesLogger);
         } else {
-            executor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    notifyEntitiesInternal(messages, maxRetries, ugi, notificationInterface, logFailedMessages, failedMessagesLogger);
-                }
-            });
+            NotificationTask task = new NotificationTask(messages, ugi, maxRetries, notificationMetrics);
+
+            executor.execute(task);
+
+            if (task.isQueued()) { // not spooled or dropped by QueueFullHandler
+                notificationMetrics.onQueued();
+            }
+        }
+    }
+
+    /**
+     * Returns metrics of the asynchronous send path - queue depth, send latency and counts of sent/failed/spooled/rejected notifications.
+     */
+    public static HookNotificationMetrics getNotificationMetrics() {
+        return notificationMetrics;
+    }
+
+    /**
+     * Publishes the metrics over JMX, hence through the JMX/metrics endpoints of the process that runs the hook.
+     */
+    @VisibleForTesting
+    static void registerNotificationMetrics(HookNotificationMetricsMBean metrics, String mbeanName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(mbeanName));
+
+            LOG.info("Registered hook notification metrics as MBean {}", mbeanName);
+        } catch (InstanceAlreadyExistsException excp) {
+            // AtlasHook loaded by another class loader in this process, like that of another hook
+            LOG.warn("MBean {} is already registered; notification metrics of this hook will not be published", mbeanName);
+        } catch (JMException excp) {
+            LOG.warn("Failed to register MBean {}", mbeanName, excp);
         }
     }
 
     @VisibleForTesting
-    static void notifyEntitiesInternal(List<HookNotification> messages, int maxRetries, UserGroupInformation ugi,
-                                       NotificationInterface notificationInterface,
-                                       boolean shouldLogFailedMessages, FailedMessagesLogger logger) {
+    static boolean notifyEntitiesInternal(List<HookNotification> messages, int maxRetries, UserGroupInformation ugi,
+                                          NotificationInterface notificationInterface,
+                                          boolean shouldLogFailedMessages, FailedMessagesLogger logger) {
         if (messages == null || messages.isEmpty()) {
-            return;
+            return true;
         }
 
         final int maxAttempts         = maxRetries < 1 ? 1 : maxRetries;
@@ -233,6 +293,8 @@ public abstract class AtlasHook {
 
             LOG.error("Giving up after {} failed attempts to send notification to Atlas: {}", maxAttempts, messages.toString(), notificationFailure);
         }
+
+        return notificationFailure == null;
     }
 
     /**
@@ -291,6 +353,19 @@ public abstract class AtlasHook {
         }
     }
 
+    @VisibleForTesting
+    static QueueFullPolicy getQueueFullPolicy(Configuration config) {
+        String policy = config.getString(ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, QueueFullPolicy.FAIL.name());
+
+        try {
+            return QueueFullPolicy.valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException excp) {
+            LOG.warn("{}: invalid value {}. Using {}", ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, policy, QueueFullPolicy.FAIL);
+
+            return QueueFullPolicy.FAIL;
+        }
+    }
+
     private static String getMetadataNamespace(Configuration config) {
         return AtlasConfigurationUtil.getRecentString(config, CONF_METADATA_NAMESPACE, getClusterName(config));
     }
@@ -302,4 +377,165 @@ public abstract class AtlasHook {
     public String getMetadataNamespace() {
         return metadataNamespace;
     }
-}
\ No newline at end of file
+
+    static class NotificationTask implements Runnable {
+        private final List<HookNotification>  messages;
+        private final UserGroupInformation    ugi;
+        private final int                     maxRetries;
+        private final HookNotificationMetrics metrics;
+        private final long                    queuedTime = System.currentTimeMillis();
+        private volatile boolean              isQueued   = true;
+
+        NotificationTask(List<HookNotification> messages, UserGroupInformation ugi, int maxRetries, HookNotificationMetrics metrics) {
+            this.messages   = messages;
+            this.ugi        = ugi;
+            this.maxRetries = maxRetries;
+            this.metrics    = metrics;
+        }
+
+        public List<HookNotification> getMessages() {
+            return messages;
+        }
+
+        public UserGroupInformation getUgi() {
+            return ugi;
+        }
+
+        boolean isQueued() {
+            return isQueued;
+        }
+
+        void setQueued(boolean isQueued) {
+            this.isQueued = isQueued;
+        }
+
+        @Override
+        public void run() {
+            long    startTime = System.currentTimeMillis();
+            boolean isSuccess = false;
+
+            try {
+                isSuccess = notifyEntitiesInternal(messages, maxRetries, ugi, notificationInterface, logFailedMessages, failedMessagesLogger);
+            } finally {
+                metrics.onSendComplete(isSuccess, startTime - queuedTime, System.currentTimeMillis() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Handles notifications that can't be queued, as the queue of the asynchronous send path is full, as per the configured QueueFullPolicy.
+     * With FAIL policy, and with SPOOL policy when the spool is not available, the messages are written to the failed messages
+     * log and RejectedExecutionException is thrown to the caller.
+     */
+    @VisibleForTesting
+    static class QueueFullHandler implements RejectedExecutionHandler {
+        private final QueueFullPolicy         policy;
+        private final NotificationInterface   notificationInterface;
+        private final boolean                 shouldLogFailedMessages;
+        private final FailedMessagesLogger    failedMessagesLogger;
+        private final HookNotificationMetrics metrics;
+
+        QueueFullHandler(QueueFullPolicy policy, NotificationInterface notificationInterface, boolean shouldLogFailedMessages, FailedMessagesLogger failedMessagesLogger, HookNotificationMetrics metrics) {
+            this.policy                  = policy;
+            this.notificationInterface   = notificationInterface;
+            this.shouldLogFailedMessages = shouldLogFailedMessages;
+            this.failedMessagesLogger    = failedMessagesLogger;
+            this.metrics                 = metrics;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (!(r instanceof NotificationTask)) {
+                throw new RejectedExecutionException("Task " + r + " rejected from " + executor);
+            }
+
+            NotificationTask task = (NotificationTask) r;
+
+            if (executor.isShutdown()) {
+                reject(task, "notifier is shutdown");
+
+                return;
+            }
+
+            switch (policy) {
+                case BLOCK:
+                    try {
+                        metrics.onBlocked();
+
+                        // wait for space in the queue, unless the notifier is shutdown - as its workers might exit before the task is queued
+                        while (!executor.getQueue().offer(task, BLOCK_RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                            if (executor.isShutdown()) {
+                                reject(task, "notifier is shutdown");
+
+                                return;
+                            }
+                        }
+
+                        if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                            reject(task, "notifier is shutdown");
+                        }
+                    } catch (InterruptedException excp) {
+                        Thread.currentThread().interrupt();
+
+                        reject(task, "interrupted while waiting for space in notification queue");
+                    }
+                break;
+
+                case SPOOL:
+                    if (spool(task)) {
+                        task.setQueued(false);
+
+                        metrics.onSpooled();
+                    } else {
+                        fail(task, executor, "notification queue is full and spool is not available");
+                    }
+                break;
+
+                case FAIL:
+                default:
+                    fail(task, executor, "notification queue is full");
+                break;
+            }
+        }
+
+        private boolean spool(NotificationTask task) {
+            if (!(notificationInterface instanceof AtlasFileSpool)) {
+                return false;
+            }
+
+            AtlasFileSpool spool = (AtlasFileSpool) notificationInterface;
+
+            try {
+                if (task.getUgi() == null) {
+                    return spool.spool(NotificationInterface.NotificationType.HOOK, task.getMessages());
+                } else {
+                    return task.getUgi().doAs((PrivilegedExceptionAction<Boolean>) () -> spool.spool(NotificationInterface.NotificationType.HOOK, task.getMessages()));
+                }
+            } catch (Exception excp) {
+                LOG.error("Failed to spool notification: {}", task.getMessages(), excp);
+
+                return false;
+            }
+        }
+
+        private void fail(NotificationTask task, ThreadPoolExecutor executor, String reason) {
+            reject(task, reason);
+
+            throw new RejectedExecutionException("Task " + task + " rejected from " + executor + ": " + reason);
+        }
+
+        private void reject(NotificationTask task, String reason) {
+            task.setQueued(false);
+
+            metrics.onRejected();
+
+            LOG.error("Dropping notification, {}: {}", reason, task.getMessages());
+
+            if (shouldLogFailedMessages && failedMessagesLogger != null) {
+                for (HookNotification message : task.getMessages()) {
+                    failedMessagesLogger.log(AbstractNotification.getMessageJson(message));
+                }
+            }
+        }
+    }
+}
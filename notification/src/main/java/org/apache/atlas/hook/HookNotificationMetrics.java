@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for notifications sent by hooks through the asynchronous send path of AtlasHook. Published over JMX - see
+ * HookNotificationMetricsMBean.
+ */
+public class HookNotificationMetrics implements HookNotificationMetricsMBean {
+    private final AtomicLong    queuedCount    = new AtomicLong();
+    private final AtomicLong    sentCount      = new AtomicLong();
+    private final AtomicLong    failedCount    = new AtomicLong();
+    private final AtomicLong    spooledCount   = new AtomicLong();
+    private final AtomicLong    rejectedCount  = new AtomicLong();
+    private final AtomicLong    blockedCount   = new AtomicLong();
+    private final AtomicLong    totalQueueTime = new AtomicLong();
+    private final AtomicLong    totalSendTime  = new AtomicLong();
+    private final AtomicLong    maxSendTime    = new AtomicLong();
+    private volatile BlockingQueue<?> queue;
+
+    void setQueue(BlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    void onQueued() {
+        queuedCount.incrementAndGet();
+    }
+
+    void onBlocked() {
+        blockedCount.incrementAndGet();
+    }
+
+    void onSpooled() {
+        spooledCount.incrementAndGet();
+    }
+
+    void onRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    void onSendComplete(boolean isSuccess, long queueTimeMs, long sendTimeMs) {
+        if (isSuccess) {
+            sentCount.incrementAndGet();
+        } else {
+            failedCount.incrementAndGet();
+        }
+
+        totalQueueTime.addAndGet(queueTimeMs);
+        totalSendTime.addAndGet(sendTimeMs);
+        maxSendTime.accumulateAndGet(sendTimeMs, Math::max);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        BlockingQueue<?> queue = this.queue;
+
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    public int getQueueRemainingCapacity() {
+        BlockingQueue<?> queue = this.queue;
+
+        return queue != null ? queue.remainingCapacity() : 0;
+    }
+
+    @Override
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    @Override
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public long getSpooledCount() {
+        return spooledCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    @Override
+    public long getAvgQueueTimeMs() {
+        long count = sentCount.get() + failedCount.get();
+
+        return count > 0 ? totalQueueTime.get() / count : 0;
+    }
+
+    @Override
+    public long getAvgSendTimeMs() {
+        long count = sentCount.get() + failedCount.get();
+
+        return count > 0 ? totalSendTime.get() / count : 0;
+    }
+
+    @Override
+    public long getMaxSendTimeMs() {
+        return maxSendTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HookNotificationMetrics{" +
+                "queueDepth=" + getQueueDepth() +
+                ", queued=" + getQueuedCount() +
+                ", sent=" + getSentCount() +
+                ", failed=" + getFailedCount() +
+                ", spooled=" + getSpooledCount() +
+                ", rejected=" + getRejectedCount() +
+                ", blocked=" + getBlockedCount() +
+                ", avgQueueTimeMs=" + getAvgQueueTimeMs() +
+                ", avgSendTimeMs=" + getAvgSendTimeMs() +
+                ", maxSendTimeMs=" + getMaxSendTimeMs() +
+                '}';
+    }
+}
@@ -247,21 +247,33 @@ public class KafkaNotification extends AbstractNotification implements Service {
     // ----- AbstractNotification --------------------------------------------
     @Override
     public void sendInternal(NotificationType notificationType, List<String> messages) throws NotificationException {
+        sendInternal(notificationType, messages, null);
+    }
+
+    @Override
+    public void sendInternal(NotificationType notificationType, List<String> messages, List<String> msgKeys) throws NotificationException {
         KafkaProducer producer = getOrCreateProducer(notificationType);
 
-        sendInternalToProducer(producer, notificationType, messages);
+        sendInternalToProducer(producer, notificationType, messages, msgKeys);
     }
 
     @VisibleForTesting
     void sendInternalToProducer(Producer p, NotificationType notificationType, List<String> messages) throws NotificationException {
+        sendInternalToProducer(p, notificationType, messages, null);
+    }
+
+    @VisibleForTesting
+    void sendInternalToProducer(Producer p, NotificationType notificationType, List<String> messages, List<String> msgKeys) throws NotificationException {
         String               topic           = PRODUCER_TOPIC_MAP.get(notificationType);
         List<MessageContext> messageContexts = new ArrayList<>();
 
-        for (String message : messages) {
-            ProducerRecord record = new ProducerRecord(topic, message);
+        for (int i = 0; i < messages.size(); i++) {
+            String         message = messages.get(i);
+            String         msgKey  = msgKeys != null && msgKeys.size() > i ? msgKeys.get(i) : null;
+            ProducerRecord record  = new ProducerRecord(topic, msgKey, message);
 
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Sending message for topic {}: {}", topic, message);
+                LOG.debug("Sending message for topic {}, key {}: {}", topic, msgKey, message);
             }
 
             Future future = p.send(record);
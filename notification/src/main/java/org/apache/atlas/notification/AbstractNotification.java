@@ -22,6 +22,8 @@ import org.apache.atlas.AtlasException;
 import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
 import org.apache.atlas.model.notification.AtlasNotificationMessage;
 import org.apache.atlas.model.notification.AtlasNotificationStringMessage;
+import org.apache.atlas.model.notification.EntityNotification;
+import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.model.notification.AtlasNotificationBaseMessage.CompressionKind;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.model.notification.MessageVersion;
@@ -57,6 +59,8 @@ public abstract class AbstractNotification implements NotificationInterface {
 
     public static final int MAX_BYTES_PER_CHAR = 4;  // each char can encode upto 4 bytes in UTF-8
 
+    public static final String PROPERTY_MESSAGE_KEY_ENABLED = PROPERTY_PREFIX + ".message.key.enabled";
+
     /**
      * IP address of the host in which this process has started
      */
@@ -67,13 +71,22 @@ public abstract class AbstractNotification implements NotificationInterface {
      */
     private static String currentUser = "";
 
+    /**
+     * when enabled, messages are sent with the key of their primary entity, so that messages for an entity are delivered in order.
+     * Disabled by default: enabling it changes the partition of messages, hence messages sent before and after the change
+     * can be consumed out of order; enable it only after consumers have processed messages already sent.
+     */
+    private final boolean isMessageKeyEnabled;
+
     // ----- Constructors ----------------------------------------------------
 
     public AbstractNotification(Configuration applicationProperties) throws AtlasException {
+        this.isMessageKeyEnabled = applicationProperties != null && applicationProperties.getBoolean(PROPERTY_MESSAGE_KEY_ENABLED, false);
     }
 
     @VisibleForTesting
     protected AbstractNotification() {
+        this.isMessageKeyEnabled = false;
     }
 
     @Override
@@ -85,12 +98,25 @@ public abstract class AbstractNotification implements NotificationInterface {
     @Override
     public <T> void send(NotificationType type, List<T> messages) throws NotificationException {
         List<String> strMessages = new ArrayList<>(messages.size());
+        List<String> msgKeys     = isMessageKeyEnabled ? new ArrayList<>(messages.size()) : null;
 
         for (int index = 0; index < messages.size(); index++) {
-            createNotificationMessages(messages.get(index), strMessages);
+            T   message  = messages.get(index);
+            int msgCount = strMessages.size();
+
+            createNotificationMessages(message, strMessages);
+
+            if (msgKeys != null) {
+                String msgKey = getMessageKey(message);
+
+                // split messages share the key of the original message, so that all splits are sent to the same partition
+                for (int i = msgCount; i < strMessages.size(); i++) {
+                    msgKeys.add(msgKey);
+                }
+            }
         }
 
-        sendInternal(type, strMessages);
+        sendInternal(type, strMessages, msgKeys);
     }
 
     @Override
@@ -114,6 +140,19 @@ public abstract class AbstractNotification implements NotificationInterface {
      */
     public abstract void sendInternal(NotificationType type, List<String> messages) throws NotificationException;
 
+    /**
+     * Send the given messages with the given keys. Implementations that don't support message keys ignore them.
+     *
+     * @param type      the message type
+     * @param messages  the array of messages to send
+     * @param msgKeys   keys of the messages, in the same order as messages; null if messages don't have keys
+     *
+     * @throws NotificationException if an error occurs while sending
+     */
+    public void sendInternal(NotificationType type, List<String> messages, List<String> msgKeys) throws NotificationException {
+        sendInternal(type, messages);
+    }
+
 
     // ----- utility methods -------------------------------------------------
 
@@ -123,6 +162,28 @@ public abstract class AbstractNotification implements NotificationInterface {
         return AtlasType.toV1Json(notificationMsg);
     }
 
+    /**
+     * Get the key for the given message: key of the primary entity of the message - see HookNotification.getEntityKey()
+     * and EntityNotification.getEntityKey().
+     *
+     * @param message  the message in object form
+     *
+     * @return key of the message; null if the message doesn't have a primary entity
+     */
+    public static String getMessageKey(Object message) {
+        final String ret;
+
+        if (message instanceof HookNotification) {
+            ret = ((HookNotification) message).getEntityKey();
+        } else if (message instanceof EntityNotification) {
+            ret = ((EntityNotification) message).getEntityKey();
+        } else {
+            ret = null;
+        }
+
+        return ret;
+    }
+
     private static String getHostAddress() {
         if (StringUtils.isEmpty(localHostAddress)) {
             try {
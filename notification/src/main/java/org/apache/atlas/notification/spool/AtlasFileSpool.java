@@ -130,6 +130,26 @@ public class AtlasFileSpool implements NotificationInterface {
         }
     }
 
+    /**
+     * Writes the messages to the spool, bypassing the notification handler. Spooled messages are sent by the publisher
+     * once the destination is available.
+     *
+     * @return false if the spool is not initialized
+     */
+    public <T> boolean spool(NotificationType type, List<T> messages) throws NotificationException {
+        if (!hasInitSucceeded()) {
+            return false;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("AtlasFileSpool.spool(): sending to spooler");
+        }
+
+        spooler.send(type, messages);
+
+        return true;
+    }
+
     @Override
     public void close() {
         try {
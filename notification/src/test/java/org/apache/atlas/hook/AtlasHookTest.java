@@ -22,19 +22,36 @@ import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.notification.NotificationException;
 import org.apache.atlas.notification.NotificationInterface;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
 
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 
 public class AtlasHookTest {
@@ -131,4 +148,130 @@ public class AtlasHookTest {
 
         verifyZeroInteractions(failedMessagesLogger);
     }
+
+    @Test
+    public void testQueueFullPolicyFailLogsMessages() throws Exception {
+        HookNotificationMetrics metrics  = new HookNotificationMetrics();
+        ThreadPoolExecutor      executor = createBlockedExecutor(new AtlasHook.QueueFullHandler(AtlasHook.QueueFullPolicy.FAIL, notificationInterface, true, failedMessagesLogger, metrics));
+
+        AtlasHook.NotificationTask task = new AtlasHook.NotificationTask(Arrays.asList(new EntityCreateRequest("user")), null, 1, metrics);
+
+        try {
+            executor.execute(task);
+
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException excp) {
+            assertFalse(task.isQueued());
+            assertEquals(metrics.getRejectedCount(), 1);
+            verify(failedMessagesLogger, times(1)).log(anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueueFullPolicySpoolWithoutSpoolRejects() throws Exception {
+        HookNotificationMetrics metrics  = new HookNotificationMetrics();
+        ThreadPoolExecutor      executor = createBlockedExecutor(new AtlasHook.QueueFullHandler(AtlasHook.QueueFullPolicy.SPOOL, notificationInterface, false, failedMessagesLogger, metrics));
+
+        try {
+            executor.execute(new AtlasHook.NotificationTask(Arrays.asList(new EntityCreateRequest("user")), null, 1, metrics));
+
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException excp) {
+            assertEquals(metrics.getSpooledCount(), 0);
+            assertEquals(metrics.getRejectedCount(), 1);
+            verifyZeroInteractions(failedMessagesLogger);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueueFullPolicyBlockRejectsOnShutdown() throws Exception {
+        HookNotificationMetrics    metrics  = new HookNotificationMetrics();
+        ThreadPoolExecutor         executor = createBlockedExecutor(new AtlasHook.QueueFullHandler(AtlasHook.QueueFullPolicy.BLOCK, notificationInterface, true, failedMessagesLogger, metrics));
+        AtlasHook.NotificationTask task     = new AtlasHook.NotificationTask(Arrays.asList(new EntityCreateRequest("user")), null, 1, metrics);
+        Thread                     caller   = new Thread(() -> executor.execute(task));
+
+        caller.start();
+
+        // caller is blocked until the executor is shutdown
+        caller.join(500);
+        assertTrue(caller.isAlive());
+
+        executor.shutdownNow();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertFalse(task.isQueued());
+        assertEquals(metrics.getBlockedCount(), 1);
+        assertEquals(metrics.getRejectedCount(), 1);
+        verify(failedMessagesLogger, times(1)).log(anyString());
+    }
+
+    @Test
+    public void testNotificationMetricsPublishedOverJmx() throws Exception {
+        HookNotificationMetrics metrics   = new HookNotificationMetrics();
+        String                  mbeanName = "org.apache.atlas:type=HookNotificationsTest";
+        ObjectName              name      = new ObjectName(mbeanName);
+        MBeanServer             server    = ManagementFactory.getPlatformMBeanServer();
+
+        AtlasHook.registerNotificationMetrics(metrics, mbeanName);
+
+        try {
+            metrics.onQueued();
+            metrics.onSendComplete(true, 5, 10);
+
+            assertEquals(server.getAttribute(name, "QueuedCount"), 1L);
+            assertEquals(server.getAttribute(name, "SentCount"), 1L);
+            assertEquals(server.getAttribute(name, "MaxSendTimeMs"), 10L);
+
+            // registering again, as by another class loader, is logged and ignored
+            AtlasHook.registerNotificationMetrics(new HookNotificationMetrics(), mbeanName);
+
+            assertEquals(server.getAttribute(name, "QueuedCount"), 1L);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void testQueueFullPolicy() {
+        Configuration configuration = new PropertiesConfiguration();
+
+        assertEquals(AtlasHook.getQueueFullPolicy(configuration), AtlasHook.QueueFullPolicy.FAIL);
+
+        configuration.setProperty(AtlasHook.ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, "block");
+        assertEquals(AtlasHook.getQueueFullPolicy(configuration), AtlasHook.QueueFullPolicy.BLOCK);
+
+        configuration.setProperty(AtlasHook.ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, "Spool");
+        assertEquals(AtlasHook.getQueueFullPolicy(configuration), AtlasHook.QueueFullPolicy.SPOOL);
+
+        configuration.setProperty(AtlasHook.ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_FULL_POLICY, "invalid");
+        assertEquals(AtlasHook.getQueueFullPolicy(configuration), AtlasHook.QueueFullPolicy.FAIL);
+    }
+
+    // returns an executor with its only thread blocked and its queue full, so that the next task is rejected
+    private ThreadPoolExecutor createBlockedExecutor(RejectedExecutionHandler handler) throws InterruptedException {
+        CountDownLatch     started  = new CountDownLatch(1);
+        CountDownLatch     release  = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingDeque<>(1), handler);
+
+        executor.execute(() -> {
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException excp) {
+                // ignore
+            }
+        });
+
+        started.await();
+
+        executor.execute(() -> { });
+
+        return executor;
+    }
 }
@@ -19,7 +19,10 @@
 package org.apache.atlas.notification;
 
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.type.AtlasType;
@@ -31,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.*;
 
 /**
@@ -55,6 +59,7 @@ public class AbstractNotificationTest {
 
         assertEquals(NotificationType.HOOK, notification.type);
         assertEquals(3, notification.messages.size());
+        assertNull(notification.msgKeys); // message keys are disabled by default
 
         for (int i = 0; i < notification.messages.size(); i++) {
             assertEqualsMessageJson(notification.messages.get(i), messageJson.get(i));
@@ -85,6 +90,27 @@ public class AbstractNotificationTest {
         }
     }
 
+    @org.testng.annotations.Test
+    public void testSendWithKeys() throws Exception {
+        Configuration    configuration = mock(Configuration.class);
+
+        when(configuration.getBoolean(AbstractNotification.PROPERTY_MESSAGE_KEY_ENABLED, false)).thenReturn(true);
+
+        TestNotification notification = new TestNotification(configuration);
+        AtlasEntity      entity1      = new AtlasEntity("sometype");
+        AtlasEntity      entity2      = new AtlasEntity("sometype");
+
+        entity1.setAttribute("qualifiedName", "entity1@cl1");
+        entity2.setGuid("guid2");
+
+        notification.send(NotificationType.HOOK, new EntityCreateRequestV2("user1", new AtlasEntitiesWithExtInfo(entity1)),
+                                                 new EntityCreateRequestV2("user1", new AtlasEntitiesWithExtInfo(entity2)),
+                                                 new Test(HookNotificationType.TYPE_CREATE, "user1"));
+
+        assertEquals(notification.messages.size(), 3);
+        assertEquals(notification.msgKeys, Arrays.asList("sometype:entity1@cl1", "guid2", null));
+    }
+
     public static class Test extends HookNotification {
 
         public Test(HookNotificationType type, String user) {
@@ -106,6 +132,7 @@ public class AbstractNotificationTest {
     public static class TestNotification extends AbstractNotification {
         private NotificationType type;
         private List<String>     messages;
+        private List<String>     msgKeys;
 
         public TestNotification(Configuration applicationProperties) throws AtlasException {
             super(applicationProperties);
@@ -119,6 +146,15 @@ public class AbstractNotificationTest {
             messages = notificationMessages;
         }
 
+        @Override
+        public void sendInternal(NotificationType notificationType, List<String> notificationMessages, List<String> notificationMsgKeys)
+            throws NotificationException {
+
+            sendInternal(notificationType, notificationMessages);
+
+            msgKeys = notificationMsgKeys;
+        }
+
         @Override
         public <T> List<NotificationConsumer<T>> createConsumers(NotificationType notificationType, int numConsumers) {
             return null;
@@ -32,15 +32,19 @@ import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.utils.AtlasJson;
 import org.apache.atlas.v1.model.instance.Referenceable;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityPartialUpdateRequest;
 
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 
@@ -278,6 +282,37 @@ public class HookNotificationTest {
         assertEquals(deleteRequest.getEntities(), objectsToDelete);
     }
 
+    @Test
+    public void testEntityKey() throws Exception {
+        AtlasEntity entity1 = new AtlasEntity("sometype");
+        AtlasEntity entity2 = new AtlasEntity("newtype");
+
+        entity1.setAttribute("qualifiedName", "entity1@cl1");
+
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+        entities.addEntity(entity1);
+        entities.addEntity(entity2);
+
+        assertEquals(new EntityCreateRequestV2("user", entities).getEntityKey(), "sometype:entity1@cl1");
+        assertNull(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(entity2)).getEntityKey()); // unassigned guid
+
+        entity2.setGuid("guid2");
+
+        assertEquals(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(entity2)).getEntityKey(), "guid2");
+        assertEquals(new EntityDeleteRequestV2("user", Collections.singletonList(new AtlasObjectId("sometype", "qualifiedName", "entity1@cl1"))).getEntityKey(), "sometype:entity1@cl1");
+        assertEquals(new EntityPartialUpdateRequest("user", "sometype", "qualifiedName", "entity1@cl1", new Referenceable("sometype")).getEntityKey(), "sometype:entity1@cl1");
+
+        Referenceable referenceable = new Referenceable("sometype");
+
+        referenceable.set("qualifiedName", "entity1@cl1");
+
+        EntityCreateRequest request = new EntityCreateRequest("user", referenceable);
+
+        assertEquals(request.getEntityKey(), "sometype:entity1@cl1");
+        assertFalse(AtlasType.toV1Json(request).contains("entityKey"));
+        assertFalse(AtlasJson.toJson(new EntityCreateRequestV2("user", entities)).contains("entityKey"));
+    }
+
     private void setAttributes(AtlasEntity entity) {
         entity.setAttribute("attrStr", ATTR_VALUE_STRING);
         entity.setAttribute("attrInt", ATTR_VALUE_INTEGER);
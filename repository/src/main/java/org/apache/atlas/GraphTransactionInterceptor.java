@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Component
@@ -198,14 +199,18 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         graph.rollback();
     }
 
-    public static void lockObjectAndReleasePostCommit(final String guid) {
+    public static void lockObjectAndReleasePostCommit(final String guid) throws AtlasBaseException {
         OBJECT_UPDATE_SYNCHRONIZER.lockObject(guid);
     }
 
-    public static void lockObjectAndReleasePostCommit(final List<String> guids) {
+    public static void lockObjectAndReleasePostCommit(final List<String> guids) throws AtlasBaseException {
         OBJECT_UPDATE_SYNCHRONIZER.lockObject(guids);
     }
 
+    public static ObjectLockMetrics getObjectLockMetrics() {
+        return OBJECT_UPDATE_SYNCHRONIZER.getMetrics();
+    }
+
     public static void addToVertexCache(String guid, AtlasVertex vertex) {
         Map<String, AtlasVertex> cache = guidVertexCache.get();
 
@@ -308,6 +313,10 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         return cache.get(edgeId);
     }
 
+    public static boolean isTransactionOpen() {
+        return isTxnOpen.get();
+    }
+
     public static abstract class PostTransactionHook {
         protected PostTransactionHook() {
             List<PostTransactionHook> trxHooks = postTransactionHooks.get();
@@ -324,6 +333,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     }
 
     private static class RefCountedReentrantLock extends ReentrantLock {
+        // updated only from within guidLockMap.compute()/computeIfPresent() of the owning guid
         private int refCount;
 
         public RefCountedReentrantLock() {
@@ -339,11 +349,28 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         }
 
         public int getRefCount() { return refCount; }
+
+        public Thread getOwnerThread() { return getOwner(); }
     }
 
 
+    /**
+     * Serializes updates to entities by guid. Each guid gets a ref-counted lock, created and removed through
+     * per-key atomic operations of ConcurrentHashMap - concurrent lockers of different guids contend only on the
+     * map bin of the guid, instead of on a monitor shared by all guids.
+     *
+     * A thread waiting for a lock logs diagnostics every lockWaitWarnIntervalMs: owner of the lock, guids held by
+     * the waiting thread and, when the owner is itself waiting for a lock held by the waiting thread, the deadlock
+     * cycle. A deadlock, or a wait longer than lockWaitTimeoutMs (when > 0), fails with FAILED_TO_OBTAIN_ENTITY_LOCK.
+     */
     public static class ObjectUpdateSynchronizer {
-        private final Map<String, RefCountedReentrantLock> guidLockMap = new ConcurrentHashMap<>();
+        private static final int MAX_DEADLOCK_CHAIN_LENGTH = 16;
+
+        private final Map<String, RefCountedReentrantLock> guidLockMap  = new ConcurrentHashMap<>();
+        private final Map<Thread, String>                  waitingGuids = new ConcurrentHashMap<>();
+        private final ObjectLockMetrics                    metrics      = new ObjectLockMetrics();
+        private final long                                 lockWaitTimeoutMs;
+        private final long                                 lockWaitWarnIntervalMs;
         private final ThreadLocal<List<String>>  lockedGuids = new ThreadLocal<List<String>>() {
             @Override
             protected List<String> initialValue() {
@@ -351,7 +378,20 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         };
 
-        public void lockObject(final List<String> guids) {
+        public ObjectUpdateSynchronizer() {
+            this(AtlasConfiguration.ENTITY_LOCK_WAIT_TIMEOUT_MS.getLong(), AtlasConfiguration.ENTITY_LOCK_WAIT_WARN_INTERVAL_MS.getLong());
+        }
+
+        public ObjectUpdateSynchronizer(long lockWaitTimeoutMs, long lockWaitWarnIntervalMs) {
+            this.lockWaitTimeoutMs      = lockWaitTimeoutMs;
+            this.lockWaitWarnIntervalMs = lockWaitWarnIntervalMs > 0 ? lockWaitWarnIntervalMs : 10000;
+        }
+
+        public ObjectLockMetrics getMetrics() {
+            return metrics;
+        }
+
+        public void lockObject(final List<String> guids) throws AtlasBaseException {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> lockObject(): guids: {}", guids);
             }
@@ -362,16 +402,36 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
 
-        private void lockObject(final String guid) {
+        private void lockObject(final String guid) throws AtlasBaseException {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> lockObject(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
             }
 
-            ReentrantLock lock = getOrCreateObjectLock(guid);
-            lock.lock();
+            RefCountedReentrantLock lock        = getOrCreateObjectLock(guid);
+            boolean                 isLocked    = false;
+            boolean                 isContended = false;
+            long                    startTime   = System.currentTimeMillis();
+
+            try {
+                isLocked = lock.tryLock();
+
+                if (!isLocked) {
+                    isContended = true;
+
+                    waitForObjectLock(guid, lock, startTime);
+
+                    isLocked = true;
+                }
+            } finally {
+                if (!isLocked) {
+                    dereferenceObjectLock(guid);
+                }
+            }
 
             lockedGuids.get().add(guid);
 
+            metrics.onLocked(guid, isContended, System.currentTimeMillis() - startTime);
+
             if (LOG.isDebugEnabled()) {
                 LOG.debug("<== lockObject(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
             }
@@ -393,36 +453,108 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
 
-        private RefCountedReentrantLock getOrCreateObjectLock(String guid) {
-            synchronized (guidLockMap) {
-                RefCountedReentrantLock ret = guidLockMap.get(guid);
-                if (ret == null) {
-                    ret = new RefCountedReentrantLock();
-                    guidLockMap.put(guid, ret);
+        private void waitForObjectLock(String guid, RefCountedReentrantLock lock, long startTime) throws AtlasBaseException {
+            Thread currentThread = Thread.currentThread();
+
+            waitingGuids.put(currentThread, guid);
+
+            try {
+                while (true) {
+                    long waitTimeMs = lockWaitWarnIntervalMs;
+
+                    if (lockWaitTimeoutMs > 0) {
+                        waitTimeMs = Math.min(waitTimeMs, Math.max(lockWaitTimeoutMs - (System.currentTimeMillis() - startTime), 0));
+                    }
+
+                    if (lock.tryLock(waitTimeMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+
+                    long         waitedMs      = System.currentTimeMillis() - startTime;
+                    Thread       owner         = lock.getOwnerThread();
+                    List<String> deadlockCycle = findDeadlockCycle(guid, currentThread);
+
+                    if (deadlockCycle != null) {
+                        LOG.error("lockObject(): deadlock detected while waiting {} ms for lock on guid {}: cycle={}; locks held by thread {}: {}", waitedMs, guid, deadlockCycle, currentThread.getName(), lockedGuids.get());
+
+                        metrics.onDeadlock(guid);
+
+                        throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid, "deadlock detected: " + deadlockCycle);
+                    }
+
+                    if (lockWaitTimeoutMs > 0 && waitedMs >= lockWaitTimeoutMs) {
+                        LOG.warn("lockObject(): timed out after {} ms waiting for lock on guid {} held by thread {}; locks held by thread {}: {}", waitedMs, guid, getThreadName(owner), currentThread.getName(), lockedGuids.get());
+
+                        metrics.onTimeout(guid);
+
+                        throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid, "timed out after " + waitedMs + " ms");
+                    }
+
+                    LOG.warn("lockObject(): waiting for {} ms for lock on guid {} held by thread {}; locks held by thread {}: {}", waitedMs, guid, getThreadName(owner), currentThread.getName(), lockedGuids.get());
                 }
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
 
-                ret.increment();
-                return ret;
+                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid, "interrupted");
+            } finally {
+                waitingGuids.remove(currentThread);
             }
         }
 
-        private RefCountedReentrantLock releaseObjectLock(String guid) {
-            synchronized (guidLockMap) {
-                RefCountedReentrantLock lock = guidLockMap.get(guid);
-                if (lock != null && lock.isHeldByCurrentThread()) {
-                    int refCount = lock.decrement();
+        // follows lock owner -> guid the owner waits for -> owner of that guid ..., until it gets back to waitingThread
+        private List<String> findDeadlockCycle(String guid, Thread waitingThread) {
+            List<String> ret = new ArrayList<>();
 
-                    if (refCount == 0) {
-                        guidLockMap.remove(guid);
-                    }
+            for (String waitGuid = guid; waitGuid != null && ret.size() < MAX_DEADLOCK_CHAIN_LENGTH; ) {
+                RefCountedReentrantLock lock  = guidLockMap.get(waitGuid);
+                Thread                  owner = lock != null ? lock.getOwnerThread() : null;
 
-                    lock.unlock();
-                } else {
-                    LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
+                if (owner == null) {
+                    break;
+                }
+
+                ret.add(waitGuid + "@" + owner.getName());
+
+                if (owner == waitingThread) {
+                    return ret;
                 }
 
-                return lock;
+                waitGuid = waitingGuids.get(owner);
             }
+
+            return null;
+        }
+
+        private RefCountedReentrantLock getOrCreateObjectLock(String guid) {
+            return guidLockMap.compute(guid, (k, lock) -> {
+                RefCountedReentrantLock ret = lock != null ? lock : new RefCountedReentrantLock();
+
+                ret.increment();
+
+                return ret;
+            });
+        }
+
+        private void dereferenceObjectLock(String guid) {
+            guidLockMap.computeIfPresent(guid, (k, lock) -> lock.decrement() == 0 ? null : lock);
+        }
+
+        private RefCountedReentrantLock releaseObjectLock(String guid) {
+            RefCountedReentrantLock lock = guidLockMap.get(guid);
+
+            if (lock != null && lock.isHeldByCurrentThread()) {
+                dereferenceObjectLock(guid);
+
+                lock.unlock();
+            } else {
+                LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
+            }
+
+            return lock;
+        }
+
+        private static String getThreadName(Thread thread) {
+            return thread != null ? thread.getName() : null;
         }
     }
 }
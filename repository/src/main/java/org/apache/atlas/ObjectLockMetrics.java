@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wait-time counters for guid locks taken by GraphTransactionInterceptor.ObjectUpdateSynchronizer.
+ * Per-guid counters are kept only for guids that had to wait, and only for a bounded number of them.
+ */
+public class ObjectLockMetrics {
+    static final int MAX_TRACKED_GUIDS = 1000;
+
+    private final AtomicLong                 lockCount      = new AtomicLong();
+    private final AtomicLong                 contendedCount = new AtomicLong();
+    private final AtomicLong                 timeoutCount   = new AtomicLong();
+    private final AtomicLong                 deadlockCount  = new AtomicLong();
+    private final AtomicLong                 totalWaitTime  = new AtomicLong();
+    private final AtomicLong                 maxWaitTime    = new AtomicLong();
+    private final Map<String, GuidWaitStats> guidWaitStats  = new ConcurrentHashMap<>();
+
+    void onLocked(String guid, boolean isContended, long waitTimeMs) {
+        lockCount.incrementAndGet();
+
+        if (isContended) {
+            contendedCount.incrementAndGet();
+            totalWaitTime.addAndGet(waitTimeMs);
+            maxWaitTime.accumulateAndGet(waitTimeMs, Math::max);
+
+            getOrCreateGuidWaitStats(guid).record(waitTimeMs);
+        }
+    }
+
+    void onTimeout(String guid) {
+        timeoutCount.incrementAndGet();
+
+        getOrCreateGuidWaitStats(guid).timeoutCount.incrementAndGet();
+    }
+
+    void onDeadlock(String guid) {
+        deadlockCount.incrementAndGet();
+
+        getOrCreateGuidWaitStats(guid).deadlockCount.incrementAndGet();
+    }
+
+    public long getLockCount() {
+        return lockCount.get();
+    }
+
+    public long getContendedCount() {
+        return contendedCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getDeadlockCount() {
+        return deadlockCount.get();
+    }
+
+    public long getAvgWaitTimeMs() {
+        long count = contendedCount.get();
+
+        return count > 0 ? totalWaitTime.get() / count : 0;
+    }
+
+    public long getMaxWaitTimeMs() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * Returns wait-time details of guids with the highest total wait time, most contended first.
+     *
+     * @param maxGuids maximum number of guids to return details for
+     */
+    public List<Map<String, Object>> getMostContendedGuids(int maxGuids) {
+        List<Map.Entry<String, GuidWaitStats>> entries = new ArrayList<>(guidWaitStats.entrySet());
+
+        entries.sort(Comparator.comparingLong((Map.Entry<String, GuidWaitStats> e) -> e.getValue().totalWaitTime.get()).reversed());
+
+        List<Map<String, Object>> ret = new ArrayList<>();
+
+        for (Map.Entry<String, GuidWaitStats> entry : entries) {
+            if (ret.size() >= maxGuids) {
+                break;
+            }
+
+            GuidWaitStats       stats = entry.getValue();
+            Map<String, Object> guid  = new LinkedHashMap<>();
+
+            guid.put("guid", entry.getKey());
+            guid.put("waitCount", stats.waitCount.get());
+            guid.put("totalWaitTimeMs", stats.totalWaitTime.get());
+            guid.put("maxWaitTimeMs", stats.maxWaitTime.get());
+            guid.put("timeoutCount", stats.timeoutCount.get());
+            guid.put("deadlockCount", stats.deadlockCount.get());
+
+            ret.add(guid);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectLockMetrics{" +
+                "locks=" + getLockCount() +
+                ", contended=" + getContendedCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", deadlocks=" + getDeadlockCount() +
+                ", avgWaitTimeMs=" + getAvgWaitTimeMs() +
+                ", maxWaitTimeMs=" + getMaxWaitTimeMs() +
+                '}';
+    }
+
+    private GuidWaitStats getOrCreateGuidWaitStats(String guid) {
+        GuidWaitStats ret = guidWaitStats.get(guid);
+
+        if (ret == null) {
+            if (guidWaitStats.size() >= MAX_TRACKED_GUIDS) {
+                evictLeastContendedGuid();
+            }
+
+            ret = guidWaitStats.computeIfAbsent(guid, k -> new GuidWaitStats());
+        }
+
+        return ret;
+    }
+
+    // only reached on the slow path, after a thread already had to wait for a lock
+    private void evictLeastContendedGuid() {
+        String leastContended = null;
+        long   minWaitTime    = Long.MAX_VALUE;
+
+        for (Map.Entry<String, GuidWaitStats> entry : guidWaitStats.entrySet()) {
+            long waitTime = entry.getValue().totalWaitTime.get();
+
+            if (waitTime < minWaitTime) {
+                minWaitTime    = waitTime;
+                leastContended = entry.getKey();
+            }
+        }
+
+        if (leastContended != null) {
+            guidWaitStats.remove(leastContended);
+        }
+    }
+
+    private static class GuidWaitStats {
+        private final AtomicLong waitCount     = new AtomicLong();
+        private final AtomicLong totalWaitTime = new AtomicLong();
+        private final AtomicLong maxWaitTime   = new AtomicLong();
+        private final AtomicLong timeoutCount  = new AtomicLong();
+        private final AtomicLong deadlockCount = new AtomicLong();
+
+        void record(long waitTimeMs) {
+            waitCount.incrementAndGet();
+            totalWaitTime.addAndGet(waitTimeMs);
+            maxWaitTime.accumulateAndGet(waitTimeMs, Math::max);
+        }
+    }
+}
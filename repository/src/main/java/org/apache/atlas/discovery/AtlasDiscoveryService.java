@@ -24,7 +24,9 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.*;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface AtlasDiscoveryService {
@@ -37,6 +39,16 @@ public interface AtlasDiscoveryService {
      */
     AtlasSearchResult searchUsingDslQuery(String query, int limit, int offset) throws AtlasBaseException;
 
+    /**
+     * Executes the DSL query once, and passes the resulting entities to the consumer in batches as they are read from the graph.
+     * @param query search query in DSL format.
+     * @param batchSize number of entities passed to the consumer at a time.
+     * @param consumer receives each batch of entities.
+     * @return false if the query can't be streamed - for example, queries with select, groupby or limit/offset clauses; these
+     *         have to be paged with searchUsingDslQuery(). Nothing is passed to the consumer in that case.
+     */
+    boolean streamUsingDslQuery(String query, int batchSize, SearchResultConsumer consumer) throws AtlasBaseException, IOException;
+
     /**
      *
      * @param query query
@@ -145,6 +157,15 @@ public interface AtlasDiscoveryService {
      */
     AtlasQuickSearchResult quickSearch(QuickSearchParameters searchParameters) throws AtlasBaseException;
 
+    /**
+     * Count entities matching the search parameters by values of indexed attributes, by classifications and in
+     * range buckets, using facets of the index backend
+     * @param aggregationParameters search criteria and the aggregations to compute
+     * @return value counts, keyed by attribute name; empty if the index backend does not support facets
+     * @throws AtlasBaseException
+     */
+    Map<String, List<AtlasAggregationEntry>> getAggregations(AggregationParameters aggregationParameters) throws AtlasBaseException;
+
     /**
      * Should return top 5 suggestion strings for the given prefix.
      * @param prefixString the prefix string
@@ -152,4 +173,8 @@ public interface AtlasDiscoveryService {
      * @return top 5 suggestion strings for the given prefix.
      */
     AtlasSuggestionsResult getSuggestions(String prefixString, String fieldName);
+
+    interface SearchResultConsumer {
+        void accept(AtlasSearchResult result) throws AtlasBaseException, IOException;
+    }
 }
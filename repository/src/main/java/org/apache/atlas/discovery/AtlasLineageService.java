@@ -33,6 +33,16 @@ public interface AtlasLineageService {
      */
     AtlasLineageInfo getAtlasLineageInfo(String entityGuid, LineageDirection direction, int depth) throws AtlasBaseException;
 
+    /**
+     * @param entityGuid unique ID of the entity
+     * @param direction direction of lineage - INPUT, OUTPUT or BOTH
+     * @param depth number of hops in lineage
+     * @param limit maximum number of relations to return, up to the configured maximum; 0 for the configured maximum
+     * @param continuationToken token from the previous page of lineage, null for the first page
+     * @return AtlasLineageInfo, with hasMore and continuationToken set if there are more relations
+     */
+    AtlasLineageInfo getAtlasLineageInfo(String entityGuid, LineageDirection direction, int depth, int limit, String continuationToken) throws AtlasBaseException;
+
     /**
      * Return the schema for the given datasetName.
      *
@@ -60,6 +60,14 @@ public class ClassificationSearchProcessor extends SearchProcessor {
     // but both A and B are returned. To avoid this, we should filter the res.
     private boolean   whiteSpaceFilter = false;
 
+    // entities reached through classification vertices that have other searched classifications too, hence can be
+    // reached again in a later query page; in the order read. Carried in the cursor, so that the next page doesn't
+    // return them again
+    private final List<String> dedupGuids = new ArrayList<>();
+    private final Set<String>  searchedClassificationNames; // empty when all classifications are searched
+    private       int          pageQueryOffset;
+    private       int          pageDedupGuidCount;
+
     public ClassificationSearchProcessor(SearchContext context) {
         super(context);
 
@@ -72,6 +80,8 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         final boolean isWildcardSearch                      = context.isWildCardSearch();
         final Set<AtlasClassificationType> classificationTypes = context.getClassificationTypes();
 
+        searchedClassificationNames = typeAndSubTypes;
+
         processSearchAttributes(classificationTypes, filterCriteria, indexAttributes, graphAttributes, allAttributes);
 
         /* for classification search, if any attribute can't be handled by index query - switch to all filter by Graph query
@@ -212,16 +222,17 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
+            final int     startIdx   = getStartIndex();
             final int     limit      = context.getSearchParameters().getLimit();
 
             // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
             // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
             // classifications in the result)
             //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            // first 'startIdx' number of entries will be ignored. A cursor from the previous page gives the query offset to
+            // resume from, and the entities read before that offset which can be read again
+            int qryOffset = getStartQueryOffset(0);
+            int resultIdx = getStartResultIndex(qryOffset);
 
             final Set<String>       processedGuids         = new HashSet<>();
             final List<AtlasVertex> entityVertices         = new ArrayList<>();
@@ -230,10 +241,18 @@ public class ClassificationSearchProcessor extends SearchProcessor {
             final String          sortBy                = context.getSearchParameters().getSortBy();
             final SortOrder       sortOrder             = context.getSearchParameters().getSortOrder();
 
+            if (context.getSearchCursor() != null) {
+                dedupGuids.addAll(context.getSearchCursor().getDedupGuids());
+                processedGuids.addAll(dedupGuids);
+            }
+
             for (; ret.size() < limit; qryOffset += limit) {
                 entityVertices.clear();
                 classificationVertices.clear();
 
+                pageQueryOffset    = qryOffset;
+                pageDedupGuidCount = dedupGuids.size();
+
                 if (context.terminateSearch()) {
                     LOG.warn("query terminated: {}", context.getSearchParameters());
 
@@ -298,22 +317,17 @@ public class ClassificationSearchProcessor extends SearchProcessor {
                             entityVertices.add(entityVertex);
 
                             processedGuids.add(guid);
+
+                            if (hasMultipleClassifications(entityVertex)) {
+                                dedupGuids.add(guid);
+                            }
                         }
                     }
                 }
 
-                if (whiteSpaceFilter) {
-                    filterWhiteSpaceClassification(entityVertices);
-                }
-                    // Do in-memory filtering
-                CollectionUtils.filter(entityVertices, isEntityPredicate);
-                if (activePredicate != null) {
-                    CollectionUtils.filter(entityVertices, activePredicate);
-                }
-
-                super.filter(entityVertices);
+                filterEntityVertices(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset, isLastResultPage);
 
                 if (isLastResultPage) {
                     break;
@@ -330,6 +344,12 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         return ret;
     }
 
+    @Override
+    protected Collection<String> getCursorDedupGuids(int queryOffset) {
+        // a cursor into the current page re-reads the page: exclude entities first read in it
+        return queryOffset == pageQueryOffset ? new ArrayList<>(dedupGuids.subList(0, pageDedupGuidCount)) : new ArrayList<>(dedupGuids);
+    }
+
     @Override
     public void filter(List<AtlasVertex> entityVertices) {
         if (LOG.isDebugEnabled()) {
@@ -382,6 +402,115 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         }
     }
 
+    /**
+     * Collect ids of the entity vertices returned by the index or graph query of this processor. Only the predicates on
+     * classification vertices are evaluated here; predicates on entity vertices are left to filter().
+     *
+     * @return null if more than maxIds vertices match, or if the graph uses non-numeric vertex ids
+     */
+    VertexIdList collectEntityVertexIds(int maxIds) {
+        VertexIdList ret = new VertexIdList(maxIds);
+
+        if (indexQuery != null) {
+            Iterator<AtlasIndexQuery.Result> queryResult = indexQuery.vertices(0, maxIds + 1);
+
+            while (queryResult.hasNext()) {
+                if (!ret.add(queryResult.next().getVertex().getId())) {
+                    return null;
+                }
+            }
+        } else if (classificationIndexQuery != null) {
+            Iterator<AtlasIndexQuery.Result> queryResult = classificationIndexQuery.vertices(0, maxIds + 1);
+
+            for (int count = 0; queryResult.hasNext(); count++) {
+                if (count == maxIds || !addEntityVertexIds(queryResult.next().getVertex(), ret)) {
+                    return null;
+                }
+            }
+        } else if (tagGraphQueryWithAttributes != null) {
+            Iterator<AtlasVertex> queryResult = tagGraphQueryWithAttributes.vertices(0, maxIds + 1).iterator();
+
+            for (int count = 0; queryResult.hasNext(); count++) {
+                if (count == maxIds || !addEntityVertexIds(queryResult.next(), ret)) {
+                    return null;
+                }
+            }
+        } else {
+            return null;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Apply to entity vertices, whose ids were collected by collectEntityVertexIds(), the in-memory predicates execute()
+     * applies to the entity vertices it reads - followed by filter() of the next processors
+     */
+    void filterCollectedEntityVertices(List<AtlasVertex> entityVertices) {
+        if (indexQuery != null) {
+            CollectionUtils.filter(entityVertices, traitPredicate);
+        }
+
+        filterEntityVertices(entityVertices);
+    }
+
+    private void filterEntityVertices(List<AtlasVertex> entityVertices) {
+        if (whiteSpaceFilter) {
+            filterWhiteSpaceClassification(entityVertices);
+        }
+
+        // Do in-memory filtering
+        CollectionUtils.filter(entityVertices, isEntityPredicate);
+
+        if (activePredicate != null) {
+            CollectionUtils.filter(entityVertices, activePredicate);
+        }
+
+        super.filter(entityVertices);
+    }
+
+    private boolean addEntityVertexIds(AtlasVertex classificationVertex, VertexIdList entityVertexIds) {
+        if (inMemoryPredicate != null && !inMemoryPredicate.evaluate(classificationVertex)) {
+            return true;
+        }
+
+        Iterable<AtlasEdge> edges = classificationVertex.getEdges(AtlasEdgeDirection.IN, Constants.CLASSIFICATION_LABEL);
+
+        for (AtlasEdge edge : edges) {
+            if (!entityVertexIds.add(edge.getOutVertex().getId())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // counts the searched classifications of the entity from its classification name properties, which - unlike its
+    // classification edges - are read along with the vertex. Propagated names are listed once per propagation
+    private boolean hasMultipleClassifications(AtlasVertex entityVertex) {
+        int count = countSearchedClassifications(AtlasGraphUtilsV2.getClassificationNames(entityVertex));
+
+        if (count < 2) {
+            count += countSearchedClassifications(AtlasGraphUtilsV2.getPropagatedClassificationNames(entityVertex));
+        }
+
+        return count > 1;
+    }
+
+    private int countSearchedClassifications(List<String> classificationNames) {
+        int ret = 0;
+
+        if (classificationNames != null) {
+            for (String classificationName : classificationNames) {
+                if (searchedClassificationNames.isEmpty() || searchedClassificationNames.contains(classificationName)) {
+                    ret++;
+                }
+            }
+        }
+
+        return ret;
+    }
+
     @Override
     public long getResultCount() {
         return (indexQuery != null) ? indexQuery.vertexTotals() : -1;
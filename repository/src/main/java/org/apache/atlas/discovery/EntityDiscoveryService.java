@@ -18,6 +18,7 @@
 package org.apache.atlas.discovery;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
@@ -27,6 +28,7 @@ import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.authorize.AtlasSearchResultScrubRequest;
 import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AggregationParameters;
 import org.apache.atlas.model.discovery.AtlasAggregationEntry;
 import org.apache.atlas.model.discovery.AtlasQuickSearchResult;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
@@ -39,6 +41,7 @@ import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
+import org.apache.atlas.query.DSLQueryPlanCache;
 import org.apache.atlas.query.QueryParams;
 import org.apache.atlas.query.executors.DSLQueryExecutor;
 import org.apache.atlas.query.executors.ScriptEngineBasedExecutor;
@@ -77,18 +80,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.apache.atlas.AtlasErrorCode.*;
 import static org.apache.atlas.SortOrder.ASCENDING;
@@ -117,13 +125,17 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final UserProfileService              userProfileService;
     private final SuggestionsProvider             suggestionsProvider;
     private final DSLQueryExecutor                dslQueryExecutor;
+    private final SearchResultCache               searchResultCache;
+    private final ExecutorService                 parallelSearchExecutor;
 
     @Inject
     EntityDiscoveryService(AtlasTypeRegistry typeRegistry,
                            AtlasGraph graph,
                            GraphBackedSearchIndexer indexer,
                            SearchTracker searchTracker,
-                           UserProfileService userProfileService) throws AtlasException {
+                           UserProfileService userProfileService,
+                           SearchResultCache searchResultCache,
+                           DSLQueryPlanCache dslQueryPlanCache) throws AtlasException {
         this.graph                    = graph;
         this.entityRetriever          = new EntityGraphRetriever(this.graph, typeRegistry);
         this.indexer                  = indexer;
@@ -136,12 +148,21 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         this.indexSearchPrefix        = AtlasGraphUtilsV2.getIndexSearchPrefix();
         this.userProfileService       = userProfileService;
         this.suggestionsProvider      = new SuggestionsProviderImpl(graph, typeRegistry);
+        this.searchResultCache        = searchResultCache;
         this.dslQueryExecutor         = AtlasConfiguration.DSL_EXECUTOR_TRAVERSAL.getBoolean()
-                                            ? new TraversalBasedExecutor(typeRegistry, graph, entityRetriever)
-                                            : new ScriptEngineBasedExecutor(typeRegistry, graph, entityRetriever);
+                                            ? new TraversalBasedExecutor(graph, entityRetriever, dslQueryPlanCache)
+                                            : new ScriptEngineBasedExecutor(graph, entityRetriever, dslQueryPlanCache);
+        this.parallelSearchExecutor   = createParallelSearchExecutor();
         LOG.info("DSL Executor: {}", this.dslQueryExecutor.getClass().getSimpleName());
     }
 
+    @PreDestroy
+    public void stop() {
+        if (parallelSearchExecutor != null) {
+            parallelSearchExecutor.shutdown();
+        }
+    }
+
     @Override
     @GraphTransaction
     public AtlasSearchResult searchUsingDslQuery(String dslQuery, int limit, int offset) throws AtlasBaseException {
@@ -152,6 +173,16 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    @Override
+    @GraphTransaction
+    public boolean streamUsingDslQuery(String dslQuery, int batchSize, SearchResultConsumer consumer) throws AtlasBaseException, IOException {
+        return dslQueryExecutor.stream(dslQuery, batchSize, batch -> {
+            scrubSearchResults(batch);
+
+            consumer.accept(batch);
+        });
+    }
+
     @Override
     @GraphTransaction
     public AtlasSearchResult searchUsingFullTextQuery(String fullTextQuery, boolean excludeDeletedEntities, int limit, int offset)
@@ -408,7 +439,8 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         SearchContext searchContext = new SearchContext(createSearchParameters(quickSearchParameters),
                                                         typeRegistry,
                                                         graph,
-                                                        indexer.getVertexIndexKeys());
+                                                        indexer.getVertexIndexKeys(),
+                                                        parallelSearchExecutor);
 
         if(LOG.isDebugEnabled()) {
             LOG.debug("Generating the search results for the query {} .", searchContext.getSearchParameters().getQuery());
@@ -430,6 +462,26 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    @Override
+    @GraphTransaction
+    public Map<String, List<AtlasAggregationEntry>> getAggregations(AggregationParameters aggregationParameters) throws AtlasBaseException {
+        SearchParameters searchParameters = aggregationParameters.getSearchParameters();
+
+        if (searchParameters == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+        }
+
+        // facets are computed by a single index query: filters that need graph traversal can't be applied
+        if (StringUtils.isNotEmpty(searchParameters.getTermName()) || searchParameters.getTagFilters() != null) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "termName and tagFilters are not supported for aggregation");
+        }
+
+        SearchContext    searchContext    = new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys());
+        SearchAggregator searchAggregator = new SearchAggregatorImpl(searchContext);
+
+        return searchAggregator.getAggregatedMetrics(aggregationParameters);
+    }
+
     @Override
     @GraphTransaction
     public AtlasSuggestionsResult getSuggestions(String prefixString, String fieldName) {
@@ -439,7 +491,7 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     @Override
     @GraphTransaction
     public AtlasSearchResult searchWithParameters(SearchParameters searchParameters) throws AtlasBaseException {
-        return searchWithSearchContext(new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys()));
+        return searchWithSearchContext(new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys(), parallelSearchExecutor));
     }
 
     private AtlasSearchResult searchWithSearchContext(SearchContext searchContext) throws AtlasBaseException {
@@ -452,9 +504,36 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         searchParameters.setOffset(params.offset());
 
         try {
-            List<AtlasVertex> resultList = searchContext.getSearchProcessor().execute();
+            String                               cacheKey     = searchResultCache.getKey(searchContext);
+            SearchResultCache.CachedSearchResult cachedResult = cacheKey != null ? searchResultCache.get(cacheKey) : null;
+            List<AtlasVertex>                    resultList;
+
+            if (cachedResult != null) {
+                resultList = getEntityVertices(cachedResult.getGuids());
+
+                ret.setApproximateCount(cachedResult.getApproximateCount());
+                ret.setNextCursor(cachedResult.getNextCursor());
+            } else {
+                cachedResult = cacheKey != null ? searchResultCache.newResult(searchContext) : null;
+                resultList   = searchContext.getSearchProcessor().execute();
+
+                ret.setApproximateCount(searchContext.getSearchProcessor().getResultCount());
+                ret.setNextCursor(searchContext.getNextCursor());
+
+                if (cachedResult != null) {
+                    List<String> guids = new ArrayList<>(resultList.size());
+
+                    for (AtlasVertex vertex : resultList) {
+                        guids.add(AtlasGraphUtilsV2.getIdFromVertex(vertex));
+                    }
+
+                    cachedResult.setGuids(guids);
+                    cachedResult.setApproximateCount(ret.getApproximateCount());
+                    cachedResult.setNextCursor(ret.getNextCursor());
 
-            ret.setApproximateCount(searchContext.getSearchProcessor().getResultCount());
+                    searchResultCache.put(cacheKey, cachedResult);
+                }
+            }
 
             // By default any attribute that shows up in the search parameter should be sent back in the response
             // If additional values are requested then the entityAttributes will be a superset of the all search attributes
@@ -495,48 +574,32 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                 }
             }
 
-            for (AtlasVertex atlasVertex : resultList) {
-                AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader(atlasVertex, resultAttributes);
-
-                if(searchParameters.getIncludeClassificationAttributes()) {
-                    entity.setClassifications(entityRetriever.getAllClassifications(atlasVertex));
-                }
+            List<AtlasEntityHeader> entities      = entityRetriever.toAtlasEntityHeaders(resultList, resultAttributes, searchParameters.getIncludeClassificationAttributes());
+            Set<String>             referredGuids = new LinkedHashSet<>();
 
+            for (AtlasEntityHeader entity : entities) {
                 ret.addEntity(entity);
 
-                // populate ret.referredEntities
+                // collect guids of ret.referredEntities
                 for (String entityAttribute : entityAttributes) {
                     Object attrValue = entity.getAttribute(entityAttribute);
 
                     if (attrValue instanceof AtlasObjectId) {
-                        AtlasObjectId objId = (AtlasObjectId) attrValue;
-
-                        if (ret.getReferredEntities() == null) {
-                            ret.setReferredEntities(new HashMap<>());
-                        }
-
-                        if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                            ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                        }
+                        referredGuids.add(((AtlasObjectId) attrValue).getGuid());
                     } else if (attrValue instanceof Collection) {
-                        Collection objIds = (Collection) attrValue;
-
-                        for (Object obj : objIds) {
+                        for (Object obj : (Collection) attrValue) {
                             if (obj instanceof AtlasObjectId) {
-                                AtlasObjectId objId = (AtlasObjectId) obj;
-
-                                if (ret.getReferredEntities() == null) {
-                                    ret.setReferredEntities(new HashMap<>());
-                                }
-
-                                if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                                    ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                                }
+                                referredGuids.add(((AtlasObjectId) obj).getGuid());
                             }
                         }
                     }
                 }
             }
+
+            // populate ret.referredEntities
+            if (!referredGuids.isEmpty()) {
+                ret.setReferredEntities(entityRetriever.toAtlasEntityHeaders(referredGuids));
+            }
         } finally {
             searchTracker.remove(searchID);
         }
@@ -917,6 +980,22 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    private List<AtlasVertex> getEntityVertices(List<String> guids) {
+        List<AtlasVertex>        ret          = new ArrayList<>(guids.size());
+        Map<String, AtlasVertex> guidVertices = entityRetriever.findEntityVertices(guids);
+
+        // skip entities no longer in the graph
+        for (String guid : guids) {
+            AtlasVertex vertex = guidVertices.get(guid);
+
+            if (vertex != null) {
+                ret.add(vertex);
+            }
+        }
+
+        return ret;
+    }
+
     private void checkSavedSearchOwnership(String claimedOwner, AtlasUserSavedSearch savedSearch) throws AtlasBaseException {
         // block attempt to delete another user's saved-search
         if (savedSearch != null && !StringUtils.equals(savedSearch.getOwnerName(), claimedOwner)) {
@@ -928,6 +1007,16 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         AtlasAuthorizationUtils.scrubSearchResults(new AtlasSearchResultScrubRequest(typeRegistry, result));
     }
 
+    private static ExecutorService createParallelSearchExecutor() {
+        if (!AtlasConfiguration.SEARCH_PARALLEL_INTERSECT_ENABLED.getBoolean()) {
+            return null;
+        }
+
+        int threadCount = Math.max(1, AtlasConfiguration.SEARCH_PARALLEL_INTERSECT_THREADS.getInt());
+
+        return Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat("atlas-search-intersect-%d").setDaemon(true).build());
+    }
+
     private Set<String> getAggregationFields() {
         Set<String> ret = new HashSet<>(); // for non-modeled attributes.
 
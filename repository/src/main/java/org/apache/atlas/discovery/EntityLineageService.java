@@ -19,12 +19,16 @@
 package org.apache.atlas.discovery;
 
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.authorize.AtlasEntityAccessRequest;
 import org.apache.atlas.authorize.AtlasPrivilege;
+import org.apache.atlas.discovery.LineageAdjacencyCache.LineageLink;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
@@ -54,12 +58,20 @@ import org.springframework.stereotype.Service;
 import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.apache.atlas.AtlasClient.DATA_SET_SUPER_TYPE;
@@ -80,27 +92,42 @@ import static org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery.
 public class EntityLineageService implements AtlasLineageService {
     private static final Logger LOG = LoggerFactory.getLogger(EntityLineageService.class);
 
-    private static final String  PROCESS_INPUTS_EDGE   = "__Process.inputs";
-    private static final String  PROCESS_OUTPUTS_EDGE  = "__Process.outputs";
-    private static final String  COLUMNS               = "columns";
-    private static final boolean LINEAGE_USING_GREMLIN = AtlasConfiguration.LINEAGE_USING_GREMLIN.getBoolean();
-
-    private final AtlasGraph                graph;
-    private final AtlasGremlinQueryProvider gremlinQueryProvider;
-    private final EntityGraphRetriever      entityRetriever;
-    private final AtlasTypeRegistry         atlasTypeRegistry;
+    private static final String  PROCESS_INPUTS_EDGE         = "__Process.inputs";
+    private static final String  PROCESS_OUTPUTS_EDGE        = "__Process.outputs";
+    private static final String  COLUMNS                     = "columns";
+    private static final boolean LINEAGE_USING_GREMLIN       = AtlasConfiguration.LINEAGE_USING_GREMLIN.getBoolean();
+    private static final int     LINEAGE_FRONTIER_BATCH_SIZE = Math.max(1, AtlasConfiguration.LINEAGE_FRONTIER_BATCH_SIZE.getInt());
+    private static final int     LINEAGE_CURSOR_CACHE_SIZE   = AtlasConfiguration.LINEAGE_CURSOR_CACHE_SIZE.getInt();
+    private static final int     LINEAGE_CURSOR_TTL_SECONDS  = AtlasConfiguration.LINEAGE_CURSOR_TTL_SECONDS.getInt();
+    private static final String  TOKEN_SEPARATOR             = ":";
+
+    private final AtlasGraph                   graph;
+    private final AtlasGremlinQueryProvider    gremlinQueryProvider;
+    private final EntityGraphRetriever         entityRetriever;
+    private final AtlasTypeRegistry            atlasTypeRegistry;
+    private final LineageAdjacencyCache        lineageCache;
+    private final Cache<String, LineageCursor> lineageCursors;
+    private       int                          maxRelations = AtlasConfiguration.LINEAGE_MAX_RELATIONS.getInt();
 
     @Inject
-    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, LineageAdjacencyCache lineageCache) {
         this.graph = atlasGraph;
         this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
         this.entityRetriever = new EntityGraphRetriever(atlasGraph, typeRegistry);
         this.atlasTypeRegistry = typeRegistry;
+        this.lineageCache = lineageCache;
+        this.lineageCursors = CacheBuilder.newBuilder().maximumSize(LINEAGE_CURSOR_CACHE_SIZE).expireAfterAccess(LINEAGE_CURSOR_TTL_SECONDS, TimeUnit.SECONDS).build();
     }
 
     @Override
     @GraphTransaction
     public AtlasLineageInfo getAtlasLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
+        return getAtlasLineageInfo(guid, direction, depth, 0, null);
+    }
+
+    @Override
+    @GraphTransaction
+    public AtlasLineageInfo getAtlasLineageInfo(String guid, LineageDirection direction, int depth, int limit, String continuationToken) throws AtlasBaseException {
         AtlasLineageInfo ret;
 
         AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeaderWithClassifications(guid);
@@ -126,7 +153,19 @@ public class EntityLineageService implements AtlasLineageService {
         if (LINEAGE_USING_GREMLIN) {
             ret = getLineageInfoV1(guid, direction, depth, isDataSet);
         } else {
-            ret = getLineageInfoV2(guid, direction, depth, isDataSet);
+            ContinuationToken token = StringUtils.isEmpty(continuationToken) ? null : decodeContinuationToken(continuationToken, guid, direction, depth);
+
+            // requests without a limit are capped as well: when the lineage has more relations, the response has
+            // hasMore and a continuationToken for the rest
+            if (limit <= 0) {
+                limit = maxRelations;
+            } else if (limit > maxRelations) {
+                LOG.info("getAtlasLineageInfo(guid={}): limit {} is larger than {}={}; returning at most {} relations per page", guid, limit, AtlasConfiguration.LINEAGE_MAX_RELATIONS.getPropertyName(), maxRelations, maxRelations);
+
+                limit = maxRelations;
+            }
+
+            ret = getLineageInfoV2(guid, direction, depth, isDataSet, token, limit);
         }
 
         return ret;
@@ -251,8 +290,47 @@ public class EntityLineageService implements AtlasLineageService {
         return new AtlasLineageInfo(guid, entities, relations, direction, depth);
     }
 
-    private AtlasLineageInfo getLineageInfoV2(String guid, LineageDirection direction, int depth, boolean isDataSet) throws AtlasBaseException {
-        AtlasLineageInfo ret = initializeLineageInfo(guid, direction, depth);
+    /**
+     * Traverses lineage from the given entity, returning at most 'limit' relations. When more relations exist, the state
+     * of the traversal is saved as a cursor, so that the next page continues from where this page stopped. If the cursor
+     * is no longer available (evicted, or saved by another server), the traversal is run again from the start, skipping
+     * relations returned in earlier pages.
+     */
+    private AtlasLineageInfo getLineageInfoV2(String guid, LineageDirection direction, int depth, boolean isDataSet, ContinuationToken token, int limit) throws AtlasBaseException {
+        AtlasLineageInfo ret    = initializeLineageInfo(guid, direction, depth);
+        int              offset = token != null ? token.offset : 0;
+        LineageCursor    cursor = token != null && token.cursorId != null ? lineageCursors.asMap().remove(token.cursorId) : null;
+        int              skip   = 0;
+
+        if (cursor == null) {
+            cursor = createCursor(guid, direction, depth, isDataSet);
+            skip   = offset;
+        }
+
+        LineageContext context = new LineageContext(ret, cursor.visitedRelations, skip, limit);
+
+        for (; cursor.phaseIdx < cursor.phases.size(); cursor.phaseIdx++) {
+            traverseEdges(cursor.phases.get(cursor.phaseIdx), context);
+
+            if (context.hasMore) {
+                break;
+            }
+        }
+
+        if (context.hasMore) {
+            String cursorId = UUID.randomUUID().toString();
+
+            lineageCursors.put(cursorId, cursor);
+
+            ret.setHasMore(true);
+            ret.setContinuationToken(encodeContinuationToken(guid, direction, ret.getLineageDepth(), offset + ret.getRelations().size(), cursorId));
+        }
+
+        return ret;
+    }
+
+    private LineageCursor createCursor(String guid, LineageDirection direction, int depth, boolean isDataSet) {
+        LineageCursor ret = new LineageCursor();
 
         if (depth == 0) {
             depth = -1;
@@ -261,108 +339,304 @@ public class EntityLineageService implements AtlasLineageService {
         if (isDataSet) {
             AtlasVertex datasetVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
 
-            if (direction == INPUT || direction == BOTH) {
-                traverseEdges(datasetVertex, true, depth, ret);
-            }
+            if (datasetVertex != null) {
+                Map<String, String> datasets = Collections.singletonMap(getId(datasetVertex), guid);
+
+                if (direction == INPUT || direction == BOTH) {
+                    ret.phases.add(new TraversalPhase(true, depth, datasets));
+                }
 
-            if (direction == OUTPUT || direction == BOTH) {
-                traverseEdges(datasetVertex, false, depth, ret);
+                if (direction == OUTPUT || direction == BOTH) {
+                    ret.phases.add(new TraversalPhase(false, depth, datasets));
+                }
             }
         } else  {
             AtlasVertex processVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
 
             // make one hop to the next dataset vertices from process vertex and traverse with 'depth = depth - 1'
-            if (direction == INPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_INPUTS_EDGE);
-
-                for (AtlasEdge processEdge : processEdges) {
-                    addEdgeToResult(processEdge, ret);
-
-                    AtlasVertex datasetVertex = processEdge.getInVertex();
+            if (processVertex != null) {
+                if (direction == INPUT || direction == BOTH) {
+                    ret.phases.add(new TraversalPhase(true, depth - 1, getId(processVertex), PROCESS_INPUTS_EDGE));
+                }
 
-                    traverseEdges(datasetVertex, true, depth - 1, ret);
+                if (direction == OUTPUT || direction == BOTH) {
+                    ret.phases.add(new TraversalPhase(false, depth - 1, getId(processVertex), PROCESS_OUTPUTS_EDGE));
                 }
             }
+        }
 
-            if (direction == OUTPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_OUTPUTS_EDGE);
+        return ret;
+    }
 
-                for (AtlasEdge processEdge : processEdges) {
-                    addEdgeToResult(processEdge, ret);
+    private Map<String, String> getProcessDatasets(AtlasVertex processVertex, String edgeLabel, LineageContext context) throws AtlasBaseException {
+        Map<String, String> ret = new LinkedHashMap<>();
 
-                    AtlasVertex datasetVertex = processEdge.getInVertex();
+        for (AtlasEdge processEdge : processVertex.getEdges(AtlasEdgeDirection.OUT, edgeLabel)) {
+            addEdgeToResult(processEdge, context);
 
-                    traverseEdges(datasetVertex, false, depth - 1, ret);
-                }
-            }
+            AtlasVertex datasetVertex = processEdge.getInVertex();
+
+            context.vertices.put(getId(datasetVertex), datasetVertex);
+
+            ret.put(getId(datasetVertex), AtlasGraphUtilsV2.getIdFromVertex(datasetVertex));
         }
 
         return ret;
     }
 
-    private void traverseEdges(AtlasVertex datasetVertex, boolean isInput, int depth, AtlasLineageInfo ret) throws AtlasBaseException {
-        traverseEdges(datasetVertex, isInput, depth, new HashSet<>(), ret);
+    /**
+     * Breadth-first traversal, one level of dataset vertices at a time, from the dataset vertices of the given phase.
+     * Stops once the context has collected a page of relations, leaving the phase positioned at the dataset vertex being
+     * traversed; relations of this vertex added to earlier pages are skipped when the traversal continues.
+     */
+    private void traverseEdges(TraversalPhase phase, LineageContext context) throws AtlasBaseException {
+        if (phase.frontier == null) { // process edges to datasets, before the first level
+            AtlasVertex         processVertex = getVertex(phase.processVertexId, context);
+            Map<String, String> datasets      = processVertex != null ? getProcessDatasets(processVertex, phase.processEdgeLabel, context) : Collections.emptyMap();
+
+            if (context.hasMore) {
+                return;
+            }
+
+            phase.setFrontier(datasets);
+        }
+
+        // depth < 0 means no limit on the number of levels
+        while (phase.level != phase.depth && !phase.frontier.isEmpty()) {
+            List<String> datasetVertexIds = new ArrayList<>(phase.frontier.keySet());
+
+            for (int batchStart = phase.frontierIdx; batchStart < datasetVertexIds.size(); batchStart += LINEAGE_FRONTIER_BATCH_SIZE) {
+                List<String>                   datasetBatch = datasetVertexIds.subList(batchStart, Math.min(batchStart + LINEAGE_FRONTIER_BATCH_SIZE, datasetVertexIds.size()));
+                Map<String, List<LineageLink>> datasetLinks = getLineageLinks(datasetBatch, phase.frontier, phase.isInput, context);
+
+                for (int i = 0; i < datasetBatch.size(); i++) {
+                    String datasetVertexId = datasetBatch.get(i);
+                    String datasetGuid     = phase.frontier.get(datasetVertexId);
+
+                    for (LineageLink link : datasetLinks.get(datasetVertexId)) {
+                        if (phase.isInput) {
+                            addRelationToResult(link.processRelationId, link.processRelationGuid, link.processVertexId, link.processGuid, datasetVertexId, datasetGuid, context);
+                            addRelationToResult(link.datasetRelationId, link.datasetRelationGuid, link.datasetVertexId, link.datasetGuid, link.processVertexId, link.processGuid, context);
+                        } else {
+                            addRelationToResult(link.processRelationId, link.processRelationGuid, datasetVertexId, datasetGuid, link.processVertexId, link.processGuid, context);
+                            addRelationToResult(link.datasetRelationId, link.datasetRelationGuid, link.processVertexId, link.processGuid, link.datasetVertexId, link.datasetGuid, context);
+                        }
+
+                        if (context.hasMore) {
+                            phase.frontierIdx = batchStart + i;
+
+                            return;
+                        }
+
+                        if (phase.visitedVertices.add(link.datasetVertexId)) {
+                            phase.nextFrontier.put(link.datasetVertexId, link.datasetGuid);
+                        }
+                    }
+                }
+            }
+
+            phase.nextLevel();
+        }
     }
 
-    private void traverseEdges(AtlasVertex datasetVertex, boolean isInput, int depth, Set<String> visitedVertices, AtlasLineageInfo ret) throws AtlasBaseException {
-        if (depth != 0) {
-            // keep track of visited vertices to avoid circular loop
-            visitedVertices.add(getId(datasetVertex));
+    /**
+     * Gets lineage links of the given dataset vertices from the cache; links of vertices not in the cache are read from
+     * the graph with one batched query for the datasets and one for their processes, instead of one query per vertex.
+     */
+    private Map<String, List<LineageLink>> getLineageLinks(List<String> datasetVertexIds, Map<String, String> datasetGuids, boolean isInput, LineageContext context) {
+        Map<String, List<LineageLink>> ret            = new HashMap<>();
+        List<AtlasVertex>              missedVertices = new ArrayList<>();
+
+        for (String datasetVertexId : datasetVertexIds) {
+            List<LineageLink> links = lineageCache.get(datasetVertexId, isInput);
+
+            if (links != null) {
+                ret.put(datasetVertexId, links);
+            } else {
+                AtlasVertex datasetVertex = getVertex(datasetVertexId, context);
+
+                if (datasetVertex != null) {
+                    missedVertices.add(datasetVertex);
+                } else {
+                    ret.put(datasetVertexId, Collections.emptyList());
+                }
+            }
+        }
 
-            Iterable<AtlasEdge> incomingEdges = datasetVertex.getEdges(IN, isInput ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE);
+        if (missedVertices.isEmpty()) {
+            return ret;
+        }
+
+        long                                  cacheGeneration = lineageCache.getGeneration();
+        Map<AtlasVertex, Iterable<AtlasEdge>> datasetEdges    = getEdges(missedVertices, IN, isInput ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE);
+        Set<AtlasVertex>                      processVertices = new LinkedHashSet<>();
+
+        for (Iterable<AtlasEdge> edges : datasetEdges.values()) {
+            for (AtlasEdge incomingEdge : edges) {
+                processVertices.add(incomingEdge.getOutVertex());
+            }
+        }
+
+        Map<AtlasVertex, Iterable<AtlasEdge>> processEdges = getEdges(processVertices, OUT, isInput ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE);
 
-            for (AtlasEdge incomingEdge : incomingEdges) {
-                AtlasVertex         processVertex = incomingEdge.getOutVertex();
-                Iterable<AtlasEdge> outgoingEdges = processVertex.getEdges(OUT, isInput ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE);
+        for (AtlasVertex datasetVertex : missedVertices) {
+            String              datasetVertexId = getId(datasetVertex);
+            List<LineageLink>   links           = new ArrayList<>();
+            Iterable<AtlasEdge> incomingEdges   = datasetEdges.get(datasetVertex);
 
-                for (AtlasEdge outgoingEdge : outgoingEdges) {
-                    AtlasVertex entityVertex = outgoingEdge.getInVertex();
+            if (incomingEdges != null) {
+                for (AtlasEdge incomingEdge : incomingEdges) {
+                    AtlasVertex         processVertex = incomingEdge.getOutVertex();
+                    Iterable<AtlasEdge> outgoingEdges = processEdges.get(processVertex);
+
+                    if (outgoingEdges == null) {
+                        continue;
+                    }
 
-                    if (entityVertex != null) {
-                        addEdgeToResult(incomingEdge, ret);
-                        addEdgeToResult(outgoingEdge, ret);
+                    for (AtlasEdge outgoingEdge : outgoingEdges) {
+                        AtlasVertex entityVertex = outgoingEdge.getInVertex();
 
-                        if (!visitedVertices.contains(getId(entityVertex))) {
-                            traverseEdges(entityVertex, isInput, depth - 1, visitedVertices, ret);
+                        if (entityVertex != null) {
+                            links.add(new LineageLink(getId(processVertex), getGuid(processVertex, context), getRelationGuid(incomingEdge), getRelationId(incomingEdge),
+                                                      getId(entityVertex), getGuid(entityVertex, context), getRelationGuid(outgoingEdge), getRelationId(outgoingEdge)));
                         }
                     }
                 }
             }
+
+            lineageCache.put(datasetVertexId, datasetGuids.get(datasetVertexId), isInput, links, cacheGeneration);
+
+            ret.put(datasetVertexId, links);
         }
+
+        return ret;
     }
 
-    private void addEdgeToResult(AtlasEdge edge, AtlasLineageInfo lineageInfo) throws AtlasBaseException {
-        if (!lineageContainsEdge(lineageInfo, edge)) {
-            processEdge(edge, lineageInfo);
+    private Map<AtlasVertex, Iterable<AtlasEdge>> getEdges(Collection<AtlasVertex> vertices, AtlasEdgeDirection direction, String edgeLabel) {
+        if (vertices.isEmpty()) {
+            return Collections.emptyMap();
         }
+
+        return graph.multiQuery(vertices).direction(direction).label(edgeLabel).edges();
     }
 
-    private boolean lineageContainsEdge(AtlasLineageInfo lineageInfo, AtlasEdge edge) {
-        boolean ret = false;
+    private void addEdgeToResult(AtlasEdge edge, LineageContext context) throws AtlasBaseException {
+        AtlasVertex inVertex    = edge.getInVertex();
+        AtlasVertex outVertex   = edge.getOutVertex();
+        String      inVertexId  = getId(inVertex);
+        String      outVertexId = getId(outVertex);
+        String      inGuid      = getGuid(inVertex, context);
+        String      outGuid     = getGuid(outVertex, context);
 
-        if (lineageInfo != null && CollectionUtils.isNotEmpty(lineageInfo.getRelations()) && edge != null) {
-            String               relationGuid = AtlasGraphUtilsV2.getEncodedProperty(edge, RELATIONSHIP_GUID_PROPERTY_KEY, String.class);
-            Set<LineageRelation> relations    = lineageInfo.getRelations();
+        if (edge.getLabel().equalsIgnoreCase(PROCESS_INPUTS_EDGE)) {
+            addRelationToResult(getRelationId(edge), getRelationGuid(edge), inVertexId, inGuid, outVertexId, outGuid, context);
+        } else {
+            addRelationToResult(getRelationId(edge), getRelationGuid(edge), outVertexId, outGuid, inVertexId, inGuid, context);
+        }
+    }
 
-            for (LineageRelation relation : relations) {
-                if (relation.getRelationshipId().equals(relationGuid)) {
-                    ret = true;
-                    break;
-                }
+    private void addRelationToResult(String relationId, String relationGuid, String fromVertexId, String fromGuid, String toVertexId, String toGuid, LineageContext context) throws AtlasBaseException {
+        if (context.hasMore || context.visitedRelations.contains(relationId)) {
+            return;
+        }
+
+        if (context.skip > 0) { // returned in an earlier page
+            context.visitedRelations.add(relationId);
+            context.skip--;
+        } else if (context.lineageInfo.getRelations().size() >= context.limit) {
+            context.hasMore = true;
+        } else {
+            Map<String, AtlasEntityHeader> entities = context.lineageInfo.getGuidEntityMap();
+
+            context.visitedRelations.add(relationId);
+
+            if (!entities.containsKey(fromGuid)) {
+                entities.put(fromGuid, entityRetriever.toAtlasEntityHeader(getVertex(fromVertexId, context)));
+            }
+
+            if (!entities.containsKey(toGuid)) {
+                entities.put(toGuid, entityRetriever.toAtlasEntityHeader(getVertex(toVertexId, context)));
             }
+
+            context.lineageInfo.getRelations().add(new LineageRelation(fromGuid, toGuid, relationGuid));
+        }
+    }
+
+    private AtlasVertex getVertex(String vertexId, LineageContext context) {
+        AtlasVertex ret = context.vertices.get(vertexId);
+
+        if (ret == null) {
+            ret = graph.getVertex(vertexId);
+
+            context.vertices.put(vertexId, ret);
         }
 
         return ret;
     }
 
-    private void processEdge(final AtlasEdge edge, final AtlasLineageInfo lineageInfo) throws AtlasBaseException {
-        processEdge(edge, lineageInfo.getGuidEntityMap(), lineageInfo.getRelations());
+    private String getGuid(AtlasVertex vertex, LineageContext context) {
+        context.vertices.putIfAbsent(getId(vertex), vertex);
+
+        return AtlasGraphUtilsV2.getIdFromVertex(vertex);
+    }
+
+    private static String getRelationGuid(AtlasEdge edge) {
+        return AtlasGraphUtilsV2.getEncodedProperty(edge, RELATIONSHIP_GUID_PROPERTY_KEY, String.class);
+    }
+
+    private static String getRelationId(AtlasEdge edge) {
+        String ret = getRelationGuid(edge);
+
+        return ret != null ? ret : edge.getIdForDisplay();
     }
 
     private AtlasLineageInfo initializeLineageInfo(String guid, LineageDirection direction, int depth) {
         return new AtlasLineageInfo(guid, new HashMap<>(), new HashSet<>(), direction, depth);
     }
 
+    @VisibleForTesting
+    void setMaxRelations(int maxRelations) {
+        this.maxRelations = maxRelations;
+    }
+
+    @VisibleForTesting
+    void clearLineageCursors() {
+        lineageCursors.invalidateAll();
+    }
+
+    private static String encodeContinuationToken(String guid, LineageDirection direction, int depth, int offset, String cursorId) {
+        String token = StringUtils.join(new Object[] { guid, direction, depth, offset, cursorId }, TOKEN_SEPARATOR);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ContinuationToken decodeContinuationToken(String continuationToken, String guid, LineageDirection direction, int depth) throws AtlasBaseException {
+        final String[] parts;
+
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8).split(TOKEN_SEPARATOR, -1);
+        } catch (IllegalArgumentException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "continuationToken=" + continuationToken);
+        }
+
+        // a token is valid only for the lineage request that returned it
+        if (parts.length != 5 || !parts[0].equals(guid) || !parts[1].equals(direction.name()) || !parts[2].equals(String.valueOf(depth))) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "continuationToken=" + continuationToken);
+        }
+
+        try {
+            int offset = Integer.parseInt(parts[3]);
+
+            if (offset < 0) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "continuationToken=" + continuationToken);
+            }
+
+            return new ContinuationToken(offset, StringUtils.isEmpty(parts[4]) ? null : parts[4]);
+        } catch (NumberFormatException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "continuationToken=" + continuationToken);
+        }
+    }
+
     private static String getId(AtlasVertex vertex) {
         return vertex.getIdForDisplay();
     }
@@ -448,4 +722,79 @@ public class EntityLineageService implements AtlasLineageService {
 
         return ret;
     }
-}
\ No newline at end of file
+
+    private static class LineageContext {
+        final AtlasLineageInfo         lineageInfo;
+        final Set<String>              visitedRelations;
+        final int                      limit;
+        final Map<String, AtlasVertex> vertices = new HashMap<>();
+        int                            skip;
+        boolean                        hasMore  = false;
+
+        LineageContext(AtlasLineageInfo lineageInfo, Set<String> visitedRelations, int skip, int limit) {
+            this.lineageInfo      = lineageInfo;
+            this.visitedRelations = visitedRelations;
+            this.skip             = skip;
+            this.limit            = limit;
+        }
+    }
+
+    /**
+     * State of a paged lineage traversal, saved between pages: the traversal phases - one per direction - and the
+     * relations already returned. Only vertex ids and guids are kept, as vertices are bound to the graph transaction.
+     */
+    private static class LineageCursor {
+        final List<TraversalPhase> phases           = new ArrayList<>();
+        final Set<String>          visitedRelations = new HashSet<>();
+        int                        phaseIdx         = 0;
+    }
+
+    private static class TraversalPhase {
+        final boolean       isInput;
+        final int           depth;
+        final String        processVertexId;  // when traversal starts from a process
+        final String        processEdgeLabel;
+        Map<String, String> frontier;         // vertex-id to guid of dataset vertices of the current level
+        Map<String, String> nextFrontier;
+        Set<String>         visitedVertices;
+        int                 level       = 0;
+        int                 frontierIdx = 0;  // index, in frontier, of the dataset vertex to continue from
+
+        TraversalPhase(boolean isInput, int depth, Map<String, String> datasets) {
+            this(isInput, depth, null, null);
+
+            setFrontier(datasets);
+        }
+
+        TraversalPhase(boolean isInput, int depth, String processVertexId, String processEdgeLabel) {
+            this.isInput          = isInput;
+            this.depth            = depth;
+            this.processVertexId  = processVertexId;
+            this.processEdgeLabel = processEdgeLabel;
+        }
+
+        void setFrontier(Map<String, String> datasets) {
+            // keep track of visited vertices to avoid circular loop
+            this.frontier        = new LinkedHashMap<>(datasets);
+            this.nextFrontier    = new LinkedHashMap<>();
+            this.visitedVertices = new HashSet<>(datasets.keySet());
+        }
+
+        void nextLevel() {
+            frontier     = nextFrontier;
+            nextFrontier = new LinkedHashMap<>();
+            frontierIdx  = 0;
+            level++;
+        }
+    }
+
+    private static class ContinuationToken {
+        final int    offset;   // number of relations returned in earlier pages
+        final String cursorId;
+
+        ContinuationToken(int offset, String cursorId) {
+            this.offset   = offset;
+            this.cursorId = cursorId;
+        }
+    }
+}
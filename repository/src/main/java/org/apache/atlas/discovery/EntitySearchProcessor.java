@@ -240,14 +240,15 @@ public class EntitySearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int startIdx = context.getSearchParameters().getOffset();
+            final int startIdx = getStartIndex();
             final int limit    = context.getSearchParameters().getLimit();
 
-            // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
+            // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher;
+            // a cursor from the previous page gives the query offset to resume from
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
-            int resultIdx = qryOffset;
+            int qryOffset = getStartQueryOffset((nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx);
+            int resultIdx = getStartResultIndex(qryOffset);
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
@@ -306,7 +307,7 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset, isLastResultPage);
 
                 if (isLastResultPage) {
                     break;
@@ -343,6 +344,34 @@ public class EntitySearchProcessor extends SearchProcessor {
         }
     }
 
+    /**
+     * Collect ids of the vertices returned by the index or graph query of this processor, in result order. Predicates
+     * applied by filter() are not evaluated here.
+     *
+     * @return null if more than maxIds vertices match, or if the graph uses non-numeric vertex ids
+     */
+    VertexIdList collectVertexIds(int maxIds) {
+        VertexIdList ret = new VertexIdList(maxIds);
+
+        if (indexQuery != null) {
+            Iterator<AtlasIndexQuery.Result> idxQueryResult = executeIndexQuery(context, indexQuery, 0, maxIds + 1);
+
+            while (idxQueryResult != null && idxQueryResult.hasNext()) {
+                if (!ret.add(idxQueryResult.next().getVertex().getId())) {
+                    return null;
+                }
+            }
+        } else {
+            for (Object vertexId : graphQuery.vertexIds(0, maxIds + 1)) {
+                if (!ret.add(vertexId)) {
+                    return null;
+                }
+            }
+        }
+
+        return ret;
+    }
+
     @Override
     public long getResultCount() {
         if (indexQuery != null) {
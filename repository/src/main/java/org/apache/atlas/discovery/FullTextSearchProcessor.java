@@ -96,16 +96,17 @@ public class FullTextSearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
+            final int     startIdx   = getStartIndex();
             final int     limit      = context.getSearchParameters().getLimit();
             final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
 
             // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
-            // have been dropped: like vertices of non-entity or non-active-entity
+            // have been dropped: like vertices of non-entity or non-active-entity. A cursor from the previous page gives
+            // the query offset to resume from
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            int qryOffset = getStartQueryOffset(0);
+            int resultIdx = getStartResultIndex(qryOffset);
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
@@ -148,7 +149,7 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset, isLastResultPage);
 
                 if (isLastResultPage) {
                     break;
@@ -0,0 +1,470 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.AtlasClient.DATA_SET_SUPER_TYPE;
+import static org.apache.atlas.AtlasClient.PROCESS_SUPER_TYPE;
+
+/**
+ * In-memory cache of lineage adjacency: for a dataset vertex and a lineage direction, the processes and the
+ * next datasets it is linked to. Only vertex ids, guids and relationship guids are cached; entity headers are
+ * always read from the graph.
+ *
+ * Entries are invalidated, after the transaction commits, when a process or dataset, or a relationship
+ * between them, is created, updated or deleted.
+ */
+@Component
+public class LineageAdjacencyCache implements EntityChangeListenerV2 {
+    private static final Logger LOG = LoggerFactory.getLogger(LineageAdjacencyCache.class);
+
+    public static final String LINEAGE_CACHE_ENABLED     = "atlas.lineage.cache.enabled";
+    public static final String LINEAGE_CACHE_MAX_SIZE_MB = "atlas.lineage.cache.max.size.mb";
+
+    private static final String PROCESS_INPUTS  = "inputs";
+    private static final String PROCESS_OUTPUTS = "outputs";
+    private static final int    ENTRY_OVERHEAD  = 96;
+    private static final int    LINK_OVERHEAD   = 48;
+    private static final int    STRING_OVERHEAD = 40;
+    private static final int    GUID_BUCKETS    = 4096;
+
+    private final AtlasTypeRegistry               typeRegistry;
+    private final boolean                         isEnabled;
+    private final Cache<String, LineageAdjacency> cache;
+    private final Map<String, Set<String>>        keysByGuid        = new ConcurrentHashMap<>();
+    private final AtomicLong                      generation        = new AtomicLong();
+    private final long[]                          guidGenerations   = new long[GUID_BUCKETS]; // guarded by this
+    private final AtomicLong                      sizeBytes         = new AtomicLong();
+    private final AtomicLong                      invalidationCount = new AtomicLong();
+    private final ThreadLocal<InvalidationHook>   invalidationHooks = new ThreadLocal<>();
+
+    @Inject
+    public LineageAdjacencyCache(AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        long maxSizeMb = configuration != null ? configuration.getLong(LINEAGE_CACHE_MAX_SIZE_MB, 64) : 64;
+
+        this.typeRegistry = typeRegistry;
+        this.isEnabled    = configuration != null && configuration.getBoolean(LINEAGE_CACHE_ENABLED, false) && maxSizeMb > 0;
+        this.cache        = CacheBuilder.newBuilder()
+                                        .maximumWeight(Math.max(maxSizeMb, 0) * 1024 * 1024)
+                                        .weigher((String key, LineageAdjacency adjacency) -> adjacency.estimateSize(key))
+                                        .removalListener(this::onRemoval)
+                                        .recordStats()
+                                        .build();
+
+        if (isEnabled && !AtlasRepositoryConfiguration.isV2EntityNotificationEnabled()) {
+            LOG.warn("{}=true is ignored, as it requires v2 entity notifications", LINEAGE_CACHE_ENABLED);
+        }
+
+        LOG.info("{}={}", LINEAGE_CACHE_ENABLED, isEnabled());
+        LOG.info("{}={}", LINEAGE_CACHE_MAX_SIZE_MB, maxSizeMb);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled && AtlasRepositoryConfiguration.isV2EntityNotificationEnabled();
+    }
+
+    /**
+     * @return value to pass to put(), for links read from the graph after this call; incremented on each invalidation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return cached links of the given dataset vertex in the given direction, null if not cached
+     */
+    public List<LineageLink> get(String datasetVertexId, boolean isInput) {
+        LineageAdjacency adjacency = isEnabled() ? cache.getIfPresent(getKey(datasetVertexId, isInput)) : null;
+
+        return adjacency != null ? adjacency.links : null;
+    }
+
+    /**
+     * Caches links read from the graph; ignored if the dataset, or a process or dataset in the links, was
+     * invalidated since the links were read, as they might have been read before the change was committed.
+     * Invalidation of unrelated guids doesn't affect the put.
+     */
+    public void put(String datasetVertexId, String datasetGuid, boolean isInput, List<LineageLink> links, long readGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        String           key       = getKey(datasetVertexId, isInput);
+        LineageAdjacency adjacency = new LineageAdjacency(datasetGuid, links);
+
+        synchronized (this) {
+            for (String guid : adjacency.getGuids()) {
+                if (guidGenerations[getGuidBucket(guid)] > readGeneration) {
+                    return;
+                }
+            }
+
+            // put before indexing: removal of the replaced entry, if any, drops the key from the index
+            cache.put(key, adjacency);
+
+            sizeBytes.addAndGet(adjacency.estimateSize(key));
+
+            for (String guid : adjacency.getGuids()) {
+                keysByGuid.compute(guid, (k, keys) -> {
+                    if (keys == null) {
+                        keys = ConcurrentHashMap.newKeySet();
+                    }
+
+                    keys.add(key);
+
+                    return keys;
+                });
+            }
+        }
+    }
+
+    public void invalidate(Collection<String> guids) {
+        if (CollectionUtils.isEmpty(guids)) {
+            return;
+        }
+
+        synchronized (this) {
+            long invalidationGeneration = generation.incrementAndGet();
+
+            for (String guid : guids) {
+                guidGenerations[getGuidBucket(guid)] = invalidationGeneration;
+
+                Set<String> keys = keysByGuid.remove(guid);
+
+                if (keys != null) {
+                    cache.invalidateAll(keys);
+
+                    invalidationCount.addAndGet(keys.size());
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> ret   = new LinkedHashMap<>();
+        CacheStats          stats = cache.stats();
+
+        ret.put("enabled", isEnabled());
+        ret.put("entries", cache.size());
+        ret.put("sizeBytes", sizeBytes.get());
+        ret.put("hitCount", stats.hitCount());
+        ret.put("missCount", stats.missCount());
+        ret.put("hitRate", stats.hitRate());
+        ret.put("evictionCount", stats.evictionCount());
+        ret.put("invalidationCount", invalidationCount.get());
+
+        return ret;
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) { }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) { }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) { }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) { }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) { }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (!isEnabled() || CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+
+        for (AtlasEntity entity : entities) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+            if (entityType == null) {
+                continue;
+            }
+
+            Set<String> superTypes = entityType.getTypeAndAllSuperTypes();
+
+            if (superTypes.contains(PROCESS_SUPER_TYPE)) {
+                Set<String> guids = getInvalidationHook().guids;
+
+                guids.add(entity.getGuid());
+
+                // entries of datasets newly linked to the process don't reference the process yet
+                collectGuids(entity.getAttribute(PROCESS_INPUTS), guids);
+                collectGuids(entity.getAttribute(PROCESS_OUTPUTS), guids);
+                collectGuids(entity.getRelationshipAttribute(PROCESS_INPUTS), guids);
+                collectGuids(entity.getRelationshipAttribute(PROCESS_OUTPUTS), guids);
+            } else if (superTypes.contains(DATA_SET_SUPER_TYPE)) {
+                getInvalidationHook().guids.add(entity.getGuid());
+            }
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        if (!isEnabled() || CollectionUtils.isEmpty(relationships)) {
+            return;
+        }
+
+        Set<String> guids = getInvalidationHook().guids;
+
+        for (AtlasRelationship relationship : relationships) {
+            collectGuids(relationship.getEnd1(), guids);
+            collectGuids(relationship.getEnd2(), guids);
+        }
+    }
+
+    private InvalidationHook getInvalidationHook() {
+        InvalidationHook ret = invalidationHooks.get();
+
+        if (ret == null) {
+            ret = new InvalidationHook();
+
+            invalidationHooks.set(ret);
+        }
+
+        return ret;
+    }
+
+    private void onRemoval(RemovalNotification<String, LineageAdjacency> notification) {
+        String           key       = notification.getKey();
+        LineageAdjacency adjacency = notification.getValue();
+
+        if (key == null || adjacency == null) {
+            return;
+        }
+
+        sizeBytes.addAndGet(-adjacency.estimateSize(key));
+
+        // drop the evicted key from the guid index, and the guid itself once no entry references it
+        for (String guid : adjacency.getGuids()) {
+            keysByGuid.computeIfPresent(guid, (k, keys) -> {
+                keys.remove(key);
+
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static int estimateSize(String str) {
+        return str != null ? STRING_OVERHEAD + 2 * str.length() : 0;
+    }
+
+    private static void collectGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (guid != null) {
+                guids.add(guid);
+            }
+        } else if (value instanceof Map) {
+            Object guid = ((Map) value).get(AtlasObjectId.KEY_GUID);
+
+            if (guid != null) {
+                guids.add(guid.toString());
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                collectGuids(element, guids);
+            }
+        }
+    }
+
+    // guids sharing a bucket share the generation: a collision can only cause a put to be ignored
+    private static int getGuidBucket(String guid) {
+        return (guid.hashCode() & Integer.MAX_VALUE) % GUID_BUCKETS;
+    }
+
+    @VisibleForTesting
+    static String getKey(String datasetVertexId, boolean isInput) {
+        return (isInput ? "i:" : "o:") + datasetVertexId;
+    }
+
+    private static class LineageAdjacency {
+        final String            datasetGuid;
+        final List<LineageLink> links;
+
+        LineageAdjacency(String datasetGuid, List<LineageLink> links) {
+            this.datasetGuid = datasetGuid;
+            this.links       = links;
+        }
+
+        Set<String> getGuids() {
+            Set<String> ret = new HashSet<>();
+
+            if (datasetGuid != null) {
+                ret.add(datasetGuid);
+            }
+
+            for (LineageLink link : links) {
+                if (link.processGuid != null) {
+                    ret.add(link.processGuid);
+                }
+
+                if (link.datasetGuid != null) {
+                    ret.add(link.datasetGuid);
+                }
+            }
+
+            return ret;
+        }
+
+        int estimateSize(String key) {
+            int ret = ENTRY_OVERHEAD + LineageAdjacencyCache.estimateSize(key) + LineageAdjacencyCache.estimateSize(datasetGuid);
+
+            for (LineageLink link : links) {
+                ret += link.estimateSize();
+            }
+
+            return ret;
+        }
+    }
+
+    /**
+     * Link from a dataset, through a process, to the next dataset in the lineage direction.
+     * 'processRelation' is the relationship between the dataset and the process, 'datasetRelation'
+     * is the relationship between the process and the next dataset.
+     */
+    public static class LineageLink {
+        final String processVertexId;
+        final String processGuid;
+        final String processRelationGuid;
+        final String processRelationId;
+        final String datasetVertexId;
+        final String datasetGuid;
+        final String datasetRelationGuid;
+        final String datasetRelationId;
+
+        LineageLink(String processVertexId, String processGuid, String processRelationGuid, String processRelationId,
+                    String datasetVertexId, String datasetGuid, String datasetRelationGuid, String datasetRelationId) {
+            this.processVertexId     = processVertexId;
+            this.processGuid         = processGuid;
+            this.processRelationGuid = processRelationGuid;
+            this.processRelationId   = processRelationId;
+            this.datasetVertexId     = datasetVertexId;
+            this.datasetGuid         = datasetGuid;
+            this.datasetRelationGuid = datasetRelationGuid;
+            this.datasetRelationId   = datasetRelationId;
+        }
+
+        int estimateSize() {
+            // relation guid and id usually refer to the same string
+            return LINK_OVERHEAD + estimateSize(processVertexId) + estimateSize(processGuid) + estimateSize(processRelationId) +
+                   estimateSize(datasetVertexId) + estimateSize(datasetGuid) + estimateSize(datasetRelationId);
+        }
+    }
+
+    private class InvalidationHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final Set<String> guids = new HashSet<>();
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            invalidationHooks.remove();
+
+            if (isSuccess) {
+                invalidate(guids);
+            }
+        }
+    }
+}
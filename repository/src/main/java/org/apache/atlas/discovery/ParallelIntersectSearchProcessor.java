@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.utils.AtlasPerfTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search for entities of given types having given classifications, with classification attribute filters.
+ *
+ * Instead of paging through ClassificationSearchProcessor results and filtering each page through EntitySearchProcessor,
+ * the index/graph queries of both processors are run concurrently - the classification query in a worker thread of
+ * SearchContext.getParallelSearchExecutor(), the entity query in the calling thread - and only vertex-ids are collected. The in-memory predicates the serial chain
+ * applies to entity vertices are then applied to the vertices in the intersection of the two id sets, in the order of
+ * entity query results.
+ *
+ * The intersection is cached, for atlas.search.parallel.intersect.cache.ttl.seconds, for the following pages of the
+ * search - requested with a cursor or a non-zero offset - so that the queries are not run again for every page.
+ *
+ * When either query matches more than atlas.search.parallel.intersect.max.ids vertices, the search falls back to the
+ * serial ClassificationSearchProcessor -> EntitySearchProcessor chain.
+ */
+public class ParallelIntersectSearchProcessor extends SearchProcessor {
+    private static final Logger LOG      = LoggerFactory.getLogger(ParallelIntersectSearchProcessor.class);
+    private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("ParallelIntersectSearchProcessor");
+
+    private static final int MAX_IDS = AtlasConfiguration.SEARCH_PARALLEL_INTERSECT_MAX_IDS.getInt();
+
+    private static final Cache<String, VertexIdList> INTERSECT_IDS_CACHE = CacheBuilder.newBuilder()
+                                                                                  .maximumWeight(AtlasConfiguration.SEARCH_PARALLEL_INTERSECT_CACHE_MAX_IDS.getLong())
+                                                                                  .weigher((String key, VertexIdList ids) -> ids.size())
+                                                                                  .expireAfterWrite(AtlasConfiguration.SEARCH_PARALLEL_INTERSECT_CACHE_TTL_SECONDS.getLong(), TimeUnit.SECONDS)
+                                                                                  .build();
+
+    private final ClassificationSearchProcessor classificationProcessor;
+    private final EntitySearchProcessor         entityProcessor;
+    private final int                           maxIds;
+    private       VertexIdList                  intersectIds;
+
+    public ParallelIntersectSearchProcessor(SearchContext context) {
+        this(context, MAX_IDS);
+    }
+
+    ParallelIntersectSearchProcessor(SearchContext context, int maxIds) {
+        super(context);
+
+        this.classificationProcessor = new ClassificationSearchProcessor(context);
+        this.entityProcessor         = new EntitySearchProcessor(context);
+        this.maxIds                  = maxIds;
+
+        classificationProcessor.addProcessor(entityProcessor);
+    }
+
+    @Override
+    public List<AtlasVertex> execute() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> ParallelIntersectSearchProcessor.execute({})", context);
+        }
+
+        List<AtlasVertex> ret  = new ArrayList<>();
+        AtlasPerfTracer   perf = null;
+
+        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "ParallelIntersectSearchProcessor.execute(" + context + ")");
+        }
+
+        try {
+            intersectIds = getIntersectIds();
+
+            if (intersectIds == null) {
+                LOG.info("ParallelIntersectSearchProcessor: falling back to serial search for {}", context);
+
+                // cursor positions of the two modes are not interchangeable
+                context.disableSearchCursor();
+
+                ret = classificationProcessor.execute();
+            } else {
+                final AtlasGraph        graph          = context.getGraph();
+                final int               startIdx       = getStartIndex();
+                final int               limit          = context.getSearchParameters().getLimit();
+                final List<AtlasVertex> entityVertices = new ArrayList<>();
+
+                // start at 0, as vertices before startIdx can be dropped by in-memory filtering;
+                // a cursor from the previous page gives the position in intersectIds to resume from
+                int qryOffset = getStartQueryOffset(0);
+                int resultIdx = getStartResultIndex(qryOffset);
+
+                for (; ret.size() < limit && qryOffset < intersectIds.size(); qryOffset += limit) {
+                    entityVertices.clear();
+
+                    if (context.terminateSearch()) {
+                        LOG.warn("query terminated: {}", context.getSearchParameters());
+
+                        break;
+                    }
+
+                    final int endIdx = Math.min(qryOffset + limit, intersectIds.size());
+
+                    for (int i = qryOffset; i < endIdx; i++) {
+                        AtlasVertex vertex = graph.getVertex(String.valueOf(intersectIds.get(i)));
+
+                        if (vertex != null) {
+                            entityVertices.add(vertex);
+                        }
+                    }
+
+                    // same predicates as the serial chain: of classificationProcessor and then of entityProcessor
+                    classificationProcessor.filterCollectedEntityVertices(entityVertices);
+
+                    resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset, endIdx == intersectIds.size());
+                }
+            }
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== ParallelIntersectSearchProcessor.execute({}): ret.size()={}", context, ret.size());
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void filter(List<AtlasVertex> entityVertices) {
+        classificationProcessor.filter(entityVertices);
+
+        super.filter(entityVertices);
+    }
+
+    @Override
+    public long getResultCount() {
+        return intersectIds != null ? intersectIds.size() : classificationProcessor.getResultCount();
+    }
+
+    private VertexIdList getIntersectIds() {
+        final String  key         = context.getSearchKey();
+        final boolean isFirstPage = context.getSearchCursor() == null && context.getSearchParameters().getOffset() == 0;
+        VertexIdList  ret         = isFirstPage ? null : INTERSECT_IDS_CACHE.getIfPresent(key);
+
+        if (ret == null) {
+            ret = collectIntersectIds();
+
+            if (ret != null) {
+                INTERSECT_IDS_CACHE.put(key, ret);
+            }
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("ParallelIntersectSearchProcessor: using cached intersection of {} ids", ret.size());
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return ids of vertices matched by both classification and entity queries, or null to fall back to serial search
+     */
+    private VertexIdList collectIntersectIds() {
+        final AtlasGraph           graph                   = context.getGraph();
+        final Future<VertexIdList> classificationIdsFuture = context.getParallelSearchExecutor().submit(() -> {
+            try {
+                return classificationProcessor.collectEntityVertexIds(maxIds);
+            } finally {
+                // read-only transaction opened by the query in this worker thread
+                graph.rollback();
+
+                RequestContext.clear();
+            }
+        });
+
+        VertexIdList ret = null;
+
+        try {
+            VertexIdList entityIds = entityProcessor.collectVertexIds(maxIds);
+
+            if (entityIds != null) {
+                VertexIdList classificationIds = classificationIdsFuture.get();
+
+                if (classificationIds != null) {
+                    ret = entityIds.retainAll(classificationIds);
+
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("ParallelIntersectSearchProcessor: entityIds={}, classificationEntityIds={}, intersection={}", entityIds.size(), classificationIds.size(), ret.size());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            LOG.warn("ParallelIntersectSearchProcessor: interrupted while waiting for classification query", e);
+        } catch (ExecutionException e) {
+            LOG.warn("ParallelIntersectSearchProcessor: classification query failed", e.getCause());
+        } finally {
+            // not interrupted: an interrupt in the middle of a graph/index read can close channels shared with other threads
+            classificationIdsFuture.cancel(false);
+        }
+
+        return ret;
+    }
+}
@@ -17,6 +17,8 @@
  */
 package org.apache.atlas.discovery;
 
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AggregationParameters;
 import org.apache.atlas.model.discovery.AtlasAggregationEntry;
 import org.apache.atlas.type.AtlasStructType;
 
@@ -36,4 +38,12 @@ public interface SearchAggregator {
      */
     Map<String, List<AtlasAggregationEntry>> getAggregatedMetrics(Set<String> aggregationFields,
                                                                   Set<AtlasStructType.AtlasAttribute> aggregationAttrbutes);
+
+    /**
+     * returns aggregation metrics for the attributes, classifications and range buckets in the aggregation parameters.
+     * @param aggregationParameters attribute names, range and limit of the aggregation
+     * @return the result of aggregations, keyed by the attribute names given in aggregationParameters
+     * @throws AtlasBaseException for unknown or non-indexed attributes, or an invalid range
+     */
+    Map<String, List<AtlasAggregationEntry>> getAggregatedMetrics(AggregationParameters aggregationParameters) throws AtlasBaseException;
 }
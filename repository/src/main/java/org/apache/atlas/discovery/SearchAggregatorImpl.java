@@ -17,9 +17,14 @@
  */
 package org.apache.atlas.discovery;
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AggregationParameters;
+import org.apache.atlas.model.discovery.AggregationParameters.RangeParameters;
 import org.apache.atlas.model.discovery.AtlasAggregationEntry;
 import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.typedef.AtlasBaseTypeDef;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AggregationContext;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
@@ -28,14 +33,22 @@ import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
+import static org.apache.atlas.repository.Constants.ASSET_ENTITY_TYPE;
+
 public class SearchAggregatorImpl implements SearchAggregator {
     private static final Logger LOG = LoggerFactory.getLogger(SearchAggregatorImpl.class);
 
+    private static final int         MAX_RANGE_BUCKETS = 1000;
+    private static final String      GAP_UNIT_MONTH    = "MONTH";
+    private static final String      GAP_UNIT_YEAR     = "YEAR";
+    private static final Set<String> DATE_FIELDS       = new HashSet<>(Arrays.asList(Constants.TIMESTAMP_PROPERTY_KEY, Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY));
+
     private final SearchContext searchContext;
 
 
@@ -50,9 +63,6 @@ public class SearchAggregatorImpl implements SearchAggregator {
         AtlasGraph          graph              = searchContext.getGraph();
         AtlasTypeRegistry   typeRegistry       = searchContext.getTypeRegistry();
         String              queryString        = searchParameters.getQuery();
-        List<PostProcessor> postProcessors     = new ArrayList<>();
-
-        postProcessors.add(new ServiceTypeAggregator(searchContext.getTypeRegistry()));
 
         try {
             AtlasGraphIndexClient graphIndexClient    = graph.getGraphIndexClient();
@@ -88,29 +98,223 @@ public class SearchAggregatorImpl implements SearchAggregator {
 
             Map<String, List<AtlasAggregationEntry>> aggregatedMetrics = graphIndexClient.getAggregatedMetrics(aggregatorContext);
 
-            for (String aggregationMetricName: aggregatedMetrics.keySet()) {
-                for (PostProcessor postProcessor: postProcessors) {
-                    if (postProcessor.needsProcessing(aggregationMetricName)) {
-                        postProcessor.prepareForMetric(aggregationMetricName);
+            postProcess(aggregatedMetrics);
 
-                        for (AtlasAggregationEntry aggregationEntry: aggregatedMetrics.get(aggregationMetricName)) {
-                            postProcessor.process(aggregationEntry);
-                        }
+            return aggregatedMetrics;
+        } catch (AtlasException e) {
+            LOG.error("Error encountered in post processing stage of aggrgation metrics collection. Empty metrics will be returned.", e);
 
-                        postProcessor.handleMetricCompletion(aggregationMetricName);
-                    }
+            return Collections.EMPTY_MAP;
+        }
+    }
+
+    @Override
+    public Map<String, List<AtlasAggregationEntry>> getAggregatedMetrics(AggregationParameters aggregationParameters) throws AtlasBaseException {
+        SearchParameters    searchParameters      = searchContext.getSearchParameters();
+        AtlasTypeRegistry   typeRegistry          = searchContext.getTypeRegistry();
+        Set<String>         aggregationFields     = new HashSet<>();
+        Set<AtlasAttribute> aggregationAttributes = new HashSet<>();
+        Map<String, String> indexFieldNameCache   = new HashMap<>();
+        Map<String, String> metricName2Name       = new HashMap<>(); // attribute qualifiedName -> name given in the request
+
+        // fields used by the query for type, state and classification filters
+        for (String fieldName : Arrays.asList(Constants.ENTITY_TYPE_PROPERTY_KEY, Constants.STATE_PROPERTY_KEY,
+                                              Constants.TRAIT_NAMES_PROPERTY_KEY, Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY)) {
+            indexFieldNameCache.put(fieldName, getIndexFieldNameForCommonFieldName(typeRegistry, fieldName));
+        }
+
+        if (aggregationParameters.getAttributes() != null) {
+            for (String name : aggregationParameters.getAttributes()) {
+                if (typeRegistry.getIndexFieldName(name) != null) {
+                    aggregationFields.add(name);
+                    indexFieldNameCache.put(name, typeRegistry.getIndexFieldName(name));
+                } else {
+                    AtlasAttribute attribute = getIndexedAttribute(name);
+
+                    aggregationAttributes.add(attribute);
+                    indexFieldNameCache.put(attribute.getQualifiedName(), attribute.getIndexFieldName());
+                    metricName2Name.put(attribute.getQualifiedName(), name);
                 }
             }
+        }
 
-            for (PostProcessor postProcessor: postProcessors) {
-                postProcessor.handleCompletion(aggregatedMetrics);
+        if (aggregationParameters.getIncludeClassifications()) {
+            aggregationFields.add(Constants.TRAIT_NAMES_PROPERTY_KEY);
+            aggregationFields.add(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY);
+        }
+
+        RangeParameters range           = aggregationParameters.getRange();
+        String          rangeFieldName  = null;
+        List<Long>      rangeBoundaries = null;
+
+        if (range != null) {
+            String         name          = StringUtils.isNotEmpty(range.getAttributeName()) ? range.getAttributeName() : Constants.TIMESTAMP_PROPERTY_KEY;
+            AtlasAttribute attribute     = null;
+
+            if (range.getGap() <= 0 || range.getEnd() <= range.getStart()) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: end should be greater than start, and gap should be positive");
             }
 
-            return aggregatedMetrics;
+            if (typeRegistry.getIndexFieldName(name) != null) {
+                rangeFieldName = name;
+
+                indexFieldNameCache.put(name, typeRegistry.getIndexFieldName(name));
+            } else {
+                attribute      = getIndexedAttribute(name);
+                rangeFieldName = attribute.getQualifiedName();
+
+                indexFieldNameCache.put(rangeFieldName, attribute.getIndexFieldName());
+                metricName2Name.put(rangeFieldName, name);
+            }
+
+            if (StringUtils.isNotEmpty(range.getGapUnit())) {
+                boolean isDate = attribute != null ? AtlasBaseTypeDef.ATLAS_TYPE_DATE.equals(attribute.getAttributeType().getTypeName())
+                                                   : DATE_FIELDS.contains(name);
+
+                if (!isDate) {
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: gapUnit is supported only for date attributes; " + name + " is not a date attribute");
+                }
+
+                rangeBoundaries = getCalendarBoundaries(range);
+            } else if ((range.getEnd() - range.getStart()) / range.getGap() > MAX_RANGE_BUCKETS) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: number of buckets should not exceed " + MAX_RANGE_BUCKETS);
+            }
+        }
+
+        Set<String> classificationNames = null;
+
+        if (CollectionUtils.isNotEmpty(searchContext.getClassificationTypes())) {
+            classificationNames = CollectionUtils.isNotEmpty(searchContext.getClassificationTypeNames()) ? searchContext.getClassificationTypeNames()
+                                                                                                           : searchContext.getClassificationNames();
+        }
+
+        AggregationContext aggregationContext = new AggregationContext(searchParameters.getQuery(),
+                                                                       searchParameters.getEntityFilters(),
+                                                                       searchContext.getEntityTypes(),
+                                                                       aggregationFields,
+                                                                       aggregationAttributes,
+                                                                       indexFieldNameCache,
+                                                                       searchParameters.getExcludeDeletedEntities(),
+                                                                       searchParameters.getIncludeSubTypes(),
+                                                                       classificationNames,
+                                                                       rangeFieldName,
+                                                                       range != null ? range.getStart() : 0,
+                                                                       range != null ? range.getEnd() : 0,
+                                                                       range != null ? range.getGap() : 0,
+                                                                       rangeBoundaries,
+                                                                       aggregationParameters.getLimit());
+
+        Map<String, List<AtlasAggregationEntry>> ret = new HashMap<>();
+
+        try {
+            Map<String, List<AtlasAggregationEntry>> aggregatedMetrics = searchContext.getGraph().getGraphIndexClient().getAggregatedMetrics(aggregationContext);
+
+            for (Map.Entry<String, List<AtlasAggregationEntry>> entry : aggregatedMetrics.entrySet()) {
+                String metricName = entry.getKey();
+
+                ret.put(metricName2Name.getOrDefault(metricName, metricName), entry.getValue());
+            }
+
+            postProcess(ret);
         } catch (AtlasException e) {
             LOG.error("Error encountered in post processing stage of aggrgation metrics collection. Empty metrics will be returned.", e);
+        }
 
-            return Collections.EMPTY_MAP;
+        return ret;
+    }
+
+    /**
+     * @return start of each calendar bucket of the range, in UTC, followed by the end of the range
+     */
+    static List<Long> getCalendarBoundaries(RangeParameters range) throws AtlasBaseException {
+        final int field;
+
+        if (GAP_UNIT_MONTH.equalsIgnoreCase(range.getGapUnit())) {
+            field = Calendar.MONTH;
+        } else if (GAP_UNIT_YEAR.equalsIgnoreCase(range.getGapUnit())) {
+            field = Calendar.YEAR;
+        } else {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: gapUnit should be one of " + GAP_UNIT_MONTH + ", " + GAP_UNIT_YEAR);
+        }
+
+        if (range.getGap() > Integer.MAX_VALUE) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: number of buckets should not exceed " + MAX_RANGE_BUCKETS);
+        }
+
+        List<Long> ret      = new ArrayList<>();
+        Calendar   calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        calendar.setTimeInMillis(range.getStart());
+
+        while (calendar.getTimeInMillis() < range.getEnd()) {
+            if (ret.size() >= MAX_RANGE_BUCKETS) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "range: number of buckets should not exceed " + MAX_RANGE_BUCKETS);
+            }
+
+            ret.add(calendar.getTimeInMillis());
+
+            calendar.add(field, (int) range.getGap());
+        }
+
+        ret.add(range.getEnd());
+
+        return ret;
+    }
+
+    /**
+     * @return attribute with the given name, of one of the entity types in the search (Asset when no type is given)
+     */
+    private AtlasAttribute getIndexedAttribute(String name) throws AtlasBaseException {
+        Set<AtlasEntityType> entityTypes = searchContext.getEntityTypes();
+
+        if (CollectionUtils.isEmpty(entityTypes)) {
+            AtlasEntityType assetType = searchContext.getTypeRegistry().getEntityTypeByName(ASSET_ENTITY_TYPE);
+
+            entityTypes = assetType != null ? Collections.singleton(assetType) : Collections.emptySet();
+        }
+
+        AtlasAttribute ret = null;
+
+        for (AtlasEntityType entityType : entityTypes) {
+            ret = entityType.getAttribute(name);
+
+            if (ret != null) {
+                break;
+            }
+        }
+
+        if (ret == null) {
+            throw new AtlasBaseException(AtlasErrorCode.UNKNOWN_ATTRIBUTE, name, searchContext.getSearchParameters().getTypeName());
+        }
+
+        if (ret.getIndexFieldName() == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "attribute " + name + " is not indexed");
+        }
+
+        return ret;
+    }
+
+    private void postProcess(Map<String, List<AtlasAggregationEntry>> aggregatedMetrics) {
+        List<PostProcessor> postProcessors = new ArrayList<>();
+
+        postProcessors.add(new ServiceTypeAggregator(searchContext.getTypeRegistry()));
+
+        for (String aggregationMetricName: aggregatedMetrics.keySet()) {
+            for (PostProcessor postProcessor: postProcessors) {
+                if (postProcessor.needsProcessing(aggregationMetricName)) {
+                    postProcessor.prepareForMetric(aggregationMetricName);
+
+                    for (AtlasAggregationEntry aggregationEntry: aggregatedMetrics.get(aggregationMetricName)) {
+                        postProcessor.process(aggregationEntry);
+                    }
+
+                    postProcessor.handleMetricCompletion(aggregationMetricName);
+                }
+            }
+        }
+
+        for (PostProcessor postProcessor: postProcessors) {
+            postProcessor.handleCompletion(aggregatedMetrics);
         }
     }
 
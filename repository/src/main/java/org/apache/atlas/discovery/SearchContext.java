@@ -44,6 +44,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import static org.apache.atlas.discovery.SearchProcessor.ALL_TYPE_QUERY;
@@ -71,6 +72,10 @@ public class SearchContext {
     private final String                  classificationTypeAndSubTypesQryStr;
     private boolean                       terminateSearch = false;
     private SearchProcessor               searchProcessor;
+    private SearchCursor                  searchCursor;
+    private SearchCursor                  nextSearchCursor;
+    private boolean                       isSearchCursorDisabled = false;
+    private final ExecutorService         parallelSearchExecutor;
 
     public final static AtlasClassificationType MATCH_ALL_WILDCARD_CLASSIFICATION = new AtlasClassificationType(new AtlasClassificationDef(WILDCARD_CLASSIFICATIONS));
     public final static AtlasClassificationType MATCH_ALL_CLASSIFIED              = new AtlasClassificationType(new AtlasClassificationDef(ALL_CLASSIFICATIONS));
@@ -81,7 +86,16 @@ public class SearchContext {
 
 
     public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys) throws AtlasBaseException {
+        this(searchParameters, typeRegistry, graph, indexedKeys, null);
+    }
+
+    /**
+     * @param parallelSearchExecutor worker threads for ParallelIntersectSearchProcessor; null to run classification and
+     *                               entity queries serially
+     */
+    public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys, ExecutorService parallelSearchExecutor) throws AtlasBaseException {
         this.searchParameters   = searchParameters;
+        this.parallelSearchExecutor = parallelSearchExecutor;
         this.typeRegistry       = typeRegistry;
         this.graph              = graph;
         this.indexedKeys        = indexedKeys;
@@ -196,12 +210,24 @@ public class SearchContext {
             }
         }
 
-        if (needClassificationProcessor()) {
-            addProcessor(new ClassificationSearchProcessor(this));
+        if (needParallelIntersectProcessor()) {
+            LOG.debug("Using parallel classification and entity search.");
+
+            addProcessor(new ParallelIntersectSearchProcessor(this));
+        } else {
+            if (needClassificationProcessor()) {
+                addProcessor(new ClassificationSearchProcessor(this));
+            }
+
+            if (needEntityProcessor()) {
+                addProcessor(new EntitySearchProcessor(this));
+            }
         }
 
-        if (needEntityProcessor()) {
-            addProcessor(new EntitySearchProcessor(this));
+        if (StringUtils.isNotEmpty(searchParameters.getCursor())) {
+            this.searchCursor = SearchCursor.decode(searchParameters.getCursor(), getSearchSignature());
+
+            searchParameters.setOffset(searchCursor.getResultOffset());
         }
     }
 
@@ -231,6 +257,38 @@ public class SearchContext {
 
     public Set<String> getClassificationNames() {return classificationNames;}
 
+    /**
+     * @return position to resume the search from, or null if the search starts at SearchParameters.offset
+     */
+    SearchCursor getSearchCursor() { return isSearchCursorDisabled ? null : searchCursor; }
+
+    /**
+     * Record the position following the last result collected by the first search processor. When the entities to
+     * de-duplicate against don't fit in a cursor, the next page restarts the query at 0 and skips the results returned so far
+     */
+    void setNextSearchCursor(int queryOffset, int skipCount, int resultCount, Collection<String> dedupGuids) {
+        if (!isSearchCursorDisabled) {
+            int resultOffset = searchParameters.getOffset() + resultCount;
+
+            if (dedupGuids != null && dedupGuids.size() > SearchCursor.MAX_DEDUP_GUIDS) {
+                this.nextSearchCursor = new SearchCursor(getSearchSignature(), 0, resultOffset, resultOffset, null);
+            } else {
+                this.nextSearchCursor = new SearchCursor(getSearchSignature(), queryOffset, skipCount, resultOffset, dedupGuids);
+            }
+        }
+    }
+
+    /**
+     * Page by SearchParameters.offset only: the incoming cursor is ignored and no cursor is issued for the next page.
+     * Used when a processor falls back to a different execution than the one the cursor positions refer to
+     */
+    void disableSearchCursor() {
+        this.isSearchCursorDisabled = true;
+        this.nextSearchCursor       = null;
+    }
+
+    public String getNextCursor() { return nextSearchCursor != null ? nextSearchCursor.encode() : null; }
+
     public boolean includeEntityType(String entityType) {
         return typeAndSubTypes.isEmpty() || typeAndSubTypes.contains(entityType);
     }
@@ -274,6 +332,36 @@ public class SearchContext {
         return toString(new StringBuilder()).toString();
     }
 
+    // identifies the query and the processor chain a cursor was issued for; paging attributes are excluded
+    private String getSearchSignature() {
+        return Integer.toHexString(getSearchKey().hashCode());
+    }
+
+    /**
+     * @return the query and the processor chain of this search, excluding paging attributes
+     */
+    String getSearchKey() {
+        StringBuilder sb = new StringBuilder();
+
+        for (SearchProcessor processor = searchProcessor; processor != null; processor = processor.nextProcessor) {
+            sb.append(processor.getClass().getSimpleName()).append('>');
+        }
+
+        sb.append(searchParameters.getQuery()).append('|')
+          .append(searchParameters.getTypeName()).append('|')
+          .append(searchParameters.getClassification()).append('|')
+          .append(searchParameters.getTermName()).append('|')
+          .append(searchParameters.getExcludeDeletedEntities()).append('|')
+          .append(searchParameters.getIncludeSubTypes()).append('|')
+          .append(searchParameters.getIncludeSubClassifications()).append('|')
+          .append(searchParameters.getEntityFilters()).append('|')
+          .append(searchParameters.getTagFilters()).append('|')
+          .append(searchParameters.getSortBy()).append('|')
+          .append(searchParameters.getSortOrder());
+
+        return sb.toString();
+    }
+
     boolean needFullTextProcessor() {
         return StringUtils.isNotEmpty(searchParameters.getQuery());
     }
@@ -293,6 +381,14 @@ public class SearchContext {
         return CollectionUtils.isNotEmpty(entityTypes);
     }
 
+    boolean needParallelIntersectProcessor() {
+        return searchProcessor == null && needClassificationProcessor() && needEntityProcessor() && parallelSearchExecutor != null;
+    }
+
+    ExecutorService getParallelSearchExecutor() {
+        return parallelSearchExecutor;
+    }
+
     private void validateAttributes(final AtlasStructType structType, final FilterCriteria filterCriteria) throws AtlasBaseException {
         if (filterCriteria != null) {
             FilterCriteria.Condition condition = filterCriteria.getCondition();
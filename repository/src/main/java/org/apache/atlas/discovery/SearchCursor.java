@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position of a basic search in the index query of its first search processor. A cursor lets the next page resume
+ * from where the previous page stopped, instead of re-reading and re-filtering every earlier page.
+ */
+final class SearchCursor {
+    private static final String TOKEN_SEPARATOR = ":";
+    private static final String GUID_SEPARATOR  = ",";
+
+    // beyond this, a cursor restarts the query at offset 0 instead of carrying the guids - to keep the cursor short enough for a URL
+    static final int MAX_DEDUP_GUIDS = 50;
+
+    private final String       signature;
+    private final int          queryOffset;
+    private final int          skipCount;
+    private final int          resultOffset;
+    private final List<String> dedupGuids;
+
+    /**
+     * @param signature    identifies the search (parameters and processor chain) the cursor was issued for
+     * @param queryOffset  offset of the index/graph query page to resume from
+     * @param skipCount    number of filtered results in that page already returned
+     * @param resultOffset number of results returned so far, i.e. the equivalent of SearchParameters.offset
+     * @param dedupGuids   guids of entities read before queryOffset that can be read again later in the query, like
+     *                     entities reached through more than one classification; these must not be returned again
+     */
+    SearchCursor(String signature, int queryOffset, int skipCount, int resultOffset, Collection<String> dedupGuids) {
+        this.signature    = signature;
+        this.queryOffset  = queryOffset;
+        this.skipCount    = skipCount;
+        this.resultOffset = resultOffset;
+        this.dedupGuids   = dedupGuids != null ? new ArrayList<>(dedupGuids) : Collections.emptyList();
+    }
+
+    int getQueryOffset() { return queryOffset; }
+
+    int getSkipCount() { return skipCount; }
+
+    int getResultOffset() { return resultOffset; }
+
+    List<String> getDedupGuids() { return dedupGuids; }
+
+    String encode() {
+        String token = StringUtils.join(new Object[] { signature, queryOffset, skipCount, resultOffset, StringUtils.join(dedupGuids, GUID_SEPARATOR) }, TOKEN_SEPARATOR);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(String cursor, String signature) throws AtlasBaseException {
+        final String[] parts;
+
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(TOKEN_SEPARATOR, 5);
+        } catch (IllegalArgumentException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+        }
+
+        // a cursor is valid only for the search that returned it
+        if (parts.length != 5 || !parts[0].equals(signature)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+        }
+
+        try {
+            int queryOffset  = Integer.parseInt(parts[1]);
+            int skipCount    = Integer.parseInt(parts[2]);
+            int resultOffset = Integer.parseInt(parts[3]);
+
+            if (queryOffset < 0 || skipCount < 0 || resultOffset < 0) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+            }
+
+            List<String> dedupGuids = parts[4].isEmpty() ? Collections.emptyList() : Arrays.asList(parts[4].split(GUID_SEPARATOR));
+
+            return new SearchCursor(signature, queryOffset, skipCount, resultOffset, dedupGuids);
+        } catch (NumberFormatException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+        }
+    }
+}
@@ -196,6 +196,63 @@ public abstract class SearchProcessor {
         return resultIdx;
     }
 
+    /**
+     * Same as collectResultVertices() above; in addition, once the page is filled records the position of the next
+     * result in SearchContext, so that the next page can resume from qryOffset instead of starting at 0
+     */
+    protected int collectResultVertices(final List<AtlasVertex> ret, final int startIdx, final int limit, int resultIdx, final List<AtlasVertex> entityVertices,
+                                        final int qryOffset, final boolean isLastResultPage) {
+        final int pageStartIdx = resultIdx;
+
+        resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+        if (ret.size() == limit) {
+            final int consumedCount = resultIdx - pageStartIdx;
+
+            if (consumedCount < entityVertices.size()) {
+                context.setNextSearchCursor(qryOffset, consumedCount, ret.size(), getCursorDedupGuids(qryOffset));
+            } else if (!isLastResultPage) { // page fully consumed: resume from the next page
+                context.setNextSearchCursor(qryOffset + limit, 0, ret.size(), getCursorDedupGuids(qryOffset + limit));
+            }
+        }
+
+        return resultIdx;
+    }
+
+    /**
+     * @return guids of entities read from query pages before queryOffset, that a page resuming at queryOffset must not
+     *         return again. Empty for processors that read each entity at most once
+     */
+    protected Collection<String> getCursorDedupGuids(int queryOffset) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return number of filtered results to skip: SearchParameters.offset, or when resuming from a cursor the results
+     *         of the cursor's query page that were returned already
+     */
+    protected int getStartIndex() {
+        final SearchCursor cursor = context.getSearchCursor();
+
+        return cursor != null ? cursor.getSkipCount() : context.getSearchParameters().getOffset();
+    }
+
+    /**
+     * @return offset of the first index/graph query page to read
+     */
+    protected int getStartQueryOffset(int defaultOffset) {
+        final SearchCursor cursor = context.getSearchCursor();
+
+        return cursor != null ? cursor.getQueryOffset() : defaultOffset;
+    }
+
+    /**
+     * @return initial resultIdx for collectResultVertices(): entries before qryOffset count as skipped, unless resuming from a cursor
+     */
+    protected int getStartResultIndex(int qryOffset) {
+        return context.getSearchCursor() != null ? 0 : qryOffset;
+    }
+
     public void filter(List<AtlasVertex> entityVertices) {
         if (nextProcessor != null && CollectionUtils.isNotEmpty(entityVertices)) {
             nextProcessor.filter(entityVertices);
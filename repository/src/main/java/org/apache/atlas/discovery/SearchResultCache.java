@@ -0,0 +1,425 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.authorize.AtlasAuthorizationUtils;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of basic and quick search results, keyed by the normalized search parameters and the
+ * authorization scope (user and groups) of the caller. Only guids of the results are cached; entity headers are
+ * always read from the graph, and scrubbed, for every search.
+ *
+ * Each entry records change counters of the entity types it was searched in, as of before the search was run.
+ * Counters are incremented after commit of a transaction that adds, updates or deletes entities of a type, or their
+ * classifications, terms, labels or business attributes; an entry whose counters moved is not served.
+ */
+@Component
+public class SearchResultCache implements EntityChangeListenerV2, TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResultCache.class);
+
+    public static final String SEARCH_RESULT_CACHE_ENABLED     = "atlas.search.result.cache.enabled";
+    public static final String SEARCH_RESULT_CACHE_MAX_ENTRIES = "atlas.search.result.cache.max.entries";
+    public static final String SEARCH_RESULT_CACHE_TTL_SECONDS = "atlas.search.result.cache.ttl.seconds";
+
+    // counter of changes to entities of any type; searches not restricted to entity types depend on it
+    static final String ALL_TYPES = "*";
+
+    private final boolean                           isEnabled;
+    private final Cache<String, CachedSearchResult> cache;
+    private final Map<String, AtomicLong>           changeCounters    = new ConcurrentHashMap<>();
+    private final AtomicLong                        hitCount          = new AtomicLong();
+    private final AtomicLong                        missCount         = new AtomicLong();
+    private final AtomicLong                        staleCount        = new AtomicLong();
+    private final ThreadLocal<InvalidationHook>     invalidationHooks = new ThreadLocal<>();
+
+    @Inject
+    public SearchResultCache(Configuration configuration) {
+        long maxEntries = configuration != null ? configuration.getLong(SEARCH_RESULT_CACHE_MAX_ENTRIES, 1000) : 1000;
+        long ttlSeconds = configuration != null ? configuration.getLong(SEARCH_RESULT_CACHE_TTL_SECONDS, 30) : 30;
+
+        this.isEnabled = configuration != null && configuration.getBoolean(SEARCH_RESULT_CACHE_ENABLED, false) && maxEntries > 0 && ttlSeconds > 0;
+        this.cache     = CacheBuilder.newBuilder()
+                                     .maximumSize(Math.max(maxEntries, 0))
+                                     .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                                     .recordStats()
+                                     .build();
+
+        if (isEnabled && !AtlasRepositoryConfiguration.isV2EntityNotificationEnabled()) {
+            LOG.warn("{}=true is ignored, as it requires v2 entity notifications", SEARCH_RESULT_CACHE_ENABLED);
+        }
+
+        LOG.info("{}={}", SEARCH_RESULT_CACHE_ENABLED, isEnabled());
+        LOG.info("{}={}", SEARCH_RESULT_CACHE_MAX_ENTRIES, maxEntries);
+        LOG.info("{}={}", SEARCH_RESULT_CACHE_TTL_SECONDS, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled && AtlasRepositoryConfiguration.isV2EntityNotificationEnabled();
+    }
+
+    /**
+     * @return key of the search in the given context for the current user; null if the cache is disabled
+     */
+    public String getKey(SearchContext searchContext) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        SearchParameters searchParameters = searchContext.getSearchParameters();
+
+        return AtlasAuthorizationUtils.getCurrentUserName() + "|" + new TreeSet<>(AtlasAuthorizationUtils.getCurrentUserGroups()) + "|" + AtlasType.toJson(searchParameters);
+    }
+
+    /**
+     * @return cached result of the search with the given key; null if not cached, or if entities searched for changed since
+     */
+    public CachedSearchResult get(String key) {
+        CachedSearchResult ret = key != null ? cache.getIfPresent(key) : null;
+
+        if (ret == null) {
+            missCount.incrementAndGet();
+        } else if (!isCurrent(ret)) {
+            cache.invalidate(key);
+
+            staleCount.incrementAndGet();
+            missCount.incrementAndGet();
+
+            ret = null;
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        return ret;
+    }
+
+    /**
+     * To be called before the search is run: the returned object records change counters of the searched types.
+     */
+    public CachedSearchResult newResult(SearchContext searchContext) {
+        return newResult(getDependentTypeNames(searchContext));
+    }
+
+    public void put(String key, CachedSearchResult result) {
+        if (key != null && result != null && isCurrent(result)) {
+            cache.put(key, result);
+        }
+    }
+
+    /**
+     * Marks results of searches in the given entity types, and in all entity types, as stale.
+     */
+    public void onTypesChanged(Collection<String> typeNames) {
+        if (CollectionUtils.isEmpty(typeNames)) {
+            return;
+        }
+
+        getChangeCounter(ALL_TYPES).incrementAndGet();
+
+        for (String typeName : typeNames) {
+            getChangeCounter(typeName).incrementAndGet();
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> ret   = new LinkedHashMap<>();
+        CacheStats          stats = cache.stats();
+        long                hits  = hitCount.get();
+        long                total = hits + missCount.get();
+
+        ret.put("enabled", isEnabled());
+        ret.put("entries", cache.size());
+        ret.put("hitCount", hits);
+        ret.put("missCount", missCount.get());
+        ret.put("hitRate", total > 0 ? (double) hits / total : 1.0);
+        ret.put("staleCount", staleCount.get());
+        ret.put("evictionCount", stats.evictionCount());
+
+        return ret;
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) throws AtlasBaseException {
+        // sub-types searched for a type might have changed
+        clear();
+    }
+
+    @Override
+    public void onLoadCompletion() throws AtlasBaseException {
+        clear();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+        onObjectIdsChanged(entities);
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+        onObjectIdsChanged(entities);
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (!isEnabled() || CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+
+        Set<String> typeNames = getInvalidationHook().typeNames;
+
+        for (AtlasEntity entity : entities) {
+            if (entity != null && entity.getTypeName() != null) {
+                typeNames.add(entity.getTypeName());
+            }
+        }
+    }
+
+    private void onObjectIdsChanged(List<? extends AtlasObjectId> objectIds) {
+        if (!isEnabled() || CollectionUtils.isEmpty(objectIds)) {
+            return;
+        }
+
+        Set<String> typeNames = getInvalidationHook().typeNames;
+
+        for (AtlasObjectId objectId : objectIds) {
+            if (objectId != null && objectId.getTypeName() != null) {
+                typeNames.add(objectId.getTypeName());
+            }
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        if (!isEnabled() || CollectionUtils.isEmpty(relationships)) {
+            return;
+        }
+
+        for (AtlasRelationship relationship : relationships) {
+            onObjectIdsChanged(Arrays.asList(relationship.getEnd1(), relationship.getEnd2()));
+        }
+    }
+
+    @VisibleForTesting
+    CachedSearchResult newResult(Set<String> dependentTypeNames) {
+        Map<String, Long> typeChangeCounters = new HashMap<>();
+
+        for (String typeName : dependentTypeNames) {
+            typeChangeCounters.put(typeName, getChangeCounter(typeName).get());
+        }
+
+        return new CachedSearchResult(typeChangeCounters);
+    }
+
+    private Set<String> getDependentTypeNames(SearchContext searchContext) {
+        Set<AtlasEntityType> entityTypes = searchContext.getEntityTypes();
+
+        if (CollectionUtils.isEmpty(entityTypes) || entityTypes.contains(SearchContext.MATCH_ALL_ENTITY_TYPES)) {
+            return Collections.singleton(ALL_TYPES);
+        }
+
+        Set<String> ret = new HashSet<>();
+
+        for (AtlasEntityType entityType : entityTypes) {
+            ret.addAll(entityType.getTypeAndAllSubTypes());
+        }
+
+        return ret;
+    }
+
+    private boolean isCurrent(CachedSearchResult result) {
+        for (Map.Entry<String, Long> entry : result.typeChangeCounters.entrySet()) {
+            if (getChangeCounter(entry.getKey()).get() != entry.getValue()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private AtomicLong getChangeCounter(String typeName) {
+        return changeCounters.computeIfAbsent(typeName, k -> new AtomicLong());
+    }
+
+    private InvalidationHook getInvalidationHook() {
+        InvalidationHook ret = invalidationHooks.get();
+
+        if (ret == null) {
+            ret = new InvalidationHook();
+
+            invalidationHooks.set(ret);
+        }
+
+        return ret;
+    }
+
+    public static class CachedSearchResult {
+        private final Map<String, Long> typeChangeCounters;
+        private List<String>            guids;
+        private long                    approximateCount;
+        private String                  nextCursor;
+
+        CachedSearchResult(Map<String, Long> typeChangeCounters) {
+            this.typeChangeCounters = typeChangeCounters;
+        }
+
+        public List<String> getGuids() { return guids; }
+
+        public void setGuids(List<String> guids) { this.guids = guids; }
+
+        public long getApproximateCount() { return approximateCount; }
+
+        public void setApproximateCount(long approximateCount) { this.approximateCount = approximateCount; }
+
+        public String getNextCursor() { return nextCursor; }
+
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    }
+
+    private class InvalidationHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final Set<String> typeNames = new HashSet<>();
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            invalidationHooks.remove();
+
+            if (isSuccess) {
+                onTypesChanged(typeNames);
+            }
+        }
+    }
+}
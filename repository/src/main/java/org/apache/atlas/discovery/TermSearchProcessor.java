@@ -60,13 +60,13 @@ public class TermSearchProcessor extends SearchProcessor {
 
         try {
             if (CollectionUtils.isNotEmpty(assignedEntities)) {
-                final int               startIdx = context.getSearchParameters().getOffset();
+                final int               startIdx = getStartIndex();
                 final int               limit    = context.getSearchParameters().getLimit();
                 final List<AtlasVertex> tmpList  = new ArrayList<>(assignedEntities);
 
                 super.filter(tmpList);
 
-                collectResultVertices(ret, startIdx, limit, 0, tmpList);
+                collectResultVertices(ret, startIdx, limit, 0, tmpList, 0, true);
             }
         } finally {
             AtlasPerfTracer.log(perf);
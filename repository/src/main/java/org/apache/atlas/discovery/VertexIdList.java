@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import java.util.Arrays;
+
+/**
+ * Bounded list of numeric vertex ids, held in a primitive long array
+ */
+class VertexIdList {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int     maxSize;
+    private       long[]  ids;
+    private       int     size     = 0;
+    private       boolean isSorted = false;
+
+    VertexIdList(int maxSize) {
+        this.maxSize = maxSize;
+        this.ids     = new long[Math.max(1, Math.min(INITIAL_CAPACITY, maxSize))];
+    }
+
+    /**
+     * @return false if the id is not numeric, or if the list already has maxSize ids
+     */
+    boolean add(Object id) {
+        if (!(id instanceof Number) || size >= maxSize) {
+            return false;
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, (int) Math.min(2L * ids.length, maxSize));
+        }
+
+        ids[size++] = ((Number) id).longValue();
+        isSorted    = false;
+
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int idx) {
+        return ids[idx];
+    }
+
+    /**
+     * Sort the ids in ascending order and remove duplicates
+     */
+    void sortUnique() {
+        if (isSorted) {
+            return;
+        }
+
+        Arrays.sort(ids, 0, size);
+
+        int uniqueCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (uniqueCount == 0 || ids[i] != ids[uniqueCount - 1]) {
+                ids[uniqueCount++] = ids[i];
+            }
+        }
+
+        size     = uniqueCount;
+        isSorted = true;
+    }
+
+    /**
+     * @return ids of this list that are also in the given list, in the order of this list
+     */
+    VertexIdList retainAll(VertexIdList other) {
+        other.sortUnique();
+
+        VertexIdList ret = new VertexIdList(Math.min(size, other.size));
+
+        for (int i = 0; i < size; i++) {
+            if (Arrays.binarySearch(other.ids, 0, other.size, ids[i]) >= 0) {
+                ret.add(ids[i]);
+            }
+        }
+
+        return ret;
+    }
+}
@@ -82,6 +82,10 @@ public class AtlasDSL {
 
             return ret;
         }
+
+        public static boolean hasLimitOffset(String queryStr) throws AtlasBaseException {
+            return new QueryMetadata(parse(queryStr)).hasLimitOffset();
+        }
     }
 
     static class Validator extends BaseErrorListener {
@@ -113,8 +117,12 @@ public class AtlasDSL {
         private final String                      query;
 
         public Translator(String query, AtlasTypeRegistry typeRegistry, int offset, int limit) throws AtlasBaseException {
+            this(query, Parser.parse(query), typeRegistry, offset, limit);
+        }
+
+        Translator(String query, AtlasDSLParser.QueryContext queryContext, AtlasTypeRegistry typeRegistry, int offset, int limit) {
             this.query        = query;
-            this.queryContext = Parser.parse(query);
+            this.queryContext = queryContext;
             this.typeRegistry = typeRegistry;
             this.offset       = offset;
             this.limit        = limit;
@@ -128,7 +136,10 @@ public class AtlasDSL {
 
             processErrorList(queryComposer);
 
-            return new GremlinQuery(queryComposer.get(), queryMetadata, queryComposer.clauses(), queryComposer.getSelectComposer());
+            int queryLimit  = queryMetadata.hasLimitOffset() ? queryMetadata.getResolvedLimit() : limit;
+            int queryOffset = queryMetadata.hasLimitOffset() ? queryMetadata.getResolvedOffset() : offset;
+
+            return new GremlinQuery(queryComposer.get(), queryMetadata, queryComposer.clauses(), queryComposer.getSelectComposer(), queryLimit, queryOffset);
         }
 
         private void processErrorList(GremlinQueryComposer gremlinQueryComposer) throws AtlasBaseException {
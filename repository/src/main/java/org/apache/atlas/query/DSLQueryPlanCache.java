@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.query.antlr4.AtlasDSLParser;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of DSL query plans - parse tree, and the Gremlin query/clause list translated from it - keyed by the DSL text
+ * with insignificant whitespace removed. Plans are independent of the limit and offset a query is executed with: a DSL
+ * query without its own limit/offset is translated with placeholder values, which are replaced in the range clause of
+ * the plan when it is executed.
+ *
+ * Translations depend on types in AtlasTypeRegistry, and are dropped once a type update is committed. Time spent to
+ * parse, translate and execute DSL queries is recorded separately, per request and in total.
+ */
+@Component
+public class DSLQueryPlanCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DSLQueryPlanCache.class);
+
+    public static final String DSL_PLAN_CACHE_ENABLED     = "atlas.dsl.plan.cache.enabled";
+    public static final String DSL_PLAN_CACHE_MAX_ENTRIES = "atlas.dsl.plan.cache.max.entries";
+
+    // limit/offset of translations that are not specific to a page; a non-zero offset, for the translation to have a range clause
+    private static final int      PAGING_LIMIT    = Integer.MAX_VALUE - 2;
+    private static final int      PAGING_OFFSET   = Integer.MAX_VALUE - 1;
+    private static final String[] PAGING_CLAUSE   = getRangeClauseValues(PAGING_LIMIT, PAGING_OFFSET);
+    private static final String   PAGING_QUERYSTR = GremlinClause.RANGE.get(PAGING_CLAUSE);
+
+    private final AtlasTypeRegistry          typeRegistry;
+    private final boolean                    isEnabled;
+    private final Cache<String, ParsedQuery> parsedQueries;
+    private final Cache<String, QueryPlan>   queryPlans;
+    private final AtomicLong                 hitCount       = new AtomicLong();
+    private final AtomicLong                 missCount      = new AtomicLong();
+    private final AtomicLong                 parseCount     = new AtomicLong();
+    private final AtomicLong                 parseTime      = new AtomicLong();
+    private final AtomicLong                 translateCount = new AtomicLong();
+    private final AtomicLong                 translateTime  = new AtomicLong();
+    private final AtomicLong                 executeCount   = new AtomicLong();
+    private final AtomicLong                 executeTime    = new AtomicLong();
+    private volatile long                    typeRegistryVersion;
+
+    @Inject
+    public DSLQueryPlanCache(AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        long maxEntries = configuration != null ? configuration.getLong(DSL_PLAN_CACHE_MAX_ENTRIES, 1000) : 1000;
+
+        this.typeRegistry        = typeRegistry;
+        this.isEnabled           = (configuration == null || configuration.getBoolean(DSL_PLAN_CACHE_ENABLED, true)) && maxEntries > 0;
+        this.parsedQueries       = CacheBuilder.newBuilder().maximumSize(Math.max(maxEntries, 0)).build();
+        this.queryPlans          = CacheBuilder.newBuilder().maximumSize(Math.max(maxEntries, 0)).build();
+        this.typeRegistryVersion = typeRegistry.getVersion();
+
+        LOG.info("{}={}", DSL_PLAN_CACHE_ENABLED, isEnabled);
+        LOG.info("{}={}", DSL_PLAN_CACHE_MAX_ENTRIES, maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @return Gremlin query translated from the given DSL query; limit and offset are used only if the DSL query doesn't specify them
+     */
+    public GremlinQuery getGremlinQuery(String dslQuery, int limit, int offset) throws AtlasBaseException {
+        String      query       = normalize(dslQuery);
+        ParsedQuery parsedQuery = getParsedQuery(query);
+        long        version     = typeRegistry.getVersion();
+        boolean     isPaged     = !parsedQuery.metadata.hasLimitOffset();
+        QueryPlan   plan        = isEnabled ? getQueryPlan(query, version) : null;
+
+        if (plan == null) {
+            missCount.incrementAndGet();
+
+            MetricRecorder metric    = RequestContext.get().startMetricRecord("dslTranslate");
+            long           startTime = System.currentTimeMillis();
+
+            try {
+                // limit/offset of the translation are not used when the DSL query has its own
+                plan = new QueryPlan(version, new AtlasDSL.Translator(query, parsedQuery.queryContext, typeRegistry, PAGING_OFFSET, PAGING_LIMIT).translate());
+            } finally {
+                translateCount.incrementAndGet();
+                translateTime.addAndGet(System.currentTimeMillis() - startTime);
+
+                RequestContext.get().endMetricRecord(metric);
+            }
+
+            if (isEnabled) {
+                queryPlans.put(query, plan);
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        // GremlinQuery holds the traversal of an execution, hence a new instance for each
+        GremlinQuery ret = isPaged ? plan.getGremlinQuery(parsedQuery.metadata, limit, offset)
+                                   : new GremlinQuery(plan.queryStr, parsedQuery.metadata, plan.clauses, plan.selectComposer, parsedQuery.metadata.getResolvedLimit(), parsedQuery.metadata.getResolvedOffset());
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Translated Gremlin Query: {}", ret.queryStr());
+        }
+
+        return ret;
+    }
+
+    public void recordExecuteTime(long timeMs) {
+        executeCount.incrementAndGet();
+        executeTime.addAndGet(timeMs);
+    }
+
+    public void clear() {
+        parsedQueries.invalidateAll();
+        queryPlans.invalidateAll();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        ret.put("enabled", isEnabled);
+        ret.put("entries", queryPlans.size());
+        ret.put("hitCount", hitCount.get());
+        ret.put("missCount", missCount.get());
+        ret.put("parseCount", parseCount.get());
+        ret.put("avgParseTimeMs", getAverage(parseTime, parseCount));
+        ret.put("translateCount", translateCount.get());
+        ret.put("avgTranslateTimeMs", getAverage(translateTime, translateCount));
+        ret.put("executeCount", executeCount.get());
+        ret.put("avgExecuteTimeMs", getAverage(executeTime, executeCount));
+
+        return ret;
+    }
+
+    /**
+     * Collapses whitespace outside of quoted strings to a single space, and removes leading/trailing whitespace.
+     */
+    @VisibleForTesting
+    static String normalize(String query) {
+        StringBuilder sb           = new StringBuilder(query.length());
+        char          quote        = 0;
+        boolean       isEscaped    = false;
+        boolean       pendingSpace = false;
+
+        for (char c : query.trim().toCharArray()) {
+            if (quote != 0) {
+                if (isEscaped) {
+                    isEscaped = false;
+                } else if (c == '\\') {
+                    isEscaped = true;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+
+                sb.append(c);
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+
+                    pendingSpace = false;
+                }
+
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                }
+
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private ParsedQuery getParsedQuery(String query) throws AtlasBaseException {
+        ParsedQuery ret = isEnabled ? parsedQueries.getIfPresent(query) : null;
+
+        if (ret == null) {
+            MetricRecorder metric    = RequestContext.get().startMetricRecord("dslParse");
+            long           startTime = System.currentTimeMillis();
+
+            try {
+                AtlasDSLParser.QueryContext queryContext = AtlasDSL.Parser.parse(query);
+
+                ret = new ParsedQuery(queryContext, new AtlasDSL.QueryMetadata(queryContext));
+            } finally {
+                parseCount.incrementAndGet();
+                parseTime.addAndGet(System.currentTimeMillis() - startTime);
+
+                RequestContext.get().endMetricRecord(metric);
+            }
+
+            if (isEnabled) {
+                parsedQueries.put(query, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private static String[] getRangeClauseValues(int limit, int offset) {
+        String limitStr  = Integer.toString(limit);
+        String offsetStr = Integer.toString(offset);
+
+        // as added by GremlinQueryComposer
+        return new String[] { offsetStr, offsetStr, limitStr, offsetStr, offsetStr, limitStr };
+    }
+
+    private QueryPlan getQueryPlan(String planKey, long version) {
+        if (version != typeRegistryVersion) {
+            synchronized (this) {
+                if (version != typeRegistryVersion) {
+                    LOG.info("type registry version changed from {} to {}: clearing {} DSL query plans", typeRegistryVersion, version, queryPlans.size());
+
+                    queryPlans.invalidateAll();
+
+                    typeRegistryVersion = version;
+                }
+            }
+        }
+
+        QueryPlan ret = queryPlans.getIfPresent(planKey);
+
+        // plan translated with types of an earlier version, put after the cache was cleared
+        return ret != null && ret.typeRegistryVersion == version ? ret : null;
+    }
+
+    private static long getAverage(AtomicLong total, AtomicLong count) {
+        long n = count.get();
+
+        return n > 0 ? total.get() / n : 0;
+    }
+
+    private static class ParsedQuery {
+        final AtlasDSLParser.QueryContext queryContext;
+        final AtlasDSL.QueryMetadata      metadata;
+
+        ParsedQuery(AtlasDSLParser.QueryContext queryContext, AtlasDSL.QueryMetadata metadata) {
+            this.queryContext = queryContext;
+            this.metadata     = metadata;
+        }
+    }
+
+    private static class QueryPlan {
+        final long                 typeRegistryVersion;
+        final String               queryStr;
+        final GremlinClauseList    clauses;
+        final SelectClauseComposer selectComposer;
+
+        QueryPlan(long typeRegistryVersion, GremlinQuery gremlinQuery) {
+            this.typeRegistryVersion = typeRegistryVersion;
+            this.queryStr            = gremlinQuery.queryStr();
+            this.clauses             = gremlinQuery.getClauses();
+            this.selectComposer      = gremlinQuery.getSelectComposer();
+        }
+
+        // replaces the placeholder limit/offset of a plan translated with PAGING_LIMIT/PAGING_OFFSET
+        GremlinQuery getGremlinQuery(AtlasDSL.QueryMetadata metadata, int limit, int offset) {
+            int idxRange = clauses.contains(GremlinClause.RANGE);
+
+            if (idxRange == -1) { // no limit is applied to select queries with only aggregations
+                return new GremlinQuery(queryStr, metadata, clauses, selectComposer, limit, offset);
+            }
+
+            GremlinQueryComposer.GremlinClauseValue range      = new GremlinQueryComposer.GremlinClauseValue(GremlinClause.RANGE, getRangeClauseValues(limit, offset));
+            String                                  pagedQuery = queryStr.replace(PAGING_QUERYSTR, range.getClauseWithValue());
+
+            return new GremlinQuery(pagedQuery, metadata, clauses.replace(idxRange, range), selectComposer, limit, offset);
+        }
+    }
+}
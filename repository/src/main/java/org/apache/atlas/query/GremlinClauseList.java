@@ -88,6 +88,19 @@ public class GremlinClauseList {
         list.clear();
     }
 
+    /**
+     * @return copy of this list, with the clause at the given index replaced; sub-clauses are shared with this list
+     */
+    public GremlinClauseList replace(int index, GremlinQueryComposer.GremlinClauseValue clauseValue) {
+        GremlinClauseList ret = new GremlinClauseList();
+
+        ret.list.addAll(list);
+        ret.list.set(index, clauseValue);
+        ret.subClauses.putAll(subClauses);
+
+        return ret;
+    }
+
     public GremlinQueryComposer.GremlinClauseValue remove(int index) {
         GremlinQueryComposer.GremlinClauseValue gcv = get(index);
         list.remove(index);
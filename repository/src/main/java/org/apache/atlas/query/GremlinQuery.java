@@ -26,14 +26,22 @@ public class GremlinQuery {
     private final AtlasDSL.QueryMetadata queryMetadata;
     private final GremlinClauseList      clauses;
     private final SelectClauseComposer   selectComposer;
+    private final int                    limit;
+    private final int                    offset;
 
     private AtlasGraphTraversal traversal;
 
-    public GremlinQuery(String gremlinQuery, AtlasDSL.QueryMetadata queryMetadata, GremlinClauseList clauses, SelectClauseComposer selectComposer) {
+    /**
+     * @param limit  limit the query is executed with; the limit of the DSL query itself, if it has one
+     * @param offset offset the query is executed with; the offset of the DSL query itself, if it has a limit/offset clause
+     */
+    public GremlinQuery(String gremlinQuery, AtlasDSL.QueryMetadata queryMetadata, GremlinClauseList clauses, SelectClauseComposer selectComposer, int limit, int offset) {
         this.queryStr       = gremlinQuery;
         this.queryMetadata  = queryMetadata;
         this.clauses        = clauses;
         this.selectComposer = selectComposer;
+        this.limit          = limit;
+        this.offset         = offset;
     }
 
     public String queryStr() {
@@ -56,6 +64,14 @@ public class GremlinQuery {
         return queryMetadata;
     }
 
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
     public void setResult(AtlasGraphTraversal traversal) {
         this.traversal = traversal;
     }
@@ -17,9 +17,12 @@
  */
 package org.apache.atlas.query.executors;
 
+import org.apache.atlas.discovery.AtlasDiscoveryService.SearchResultConsumer;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
 
+import java.io.IOException;
+
 public interface DSLQueryExecutor {
     /***
      * Query executors implement this interface.
@@ -30,4 +33,19 @@ public interface DSLQueryExecutor {
      * @throws AtlasBaseException
      */
     AtlasSearchResult execute(String dslQuery, int limit, int offset) throws AtlasBaseException;
+
+    /***
+     * Executes the query once, without limit and offset, and passes the resulting entities to the consumer in
+     * batches, as they are read from the graph.
+     * @param dslQuery DSL Query to be executed.
+     * @param batchSize Number of entities passed to the consumer at a time.
+     * @param consumer Receives the batches of entities.
+     * @return false if the query can't be streamed - queries with select, groupby or limit/offset clauses, or by an executor
+     *         that doesn't read results lazily - in which case nothing is passed to the consumer
+     * @throws AtlasBaseException
+     * @throws IOException thrown by the consumer
+     */
+    default boolean stream(String dslQuery, int batchSize, SearchResultConsumer consumer) throws AtlasBaseException, IOException {
+        return false;
+    }
 }
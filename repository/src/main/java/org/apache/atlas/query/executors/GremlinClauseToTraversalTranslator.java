@@ -40,7 +40,14 @@ public class GremlinClauseToTraversalTranslator {
     private static final Logger LOG = LoggerFactory.getLogger(GremlinClauseToTraversalTranslator.class);
 
     public static AtlasGraphTraversal run(AtlasGraph graph, GremlinClauseList clauseList) {
-        return new ClauseTranslator(graph).process(clauseList);
+        return run(graph, clauseList, false);
+    }
+
+    /**
+     * @param isLazy when true, the trailing toList() of the query is skipped, so that the result can be read from the returned traversal as it is iterated
+     */
+    public static AtlasGraphTraversal run(AtlasGraph graph, GremlinClauseList clauseList, boolean isLazy) {
+        return new ClauseTranslator(graph, isLazy).process(clauseList);
     }
 
     private static class ClauseTranslator {
@@ -52,9 +59,11 @@ public class GremlinClauseToTraversalTranslator {
         private static final String[] STR_TOKEN_REPLACE              = new String[]{"", "", "", ""};
 
         private final AtlasGraph graph;
+        private final boolean    isLazy;
 
-        public ClauseTranslator(AtlasGraph graph) {
-            this.graph = graph;
+        public ClauseTranslator(AtlasGraph graph, boolean isLazy) {
+            this.graph  = graph;
+            this.isLazy = isLazy;
         }
 
         public AtlasGraphTraversal process(GremlinClauseList clauseList) {
@@ -195,7 +204,9 @@ public class GremlinClauseToTraversalTranslator {
                     break;
 
                 case TO_LIST:
-                    traversal.getAtlasVertexList();
+                    if (!isLazy) {
+                        traversal.getAtlasVertexList();
+                    }
                     break;
 
                 case NESTED_START:
@@ -17,17 +17,18 @@
  */
 package org.apache.atlas.query.executors;
 
+import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
 import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
 import org.apache.atlas.model.discovery.AtlasSearchResult.AtlasQueryType;
-import org.apache.atlas.query.AtlasDSL;
+import org.apache.atlas.query.DSLQueryPlanCache;
 import org.apache.atlas.query.GremlinQuery;
 import org.apache.atlas.query.QueryParams;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
-import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
@@ -40,74 +41,79 @@ import java.util.Map;
 public class ScriptEngineBasedExecutor implements DSLQueryExecutor {
     private static final Logger LOG = LoggerFactory.getLogger(ScriptEngineBasedExecutor.class);
 
-    private final AtlasTypeRegistry     typeRegistry;
     private final AtlasGraph            graph;
     private final EntityGraphRetriever  entityRetriever;
+    private final DSLQueryPlanCache     planCache;
 
-    public ScriptEngineBasedExecutor(AtlasTypeRegistry typeRegistry, AtlasGraph graph, EntityGraphRetriever entityRetriever) {
-        this.typeRegistry    = typeRegistry;
+    public ScriptEngineBasedExecutor(AtlasGraph graph, EntityGraphRetriever entityRetriever, DSLQueryPlanCache planCache) {
         this.graph           = graph;
         this.entityRetriever = entityRetriever;
+        this.planCache       = planCache;
     }
 
     @Override
     public AtlasSearchResult execute(String dslQuery, int limit, int offset) throws AtlasBaseException {
         AtlasSearchResult ret          = new AtlasSearchResult(dslQuery, AtlasQueryType.DSL);
         GremlinQuery      gremlinQuery = toGremlinQuery(dslQuery, limit, offset);
-        String            queryStr     = gremlinQuery.queryStr();
-        Object            result       = graph.executeGremlinScript(queryStr, false);
-
-        if (result instanceof List && CollectionUtils.isNotEmpty((List)result)) {
-            List   queryResult  = (List) result;
-            Object firstElement = queryResult.get(0);
-
-            if (firstElement instanceof AtlasVertex) {
-                for (Object element : queryResult) {
-                    if (element instanceof AtlasVertex) {
-                        ret.addEntity(entityRetriever.toAtlasEntityHeaderWithClassifications((AtlasVertex)element));
-                    } else {
-                        LOG.warn("searchUsingDslQuery({}): expected an AtlasVertex; found unexpected entry in result {}", dslQuery, element);
+        MetricRecorder    metric       = RequestContext.get().startMetricRecord("dslExecute");
+        long              startTime    = System.currentTimeMillis();
+
+        try {
+            String queryStr = gremlinQuery.queryStr();
+            Object result   = graph.executeGremlinScript(queryStr, false);
+
+            if (result instanceof List && CollectionUtils.isNotEmpty((List)result)) {
+                List   queryResult  = (List) result;
+                Object firstElement = queryResult.get(0);
+
+                if (firstElement instanceof AtlasVertex) {
+                    for (Object element : queryResult) {
+                        if (element instanceof AtlasVertex) {
+                            ret.addEntity(entityRetriever.toAtlasEntityHeaderWithClassifications((AtlasVertex)element));
+                        } else {
+                            LOG.warn("searchUsingDslQuery({}): expected an AtlasVertex; found unexpected entry in result {}", dslQuery, element);
+                        }
                     }
-                }
-            } else if (gremlinQuery.hasSelectList()) {
-                ret.setAttributes(toAttributesResult(queryResult, gremlinQuery));
-            } else if (firstElement instanceof Map) {
-                for (Object element : queryResult) {
-                    if (element instanceof Map) {
-                        Map map = (Map)element;
-
-                        for (Object key : map.keySet()) {
-                            Object value = map.get(key);
-
-                            if (value instanceof List && CollectionUtils.isNotEmpty((List)value)) {
-                                for (Object o : (List) value) {
-                                    Object entry = o;
-
-                                    if (entry instanceof AtlasVertex) {
-                                        ret.addEntity(entityRetriever.toAtlasEntityHeader((AtlasVertex) entry));
+                } else if (gremlinQuery.hasSelectList()) {
+                    ret.setAttributes(toAttributesResult(queryResult, gremlinQuery));
+                } else if (firstElement instanceof Map) {
+                    for (Object element : queryResult) {
+                        if (element instanceof Map) {
+                            Map map = (Map)element;
+
+                            for (Object key : map.keySet()) {
+                                Object value = map.get(key);
+
+                                if (value instanceof List && CollectionUtils.isNotEmpty((List)value)) {
+                                    for (Object o : (List) value) {
+                                        Object entry = o;
+
+                                        if (entry instanceof AtlasVertex) {
+                                            ret.addEntity(entityRetriever.toAtlasEntityHeader((AtlasVertex) entry));
+                                        }
                                     }
                                 }
                             }
                         }
                     }
+                } else {
+                    LOG.warn("searchUsingDslQuery({}/{}): found unexpected entry in result {}", dslQuery, dslQuery, gremlinQuery.queryStr());
                 }
-            } else {
-                LOG.warn("searchUsingDslQuery({}/{}): found unexpected entry in result {}", dslQuery, dslQuery, gremlinQuery.queryStr());
             }
+        } finally {
+            planCache.recordExecuteTime(System.currentTimeMillis() - startTime);
+
+            RequestContext.get().endMetricRecord(metric);
         }
 
         return ret;
     }
 
     private GremlinQuery toGremlinQuery(String query, int limit, int offset) throws AtlasBaseException {
-        QueryParams  params       = QueryParams.getNormalizedParams(limit, offset);
-        GremlinQuery gremlinQuery = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit()).translate();
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Translated Gremlin Query: {}", gremlinQuery.queryStr());
-        }
+        QueryParams params = QueryParams.getNormalizedParams(limit, offset);
 
-        return gremlinQuery;
+        // limit/offset are applied to the cached plan, which is shared by all pages of the query
+        return planCache.getGremlinQuery(query, params.limit(), params.offset());
     }
 
     private AttributeSearchResult toAttributesResult(List results, GremlinQuery query) {
@@ -90,13 +90,13 @@ public class SelectClauseProjections {
     }
 
     private static List<List<Object>> getSublistForGroupBy(GremlinQuery gremlinQuery, List<List<Object>> values) {
-        int startIndex = gremlinQuery.getQueryMetadata().getResolvedOffset() - 1;
+        int startIndex = gremlinQuery.getOffset() - 1;
 
         if (startIndex < 0) {
             startIndex = 0;
         }
 
-        int endIndex = startIndex + gremlinQuery.getQueryMetadata().getResolvedLimit();
+        int endIndex = startIndex + gremlinQuery.getLimit();
 
         if (startIndex >= values.size()) {
             endIndex   = 0;
@@ -17,9 +17,12 @@
  */
 package org.apache.atlas.query.executors;
 
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.discovery.AtlasDiscoveryService.SearchResultConsumer;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
 import org.apache.atlas.query.AtlasDSL;
+import org.apache.atlas.query.DSLQueryPlanCache;
 import org.apache.atlas.query.GremlinQuery;
 import org.apache.atlas.query.QueryParams;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
@@ -27,48 +30,114 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
-import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 public class TraversalBasedExecutor implements DSLQueryExecutor {
     private static final Logger LOG = LoggerFactory.getLogger(TraversalBasedExecutor.class);
-    private static final String DSL_KEYWORD_LIMIT             = "limit";
-    private static final String DSL_KEYWORD_OFFSET            = "offset";
-    private static final String DEFAULT_LIMIT_OFFSET_TEMPLATE = " limit %d offset %d";
-    private static final String CLAUSE_OFFSET_ZERO            = " offset 0";
 
-    private final AtlasTypeRegistry     typeRegistry;
     private final AtlasGraph            graph;
     private final EntityGraphRetriever  entityRetriever;
+    private final DSLQueryPlanCache     planCache;
 
-    public TraversalBasedExecutor(AtlasTypeRegistry typeRegistry, AtlasGraph graph, EntityGraphRetriever entityRetriever) {
-        this.typeRegistry    = typeRegistry;
+    public TraversalBasedExecutor(AtlasGraph graph, EntityGraphRetriever entityRetriever, DSLQueryPlanCache planCache) {
         this.graph           = graph;
         this.entityRetriever = entityRetriever;
+        this.planCache       = planCache;
     }
 
     @Override
     public AtlasSearchResult execute(String dslQuery, int limit, int offset) throws AtlasBaseException {
-        AtlasSearchResult                           ret            = new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
-        GremlinQuery                                gremlinQuery   = toTraversal(dslQuery, limit, offset);
-        AtlasGraphTraversal<AtlasVertex, AtlasEdge> graphTraversal = gremlinQuery.getTraversal();
+        AtlasSearchResult ret          = new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
+        GremlinQuery      gremlinQuery = toGremlinQuery(dslQuery, limit, offset);
+        MetricRecorder    metric       = RequestContext.get().startMetricRecord("dslExecute");
+        long              startTime    = System.currentTimeMillis();
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Executing DSL: query={}, gremlinQuery={}", dslQuery, graphTraversal.toString());
+        try {
+            AtlasGraphTraversal<AtlasVertex, AtlasEdge> graphTraversal = GremlinClauseToTraversalTranslator.run(this.graph, gremlinQuery.getClauses());
+
+            gremlinQuery.setResult(graphTraversal);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing DSL: query={}, gremlinQuery={}", dslQuery, graphTraversal.toString());
+            }
+
+            List<AtlasVertex> resultList = graphTraversal.getAtlasVertexList();
+
+            return (CollectionUtils.isNotEmpty(resultList))
+                    ? getSearchResult(ret, gremlinQuery, resultList)
+                    : getSearchResult(ret, gremlinQuery, graphTraversal.getAtlasVertexMap());
+        } finally {
+            planCache.recordExecuteTime(System.currentTimeMillis() - startTime);
+
+            RequestContext.get().endMetricRecord(metric);
+        }
+    }
+
+    @Override
+    public boolean stream(String dslQuery, int batchSize, SearchResultConsumer consumer) throws AtlasBaseException, IOException {
+        // the whole result is read: Integer.MAX_VALUE only fills in the range clause of the plan
+        GremlinQuery gremlinQuery = planCache.getGremlinQuery(dslQuery, Integer.MAX_VALUE, 0);
+
+        if (!isStreamable(gremlinQuery)) {
+            return false;
+        }
+
+        MetricRecorder metric    = RequestContext.get().startMetricRecord("dslStream");
+        long           startTime = System.currentTimeMillis();
+
+        try {
+            AtlasGraphTraversal<AtlasVertex, AtlasEdge> graphTraversal = GremlinClauseToTraversalTranslator.run(this.graph, gremlinQuery.getClauses(), true);
+            Iterator<AtlasVertex>                       vertices       = graphTraversal.getAtlasVertexIterator();
+            AtlasSearchResult                           batch          = new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Streaming DSL: query={}, gremlinQuery={}", dslQuery, graphTraversal.toString());
+            }
+
+            while (vertices.hasNext()) {
+                AtlasVertex vertex = vertices.next();
+
+                if (vertex == null) {
+                    continue;
+                }
+
+                batch.addEntity(entityRetriever.toAtlasEntityHeaderWithClassifications(vertex));
+
+                if (batch.getEntities().size() >= batchSize) {
+                    consumer.accept(batch);
+
+                    batch = new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
+                }
+            }
+
+            if (CollectionUtils.isNotEmpty(batch.getEntities())) {
+                consumer.accept(batch);
+            }
+        } finally {
+            planCache.recordExecuteTime(System.currentTimeMillis() - startTime);
+
+            RequestContext.get().endMetricRecord(metric);
         }
 
-        List<AtlasVertex> resultList = graphTraversal.getAtlasVertexList();
+        return true;
+    }
+
+    private static boolean isStreamable(GremlinQuery gremlinQuery) {
+        AtlasDSL.QueryMetadata metadata = gremlinQuery.getQueryMetadata();
 
-        return (CollectionUtils.isNotEmpty(resultList))
-                ? getSearchResult(ret, gremlinQuery, resultList)
-                : getSearchResult(ret, gremlinQuery, graphTraversal.getAtlasVertexMap());
+        // select and groupby results are projections/aggregates over the complete result, and a query with its own limit/offset
+        // clause returns a single page; these are run with execute()
+        return !metadata.hasSelect() && !metadata.hasGroupBy() && !metadata.hasLimitOffset() && !gremlinQuery.hasValidSelectClause();
     }
 
     private AtlasSearchResult getSearchResult(AtlasSearchResult ret, GremlinQuery gremlinQuery, List<AtlasVertex> resultList) throws AtlasBaseException {
@@ -105,29 +174,10 @@ public class TraversalBasedExecutor implements DSLQueryExecutor {
         return ret;
     }
 
-    private GremlinQuery toTraversal(String query, int limit, int offset) throws AtlasBaseException {
+    private GremlinQuery toGremlinQuery(String query, int limit, int offset) throws AtlasBaseException {
         QueryParams params = QueryParams.getNormalizedParams(limit, offset);
 
-        query = getStringWithLimitOffset(query, params);
-
-        AtlasDSL.Translator dslTranslator = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit());
-        GremlinQuery        gremlinQuery  = dslTranslator.translate();
-        AtlasGraphTraversal result        = GremlinClauseToTraversalTranslator.run(this.graph, gremlinQuery.getClauses());
-
-        gremlinQuery.setResult(result);
-
-        return gremlinQuery;
-    }
-
-    private String getStringWithLimitOffset(String query, QueryParams params) {
-        if (!query.contains(DSL_KEYWORD_LIMIT) && !query.contains(DSL_KEYWORD_OFFSET)) {
-            query += String.format(DEFAULT_LIMIT_OFFSET_TEMPLATE, params.limit(), params.offset());
-        }
-
-        if (query.contains(DSL_KEYWORD_LIMIT) && !query.contains(DSL_KEYWORD_OFFSET)) {
-            query += CLAUSE_OFFSET_ZERO;
-        }
-
-        return query;
+        // limit/offset are applied to the cached plan, which is shared by all pages of the query
+        return planCache.getGremlinQuery(query, params.limit(), params.offset());
     }
 }
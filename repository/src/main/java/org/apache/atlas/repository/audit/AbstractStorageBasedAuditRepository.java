@@ -19,8 +19,10 @@ package org.apache.atlas.repository.audit;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.EntityAuditEvent;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.listener.ActiveStateChangeHandler;
 import org.apache.atlas.model.audit.EntityAuditEventV2;
@@ -31,6 +33,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -48,11 +51,15 @@ public abstract class AbstractStorageBasedAuditRepository implements Service, En
   public    static final String CONFIG_PREFIX                      = "atlas.audit";
   public    static final String CONFIG_PERSIST_ENTITY_DEFINITION   = CONFIG_PREFIX + ".persistEntityDefinition";
   protected static final String FIELD_SEPARATOR                    = ":";
+  private   static final String INDEX_FORMAT                       = "%010d";
 
   protected static Configuration      APPLICATION_PROPERTIES       = null;
   protected Map<String, List<String>> auditExcludedAttributesCache = new HashMap<>();
   protected static boolean            persistEntityDefinition;
 
+  private final    ThreadLocal<PendingEventsHook> pendingEventsHooks = new ThreadLocal<>();
+  private volatile AsyncAuditWriter               auditWriter;
+
   static {
     try {
       persistEntityDefinition = ApplicationProperties.get().getBoolean(CONFIG_PERSIST_ENTITY_DEFINITION, false);
@@ -84,6 +91,81 @@ public abstract class AbstractStorageBasedAuditRepository implements Service, En
     putEventsV2(Arrays.asList(events));
   }
 
+  /**
+   * Add events to the event repository. With atlas.audit.async.write.enabled=true the events are handed to the
+   * asynchronous audit writer, after the current graph transaction commits.
+   * @param events events to be added
+   * @throws AtlasBaseException
+   */
+  @Override
+  public void putEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException {
+    assignEventKeys(events);
+
+    if (auditWriter == null) {
+      writeEventsV2(events);
+    } else if (GraphTransactionInterceptor.isTransactionOpen()) {
+      PendingEventsHook hook = pendingEventsHooks.get();
+
+      if (hook == null) {
+        hook = new PendingEventsHook();
+
+        pendingEventsHooks.set(hook);
+      }
+
+      hook.events.addAll(events);
+    } else {
+      auditWriter.add(events);
+    }
+  }
+
+  /**
+   * Writes the events to the storage. Called by the asynchronous audit writer threads with batches of events drained
+   * from its queue, or from putEventsV2() when asynchronous writes are disabled.
+   * @param events events to be written
+   * @throws AtlasBaseException
+   */
+  protected abstract void writeEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException;
+
+  /**
+   * Sets the storage key of events that don't have one yet, in the calling thread - before the events are queued or
+   * journaled - so that batching by the asynchronous writer doesn't change the order of events of a request.
+   * @param events events to be added
+   */
+  protected void assignEventKeys(List<EntityAuditEventV2> events) { }
+
+  protected boolean isAsyncWriteEnabled() {
+    return AtlasConfiguration.AUDIT_ASYNC_WRITE_ENABLED.getBoolean();
+  }
+
+  protected void startAuditWriter() {
+    if (isAsyncWriteEnabled() && auditWriter == null) {
+      AsyncAuditWriter writer = AsyncAuditWriter.create(this::writeEventsV2);
+
+      writer.start();
+
+      auditWriter = writer;
+    }
+  }
+
+  protected void stopAuditWriter() {
+    AsyncAuditWriter writer = auditWriter;
+
+    if (writer != null) {
+      auditWriter = null;
+
+      writer.stop();
+    }
+  }
+
+  /**
+   * @return metrics of the asynchronous audit writer; null if asynchronous writes are disabled
+   */
+  public AuditWriterMetrics getAuditWriterMetrics() {
+    AsyncAuditWriter writer = auditWriter;
+
+    return writer != null ? writer.getMetrics() : null;
+  }
+
   @Override
   public List<Object> listEvents(String entityId, String startKey, short maxResults) throws AtlasBaseException {
     List ret = listEventsV2(entityId, null, startKey, maxResults);
@@ -158,8 +240,33 @@ public abstract class AbstractStorageBasedAuditRepository implements Service, En
   protected byte[] getKey(String id, Long ts, int index) {
     assert id != null  : "entity id can't be null";
     assert ts != null  : "timestamp can't be null";
-    String keyStr = id + FIELD_SEPARATOR + ts + FIELD_SEPARATOR + index + FIELD_SEPARATOR + System.currentTimeMillis();
+    // index is zero padded, for keys of events with the same timestamp to sort in index order
+    String keyStr = id + FIELD_SEPARATOR + ts + FIELD_SEPARATOR + String.format(INDEX_FORMAT, index) + FIELD_SEPARATOR + System.currentTimeMillis();
     return Bytes.toBytes(keyStr);
   }
 
+  // events added during a graph transaction are queued only if it commits
+  private class PendingEventsHook extends GraphTransactionInterceptor.PostTransactionHook {
+    private final List<EntityAuditEventV2> events = new ArrayList<>();
+
+    @Override
+    public void onComplete(boolean isSuccess) {
+      pendingEventsHooks.remove();
+
+      AsyncAuditWriter writer = auditWriter;
+
+      if (isSuccess && !events.isEmpty()) {
+        if (writer != null) {
+          writer.add(events);
+        } else {
+          try {
+            writeEventsV2(events);
+          } catch (AtlasBaseException excp) {
+            LOG.error("failed to write {} audit events", events.size(), excp);
+          }
+        }
+      }
+    }
+  }
+
 }
@@ -0,0 +1,295 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes audit events to the audit repository from a bounded in-memory queue, drained by writer threads in batches
+ * of up to batchSize events.
+ *
+ * Events that don't fit in the queue, and batches that could not be written after the configured retries, are appended
+ * to a local AuditEventJournal; writer threads replay the journal when the queue has room. Events are dropped only
+ * when the journal is not available.
+ *
+ * add() and stop() are mutually exclusive: once stop() starts, events are journaled instead of queued, and the queue
+ * is drained into the journal after the writer threads finish - so an event is never left behind in the queue.
+ */
+class AsyncAuditWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    private static final long   POLL_INTERVAL_MS     = 1000;
+    private static final long   RETRY_INTERVAL_MS    = 1000;
+    private static final long   STOP_WAIT_TIMEOUT_MS = 30000;
+    private static final String JOURNAL_DIR_NAME     = "audit-journal";
+
+    interface EventsWriter {
+        void write(List<EntityAuditEventV2> events) throws AtlasBaseException;
+    }
+
+    private final EventsWriter                      writer;
+    private final BlockingQueue<EntityAuditEventV2> queue;
+    private final int                               threadCount;
+    private final int                               batchSize;
+    private final int                               maxRetries;
+    private final AuditEventJournal                 journal;
+    private final AuditWriterMetrics                metrics    = new AuditWriterMetrics();
+    private final ReentrantLock                     replayLock = new ReentrantLock();
+    private final ReentrantReadWriteLock            addLock    = new ReentrantReadWriteLock();
+    private       ExecutorService                   executor;
+    private       long                              nextReplayTime;
+    private volatile boolean                        isStopping;
+
+    AsyncAuditWriter(EventsWriter writer, int queueSize, int threadCount, int batchSize, int maxRetries, AuditEventJournal journal) {
+        this.writer      = writer;
+        this.queue       = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+        this.threadCount = Math.max(threadCount, 1);
+        this.batchSize   = Math.max(batchSize, 1);
+        this.maxRetries  = Math.max(maxRetries, 0);
+        this.journal     = journal;
+
+        metrics.setQueue(queue);
+        metrics.setJournal(journal);
+    }
+
+    static AsyncAuditWriter create(EventsWriter writer) {
+        int               batchSize = AtlasConfiguration.AUDIT_ASYNC_BATCH_SIZE.getInt();
+        String            dirName   = AtlasConfiguration.AUDIT_ASYNC_JOURNAL_DIR.getString();
+        File              dir       = StringUtils.isNotEmpty(dirName) ? new File(dirName) : new File(System.getProperty("atlas.data", "target/data"), JOURNAL_DIR_NAME);
+        AuditEventJournal journal   = null;
+
+        try {
+            journal = new AuditEventJournal(dir, batchSize);
+        } catch (IOException excp) {
+            LOG.error("audit journal is not available; audit events will be dropped when the queue is full", excp);
+        }
+
+        return new AsyncAuditWriter(writer, AtlasConfiguration.AUDIT_ASYNC_QUEUE_SIZE.getInt(), AtlasConfiguration.AUDIT_ASYNC_WRITER_THREADS.getInt(),
+                                    batchSize, AtlasConfiguration.AUDIT_ASYNC_WRITE_RETRIES.getInt(), journal);
+    }
+
+    void start() {
+        LOG.info("starting audit writer: threads={}, queueSize={}, batchSize={}", threadCount, queue.remainingCapacity(), batchSize);
+
+        executor = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat("atlas-audit-writer-%d").setDaemon(true).build());
+
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(this::run);
+        }
+    }
+
+    void stop() {
+        // waits for add() calls in progress; later calls see isStopping and journal their events
+        addLock.writeLock().lock();
+
+        try {
+            isStopping = true;
+        } finally {
+            addLock.writeLock().unlock();
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+
+            try {
+                if (!executor.awaitTermination(STOP_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException excp) {
+                executor.shutdownNow();
+
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // events the writers could not drain in time are journaled, to be written after restart
+        List<EntityAuditEventV2> remaining = new ArrayList<>();
+
+        queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            overflow(remaining);
+        }
+
+        if (journal != null) {
+            journal.close();
+        }
+
+        LOG.info("stopped audit writer: {}", metrics);
+    }
+
+    void add(List<EntityAuditEventV2> events) {
+        List<EntityAuditEventV2> overflow = null;
+
+        addLock.readLock().lock();
+
+        try {
+            for (EntityAuditEventV2 event : events) {
+                if (isStopping || !queue.offer(event)) {
+                    if (overflow == null) {
+                        overflow = new ArrayList<>();
+                    }
+
+                    overflow.add(event);
+                }
+            }
+        } finally {
+            addLock.readLock().unlock();
+        }
+
+        metrics.onQueued(overflow == null ? events.size() : events.size() - overflow.size());
+
+        if (overflow != null) {
+            overflow(overflow);
+        }
+    }
+
+    AuditWriterMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void run() {
+        List<EntityAuditEventV2> batch = new ArrayList<>(batchSize);
+
+        while (!isStopping || !queue.isEmpty()) {
+            try {
+                EntityAuditEventV2 event = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                if (event != null) {
+                    batch.add(event);
+
+                    queue.drainTo(batch, batchSize - 1);
+
+                    if (!flush(batch, maxRetries)) {
+                        overflow(new ArrayList<>(batch));
+                    }
+
+                    batch.clear();
+                }
+
+                if (!isStopping && queue.size() < batchSize) {
+                    replayJournal();
+                }
+            } catch (InterruptedException excp) {
+                LOG.info("audit writer interrupted");
+
+                break;
+            } catch (Throwable t) {
+                LOG.error("audit writer: unexpected error", t);
+
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean flush(List<EntityAuditEventV2> events, int retries) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            long    startTime = System.currentTimeMillis();
+            boolean isSuccess = false;
+
+            try {
+                writer.write(events);
+
+                isSuccess = true;
+            } catch (Exception excp) {
+                LOG.warn("failed to write {} audit events (attempt {} of {})", events.size(), attempt + 1, retries + 1, excp);
+            } finally {
+                metrics.onFlush(isSuccess, events.size(), System.currentTimeMillis() - startTime);
+            }
+
+            if (isSuccess) {
+                return true;
+            } else if (attempt >= retries || isStopping) {
+                return false;
+            }
+
+            Thread.sleep(RETRY_INTERVAL_MS * (attempt + 1));
+        }
+    }
+
+    private void overflow(List<EntityAuditEventV2> events) {
+        if (journal != null) {
+            try {
+                journal.append(events);
+
+                metrics.onJournaled(events.size());
+
+                return;
+            } catch (IOException excp) {
+                LOG.error("failed to journal {} audit events", events.size(), excp);
+            }
+        }
+
+        metrics.onDropped(events.size());
+
+        for (EntityAuditEventV2 event : events) {
+            LOG.error("dropped audit event: {}", AtlasType.toJson(event));
+        }
+    }
+
+    private void replayJournal() throws InterruptedException {
+        if (journal == null || journal.getSegmentCount() == 0 || !replayLock.tryLock()) {
+            return;
+        }
+
+        try {
+            if (System.currentTimeMillis() < nextReplayTime) {
+                return;
+            }
+
+            File segment = journal.nextSegment();
+
+            if (segment != null) {
+                List<EntityAuditEventV2> events = journal.read(segment);
+
+                if (events.isEmpty() || flush(events, 0)) {
+                    journal.remove(segment);
+
+                    metrics.onReplayed(events.size());
+                } else {
+                    nextReplayTime = System.currentTimeMillis() + RETRY_INTERVAL_MS;
+                }
+            }
+        } catch (IOException excp) {
+            LOG.error("failed to replay audit journal", excp);
+
+            nextReplayTime = System.currentTimeMillis() + RETRY_INTERVAL_MS;
+        } finally {
+            replayLock.unlock();
+        }
+    }
+}
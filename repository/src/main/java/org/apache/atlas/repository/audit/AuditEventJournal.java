@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local file journal for audit events that could not be queued or written by the asynchronous audit writer.
+ *
+ * Events are appended, one JSON document per line, to segment files of at most maxEventsPerSegment events; each append
+ * is synced to disk. Segments are replayed oldest first and deleted once their events are written to the audit
+ * repository, hence events journaled before a restart are written after it.
+ */
+class AuditEventJournal {
+    private static final Logger LOG = LoggerFactory.getLogger(AuditEventJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final File          dir;
+    private final int           maxEventsPerSegment;
+    private final AtomicInteger segmentCount;
+
+    private File             currentSegment;
+    private FileOutputStream currentStream;
+    private Writer           currentWriter;
+    private int              currentEventCount;
+    private long             segmentSeq;
+
+    AuditEventJournal(File dir, int maxEventsPerSegment) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("failed to create audit journal directory " + dir.getAbsolutePath());
+        }
+
+        this.dir                 = dir;
+        this.maxEventsPerSegment = Math.max(maxEventsPerSegment, 1);
+        this.segmentCount        = new AtomicInteger(listSegments().size());
+
+        LOG.info("audit journal directory: {}; {} segment(s) pending replay", dir.getAbsolutePath(), segmentCount.get());
+    }
+
+    synchronized void append(List<EntityAuditEventV2> events) throws IOException {
+        for (EntityAuditEventV2 event : events) {
+            if (currentWriter == null) {
+                openSegment();
+            }
+
+            currentWriter.write(AtlasType.toJson(event));
+            currentWriter.write('\n');
+
+            currentEventCount++;
+
+            if (currentEventCount >= maxEventsPerSegment) {
+                closeSegment();
+            }
+        }
+
+        if (currentWriter != null) {
+            currentWriter.flush();
+            currentStream.getFD().sync();
+        }
+    }
+
+    /**
+     * @return the oldest segment, after closing it if it is still being appended to; null if there are no segments
+     */
+    synchronized File nextSegment() throws IOException {
+        List<File> segments = listSegments();
+
+        if (segments.isEmpty()) {
+            return null;
+        }
+
+        File ret = segments.get(0);
+
+        if (ret.equals(currentSegment)) {
+            closeSegment();
+        }
+
+        return ret;
+    }
+
+    List<EntityAuditEventV2> read(File segment) throws IOException {
+        List<EntityAuditEventV2> ret = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(segment.toPath()), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+
+                EntityAuditEventV2 event = null;
+
+                try {
+                    event = AtlasType.fromJson(line, EntityAuditEventV2.class);
+                } catch (Exception excp) {
+                    LOG.warn("{}: ignoring unreadable journal entry (possibly a partial write before a crash)", segment.getName(), excp);
+                }
+
+                if (event != null) {
+                    ret.add(event);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    void remove(File segment) {
+        if (segment.delete()) {
+            segmentCount.decrementAndGet();
+        } else {
+            LOG.warn("failed to delete replayed audit journal segment {}", segment.getAbsolutePath());
+        }
+    }
+
+    int getSegmentCount() {
+        return segmentCount.get();
+    }
+
+    synchronized void close() {
+        try {
+            closeSegment();
+        } catch (IOException excp) {
+            LOG.warn("failed to close audit journal segment {}", currentSegment, excp);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        // zero-padded, so that segments sort in the order they were created
+        String name = String.format("%s%020d-%010d%s", SEGMENT_PREFIX, System.currentTimeMillis(), segmentSeq++, SEGMENT_SUFFIX);
+
+        currentSegment    = new File(dir, name);
+        currentStream     = new FileOutputStream(currentSegment);
+        currentWriter     = new OutputStreamWriter(currentStream, StandardCharsets.UTF_8);
+        currentEventCount = 0;
+
+        segmentCount.incrementAndGet();
+    }
+
+    private void closeSegment() throws IOException {
+        if (currentWriter != null) {
+            try {
+                currentWriter.flush();
+                currentStream.getFD().sync();
+            } finally {
+                currentWriter.close();
+
+                currentSegment    = null;
+                currentStream     = null;
+                currentWriter     = null;
+                currentEventCount = 0;
+            }
+        }
+    }
+
+    private List<File> listSegments() {
+        File[] files = dir.listFiles((d, name) -> isSegment(name));
+
+        if (files == null || files.length == 0) {
+            return Collections.emptyList();
+        }
+
+        Arrays.sort(files);
+
+        return Arrays.asList(files);
+    }
+
+    private static boolean isSegment(String name) {
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes audit payloads - event details and entity definitions - for storage.
+ *
+ * Payloads of at least minSize bytes are deflated, at the fastest compression level, and stored behind a 4 byte header.
+ * The header starts with a NUL byte, which never starts a text payload; hence payloads written before compression was
+ * enabled, or written uncompressed, continue to be read as UTF-8 text.
+ */
+final class AuditPayloadCodec {
+    private static final Logger LOG = LoggerFactory.getLogger(AuditPayloadCodec.class);
+
+    private static final byte[] COMPRESSED_HEADER = new byte[] { 0x00, 'A', 'Z', 0x01 };
+    private static final int    BUFFER_SIZE       = 8 * 1024;
+
+    private static final AuditPayloadCodec INSTANCE = new AuditPayloadCodec(AtlasConfiguration.AUDIT_COMPRESSION_ENABLED.getBoolean(),
+                                                                            AtlasConfiguration.AUDIT_COMPRESSION_MIN_SIZE.getInt());
+
+    private final boolean compressionEnabled;
+    private final int     minSize;
+
+    AuditPayloadCodec(boolean compressionEnabled, int minSize) {
+        this.compressionEnabled = compressionEnabled;
+        this.minSize            = Math.max(minSize, 0);
+    }
+
+    static AuditPayloadCodec get() {
+        return INSTANCE;
+    }
+
+    byte[] encode(String payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        byte[] ret = payload.getBytes(StandardCharsets.UTF_8);
+
+        if (compressionEnabled && ret.length >= minSize) {
+            byte[] compressed = deflate(ret);
+
+            if (compressed.length < ret.length) {
+                ret = compressed;
+            }
+        }
+
+        return ret;
+    }
+
+    String decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        if (!isCompressed(bytes)) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = new Inflater();
+
+        try {
+            ByteArrayOutputStream out    = new ByteArrayOutputStream(bytes.length * 4);
+            byte[]                buffer = new byte[BUFFER_SIZE];
+
+            inflater.setInput(bytes, COMPRESSED_HEADER.length, bytes.length - COMPRESSED_HEADER.length);
+
+            while (!inflater.finished()) {
+                int len = inflater.inflate(buffer);
+
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                out.write(buffer, 0, len);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            LOG.warn("failed to decompress audit payload of {} bytes", bytes.length, e);
+
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static boolean isCompressed(byte[] bytes) {
+        return bytes != null && bytes.length >= COMPRESSED_HEADER.length && Arrays.equals(Arrays.copyOf(bytes, COMPRESSED_HEADER.length), COMPRESSED_HEADER);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            ByteArrayOutputStream out    = new ByteArrayOutputStream(bytes.length / 4 + COMPRESSED_HEADER.length);
+            byte[]                buffer = new byte[BUFFER_SIZE];
+
+            out.write(COMPRESSED_HEADER, 0, COMPRESSED_HEADER.length);
+
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                int len = deflater.deflate(buffer);
+
+                out.write(buffer, 0, len);
+            }
+
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
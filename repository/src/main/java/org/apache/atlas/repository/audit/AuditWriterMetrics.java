@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for audit events written through the asynchronous audit writer.
+ */
+public class AuditWriterMetrics {
+    private final    AtomicLong        queuedCount    = new AtomicLong();
+    private final    AtomicLong        writtenCount   = new AtomicLong();
+    private final    AtomicLong        journaledCount = new AtomicLong();
+    private final    AtomicLong        replayedCount  = new AtomicLong();
+    private final    AtomicLong        droppedCount   = new AtomicLong();
+    private final    AtomicLong        failedFlushes  = new AtomicLong();
+    private final    AtomicLong        flushCount     = new AtomicLong();
+    private final    AtomicLong        totalFlushTime = new AtomicLong();
+    private final    AtomicLong        maxFlushTime   = new AtomicLong();
+    private volatile BlockingQueue<?>  queue;
+    private volatile AuditEventJournal journal;
+
+    void setQueue(BlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    void setJournal(AuditEventJournal journal) {
+        this.journal = journal;
+    }
+
+    void onQueued(int count) {
+        queuedCount.addAndGet(count);
+    }
+
+    void onJournaled(int count) {
+        journaledCount.addAndGet(count);
+    }
+
+    void onReplayed(int count) {
+        replayedCount.addAndGet(count);
+    }
+
+    void onDropped(int count) {
+        droppedCount.addAndGet(count);
+    }
+
+    void onFlush(boolean isSuccess, int count, long flushTimeMs) {
+        if (isSuccess) {
+            writtenCount.addAndGet(count);
+        } else {
+            failedFlushes.incrementAndGet();
+        }
+
+        flushCount.incrementAndGet();
+        totalFlushTime.addAndGet(flushTimeMs);
+        maxFlushTime.accumulateAndGet(flushTimeMs, Math::max);
+    }
+
+    public int getQueueDepth() {
+        BlockingQueue<?> queue = this.queue;
+
+        return queue != null ? queue.size() : 0;
+    }
+
+    public int getJournalSegments() {
+        AuditEventJournal journal = this.journal;
+
+        return journal != null ? journal.getSegmentCount() : 0;
+    }
+
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getJournaledCount() {
+        return journaledCount.get();
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    public long getAvgFlushTimeMs() {
+        long count = flushCount.get();
+
+        return count > 0 ? totalFlushTime.get() / count : 0;
+    }
+
+    public long getMaxFlushTimeMs() {
+        return maxFlushTime.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        ret.put("queueDepth", getQueueDepth());
+        ret.put("journalSegments", getJournalSegments());
+        ret.put("queued", getQueuedCount());
+        ret.put("written", getWrittenCount());
+        ret.put("journaled", getJournaledCount());
+        ret.put("replayed", getReplayedCount());
+        ret.put("dropped", getDroppedCount());
+        ret.put("failedFlushes", getFailedFlushes());
+        ret.put("avgFlushTimeMs", getAvgFlushTimeMs());
+        ret.put("maxFlushTimeMs", getMaxFlushTimeMs());
+
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditWriterMetrics" + toMap();
+    }
+}
@@ -105,19 +105,18 @@ public class CassandraBasedAuditRepository extends AbstractStorageBasedAuditRepo
 
   @Override
   public void putEventsV1(List<EntityAuditEvent> events) throws AtlasException {
-    BoundStatement stmt = new BoundStatement(insertStatement);
     BatchStatement batch = new BatchStatement();
-    events.forEach(event -> batch.add(stmt.bind(event.getEntityId(), event.getTimestamp(),
+    events.forEach(event -> batch.add(insertStatement.bind(event.getEntityId(), event.getTimestamp(),
         event.getAction().toString(), event.getUser(), event.getDetails(),
         (persistEntityDefinition ? event.getEntityDefinitionString() : null))));
     cassSession.execute(batch);
   }
 
   @Override
-  public void putEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException {
-    BoundStatement stmt = new BoundStatement(insertStatement);
+  protected void writeEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException {
+    // each event needs its own bound statement: BoundStatement.bind() rebinds and returns the same instance
     BatchStatement batch = new BatchStatement();
-    events.forEach(event -> batch.add(stmt.bind(event.getEntityId(), event.getTimestamp(),
+    events.forEach(event -> batch.add(insertStatement.bind(event.getEntityId(), event.getTimestamp(),
         event.getAction().toString(), event.getUser(), event.getDetails(),
         (persistEntityDefinition ? event.getEntityDefinitionString() : null))));
     cassSession.execute(batch);
@@ -216,6 +215,7 @@ public class CassandraBasedAuditRepository extends AbstractStorageBasedAuditRepo
   @VisibleForTesting
   void startInternal() throws AtlasException {
       createSession();
+      startAuditWriter();
   }
 
   void createSession() throws AtlasException {
@@ -248,6 +248,7 @@ public class CassandraBasedAuditRepository extends AbstractStorageBasedAuditRepo
 
   @Override
   public void stop() throws AtlasException {
+    stopAuditWriter();
     cassSession.close();
   }
 
@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.BUSINESS_ATTRIBUTE_UPDATE;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.CUSTOM_ATTRIBUTE_UPDATE;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.ENTITY_CREATE;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.ENTITY_IMPORT_CREATE;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.ENTITY_IMPORT_UPDATE;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.ENTITY_UPDATE;
+
+/**
+ * Rebuilds entity state for differential audit events.
+ *
+ * With atlas.entity.audit.differential set, an update is audited with only the attributes that changed - a delta,
+ * whose details prefix is marked with DELTA_MARKER - and with a full snapshot (keyframe), marked with SNAPSHOT_MARKER,
+ * after every atlas.entity.audit.differential.keyframe.interval deltas. The state of an entity at a delta is the nearest
+ * older create event or snapshot, with the changes since then applied in order.
+ *
+ * Update events without a marker can hold either the full entity or, when written by differential audits before the
+ * markers were introduced, only the changed attributes; such events are applied as changes and never used as a base.
+ */
+public final class DifferentialAuditReader {
+    private static final Logger LOG = LoggerFactory.getLogger(DifferentialAuditReader.class);
+
+    public static final String DELTA_MARKER    = "(delta)";
+    public static final String SNAPSHOT_MARKER = "(snapshot)";
+
+    private static final short PAGE_SIZE        = 100;
+    private static final int   MAX_HISTORY_SIZE = 5000;
+
+    private static final Set<EntityAuditActionV2> STATE_ACTIONS = EnumSet.of(ENTITY_CREATE, ENTITY_IMPORT_CREATE, ENTITY_UPDATE, ENTITY_IMPORT_UPDATE,
+                                                                            CUSTOM_ATTRIBUTE_UPDATE, BUSINESS_ATTRIBUTE_UPDATE);
+    private static final Set<EntityAuditActionV2> CREATE_ACTIONS = EnumSet.of(ENTITY_CREATE, ENTITY_IMPORT_CREATE);
+
+    private DifferentialAuditReader() { }
+
+    /**
+     * @param prefix details prefix of an audit action, like "Updated: "
+     * @return details prefix for a delta of the action, like "Updated (delta): "
+     */
+    public static String getDeltaPrefix(String prefix) {
+        return getMarkedPrefix(prefix, DELTA_MARKER);
+    }
+
+    /**
+     * @param prefix details prefix of an audit action, like "Updated: "
+     * @return details prefix for a snapshot of the action, like "Updated (snapshot): "
+     */
+    public static String getSnapshotPrefix(String prefix) {
+        return getMarkedPrefix(prefix, SNAPSHOT_MARKER);
+    }
+
+    public static boolean isDelta(EntityAuditEventV2 event) {
+        String prefix = getDetailsPrefix(event);
+
+        return prefix != null && prefix.endsWith(DELTA_MARKER);
+    }
+
+    public static boolean isSnapshot(EntityAuditEventV2 event) {
+        String prefix = getDetailsPrefix(event);
+
+        if (prefix == null || !STATE_ACTIONS.contains(event.getAction())) {
+            return false;
+        }
+
+        return prefix.endsWith(SNAPSHOT_MARKER) || (CREATE_ACTIONS.contains(event.getAction()) && !prefix.endsWith(DELTA_MARKER));
+    }
+
+    /**
+     * Sets the entity of each delta event in the given list, of the given entity, to the full state of the entity
+     * after the event. Events preceding the given ones are read from the repository, back to the nearest snapshot.
+     * @param repository audit repository the events were read from
+     * @param guid       guid of the entity
+     * @param events     events of the entity, in any order
+     * @throws AtlasBaseException
+     */
+    public static void resolveEntityStates(EntityAuditRepository repository, String guid, List<EntityAuditEventV2> events) throws AtlasBaseException {
+        Map<String, EntityAuditEventV2> deltas      = new HashMap<>();
+        EntityAuditEventV2              latestDelta = null;
+
+        if (CollectionUtils.isNotEmpty(events)) {
+            for (EntityAuditEventV2 event : events) {
+                if (StringUtils.equals(event.getEntityId(), guid) && event.getEventKey() != null && isDelta(event)) {
+                    deltas.put(event.getEventKey(), event);
+
+                    if (latestDelta == null || event.getTimestamp() > latestDelta.getTimestamp()) {
+                        latestDelta = event;
+                    }
+                }
+            }
+        }
+
+        if (latestDelta == null) {
+            return;
+        }
+
+        List<EntityAuditEventV2> history = getHistory(repository, guid, latestDelta.getEventKey(), deltas.keySet());
+        AtlasEntity              state   = null;
+
+        for (int i = history.size() - 1; i >= 0; i--) { // history is latest first
+            EntityAuditEventV2 event = history.get(i);
+
+            if (isSnapshot(event)) {
+                state = getDetailsEntity(event);
+            } else if (STATE_ACTIONS.contains(event.getAction()) && state != null) { // a delta, or an unmarked update
+                AtlasEntity delta = getDetailsEntity(event);
+
+                if (delta != null) {
+                    state = applyDelta(state, delta);
+                }
+
+                EntityAuditEventV2 requested = deltas.get(event.getEventKey());
+
+                if (requested != null) {
+                    requested.setEntity(state);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a new entity with the given state overlaid with the changes recorded in the given delta
+     */
+    static AtlasEntity applyDelta(AtlasEntity state, AtlasEntity delta) {
+        AtlasEntity ret = AtlasType.fromJson(AtlasType.toJson(state), AtlasEntity.class);
+
+        if (MapUtils.isNotEmpty(delta.getAttributes())) {
+            for (Map.Entry<String, Object> entry : delta.getAttributes().entrySet()) {
+                ret.setAttribute(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (MapUtils.isNotEmpty(delta.getRelationshipAttributes())) {
+            for (Map.Entry<String, Object> entry : delta.getRelationshipAttributes().entrySet()) {
+                ret.setRelationshipAttribute(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (delta.getClassifications() != null) {
+            ret.setClassifications(delta.getClassifications());
+        }
+
+        if (delta.getCustomAttributes() != null) {
+            ret.setCustomAttributes(delta.getCustomAttributes());
+        }
+
+        if (delta.getBusinessAttributes() != null) {
+            ret.setBusinessAttributes(delta.getBusinessAttributes());
+        }
+
+        if (delta.getUpdateTime() != null) {
+            ret.setUpdateTime(delta.getUpdateTime());
+        }
+
+        if (delta.getUpdatedBy() != null) {
+            ret.setUpdatedBy(delta.getUpdatedBy());
+        }
+
+        return ret;
+    }
+
+    static AtlasEntity getDetailsEntity(EntityAuditEventV2 event) {
+        String details = event.getDetails();
+        int    idx     = details != null ? details.indexOf('{') : -1;
+
+        return idx != -1 ? AtlasType.fromJson(details.substring(idx), AtlasEntity.class) : null;
+    }
+
+    // reads events of the entity, latest first, from startKey back to the snapshot preceding all the given deltas
+    private static List<EntityAuditEventV2> getHistory(EntityAuditRepository repository, String guid, String startKey, Set<String> deltaKeys) throws AtlasBaseException {
+        List<EntityAuditEventV2> ret           = new ArrayList<>();
+        Set<String>              seenKeys      = new HashSet<>();
+        Set<String>              pendingDeltas = new HashSet<>(deltaKeys);
+        boolean                  baseFound     = false;
+
+        while (!baseFound && ret.size() < MAX_HISTORY_SIZE) {
+            List<EntityAuditEventV2> page  = repository.listEventsV2(guid, null, startKey, PAGE_SIZE);
+            int                      added = 0;
+
+            for (EntityAuditEventV2 event : page) {
+                if (!seenKeys.add(event.getEventKey())) { // startKey is inclusive
+                    continue;
+                }
+
+                ret.add(event);
+                added++;
+
+                pendingDeltas.remove(event.getEventKey());
+
+                if (pendingDeltas.isEmpty() && isSnapshot(event)) {
+                    baseFound = true;
+
+                    break;
+                }
+            }
+
+            if (added == 0 || page.size() < PAGE_SIZE) {
+                break;
+            }
+
+            startKey = page.get(page.size() - 1).getEventKey();
+        }
+
+        if (!baseFound) {
+            LOG.warn("no audit snapshot found for entity {} within {} events; entity state not resolved for differential audits", guid, ret.size());
+        }
+
+        return ret;
+    }
+
+    private static String getMarkedPrefix(String prefix, String marker) {
+        int idx = prefix.lastIndexOf(':');
+
+        return idx == -1 ? prefix + marker + ": " : prefix.substring(0, idx) + " " + marker + prefix.substring(idx);
+    }
+
+    private static String getDetailsPrefix(EntityAuditEventV2 event) {
+        String details = event != null ? event.getDetails() : null;
+        int    idx     = details != null ? details.indexOf(':') : -1;
+
+        return idx != -1 ? details.substring(0, idx) : null;
+    }
+}
@@ -17,6 +17,8 @@
  */
 package org.apache.atlas.repository.audit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.EntityAuditEvent.EntityAuditAction;
 import org.apache.atlas.RequestContext;
@@ -52,7 +54,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.apache.atlas.AtlasConfiguration.AUDIT_DIFFERENTIAL_KEYFRAME_CACHE_SIZE;
+import static org.apache.atlas.AtlasConfiguration.AUDIT_DIFFERENTIAL_KEYFRAME_INTERVAL;
 import static org.apache.atlas.AtlasConfiguration.STORE_DIFFERENTIAL_AUDITS;
 import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.BUSINESS_ATTRIBUTE_UPDATE;
 import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.CLASSIFICATION_ADD;
@@ -81,15 +86,19 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
             ThreadLocal.withInitial(() -> new FixedBufferList<>(EntityAuditEventV2.class,
                     AtlasConfiguration.NOTIFICATION_FIXED_BUFFER_ITEMS_INCREMENT_COUNT.getInt()));
 
-    private final EntityAuditRepository  auditRepository;
-    private final AtlasTypeRegistry      typeRegistry;
-    private final AtlasInstanceConverter instanceConverter;
+    private final EntityAuditRepository        auditRepository;
+    private final AtlasTypeRegistry            typeRegistry;
+    private final AtlasInstanceConverter       instanceConverter;
+    private final int                          keyframeInterval;
+    private final Cache<String, AtomicInteger> deltaCounts; // number of differential audits since the last snapshot, by entity guid
 
     @Inject
     public EntityAuditListenerV2(EntityAuditRepository auditRepository, AtlasTypeRegistry typeRegistry, AtlasInstanceConverter instanceConverter) {
         this.auditRepository   = auditRepository;
         this.typeRegistry      = typeRegistry;
         this.instanceConverter = instanceConverter;
+        this.keyframeInterval  = AUDIT_DIFFERENTIAL_KEYFRAME_INTERVAL.getInt();
+        this.deltaCounts       = CacheBuilder.newBuilder().maximumSize(Math.max(AUDIT_DIFFERENTIAL_KEYFRAME_CACHE_SIZE.getInt(), 0)).build();
     }
 
     @Override
@@ -99,6 +108,10 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
         FixedBufferList<EntityAuditEventV2> entitiesAdded = getAuditEventsList();
         for (AtlasEntity entity : entities) {
             createEvent(entitiesAdded.next(), entity, isImport ? ENTITY_IMPORT_CREATE : ENTITY_CREATE);
+
+            if (keyframeInterval > 0 && STORE_DIFFERENTIAL_AUDITS.getBoolean()) {
+                deltaCounts.put(entity.getGuid(), new AtomicInteger());
+            }
         }
 
         auditRepository.putEventsV2(entitiesAdded.toList());
@@ -108,13 +121,19 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
 
     @Override
     public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
-        RequestContext                      reqContext    = RequestContext.get();
-        MetricRecorder                      metric        = reqContext.startMetricRecord("entityAudit");
-        FixedBufferList<EntityAuditEventV2> updatedEvents = getAuditEventsList();
+        RequestContext                      reqContext     = RequestContext.get();
+        MetricRecorder                      metric         = reqContext.startMetricRecord("entityAudit");
+        FixedBufferList<EntityAuditEventV2> updatedEvents  = getAuditEventsList();
+        boolean                             isDifferential = STORE_DIFFERENTIAL_AUDITS.getBoolean();
+        Map<String, AtlasEntity>            fullEntities   = new HashMap<>();
         Collection<AtlasEntity>             updatedEntites;
 
-        if (STORE_DIFFERENTIAL_AUDITS.getBoolean()) {
+        if (isDifferential) {
             updatedEntites = reqContext.getDifferentialEntities();
+
+            for (AtlasEntity entity : entities) {
+                fullEntities.put(entity.getGuid(), entity);
+            }
         } else {
             updatedEntites = entities;
         }
@@ -132,7 +151,17 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
                 action = ENTITY_UPDATE;
             }
 
-            createEvent(updatedEvents.next(), entity, action);
+            if (isDifferential) {
+                AtlasEntity fullEntity = fullEntities.get(entity.getGuid());
+
+                if (fullEntity != null && isKeyframeDue(entity.getGuid())) {
+                    createEvent(updatedEvents.next(), fullEntity, action, getAuditEventDetail(fullEntity, DifferentialAuditReader.getSnapshotPrefix(getV2AuditPrefix(action))));
+                } else {
+                    createEvent(updatedEvents.next(), entity, action, getAuditEventDetail(entity, DifferentialAuditReader.getDeltaPrefix(getV2AuditPrefix(action))));
+                }
+            } else {
+                createEvent(updatedEvents.next(), entity, action);
+            }
         }
 
         auditRepository.putEventsV2(updatedEvents.toList());
@@ -425,9 +454,12 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
     }
 
     private String getAuditEventDetail(AtlasEntity entity, EntityAuditActionV2 action) {
+        return getAuditEventDetail(entity, getV2AuditPrefix(action));
+    }
+
+    private String getAuditEventDetail(AtlasEntity entity, String auditPrefix) {
         Map<String, Object> prunedAttributes = pruneEntityAttributesForAudit(entity);
 
-        String auditPrefix  = getV2AuditPrefix(action);
         String auditString  = auditPrefix + AtlasType.toJson(entity);
         byte[] auditBytes   = auditString.getBytes(StandardCharsets.UTF_8);
         long   auditSize    = auditBytes != null ? auditBytes.length : 0;
@@ -474,6 +506,27 @@ public class EntityAuditListenerV2 implements EntityChangeListenerV2 {
         return auditString;
     }
 
+    // a snapshot is due after keyframeInterval differential audits, or when the count for the entity is not known
+    private boolean isKeyframeDue(String guid) {
+        if (keyframeInterval <= 0) {
+            return false;
+        }
+
+        AtomicInteger count = deltaCounts.getIfPresent(guid);
+
+        if (count == null) {
+            deltaCounts.put(guid, new AtomicInteger());
+
+            return true;
+        } else if (count.incrementAndGet() > keyframeInterval) {
+            count.set(0);
+
+            return true;
+        }
+
+        return false;
+    }
+
     private boolean isPropagatedClassificationAdded(String guid, AtlasClassification classification) {
         Map<String, List<AtlasClassification>> addedPropagations = RequestContext.get().getAddedPropagations();
 
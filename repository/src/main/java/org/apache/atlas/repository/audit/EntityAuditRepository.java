@@ -18,10 +18,13 @@
 
 package org.apache.atlas.repository.audit;
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.EntityAuditEvent;
 import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventsPage;
 import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.commons.lang.StringUtils;
 
 import java.util.List;
 import java.util.Set;
@@ -92,6 +95,47 @@ public interface EntityAuditRepository {
      */
     List<EntityAuditEventV2> listEventsV2(String entityId, EntityAuditEventV2.EntityAuditActionV2 auditAction, String sortByColumn, boolean sortOrderDesc, int offset, short limit) throws AtlasBaseException;
 
+    /**
+     * List a page of events for the given entity id in sorted order of given column. The first page is listed with a
+     * null cursor, following pages with nextCursor of the previous page. A cursor is valid only for the entity id,
+     * audit action and sort order it was returned for.
+     * @param entityId entity id
+     * @param auditAction operation to be used for search at HBase column
+     * @param sortByColumn name of column on which sorting is required
+     * @param sortOrderDesc flag to set sort order descending
+     * @param cursor position of the page to be returned, null for the first page
+     * @param limit  Max numbers of events to be returned
+     * @return page of events
+     * @throws AtlasBaseException
+     */
+    default EntityAuditEventsPage listEventsPage(String entityId, EntityAuditEventV2.EntityAuditActionV2 auditAction, String sortByColumn, boolean sortOrderDesc, String cursor, short limit) throws AtlasBaseException {
+        int offset = 0;
+
+        if (StringUtils.isNotEmpty(cursor)) {
+            try {
+                offset = Math.max(Integer.parseInt(cursor), 0);
+            } catch (NumberFormatException e) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+            }
+        }
+
+        List<EntityAuditEventV2> events     = listEventsV2(entityId, auditAction, sortByColumn, sortOrderDesc, offset, limit);
+        String                   nextCursor = limit > 0 && events.size() >= limit ? Integer.toString(offset + events.size()) : null;
+
+        return new EntityAuditEventsPage(events, nextCursor, getEventCount(entityId, auditAction));
+    }
+
+    /**
+     * Returns the number of events stored for the given entity id
+     * @param entityId entity id
+     * @param auditAction when not null, only events of this operation are counted
+     * @return number of events, -1 if the count is not available without scanning the events
+     * @throws AtlasBaseException
+     */
+    default long getEventCount(String entityId, EntityAuditEventV2.EntityAuditActionV2 auditAction) throws AtlasBaseException {
+        return -1;
+    }
+
     /***
      * List events for given time range where classifications have been added, deleted or updated.
      * @param fromTimestamp from timestamp
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Row keys of the HBase audit index table.
+ *
+ * For each audit event two index rows are written, keyed to list the events of an entity in the order of
+ * EntityAuditEventV2.UserComparator and EntityAuditEventV2.ActionComparator:
+ *   entityId \0 u \0 lower-case user \0 timestamp \0 event row key
+ *   entityId \0 a \0 action \0 timestamp \0 event row key
+ * The timestamp is zero padded, hence rows with the same user or action are in timestamp order. Each entity also has
+ * a summary row, entityId \0 s, with counts of its events and the index epoch in which it was created. The current
+ * epoch is in the row \0 epoch, which sorts before the rows of all entities.
+ *
+ * A cursor is the key of the last row read for a page, with CURSOR_PREFIX.
+ */
+final class HBaseAuditIndex {
+    static final String CURSOR_PREFIX = "k:";
+
+    private static final byte   SEPARATOR = 0x00;
+    private static final String BY_USER   = "u";
+    private static final String BY_ACTION = "a";
+    private static final String SUMMARY   = "s";
+    private static final String EPOCH     = "epoch";
+    private static final String TS_FORMAT = "%019d";
+
+    private HBaseAuditIndex() { }
+
+    static byte[] getSummaryKey(String entityId) {
+        return Bytes.add(Bytes.toBytes(entityId), new byte[] { SEPARATOR }, Bytes.toBytes(SUMMARY));
+    }
+
+    static byte[] getEpochKey() {
+        return Bytes.add(new byte[] { SEPARATOR }, Bytes.toBytes(EPOCH));
+    }
+
+    static byte[] getUserIndexPrefix(String entityId) {
+        return join(entityId, BY_USER);
+    }
+
+    static byte[] getUserIndexKey(String entityId, String user, long timestamp, byte[] eventKey) {
+        return Bytes.add(join(entityId, BY_USER, normalizeUser(user), String.format(TS_FORMAT, timestamp)), eventKey);
+    }
+
+    /**
+     * @return prefix of the action index rows of the entity, for the given action only when it is not null
+     */
+    static byte[] getActionIndexPrefix(String entityId, EntityAuditActionV2 action) {
+        return action != null ? join(entityId, BY_ACTION, action.toString()) : join(entityId, BY_ACTION);
+    }
+
+    static byte[] getActionIndexKey(String entityId, EntityAuditActionV2 action, long timestamp, byte[] eventKey) {
+        return Bytes.add(join(entityId, BY_ACTION, action.toString(), String.format(TS_FORMAT, timestamp)), eventKey);
+    }
+
+    /**
+     * @return name of the summary row column with the number of events, of the given action when it is not null
+     */
+    static byte[] getCountColumn(EntityAuditActionV2 action) {
+        return Bytes.toBytes(action != null ? "n:" + action : "n");
+    }
+
+    /**
+     * @return the first row key after all keys starting with the given prefix
+     */
+    static byte[] getStopRow(byte[] prefix) {
+        byte[] ret = Bytes.copy(prefix);
+
+        for (int i = ret.length - 1; i >= 0; i--) {
+            if (ret[i] != (byte) 0xff) {
+                ret[i]++;
+
+                return Bytes.head(ret, i + 1);
+            }
+        }
+
+        return new byte[0]; // end of table
+    }
+
+    static String toCursor(byte[] rowKey) {
+        return CURSOR_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(rowKey);
+    }
+
+    static boolean isCursor(String cursor) {
+        return cursor != null && cursor.startsWith(CURSOR_PREFIX);
+    }
+
+    /**
+     * @return row key in the given cursor
+     * @throws AtlasBaseException if the cursor is malformed or is not of a row with the given prefix
+     */
+    static byte[] fromCursor(String cursor, byte[] prefix) throws AtlasBaseException {
+        byte[] ret = null;
+
+        if (isCursor(cursor)) {
+            try {
+                ret = Base64.getUrlDecoder().decode(cursor.substring(CURSOR_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                ret = null;
+            }
+        }
+
+        if (ret == null || !Bytes.startsWith(ret, prefix)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+        }
+
+        return ret;
+    }
+
+    private static String normalizeUser(String user) {
+        return user != null ? user.toLowerCase(Locale.ROOT) : "";
+    }
+
+    // entityId \0 part1 \0 part2 ... \0
+    private static byte[] join(String entityId, String... parts) {
+        byte[] ret = Bytes.add(Bytes.toBytes(entityId), new byte[] { SEPARATOR });
+
+        for (String part : parts) {
+            ret = Bytes.add(ret, Bytes.toBytes(part), new byte[] { SEPARATOR });
+        }
+
+        return ret;
+    }
+}
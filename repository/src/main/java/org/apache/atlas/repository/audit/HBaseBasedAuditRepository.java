@@ -20,6 +20,7 @@ package org.apache.atlas.repository.audit;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.EntityAuditEvent;
 import org.apache.atlas.RequestContext;
@@ -28,6 +29,7 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.model.audit.EntityAuditEventV2;
 import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.atlas.model.audit.EntityAuditEventsPage;
 import org.apache.atlas.utils.AtlasPerfMetrics;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
@@ -37,11 +39,17 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
@@ -71,6 +79,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -80,6 +90,11 @@ import java.util.Set;
  * Key -> entity id + timestamp <br>
  * Column Family -> 1,dt <br>
  * Columns -> action, user, detail <br>
+ * Detail and definition values are compressed when atlas.audit.compression.enabled is set, see AuditPayloadCodec <br>
+ * Index table -> ATLAS_ENTITY_AUDIT_EVENTS_INDEX, written when atlas.audit.index.enabled is set, see HBaseAuditIndex.
+ * Only entities created while the index is enabled are listed from it: the summary row of such an entity is marked
+ * complete with the index epoch, which is incremented each time the server starts with the index disabled, as the events
+ * written from then on are not indexed. Entities marked in an earlier epoch are listed by scanning their event rows <br>
  * versions -> 1 <br>
  * <p>
  * Note: The timestamp in the key is assumed to be timestamp in milli seconds. Since the key is
@@ -98,12 +113,18 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     public static final String CONFIG_TABLE_NAME = CONFIG_PREFIX + ".hbase.tablename";
     public static final String DEFAULT_TABLE_NAME = "ATLAS_ENTITY_AUDIT_EVENTS";
     public static final String CONFIG_PERSIST_ENTITY_DEFINITION = CONFIG_PREFIX + ".persistEntityDefinition";
+    public static final String CONFIG_INDEX_ENABLED = CONFIG_PREFIX + ".index.enabled";
+    public static final String CONFIG_INDEX_TABLE_NAME = CONFIG_PREFIX + ".hbase.index.tablename";
+    public static final String DEFAULT_INDEX_TABLE_NAME = DEFAULT_TABLE_NAME + "_INDEX";
 
     public static final byte[] COLUMN_FAMILY = Bytes.toBytes("dt");
     public static final byte[] COLUMN_ACTION = Bytes.toBytes("a");
     public static final byte[] COLUMN_DETAIL = Bytes.toBytes("d");
     public static final byte[] COLUMN_USER = Bytes.toBytes("u");
     public static final byte[] COLUMN_DEFINITION = Bytes.toBytes("f");
+    public static final byte[] COLUMN_EVENT_KEY = Bytes.toBytes("k");
+    public static final byte[] COLUMN_COMPLETE = Bytes.toBytes("c");
+    public static final byte[] COLUMN_EPOCH = Bytes.toBytes("e");
 
     private static final String  AUDIT_REPOSITORY_MAX_SIZE_PROPERTY = "atlas.hbase.client.keyvalue.maxsize";
     private static final String  AUDIT_EXCLUDE_ATTRIBUTE_PROPERTY   = "atlas.audit.hbase.entity";
@@ -124,7 +145,16 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
     private TableName tableName;
+    private TableName indexTableName;
+    private boolean indexEnabled;
+    private long indexEpoch;
     private Connection connection;
+    private BufferedMutator mutator;
+
+    // rows sent by a flush of the shared mutator that failed; removed by the writer thread whose batch holds them
+    private final Set<String> failedRows = ConcurrentHashMap.newKeySet();
+    // mutator calls that can send buffered rows - of any writer thread - to HBase
+    private final Set<CompletableFuture<Void>> mutatorCallsInProgress = ConcurrentHashMap.newKeySet();
 
     /**
      * Add events to the event repository
@@ -186,47 +216,78 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     }
 
     @Override
-    public void putEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException {
+    protected void assignEventKeys(List<EntityAuditEventV2> events) {
+        RequestContext requestContext = RequestContext.get();
+
+        for (EntityAuditEventV2 event : events) {
+            if (event.getEventKey() == null) {
+                event.setEventKey(Bytes.toString(getKey(event.getEntityId(), event.getTimestamp(), requestContext.nextAuditEventSequence())));
+            }
+        }
+    }
+
+    @Override
+    protected void writeEventsV2(List<EntityAuditEventV2> events) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Putting {} events", events.size());
         }
 
-        Table table = null;
+        List<Put> puts = new ArrayList<>(events.size());
 
-        try {
-            table          = connection.getTable(tableName);
-            List<Put> puts = new ArrayList<>(events.size());
+        for (int index = 0; index < events.size(); index++) {
+            EntityAuditEventV2 event = events.get(index);
 
-            for (int index = 0; index < events.size(); index++) {
-                EntityAuditEventV2 event = events.get(index);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Adding entity audit event {}", event);
+            }
 
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Adding entity audit event {}", event);
-                }
+            // key assigned by putEventsV2(), before the event was queued
+            Put put = new Put(event.getEventKey() != null ? Bytes.toBytes(event.getEventKey()) : getKey(event.getEntityId(), event.getTimestamp(), index));
 
-                Put put = new Put(getKey(event.getEntityId(), event.getTimestamp(), index));
+            addColumn(put, COLUMN_ACTION, event.getAction());
+            addColumn(put, COLUMN_USER, event.getUser());
+            addEncodedColumn(put, COLUMN_DETAIL, event.getDetails());
 
-                addColumn(put, COLUMN_ACTION, event.getAction());
-                addColumn(put, COLUMN_USER, event.getUser());
-                addColumn(put, COLUMN_DETAIL, event.getDetails());
+            if (persistEntityDefinition) {
+                addEncodedColumn(put, COLUMN_DEFINITION, event.getEntityDefinitionString());
+            }
 
-                if (persistEntityDefinition) {
-                    addColumn(put, COLUMN_DEFINITION, event.getEntityDefinitionString());
-                }
+            puts.add(put);
+        }
 
-                puts.add(put);
+        if (mutator != null) {
+            // the mutator is shared by writer threads, without a lock; the batch is flushed before it is reported as
+            // written and before its index rows are written, and a failure is reported to the writer thread whose
+            // batch holds the failed rows, which journals the batch
+            try {
+                callMutator(() -> mutator.mutate(puts));
+                callMutator(mutator::flush);
+            } catch (IOException e) {
+                throw new AtlasBaseException(e);
             }
 
-            table.put(puts);
-        } catch (IOException e) {
-            throw new AtlasBaseException(e);
-        } finally {
+            checkFailedRows(puts);
+        } else {
+            Table table = null;
+
             try {
-                close(table);
-            } catch (AtlasException e) {
+                table = connection.getTable(tableName);
+
+                table.put(puts);
+            } catch (IOException e) {
                 throw new AtlasBaseException(e);
+            } finally {
+                try {
+                    close(table);
+                } catch (AtlasException e) {
+                    throw new AtlasBaseException(e);
+                }
             }
         }
+
+        if (indexEnabled) {
+            writeIndexRows(events, puts);
+        }
     }
 
     @Override
@@ -295,10 +356,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
 
                 event.setUser(getResultString(result, COLUMN_USER));
                 event.setAction(EntityAuditActionV2.fromString(getResultString(result, COLUMN_ACTION)));
-                event.setDetails(getResultString(result, COLUMN_DETAIL));
+                event.setDetails(getDecodedResultString(result, COLUMN_DETAIL));
 
                 if (persistEntityDefinition) {
-                    String colDef = getResultString(result, COLUMN_DEFINITION);
+                    String colDef = getDecodedResultString(result, COLUMN_DEFINITION);
 
                     if (colDef != null) {
                         event.setEntityDefinition(colDef);
@@ -348,7 +409,20 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
 
         try (Table table = connection.getTable(tableName)) {
+            String sortColumn = getSortColumn(sortByColumn);
+
+            if (isSortedByEventKey(sortColumn, auditAction) || isIndexComplete(getIndexSummary(entityId))) {
+                List<EntityAuditEventV2> events = listEventsSorted(table, entityId, auditAction, sortColumn, sortOrderDesc, null, offset, limit).getEvents();
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("<== HBaseBasedAuditRepository.listEventsV2(entityId={}, auditAction={}, sortByColumn={}, sortOrderDesc={}, offset={}, limit={}): #recored returned {}", entityId, auditAction, sortByColumn, offset, limit, events.size());
+                }
+
+                return events;
+            }
+
             /*
+             * Events of entities created before the audit index was enabled:
              * HBase Does not support query with sorted results. To support this API inmemory sort has to be performed.
              * Audit entry can potentially have entire entity dumped into it. Loading entire audit entries for an entity can be
              * memory intensive. Therefore we load audit entries with limited columns first, perform sort on this light weight list,
@@ -408,10 +482,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
 
                         event.setUser(getResultString(result, COLUMN_USER));
                         event.setAction(EntityAuditActionV2.fromString(getResultString(result, COLUMN_ACTION)));
-                        event.setDetails(getResultString(result, COLUMN_DETAIL));
+                        event.setDetails(getDecodedResultString(result, COLUMN_DETAIL));
 
                         if (persistEntityDefinition) {
-                            String colDef = getResultString(result, COLUMN_DEFINITION);
+                            String colDef = getDecodedResultString(result, COLUMN_DEFINITION);
 
                             if (colDef != null) {
                                 event.setEntityDefinition(colDef);
@@ -437,6 +511,65 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
 
+    /**
+     * Events sorted by timestamp are read in the order of the event rows. Events sorted by user or action, or filtered by
+     * action, are read in the order of the audit index rows, for entities whose events are all indexed; for other
+     * entities events are sorted in memory and paged by offset, as in listEventsV2().
+     */
+    @Override
+    public EntityAuditEventsPage listEventsPage(String entityId, EntityAuditActionV2 auditAction, String sortByColumn, boolean sortOrderDesc, String cursor, short limit) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> HBaseBasedAuditRepository.listEventsPage(entityId={}, auditAction={}, sortByColumn={}, sortOrderDesc={}, cursor={}, limit={})", entityId, auditAction, sortByColumn, sortOrderDesc, cursor, limit);
+        }
+
+        if (limit < 0) {
+            limit = 100;
+        }
+
+        String                sortColumn = getSortColumn(sortByColumn);
+        Result                summary    = getIndexSummary(entityId);
+        EntityAuditEventsPage ret;
+
+        if (isSortedByEventKey(sortColumn, auditAction) || isIndexComplete(summary)) {
+            AtlasPerfMetrics.MetricRecorder metric = RequestContext.get().startMetricRecord("listEventsPage");
+
+            try (Table table = connection.getTable(tableName)) {
+                ret = listEventsSorted(table, entityId, auditAction, sortColumn, sortOrderDesc, cursor, 0, limit);
+            } catch (IOException e) {
+                throw new AtlasBaseException(e);
+            } finally {
+                RequestContext.get().endMetricRecord(metric);
+            }
+        } else {
+            int offset = 0;
+
+            if (StringUtils.isNotEmpty(cursor)) {
+                try {
+                    offset = Math.max(Integer.parseInt(cursor), 0);
+                } catch (NumberFormatException e) {
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "cursor=" + cursor);
+                }
+            }
+
+            List<EntityAuditEventV2> events = listEventsV2(entityId, auditAction, sortByColumn, sortOrderDesc, offset, limit);
+
+            ret = new EntityAuditEventsPage(events, limit > 0 && events.size() >= limit ? Integer.toString(offset + events.size()) : null, -1);
+        }
+
+        ret.setTotalCount(getSummaryCount(summary, auditAction));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== HBaseBasedAuditRepository.listEventsPage(entityId={}, auditAction={}, sortByColumn={}, sortOrderDesc={}, cursor={}, limit={}): #recored returned {}", entityId, auditAction, sortByColumn, sortOrderDesc, cursor, limit, ret.getEvents().size());
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getEventCount(String entityId, EntityAuditActionV2 auditAction) throws AtlasBaseException {
+        return getSummaryCount(getIndexSummary(entityId), auditAction);
+    }
+
     @Override
     public List<Object> listEvents(String entityId, String startKey, short maxResults) throws AtlasBaseException {
         List ret = listEventsV2(entityId, null, startKey, maxResults);
@@ -458,6 +591,273 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
 
+    // lists events in the order of the event rows, or of the audit index rows, reading skip + limit rows of the scanned table
+    private EntityAuditEventsPage listEventsSorted(Table table, String entityId, EntityAuditActionV2 auditAction, String sortColumn, boolean sortOrderDesc,
+                                                   String cursor, int skip, int limit) throws IOException, AtlasBaseException {
+        if (limit <= 0) {
+            return new EntityAuditEventsPage();
+        }
+
+        final boolean isIndexScan = !isSortedByEventKey(sortColumn, auditAction);
+        final byte[]  prefix;
+        Filter        filter      = null;
+
+        if (!isIndexScan) {
+            prefix = Bytes.toBytes(entityId + FIELD_SEPARATOR);
+        } else if (EntityAuditEventV2.SORT_COLUMN_USER.equals(sortColumn)) {
+            prefix = HBaseAuditIndex.getUserIndexPrefix(entityId);
+
+            if (auditAction != null) {
+                SingleColumnValueFilter actionFilter = new SingleColumnValueFilter(COLUMN_FAMILY, COLUMN_ACTION, CompareFilter.CompareOp.EQUAL, Bytes.toBytes(auditAction.toString()));
+
+                actionFilter.setFilterIfMissing(true);
+
+                filter = actionFilter;
+            }
+        } else { // sorted by action, or events of the given action sorted by timestamp
+            prefix = HBaseAuditIndex.getActionIndexPrefix(entityId, auditAction);
+        }
+
+        byte[] stopRow  = HBaseAuditIndex.getStopRow(prefix);
+        byte[] afterRow = StringUtils.isNotEmpty(cursor) ? HBaseAuditIndex.fromCursor(cursor, prefix) : null;
+        Scan   scan     = new Scan().setReversed(sortOrderDesc)
+                                    .setLimit(skip + limit)
+                                    .setCaching(Math.min(skip + limit, DEFAULT_CACHING))
+                                    .addColumn(COLUMN_FAMILY, COLUMN_ACTION);
+
+        if (sortOrderDesc) {
+            scan.withStartRow(afterRow != null ? afterRow : stopRow, false).withStopRow(prefix, false);
+        } else {
+            scan.withStartRow(afterRow != null ? afterRow : prefix, afterRow == null).withStopRow(stopRow, false);
+        }
+
+        if (isIndexScan) {
+            scan.addColumn(COLUMN_FAMILY, COLUMN_EVENT_KEY);
+        }
+
+        if (filter != null) {
+            scan.setFilter(filter);
+        }
+
+        List<byte[]> eventKeys = new ArrayList<>(limit);
+        byte[]       lastRow   = null;
+        int          rowCount  = 0;
+
+        try (Table indexTable = isIndexScan ? connection.getTable(indexTableName) : null;
+             ResultScanner scanner = (indexTable != null ? indexTable : table).getScanner(scan)) {
+            for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                if (rowCount++ < skip) {
+                    continue;
+                }
+
+                lastRow = result.getRow();
+
+                eventKeys.add(isIndexScan ? result.getValue(COLUMN_FAMILY, COLUMN_EVENT_KEY) : lastRow);
+            }
+        }
+
+        String nextCursor = eventKeys.size() >= limit ? HBaseAuditIndex.toCursor(lastRow) : null;
+
+        return new EntityAuditEventsPage(getEventsByKey(table, eventKeys), nextCursor, -1);
+    }
+
+    private List<EntityAuditEventV2> getEventsByKey(Table table, List<byte[]> eventKeys) throws IOException {
+        List<EntityAuditEventV2> ret = new ArrayList<>(eventKeys.size());
+
+        if (eventKeys.isEmpty()) {
+            return ret;
+        }
+
+        List<Get> gets = new ArrayList<>(eventKeys.size());
+
+        for (byte[] eventKey : eventKeys) {
+            gets.add(new Get(eventKey).addFamily(COLUMN_FAMILY));
+        }
+
+        for (Result result : table.get(gets)) {
+            if (result == null || result.isEmpty()) {
+                continue;
+            }
+
+            EntityAuditEventV2 event = fromKeyV2(result.getRow());
+
+            event.setUser(getResultString(result, COLUMN_USER));
+            event.setAction(EntityAuditActionV2.fromString(getResultString(result, COLUMN_ACTION)));
+            event.setDetails(getDecodedResultString(result, COLUMN_DETAIL));
+
+            if (persistEntityDefinition) {
+                String colDef = getDecodedResultString(result, COLUMN_DEFINITION);
+
+                if (colDef != null) {
+                    event.setEntityDefinition(colDef);
+                }
+            }
+
+            ret.add(event);
+        }
+
+        return ret;
+    }
+
+    // writes index rows of the given events, and updates event counts in the summary row of each entity; puts are the event rows, in the order of events
+    private void writeIndexRows(List<EntityAuditEventV2> events, List<Put> puts) throws AtlasBaseException {
+        List<Row>                                   mutations = new ArrayList<>(events.size() * 2);
+        Map<String, Map<EntityAuditActionV2, Long>> counts    = new HashMap<>();
+        Set<String>                                 created   = new HashSet<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            EntityAuditEventV2  event     = events.get(i);
+            String              entityId  = event.getEntityId();
+            EntityAuditActionV2 action    = event.getAction();
+            byte[]              eventKey  = puts.get(i).getRow();
+            Put                 userRow   = new Put(HBaseAuditIndex.getUserIndexKey(entityId, event.getUser(), event.getTimestamp(), eventKey));
+            Put                 actionRow = new Put(HBaseAuditIndex.getActionIndexKey(entityId, action, event.getTimestamp(), eventKey));
+
+            userRow.addColumn(COLUMN_FAMILY, COLUMN_EVENT_KEY, eventKey);
+            addColumn(userRow, COLUMN_ACTION, action);
+            actionRow.addColumn(COLUMN_FAMILY, COLUMN_EVENT_KEY, eventKey);
+
+            mutations.add(userRow);
+            mutations.add(actionRow);
+
+            counts.computeIfAbsent(entityId, k -> new HashMap<>()).merge(action, 1L, Long::sum);
+
+            if (action == EntityAuditActionV2.ENTITY_CREATE || action == EntityAuditActionV2.ENTITY_IMPORT_CREATE) {
+                created.add(entityId);
+            }
+        }
+
+        for (Map.Entry<String, Map<EntityAuditActionV2, Long>> entry : counts.entrySet()) {
+            byte[]    summaryKey = HBaseAuditIndex.getSummaryKey(entry.getKey());
+            Increment increment  = new Increment(summaryKey);
+            long      total      = 0;
+
+            for (Map.Entry<EntityAuditActionV2, Long> actionCount : entry.getValue().entrySet()) {
+                increment.addColumn(COLUMN_FAMILY, HBaseAuditIndex.getCountColumn(actionCount.getKey()), actionCount.getValue());
+
+                total += actionCount.getValue();
+            }
+
+            increment.addColumn(COLUMN_FAMILY, HBaseAuditIndex.getCountColumn(null), total);
+
+            mutations.add(increment);
+
+            if (created.contains(entry.getKey())) { // all events of the entity are indexed from its create event onwards, while the epoch is unchanged
+                mutations.add(new Put(summaryKey).addColumn(COLUMN_FAMILY, COLUMN_COMPLETE, Bytes.toBytes(indexEpoch)));
+            }
+        }
+
+        try (Table table = connection.getTable(indexTableName)) {
+            table.batch(mutations, new Object[mutations.size()]);
+        } catch (IOException e) {
+            throw new AtlasBaseException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(e);
+        }
+    }
+
+    private interface MutatorCall {
+        void run() throws IOException;
+    }
+
+    // rows of a batch can be sent by a flush of another writer thread; once this thread's call returns, it waits for
+    // the mutator calls that started before, so that each of its rows is either written or in failedRows
+    private void callMutator(MutatorCall call) throws IOException {
+        CompletableFuture<Void> inProgress = new CompletableFuture<>();
+
+        mutatorCallsInProgress.add(inProgress);
+
+        try {
+            call.run();
+        } finally {
+            mutatorCallsInProgress.remove(inProgress);
+
+            inProgress.complete(null);
+        }
+
+        for (CompletableFuture<Void> other : new ArrayList<>(mutatorCallsInProgress)) {
+            other.join();
+        }
+    }
+
+    private void onMutationsFailed(RetriesExhaustedWithDetailsException e, BufferedMutator bufferedMutator) {
+        LOG.warn("failed to write {} audit rows: {}", e.getNumExceptions(), e.getMessage());
+
+        for (int i = 0; i < e.getNumExceptions(); i++) {
+            failedRows.add(Bytes.toString(e.getRow(i).getRow()));
+        }
+    }
+
+    private void checkFailedRows(List<Put> puts) throws AtlasBaseException {
+        if (failedRows.isEmpty()) {
+            return;
+        }
+
+        int failedCount = 0;
+
+        for (Put put : puts) {
+            if (failedRows.remove(Bytes.toString(put.getRow()))) {
+                failedCount++;
+            }
+        }
+
+        if (failedCount > 0) {
+            throw new AtlasBaseException("failed to write " + failedCount + " of " + puts.size() + " audit events");
+        }
+    }
+
+    private Result getIndexSummary(String entityId) throws AtlasBaseException {
+        if (!indexEnabled) {
+            return null;
+        }
+
+        try (Table table = connection.getTable(indexTableName)) {
+            return table.get(new Get(HBaseAuditIndex.getSummaryKey(entityId)));
+        } catch (IOException e) {
+            throw new AtlasBaseException(e);
+        }
+    }
+
+    private boolean isIndexComplete(Result summary) {
+        byte[] epoch = summary != null ? summary.getValue(COLUMN_FAMILY, COLUMN_COMPLETE) : null;
+
+        return epoch != null && epoch.length == Bytes.SIZEOF_LONG && Bytes.toLong(epoch) == indexEpoch;
+    }
+
+    // counts are available only for entities whose events are all indexed
+    private long getSummaryCount(Result summary, EntityAuditActionV2 auditAction) {
+        if (!isIndexComplete(summary)) {
+            return -1;
+        }
+
+        byte[] value = summary.getValue(COLUMN_FAMILY, HBaseAuditIndex.getCountColumn(auditAction));
+
+        return value != null ? Bytes.toLong(value) : 0;
+    }
+
+    private static String getSortColumn(String sortByColumn) {
+        if (EntityAuditEventV2.SORT_COLUMN_USER.equalsIgnoreCase(sortByColumn)) {
+            return EntityAuditEventV2.SORT_COLUMN_USER;
+        } else if (EntityAuditEventV2.SORT_COLUMN_ACTION.equalsIgnoreCase(sortByColumn)) {
+            return EntityAuditEventV2.SORT_COLUMN_ACTION;
+        }
+
+        return EntityAuditEventV2.SORT_COLUMN_TIMESTAMP; // as in EntityAuditEventV2.sortEvents()
+    }
+
+    // events of an entity sorted by timestamp are in the order of their row keys
+    private static boolean isSortedByEventKey(String sortColumn, EntityAuditActionV2 auditAction) {
+        return auditAction == null && EntityAuditEventV2.SORT_COLUMN_TIMESTAMP.equals(sortColumn);
+    }
+
+    private void addEncodedColumn(Put put, byte[] columnName, String columnValue) {
+        if (columnValue != null && !columnValue.isEmpty()) {
+            put.addColumn(COLUMN_FAMILY, columnName, AuditPayloadCodec.get().encode(columnValue));
+        }
+    }
+
     private byte[] getKey(String id, Long ts) {
         assert id != null : "entity id can't be null";
         assert ts != null : "timestamp can't be null";
@@ -517,9 +917,9 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
                 }
                 event.setUser(getResultString(result, COLUMN_USER));
                 event.setAction(EntityAuditEvent.EntityAuditAction.fromString(getResultString(result, COLUMN_ACTION)));
-                event.setDetails(getResultString(result, COLUMN_DETAIL));
+                event.setDetails(getDecodedResultString(result, COLUMN_DETAIL));
                 if (persistEntityDefinition) {
-                    String colDef = getResultString(result, COLUMN_DEFINITION);
+                    String colDef = getDecodedResultString(result, COLUMN_DEFINITION);
                     if (colDef != null) {
                         event.setEntityDefinition(colDef);
                     }
@@ -584,6 +984,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         return null;
     }
 
+    private String getDecodedResultString(Result result, byte[] columnName) {
+        return AuditPayloadCodec.get().decode(result.getValue(COLUMN_FAMILY, columnName));
+    }
+
     private EntityAuditEvent fromKey(byte[] keyBytes) {
         String key = Bytes.toString(keyBytes);
         EntityAuditEvent event = new EntityAuditEvent();
@@ -642,6 +1046,50 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     }
 
     private void createTableIfNotExists() throws AtlasException {
+        createTableIfNotExists(tableName);
+
+        if (indexEnabled) {
+            createTableIfNotExists(indexTableName);
+        }
+    }
+
+    /**
+     * Reads the index epoch when the index is enabled. When it is disabled, the epoch in an existing index table is
+     * incremented, so that entities marked complete until now are no longer listed from the index once it is enabled again.
+     */
+    private void initIndexEpoch() throws AtlasException {
+        Admin admin = null;
+        Table table = null;
+
+        try {
+            admin = connection.getAdmin();
+
+            if (!admin.tableExists(indexTableName)) {
+                return;
+            }
+
+            table = connection.getTable(indexTableName);
+
+            byte[] epochKey = HBaseAuditIndex.getEpochKey();
+
+            if (indexEnabled) {
+                byte[] epoch = table.get(new Get(epochKey).addColumn(COLUMN_FAMILY, COLUMN_EPOCH)).getValue(COLUMN_FAMILY, COLUMN_EPOCH);
+
+                indexEpoch = epoch != null ? Bytes.toLong(epoch) : 0;
+            } else {
+                indexEpoch = table.incrementColumnValue(epochKey, COLUMN_FAMILY, COLUMN_EPOCH, 1);
+            }
+
+            LOG.info("audit index epoch: {}", indexEpoch);
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        } finally {
+            close(table);
+            close(admin);
+        }
+    }
+
+    private void createTableIfNotExists(TableName tableName) throws AtlasException {
         Admin admin = null;
         try {
             admin = connection.getAdmin();
@@ -724,6 +1172,8 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
 
         String tableNameStr = atlasConf.getString(CONFIG_TABLE_NAME, DEFAULT_TABLE_NAME);
         tableName = TableName.valueOf(tableNameStr);
+        indexEnabled = atlasConf.getBoolean(CONFIG_INDEX_ENABLED, false);
+        indexTableName = TableName.valueOf(atlasConf.getString(CONFIG_INDEX_TABLE_NAME, DEFAULT_INDEX_TABLE_NAME));
 
         try {
             connection = createConnection(hbaseConf);
@@ -734,6 +1184,17 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         if (!HAConfiguration.isHAEnabled(atlasConf)) {
             LOG.info("HA is disabled. Hence creating table on startup.");
             createTableIfNotExists();
+            initIndexEpoch();
+        }
+
+        if (isAsyncWriteEnabled()) {
+            try {
+                mutator = connection.getBufferedMutator(new BufferedMutatorParams(tableName).listener(this::onMutationsFailed));
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+
+            startAuditWriter();
         }
     }
 
@@ -744,13 +1205,19 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
 
     @Override
     public void stop() throws AtlasException {
+        stopAuditWriter();
+
+        close(mutator);
         close(connection);
+
+        mutator = null;
     }
 
     @Override
     public void instanceIsActive() throws AtlasException {
         LOG.info("Reacting to active: Creating HBase table for Audit if required.");
         createTableIfNotExists();
+        initIndexEpoch();
     }
 
     @Override
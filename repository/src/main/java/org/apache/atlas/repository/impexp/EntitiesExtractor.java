@@ -24,6 +24,7 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.type.AtlasTypeRegistry;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class EntitiesExtractor {
@@ -66,6 +67,43 @@ public class EntitiesExtractor {
         }
     }
 
+    /**
+     * Extracts entities connected to the given entity, using the result of the traversal query when it was run by a
+     * worker thread - see getTraversal().
+     */
+    void get(AtlasEntity entity, List<Map<String, Object>> traversalResult, ExportService.ExportContext context) {
+        if (traversalResult != null && getTraversal(context) != null) {
+            ((VertexExtractor) extractor).fullFetch(traversalResult, context);
+        } else {
+            get(entity, context);
+        }
+    }
+
+    /**
+     * @return traversal query of get() that can run in an ExportEntityFetcher worker thread, for the current extractor
+     *         and fetch type; null if get() has to run in the calling thread
+     */
+    ExportEntityFetcher.EntityTraversal getTraversal(ExportService.ExportContext context) {
+        if (!(extractor instanceof VertexExtractor)) {
+            return null;
+        }
+
+        switch (context.fetchType) {
+            case CONNECTED:
+                // traversal direction depends on the order the entities are processed in
+                return null;
+
+            case INCREMENTAL:
+                if (context.isHiveDBIncrementalSkipLineage() || context.isHiveTableIncrementalSkipLineage()) {
+                    return null;
+                }
+
+            case FULL:
+            default:
+                return ((VertexExtractor) extractor)::getFullFetchResult;
+        }
+    }
+
     public void setExtractor(AtlasEntityDef atlasEntityDef) {
         extractor = extractUsing(atlasEntityDef);
     }
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.repository.util.UniqueList;
+import org.apache.atlas.type.AtlasType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Retrieves entities to be exported, optionally ahead of the export traversal.
+ *
+ * When an executor is given, entities queued for export are read from the graph - each in a read-only transaction of
+ * a worker thread - up to windowSize entities ahead of the traversal. Along with retrieval, workers run the traversal
+ * query that finds the entities connected to the retrieved ones (see setTraversal()) and serialize entities that will
+ * be written to the export (see setSerializeFilter()). Updates to the export context, and the writes to ZipSink,
+ * remain on the calling thread, in the same order as the serial export, so the creation order recorded in the export
+ * is unchanged.
+ */
+class ExportEntityFetcher {
+    /**
+     * Traversal query of an entity, that can run in a worker thread: returns the rows the extractor adds to the
+     * export context.
+     */
+    interface EntityTraversal {
+        List<Map<String, Object>> traverse(String guid);
+    }
+
+    private final AtlasGraph                   graph;
+    private final EntityGraphRetriever         entityGraphRetriever;
+    private final ExecutorService              executor;
+    private final int                          windowSize;
+    private final Map<String, Future<Fetched>> pending = new HashMap<>();
+    private       EntityTraversal              traversal;
+    private       Predicate<AtlasEntity>       serializeFilter;
+    private       UniqueList<String>           queue;
+    private       long                         queueCursor; // position, counting removed guids, of the next guid of queue to prefetch
+
+    /**
+     * @param executor worker threads to fetch entities ahead of the traversal; null to fetch in the calling thread
+     */
+    ExportEntityFetcher(AtlasGraph graph, EntityGraphRetriever entityGraphRetriever, ExecutorService executor, int windowSize) {
+        this.graph                = graph;
+        this.entityGraphRetriever = entityGraphRetriever;
+        this.executor             = windowSize > 0 ? executor : null;
+        this.windowSize           = windowSize;
+    }
+
+    /**
+     * @param traversal traversal query to run for entities fetched from now on; null to leave traversal to the caller
+     */
+    void setTraversal(EntityTraversal traversal) {
+        this.traversal = traversal;
+    }
+
+    /**
+     * @param serializeFilter entities to be serialized by worker threads; others are serialized only if the caller
+     *                        writes them to the export
+     */
+    void setSerializeFilter(Predicate<AtlasEntity> serializeFilter) {
+        this.serializeFilter = serializeFilter;
+    }
+
+    /**
+     * Starts retrieval of the given entities, in list order, until the window is full.
+     */
+    void prefetch(List<String> guids, Set<String> guidsProcessed) {
+        if (!isWindowLow()) {
+            return;
+        }
+
+        for (int i = 0; i < guids.size() && pending.size() < windowSize; i++) {
+            submit(guids.get(i), guidsProcessed);
+        }
+    }
+
+    /**
+     * Starts retrieval of the given entities, in queue order, until the window is full. Guids that were looked at by
+     * an earlier call for the same queue are not looked at again; the queue is expected to be consumed from the front.
+     */
+    void prefetch(UniqueList<String> guids, Set<String> guidsProcessed) {
+        if (!isWindowLow()) {
+            return;
+        }
+
+        if (guids != queue) {
+            queue       = guids;
+            queueCursor = guids.getRemovedCount();
+        }
+
+        int i = (int) Math.max(queueCursor - guids.getRemovedCount(), 0);
+
+        for (; i < guids.size() && pending.size() < windowSize; i++) {
+            submit(guids.get(i), guidsProcessed);
+        }
+
+        queueCursor = guids.getRemovedCount() + i;
+    }
+
+    /**
+     * @return the entity, along with its JSON and traversal results when these were computed by a worker thread
+     */
+    Fetched get(String guid) throws AtlasBaseException {
+        Future<Fetched> future = pending.remove(guid);
+
+        if (future == null) {
+            return new Fetched(entityGraphRetriever.toAtlasEntityWithExtInfo(guid), null, null);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(String.format("Interrupted while fetching entity %s", guid), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AtlasBaseException) {
+                throw (AtlasBaseException) e.getCause();
+            }
+
+            throw new AtlasBaseException(String.format("Error fetching entity %s", guid), e.getCause());
+        }
+    }
+
+    /**
+     * Drops the result of an entity that no longer needs to be fetched.
+     */
+    void discard(String guid) {
+        cancel(pending.remove(guid));
+    }
+
+    void close() {
+        for (Future<Fetched> future : pending.values()) {
+            cancel(future);
+        }
+
+        pending.clear();
+
+        queue = null;
+    }
+
+    private boolean isWindowLow() {
+        return executor != null && pending.size() <= windowSize / 2;
+    }
+
+    private void submit(String guid, Set<String> guidsProcessed) {
+        if (pending.containsKey(guid) || guidsProcessed.contains(guid)) {
+            return;
+        }
+
+        final EntityTraversal        traversal       = this.traversal;
+        final Predicate<AtlasEntity> serializeFilter = this.serializeFilter;
+
+        pending.put(guid, executor.submit(() -> {
+            try {
+                AtlasEntityWithExtInfo entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+                String                 json              = null;
+
+                if (serializeFilter == null || serializeFilter.test(entityWithExtInfo.getEntity())) {
+                    json = AtlasType.toJson(entityWithExtInfo);
+                }
+
+                return new Fetched(entityWithExtInfo, json, traverse(traversal, entityWithExtInfo));
+            } finally {
+                // read-only transaction opened by the retrieval in this worker thread
+                graph.rollback();
+
+                RequestContext.clear();
+            }
+        }));
+    }
+
+    private static Map<String, List<Map<String, Object>>> traverse(EntityTraversal traversal, AtlasEntityWithExtInfo entityWithExtInfo) {
+        if (traversal == null) {
+            return null;
+        }
+
+        Map<String, List<Map<String, Object>>> ret  = new HashMap<>();
+        String                                 guid = entityWithExtInfo.getEntity().getGuid();
+
+        ret.put(guid, traversal.traverse(guid));
+
+        if (entityWithExtInfo.getReferredEntities() != null) {
+            for (String referredGuid : entityWithExtInfo.getReferredEntities().keySet()) {
+                ret.put(referredGuid, traversal.traverse(referredGuid));
+            }
+        }
+
+        return ret;
+    }
+
+    private static void cancel(Future<Fetched> future) {
+        // not interrupted: an interrupt in the middle of a graph read can close channels shared with other threads
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    static class Fetched {
+        final AtlasEntityWithExtInfo                 entityWithExtInfo;
+        final String                                 json;
+        final Map<String, List<Map<String, Object>>> traversals;
+
+        Fetched(AtlasEntityWithExtInfo entityWithExtInfo, String json, Map<String, List<Map<String, Object>>> traversals) {
+            this.entityWithExtInfo = entityWithExtInfo;
+            this.json              = json;
+            this.traversals        = traversals;
+        }
+
+        List<Map<String, Object>> getTraversal(String guid) {
+            return traversals != null ? traversals.get(guid) : null;
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package org.apache.atlas.repository.impexp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.glossary.GlossaryService;
@@ -44,6 +46,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,6 +54,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.apache.atlas.model.impexp.AtlasExportRequest.FETCH_TYPE_CONNECTED;
 import static org.apache.atlas.model.impexp.AtlasExportRequest.FETCH_TYPE_FULL;
@@ -61,6 +66,7 @@ public class ExportService {
     private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
 
     private final AtlasTypeRegistry         typeRegistry;
+    private final AtlasGraph                graph;
     private final StartEntityFetchByExportRequest startEntityFetchByExportRequest;
     private final EntitiesExtractor         entitiesExtractor;
     private       AuditsWriter              auditsWriter;
@@ -68,18 +74,28 @@ public class ExportService {
     private       ExportTypeProcessor       exportTypeProcessor;
     private final HdfsPathEntityCreator     hdfsPathEntityCreator;
     private final GlossaryService           glossaryService;
+    private final ExecutorService           fetchExecutor;
 
     @Inject
     public ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph graph,
                          AuditsWriter auditsWriter, HdfsPathEntityCreator hdfsPathEntityCreator,
                          GlossaryService glossaryService) {
         this.typeRegistry         = typeRegistry;
+        this.graph                = graph;
         this.entityGraphRetriever = new EntityGraphRetriever(graph, this.typeRegistry);
         this.auditsWriter         = auditsWriter;
         this.hdfsPathEntityCreator = hdfsPathEntityCreator;
         this.glossaryService = glossaryService;
         this.startEntityFetchByExportRequest = new StartEntityFetchByExportRequest(graph, typeRegistry, AtlasGremlinQueryProvider.INSTANCE);
         this.entitiesExtractor = new EntitiesExtractor(graph, typeRegistry);
+        this.fetchExecutor = createFetchExecutor();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdown();
+        }
     }
 
     public AtlasExportResult run(ZipSink exportSink, AtlasExportRequest request, String userName, String hostName,
@@ -88,9 +104,11 @@ public class ExportService {
         AtlasExportResult result = new AtlasExportResult(request, userName, requestingIP,
                 hostName, startTime, getCurrentChangeMarker());
 
-        ExportContext context = new ExportContext(result, exportSink);
+        ExportContext context = new ExportContext(result, exportSink, new ExportEntityFetcher(graph, entityGraphRetriever, fetchExecutor, AtlasConfiguration.EXPORT_PARALLEL_WINDOW.getInt()));
         exportTypeProcessor = new ExportTypeProcessor(typeRegistry, glossaryService);
 
+        context.entityFetcher.setSerializeFilter(context::doesTimestampQualify);
+
         try {
             LOG.info("==> export(user={}, from={})", userName, requestingIP);
 
@@ -103,6 +121,7 @@ public class ExportService {
             LOG.error("Operation failed: ", ex);
         } finally {
             entitiesExtractor.close();
+            context.entityFetcher.close();
 
             LOG.info("<== export(user={}, from={}): status {}: changeMarker: {}",
                     userName, requestingIP, context.result.getOperationStatus(), context.result.getChangeMarker());
@@ -117,6 +136,18 @@ public class ExportService {
         return RequestContext.earliestActiveRequestTime();
     }
 
+    private static ExecutorService createFetchExecutor() {
+        if (!AtlasConfiguration.EXPORT_PARALLEL_ENABLED.getBoolean()) {
+            return null;
+        }
+
+        int threadCount = Math.max(1, AtlasConfiguration.EXPORT_PARALLEL_THREADS.getInt());
+
+        LOG.info("ExportService: starting {} export worker threads", threadCount);
+
+        return Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat("atlas-export-worker-%d").setDaemon(true).build());
+    }
+
     private void updateSinkWithOperationMetrics(String userName, ExportContext context,
                                                 AtlasExportResult.OperationStatus[] statuses,
                                                 long startTime, long endTime) throws AtlasBaseException {
@@ -213,13 +244,18 @@ public class ExportService {
             }
 
             entitiesExtractor.setExtractor(typeRegistry.getEntityDefByName(item.getTypeName()));
+            context.entityFetcher.setTraversal(entitiesExtractor.getTraversal(context));
+
+            for (int i = 0; i < entityGuids.size(); i++) {
+                context.entityFetcher.prefetch(entityGuids.subList(i, entityGuids.size()), context.guidsProcessed);
 
-            for (String guid : entityGuids) {
-                processEntityGuid(guid, context);
+                processEntityGuid(entityGuids.get(i), context);
             }
 
             while (!context.guidsToProcess.isEmpty()) {
                 while (!context.guidsToProcess.isEmpty()) {
+                    context.entityFetcher.prefetch(context.guidsToProcess, context.guidsProcessed);
+
                     String guid = context.guidsToProcess.remove(0);
                     processEntityGuid(guid, context);
                 }
@@ -257,32 +293,39 @@ public class ExportService {
         }
 
         if (context.guidsProcessed.contains(guid)) {
+            context.entityFetcher.discard(guid);
             return;
         }
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+        ExportEntityFetcher.Fetched fetched = context.entityFetcher.get(guid);
 
-        processEntity(entityWithExtInfo, context);
+        processEntity(fetched, context);
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== processEntityGuid({})", guid);
         }
     }
 
     public void processEntity(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) throws AtlasBaseException {
+        processEntity(new ExportEntityFetcher.Fetched(entityWithExtInfo, null, null), context);
+    }
+
+    private void processEntity(ExportEntityFetcher.Fetched fetched, ExportContext context) throws AtlasBaseException {
+        AtlasEntityWithExtInfo entityWithExtInfo = fetched.entityWithExtInfo;
+
         exportTypeProcessor.addTypes(entityWithExtInfo.getEntity(), context);
         if (MapUtils.isNotEmpty(context.termsGlossary)) {
             addGlossaryEntities(context);
         }
 
-        addEntity(entityWithExtInfo, context);
+        addEntity(entityWithExtInfo, fetched.json, context);
 
         context.guidsProcessed.add(entityWithExtInfo.getEntity().getGuid());
-        entitiesExtractor.get(entityWithExtInfo.getEntity(), context);
+        entitiesExtractor.get(entityWithExtInfo.getEntity(), fetched.getTraversal(entityWithExtInfo.getEntity().getGuid()), context);
 
         if (entityWithExtInfo.getReferredEntities() != null) {
             for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
                 exportTypeProcessor.addTypes(e, context);
-                entitiesExtractor.get(e, context);
+                entitiesExtractor.get(e, fetched.getTraversal(e.getGuid()), context);
             }
 
             context.guidsProcessed.addAll(entityWithExtInfo.getReferredEntities().keySet());
@@ -296,12 +339,12 @@ public class ExportService {
                     String glossaryGuid = context.termsGlossary.get(termGuid);
                     if (!context.sink.hasEntity(glossaryGuid)) {
                         AtlasEntity glossary = entityGraphRetriever.toAtlasEntity(glossaryGuid);
-                        addEntity(new AtlasEntityWithExtInfo(glossary), context);
+                        addEntity(new AtlasEntityWithExtInfo(glossary), null, context);
                     }
 
                     if (!context.sink.hasEntity(termGuid)) {
                         AtlasEntity term = entityGraphRetriever.toAtlasEntity(termGuid);
-                        addEntity(new AtlasEntityWithExtInfo(term), context);
+                        addEntity(new AtlasEntityWithExtInfo(term), null, context);
                     }
                 } catch (AtlasBaseException exception) {
                     LOG.error("Error fetching Glossary for term: {}", termGuid);
@@ -312,13 +355,13 @@ public class ExportService {
         }
     }
 
-    private void addEntity(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) throws AtlasBaseException {
+    private void addEntity(AtlasEntityWithExtInfo entityWithExtInfo, String json, ExportContext context) throws AtlasBaseException {
         if(context.sink.hasEntity(entityWithExtInfo.getEntity().getGuid())) {
             return;
         }
 
         if(context.doesTimestampQualify(entityWithExtInfo.getEntity())) {
-            context.addToSink(entityWithExtInfo);
+            context.addToSink(entityWithExtInfo, json);
 
             context.result.incrementMeticsCounter(String.format("entity:%s", entityWithExtInfo.getEntity().getTypeName()));
             if (entityWithExtInfo.getReferredEntities() != null) {
@@ -390,6 +433,7 @@ public class ExportService {
 
         final AtlasExportResult               result;
         private final ZipSink                 sink;
+        final ExportEntityFetcher             entityFetcher;
 
         final ExportFetchType             fetchType;
         final boolean                     skipLineage;
@@ -400,9 +444,10 @@ public class ExportService {
 
         private       int                 progressReportCount = 0;
 
-        ExportContext(AtlasExportResult result, ZipSink sink) {
-            this.result = result;
-            this.sink   = sink;
+        ExportContext(AtlasExportResult result, ZipSink sink, ExportEntityFetcher entityFetcher) {
+            this.result        = result;
+            this.sink          = sink;
+            this.entityFetcher = entityFetcher;
 
             fetchType    = ExportFetchType.from(result.getRequest().getFetchTypeOptionValue());
             skipLineage  = result.getRequest().getSkipLineageOptionValue();
@@ -489,8 +534,12 @@ public class ExportService {
         }
 
         public void addToSink(AtlasEntityWithExtInfo entityWithExtInfo) throws AtlasBaseException {
+            addToSink(entityWithExtInfo, null);
+        }
+
+        public void addToSink(AtlasEntityWithExtInfo entityWithExtInfo, String json) throws AtlasBaseException {
             addToEntityCreationOrder(entityWithExtInfo.getEntity().getGuid());
-            sink.add(entityWithExtInfo);
+            sink.add(entityWithExtInfo, json);
         }
 
         public boolean isHiveDBIncrementalSkipLineage() {
@@ -260,6 +260,10 @@ public class ImportService {
                 return getZipDirectEntityImportStream(request, inputStream);
             }
 
+            if (AtlasConfiguration.IMPORT_STREAMING_ENABLED.getBoolean()) {
+                return new ZipSourceStreaming(inputStream, configuredTemporaryDirectory);
+            }
+
             if (StringUtils.isEmpty(configuredTemporaryDirectory)) {
                 return new ZipSource(inputStream);
             }
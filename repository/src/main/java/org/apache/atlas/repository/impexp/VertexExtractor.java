@@ -76,6 +76,13 @@ public class VertexExtractor implements ExtractStrategy {
 
         List<Map<String, Object>> result = executeGremlinQuery(query, context);
 
+        fullFetch(result, context);
+    }
+
+    /**
+     * Adds entities found by getFullFetchResult() to the export context.
+     */
+    void fullFetch(List<Map<String, Object>> result, ExportService.ExportContext context) {
         if (CollectionUtils.isEmpty(result)) {
             return;
         }
@@ -92,6 +99,29 @@ public class VertexExtractor implements ExtractStrategy {
         }
     }
 
+    /**
+     * Runs the query of fullFetch() with the script engine of the calling thread, and resets the engine afterwards,
+     * so that it can be called from pooled ExportEntityFetcher worker threads.
+     * @return rows to be passed to fullFetch(result, context); null if the query failed
+     */
+    List<Map<String, Object>> getFullFetchResult(String guid) {
+        String              query    = this.gremlinQueryProvider.getQuery(AtlasGremlinQueryProvider.AtlasGremlinQuery.EXPORT_BY_GUID_FULL);
+        Map<String, Object> bindings = new HashMap<>();
+
+        bindings.put(QUERY_BINDING_START_GUID, guid);
+
+        ScriptEngine engine = atlasGraph.getGremlinScriptEngine();
+
+        try {
+            return (List<Map<String, Object>>) atlasGraph.executeGremlinScript(engine, bindings, query, false);
+        } catch (AtlasBaseException | ScriptException e) {
+            LOG.error("Script execution failed for query: {}", query, e);
+            return null;
+        } finally {
+            atlasGraph.releaseGremlinScriptEngine(engine);
+        }
+    }
+
     @Override
     public void connectedFetch(AtlasEntity entity, ExportService.ExportContext context) {
         if (LOG.isDebugEnabled()){
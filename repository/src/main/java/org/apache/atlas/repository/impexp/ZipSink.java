@@ -54,7 +54,17 @@ public class ZipSink {
     }
 
     public void add(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo) throws AtlasBaseException {
-        String jsonData = convertToJSON(entityWithExtInfo);
+        add(entityWithExtInfo, null);
+    }
+
+    /**
+     * @param jsonData entityWithExtInfo already serialized to JSON, or null
+     */
+    public void add(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo, String jsonData) throws AtlasBaseException {
+        if (jsonData == null) {
+            jsonData = convertToJSON(entityWithExtInfo);
+        }
+
         saveToZip(entityWithExtInfo.getEntity().getGuid(), jsonData);
         recordAddedEntityGuids(entityWithExtInfo);
     }
@@ -0,0 +1,461 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.entitytransform.BaseEntityHandler;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.impexp.AtlasExportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.apache.atlas.utils.AtlasJson;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import static org.apache.atlas.AtlasErrorCode.IMPORT_ATTEMPTING_EMPTY_ZIP;
+
+/**
+ * Import source that streams entities from the export ZIP one entry at a time.
+ *
+ * The uploaded stream is spooled to a single file, and entities are then deserialized directly from the
+ * entry streams, in the order they were written by the export; only the next entry is held as lookahead,
+ * so heap usage does not grow with the size of entities in the export. ZipFile keeps the central directory
+ * in heap, roughly 100 bytes per entry, and a guid to position index of the same order is built the first
+ * time an entity is requested ahead of an unfinished stream; both grow with the number of entities.
+ */
+public class ZipSourceStreaming implements EntityImportStream {
+    private static final Logger LOG = LoggerFactory.getLogger(ZipSourceStreaming.class);
+
+    private static final String      SPOOL_FILE_PREFIX    = "atlas-import-";
+    private static final String      SPOOL_FILE_SUFFIX    = ".zip";
+    private static final String      EXT_JSON             = ".json";
+    private static final Set<String> METADATA_ENTRY_NAMES = new HashSet<>();
+
+    static {
+        for (ZipExportFileNames fileName : ZipExportFileNames.values()) {
+            METADATA_ENTRY_NAMES.add(fileName.toEntryFileName());
+        }
+    }
+
+    private final File                      spoolFile;
+    private final ZipFile                   zipFile;
+    private final int                       numberOfEntities;
+    private ImportTransforms                importTransform;
+    private List<BaseEntityHandler>         entityHandlers;
+    private List<String>                    creationOrder;
+    private Enumeration<? extends ZipEntry> entries;
+    private ZipEntry                        nextEntry;      // lookahead: next entity entry in export order
+    private int                             nextEntryIndex;
+    private String                          pendingGuid;    // entity requested after the stream has moved past it
+    private int                             currentPosition;
+    private Map<String, Integer>            entityIndex;    // guid to position, built on first lookup
+
+    public ZipSourceStreaming(InputStream inputStream) throws IOException, AtlasBaseException {
+        this(inputStream, null);
+    }
+
+    public ZipSourceStreaming(InputStream inputStream, String spoolDirectory) throws IOException, AtlasBaseException {
+        this.spoolFile = spoolToFile(inputStream, spoolDirectory);
+
+        try {
+            this.zipFile = new ZipFile(spoolFile);
+        } catch (ZipException e) {
+            deleteSpoolFile();
+
+            throw new AtlasBaseException(IMPORT_ATTEMPTING_EMPTY_ZIP, e);
+        }
+
+        this.numberOfEntities = countEntities();
+
+        if (numberOfEntities == 0) {
+            close();
+
+            throw new AtlasBaseException(IMPORT_ATTEMPTING_EMPTY_ZIP, "Attempting to import empty ZIP.");
+        }
+
+        reset();
+    }
+
+    @Override
+    public ImportTransforms getImportTransform() { return this.importTransform; }
+
+    @Override
+    public void setImportTransform(ImportTransforms importTransform) {
+        this.importTransform = importTransform;
+    }
+
+    @Override
+    public List<BaseEntityHandler> getEntityHandlers() {
+        return entityHandlers;
+    }
+
+    @Override
+    public void setEntityHandlers(List<BaseEntityHandler> entityHandlers) {
+        this.entityHandlers = entityHandlers;
+    }
+
+    @Override
+    public AtlasTypesDef getTypesDef() throws AtlasBaseException {
+        return getJsonFromEntry(ZipExportFileNames.ATLAS_TYPESDEF_NAME.toEntryFileName(), AtlasTypesDef.class);
+    }
+
+    @Override
+    public AtlasExportResult getExportResult() throws AtlasBaseException {
+        return getJsonFromEntry(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME.toEntryFileName(), AtlasExportResult.class);
+    }
+
+    /**
+     * Creation order is not needed to iterate the entities; it is read on first use, which for a regular
+     * import is the audit written once all entities have been imported.
+     */
+    @Override
+    public List<String> getCreationOrder() {
+        if (creationOrder == null) {
+            creationOrder = readCreationOrder();
+        }
+
+        return creationOrder;
+    }
+
+    @Override
+    public int getPosition() {
+        return currentPosition;
+    }
+
+    @Override
+    public AtlasEntityWithExtInfo getEntityWithExtInfo(String guid) throws AtlasBaseException {
+        if (StringUtils.isEmpty(guid)) {
+            return null;
+        }
+
+        ZipEntry entry = zipFile.getEntry(guid + EXT_JSON);
+
+        return entry != null ? readEntity(entry) : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pendingGuid != null || nextEntry != null;
+    }
+
+    @Override
+    public AtlasEntity next() {
+        AtlasEntityWithExtInfo entityWithExtInfo = getNextEntityWithExtInfo();
+
+        return entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
+    }
+
+    @Override
+    public AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
+        try {
+            if (pendingGuid != null) {
+                String guid = pendingGuid;
+
+                pendingGuid = null;
+                currentPosition++;
+
+                return getEntityWithExtInfo(guid);
+            }
+
+            if (nextEntry == null) {
+                return null;
+            }
+
+            ZipEntry entry = nextEntry;
+
+            moveNext();
+            currentPosition++;
+
+            return readEntity(entry);
+        } catch (AtlasBaseException e) {
+            LOG.warn("getNextEntityWithExtInfo", e);
+
+            return null;
+        }
+    }
+
+    @Override
+    public void reset() {
+        entries         = zipFile.entries();
+        nextEntry       = null;
+        nextEntryIndex  = -1;
+        pendingGuid     = null;
+        currentPosition = 0;
+
+        moveNext();
+    }
+
+    @Override
+    public AtlasEntity getByGuid(String guid) {
+        try {
+            AtlasEntityWithExtInfo extInfo = getEntityWithExtInfo(guid);
+
+            return (extInfo != null) ? extInfo.getEntity() : null;
+        } catch (AtlasBaseException e) {
+            LOG.error("getByGuid: {} failed!", guid, e);
+
+            return null;
+        }
+    }
+
+    public int size() {
+        return numberOfEntities;
+    }
+
+    /**
+     * Nothing is held in memory for an imported entity; its entry is released along with the spool file on close().
+     */
+    @Override
+    public void onImportComplete(String guid) {
+    }
+
+    @Override
+    public void setPosition(int index) {
+        reset();
+
+        for (int i = 0; i <= index && nextEntry != null; i++) {
+            moveNext();
+        }
+
+        currentPosition = index;
+    }
+
+    /**
+     * Moves the stream forward to the given entity. If the stream has already moved past it, as for the
+     * residual entities retried at the end of an import, the entity is served by the next call to
+     * getNextEntityWithExtInfo() directly from the ZIP, without changing the position of the stream.
+     * Once the stream is exhausted no position lookup is needed, so residual entities cost one central
+     * directory lookup each.
+     */
+    @Override
+    public void setPositionUsingEntityGuid(String guid) {
+        if (StringUtils.isBlank(guid)) {
+            return;
+        }
+
+        if (nextEntry == null) {
+            if (zipFile.getEntry(guid + EXT_JSON) != null) {
+                pendingGuid = guid;
+            }
+
+            return;
+        }
+
+        Integer index = getEntityIndex().get(guid);
+        if (index == null) {
+            return;
+        }
+
+        if (index < nextEntryIndex) {
+            pendingGuid = guid;
+
+            return;
+        }
+
+        while (nextEntry != null && nextEntryIndex < index) {
+            moveNext();
+            currentPosition++;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            zipFile.close();
+        } catch (IOException e) {
+            LOG.warn("Import: Error closing: {}", spoolFile, e);
+        }
+
+        deleteSpoolFile();
+    }
+
+    private static File spoolToFile(InputStream inputStream, String spoolDirectory) throws IOException {
+        File directory = StringUtils.isNotEmpty(spoolDirectory) ? new File(spoolDirectory) : null;
+        File ret       = File.createTempFile(SPOOL_FILE_PREFIX, SPOOL_FILE_SUFFIX, directory);
+
+        try {
+            Files.copy(inputStream, ret.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            ret.delete();
+
+            throw e;
+        } finally {
+            inputStream.close();
+        }
+
+        LOG.info("Import: spooled {} bytes to {}", ret.length(), ret);
+
+        return ret;
+    }
+
+    private void deleteSpoolFile() {
+        LOG.info("Import: Removing spool file: {}", spoolFile);
+
+        if (!spoolFile.delete() && spoolFile.exists()) {
+            LOG.warn("Import: Error deleting: {}", spoolFile);
+        }
+    }
+
+    private int countEntities() {
+        int                             ret     = 0;
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+        while (entries.hasMoreElements()) {
+            if (isEntityEntry(entries.nextElement())) {
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+
+    private Map<String, Integer> getEntityIndex() {
+        if (entityIndex == null) {
+            Map<String, Integer>            ret     = new HashMap<>(numberOfEntities);
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+
+                if (isEntityEntry(entry)) {
+                    ret.put(StringUtils.removeEnd(entry.getName(), EXT_JSON), ret.size());
+                }
+            }
+
+            entityIndex = ret;
+        }
+
+        return entityIndex;
+    }
+
+    private void moveNext() {
+        nextEntry = null;
+
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+
+            if (isEntityEntry(entry)) {
+                nextEntry = entry;
+                nextEntryIndex++;
+
+                break;
+            }
+        }
+    }
+
+    private boolean isEntityEntry(ZipEntry entry) {
+        String name = entry.getName();
+
+        return !entry.isDirectory() && name.endsWith(EXT_JSON) && !METADATA_ENTRY_NAMES.contains(name);
+    }
+
+    private List<String> readCreationOrder() {
+        String fileName = ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toEntryFileName();
+
+        try {
+            if (zipFile.getEntry(fileName) != null) {
+                return getJsonFromEntry(fileName, ArrayList.class);
+            }
+        } catch (AtlasBaseException e) {
+            LOG.error("Error retrieving '{}' from zip. Using order of entries.", fileName, e);
+        }
+
+        List<String>                    ret     = new ArrayList<>(numberOfEntities);
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+
+            if (isEntityEntry(entry)) {
+                ret.add(StringUtils.removeEnd(entry.getName(), EXT_JSON));
+            }
+        }
+
+        return ret;
+    }
+
+    private AtlasEntityWithExtInfo readEntity(ZipEntry entry) throws AtlasBaseException {
+        AtlasEntityWithExtInfo entityWithExtInfo = readJson(entry, AtlasEntityWithExtInfo.class);
+
+        if (importTransform != null) {
+            entityWithExtInfo = importTransform.apply(entityWithExtInfo);
+        }
+
+        if (entityHandlers != null) {
+            applyTransformers(entityWithExtInfo);
+        }
+
+        return entityWithExtInfo;
+    }
+
+    private <T> T getJsonFromEntry(String entryName, Class<T> clazz) throws AtlasBaseException {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new AtlasBaseException(entryName + " not found!");
+        }
+
+        return readJson(entry, clazz);
+    }
+
+    private <T> T readJson(ZipEntry entry, Class<T> clazz) throws AtlasBaseException {
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return AtlasJson.fromJson(inputStream, clazz);
+        } catch (Exception e) {
+            throw new AtlasBaseException(String.format("Error converting %s to JSON.", entry.getName()), e);
+        }
+    }
+
+    private void applyTransformers(AtlasEntityWithExtInfo entityWithExtInfo) {
+        if (entityWithExtInfo == null) {
+            return;
+        }
+
+        transform(entityWithExtInfo.getEntity());
+
+        if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+            for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
+                transform(e);
+            }
+        }
+    }
+
+    private void transform(AtlasEntity e) {
+        for (BaseEntityHandler handler : entityHandlers) {
+            handler.transform(e);
+        }
+    }
+}
@@ -1249,6 +1249,8 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
                             vertex.removeProperty(IS_INCOMPLETE_PROPERTY_KEY);
 
                             entity.setIsIncomplete(FALSE);
+
+                            requestContext.recordShellEntityComplete(AtlasGraphUtilsV2.getIdFromVertex(vertex));
                         }
                     } else {
                         graphDiscoverer.validateAndNormalizeForUpdate(entity);
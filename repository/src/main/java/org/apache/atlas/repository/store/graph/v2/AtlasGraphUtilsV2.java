@@ -19,6 +19,7 @@ package org.apache.atlas.repository.store.graph.v2;
 
 
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
@@ -56,9 +57,13 @@ import org.slf4j.LoggerFactory;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -313,33 +318,22 @@ public class AtlasGraphUtilsV2 {
                     continue;
                 }
 
-                if (canUseIndexQuery(graph, entityType, attribute.getName())) {
-                    vertex = AtlasGraphUtilsV2.getAtlasVertexFromIndexQuery(graph, entityType, attribute, attrValue);
-                } else {
-                    if (USE_UNIQUE_INDEX_PROPERTY_TO_FIND_ENTITY && attribute.getVertexUniquePropertyName() != null) {
-                        vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(graph, entityType.getTypeName(), attribute.getVertexUniquePropertyName(), attrValue);
-
-                        // if no instance of given typeName is found, try to find an instance of type's sub-type
-                        if (vertex == null && !entityType.getAllSubTypes().isEmpty()) {
-                            vertex = AtlasGraphUtilsV2.findBySuperTypeAndUniquePropertyName(graph, entityType.getTypeName(), attribute.getVertexUniquePropertyName(), attrValue);
-                        }
-                    } else {
-                        vertex = AtlasGraphUtilsV2.findByTypeAndPropertyName(graph, entityType.getTypeName(), attribute.getVertexPropertyName(), attrValue);
-
-                        // if no instance of given typeName is found, try to find an instance of type's sub-type
-                        if (vertex == null && !entityType.getAllSubTypes().isEmpty()) {
-                            vertex = AtlasGraphUtilsV2.findBySuperTypeAndPropertyName(graph, entityType.getTypeName(), attribute.getVertexPropertyName(), attrValue);
-                        }
-                    }
+                vertex = EntityGuidCache.getVertexByUniqueAttribute(graph, entityType, attribute, attrValue);
 
+                if (vertex != null) {
+                    break;
                 }
 
+                vertex = findByUniqueAttribute(graph, entityType, attribute, attrValue);
+
                 if (vertex != null) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("findByUniqueAttributes(type={}, attrName={}, attrValue={}: found vertex {}",
                                   entityType.getTypeName(), attribute.getName(), attrValue, vertex);
                     }
 
+                    EntityGuidCache.putUniqueAttribute(entityType, attribute, attrValue, vertex);
+
                     break;
                 }
             }
@@ -350,6 +344,82 @@ public class AtlasGraphUtilsV2 {
         return vertex;
     }
 
+    public static List<AtlasVertex> findByUniqueAttributes(AtlasEntityType entityType, List<Map<String, Object>> attrValuesList) {
+        return findByUniqueAttributes(getGraphInstance(), entityType, attrValuesList);
+    }
+
+    /**
+     * Batch version of findByUniqueAttributes(): for each unique attribute, the values not found in the cache are looked up
+     * together, with one graph query per batch, when the attribute has a unique-index property of string type.
+     * @return vertices in the order of attrValuesList; null for entries not found
+     */
+    public static List<AtlasVertex> findByUniqueAttributes(AtlasGraph graph, AtlasEntityType entityType, List<Map<String, Object>> attrValuesList) {
+        MetricRecorder metric = RequestContext.get().startMetricRecord("findByUniqueAttributesBatch");
+
+        final int                         count            = attrValuesList != null ? attrValuesList.size() : 0;
+        final List<AtlasVertex>           ret              = new ArrayList<>(Collections.nCopies(count, null));
+        final Map<String, AtlasAttribute> uniqueAttributes = entityType.getUniqAttributes();
+
+        if (MapUtils.isNotEmpty(uniqueAttributes) && count > 0) {
+            for (AtlasAttribute attribute : uniqueAttributes.values()) {
+                Map<Object, List<Integer>> valueIndexes = new LinkedHashMap<>(); // attribute value => indexes in attrValuesList
+
+                for (int i = 0; i < count; i++) {
+                    Map<String, Object> attrValues = attrValuesList.get(i);
+                    Object              attrValue  = (ret.get(i) == null && attrValues != null) ? attrValues.get(attribute.getName()) : null;
+
+                    if (attrValue == null) {
+                        continue;
+                    }
+
+                    AtlasVertex vertex = EntityGuidCache.getVertexByUniqueAttribute(graph, entityType, attribute, attrValue);
+
+                    if (vertex != null) {
+                        ret.set(i, vertex);
+                    } else {
+                        valueIndexes.computeIfAbsent(attrValue, k -> new ArrayList<>()).add(i);
+                    }
+                }
+
+                if (valueIndexes.isEmpty()) {
+                    continue;
+                }
+
+                final Map<Object, AtlasVertex> vertices;
+
+                if (canUseUniquePropertyBatchQuery(graph, entityType, attribute)) {
+                    vertices = findByTypeAndUniquePropertyValues(graph, entityType, attribute.getVertexUniquePropertyName(), valueIndexes.keySet());
+                } else {
+                    vertices = new HashMap<>();
+
+                    for (Object attrValue : valueIndexes.keySet()) {
+                        AtlasVertex vertex = findByUniqueAttribute(graph, entityType, attribute, attrValue);
+
+                        if (vertex != null) {
+                            vertices.put(attrValue, vertex);
+                        }
+                    }
+                }
+
+                for (Map.Entry<Object, List<Integer>> entry : valueIndexes.entrySet()) {
+                    AtlasVertex vertex = vertices.get(entry.getKey());
+
+                    if (vertex != null) {
+                        EntityGuidCache.putUniqueAttribute(entityType, attribute, entry.getKey(), vertex);
+
+                        for (Integer idx : entry.getValue()) {
+                            ret.set(idx, vertex);
+                        }
+                    }
+                }
+            }
+        }
+
+        RequestContext.get().endMetricRecord(metric);
+
+        return ret;
+    }
+
     public static AtlasVertex findByGuid(String guid) {
         return findByGuid(getGraphInstance(), guid);
     }
@@ -360,11 +430,17 @@ public class AtlasGraphUtilsV2 {
         AtlasVertex ret = GraphTransactionInterceptor.getVertexFromCache(guid);
 
         if (ret == null) {
-            AtlasGraphQuery query = graph.query().has(Constants.GUID_PROPERTY_KEY, guid);
+            ret = EntityGuidCache.getVertex(graph, guid);
 
-            Iterator<AtlasVertex> results = query.vertices().iterator();
+            if (ret == null) {
+                AtlasGraphQuery query = graph.query().has(Constants.GUID_PROPERTY_KEY, guid);
 
-            ret = results.hasNext() ? results.next() : null;
+                Iterator<AtlasVertex> results = query.vertices().iterator();
+
+                ret = results.hasNext() ? results.next() : null;
+
+                EntityGuidCache.putVertex(guid, ret);
+            }
 
             if (ret != null) {
                 GraphTransactionInterceptor.addToVertexCache(guid, ret);
@@ -375,6 +451,64 @@ public class AtlasGraphUtilsV2 {
         return ret;
     }
 
+    public static Map<String, AtlasVertex> findByGuids(Collection<String> guids) {
+        return findByGuids(getGraphInstance(), guids);
+    }
+
+    /**
+     * Batch version of findByGuid(): guids not found in the caches are looked up with one graph query per batch.
+     * @return map of guid to vertex; guids not found are absent
+     */
+    public static Map<String, AtlasVertex> findByGuids(AtlasGraph graph, Collection<String> guids) {
+        MetricRecorder metric = RequestContext.get().startMetricRecord("findByGuids");
+
+        Map<String, AtlasVertex> ret          = new HashMap<>();
+        Set<String>              guidsToQuery = new LinkedHashSet<>();
+
+        if (guids != null) {
+            for (String guid : guids) {
+                if (guid == null || ret.containsKey(guid)) {
+                    continue;
+                }
+
+                AtlasVertex vertex = GraphTransactionInterceptor.getVertexFromCache(guid);
+
+                if (vertex == null) {
+                    vertex = EntityGuidCache.getVertex(graph, guid);
+
+                    if (vertex != null) {
+                        GraphTransactionInterceptor.addToVertexCache(guid, vertex);
+                    }
+                }
+
+                if (vertex != null) {
+                    ret.put(guid, vertex);
+                } else {
+                    guidsToQuery.add(guid);
+                }
+            }
+        }
+
+        if (!guidsToQuery.isEmpty()) {
+            Map<Object, AtlasVertex> vertices = graph.getVerticesByPropertyValues(Constants.GUID_PROPERTY_KEY, guidsToQuery);
+
+            for (String guid : guidsToQuery) {
+                AtlasVertex vertex = vertices.get(guid);
+
+                if (vertex != null) {
+                    ret.put(guid, vertex);
+
+                    EntityGuidCache.putVertex(guid, vertex);
+                    GraphTransactionInterceptor.addToVertexCache(guid, vertex);
+                }
+            }
+        }
+
+        RequestContext.get().endMetricRecord(metric);
+
+        return ret;
+    }
+
     public static AtlasVertex findDeletedByGuid(AtlasGraph graph, String guid) {
         AtlasVertex ret = GraphTransactionInterceptor.getVertexFromCache(guid);
 
@@ -630,6 +764,81 @@ public class AtlasGraphUtilsV2 {
         return ret;
     }
 
+    private static AtlasVertex findByUniqueAttribute(AtlasGraph graph, AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        AtlasVertex vertex;
+
+        if (canUseIndexQuery(graph, entityType, attribute.getName())) {
+            vertex = AtlasGraphUtilsV2.getAtlasVertexFromIndexQuery(graph, entityType, attribute, attrValue);
+        } else {
+            if (USE_UNIQUE_INDEX_PROPERTY_TO_FIND_ENTITY && attribute.getVertexUniquePropertyName() != null) {
+                vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(graph, entityType.getTypeName(), attribute.getVertexUniquePropertyName(), attrValue);
+
+                // if no instance of given typeName is found, try to find an instance of type's sub-type
+                if (vertex == null && !entityType.getAllSubTypes().isEmpty()) {
+                    vertex = AtlasGraphUtilsV2.findBySuperTypeAndUniquePropertyName(graph, entityType.getTypeName(), attribute.getVertexUniquePropertyName(), attrValue);
+                }
+            } else {
+                vertex = AtlasGraphUtilsV2.findByTypeAndPropertyName(graph, entityType.getTypeName(), attribute.getVertexPropertyName(), attrValue);
+
+                // if no instance of given typeName is found, try to find an instance of type's sub-type
+                if (vertex == null && !entityType.getAllSubTypes().isEmpty()) {
+                    vertex = AtlasGraphUtilsV2.findBySuperTypeAndPropertyName(graph, entityType.getTypeName(), attribute.getVertexPropertyName(), attrValue);
+                }
+            }
+        }
+
+        return vertex;
+    }
+
+    // values are matched with the property value read back from the vertex, hence only string attributes are batched
+    private static boolean canUseUniquePropertyBatchQuery(AtlasGraph graph, AtlasEntityType entityType, AtlasAttribute attribute) {
+        return USE_UNIQUE_INDEX_PROPERTY_TO_FIND_ENTITY &&
+               attribute.getVertexUniquePropertyName() != null &&
+               AtlasBaseTypeDef.ATLAS_TYPE_STRING.equals(attribute.getTypeName()) &&
+               !canUseIndexQuery(graph, entityType, attribute.getName());
+    }
+
+    private static Map<Object, AtlasVertex> findByTypeAndUniquePropertyValues(AtlasGraph graph, AtlasEntityType entityType, String propertyName, Collection<Object> attrValues) {
+        Map<Object, AtlasVertex> ret       = new HashMap<>();
+        List<Object>             values    = new ArrayList<>(attrValues);
+        int                      batchSize = Math.max(AtlasConfiguration.GRAPH_FIND_BATCH_SIZE.getInt(), 1);
+
+        for (int i = 0; i < values.size(); i += batchSize) {
+            List<Object> batch = values.subList(i, Math.min(i + batchSize, values.size()));
+
+            addVerticesByPropertyValue(graph.query().has(ENTITY_TYPE_PROPERTY_KEY, entityType.getTypeName()).in(propertyName, batch), propertyName, ret);
+
+            // values not found for the given typeName could be of an instance of type's sub-type
+            if (!entityType.getAllSubTypes().isEmpty()) {
+                List<Object> notFound = new ArrayList<>();
+
+                for (Object value : batch) {
+                    if (!ret.containsKey(value)) {
+                        notFound.add(value);
+                    }
+                }
+
+                if (!notFound.isEmpty()) {
+                    addVerticesByPropertyValue(graph.query().has(Constants.SUPER_TYPES_PROPERTY_KEY, entityType.getTypeName()).in(propertyName, notFound), propertyName, ret);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static void addVerticesByPropertyValue(AtlasGraphQuery query, String propertyName, Map<Object, AtlasVertex> vertices) {
+        Iterable<AtlasVertex> results = query.vertices();
+
+        for (AtlasVertex vertex : results) {
+            String value = vertex.getProperty(propertyName, String.class);
+
+            if (value != null) {
+                vertices.putIfAbsent(value, vertex);
+            }
+        }
+    }
+
     private static AtlasVertex getAtlasVertexFromIndexQuery(AtlasGraph graph, AtlasEntityType entityType, AtlasAttribute attribute, Object attrVal) {
         String          propertyName = attribute.getVertexPropertyName();
         AtlasIndexQuery query        = getIndexQuery(graph, entityType, propertyName, attrVal.toString());
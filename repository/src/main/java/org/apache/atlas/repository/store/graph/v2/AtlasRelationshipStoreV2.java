@@ -45,6 +45,8 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.tasks.ClassificationPropagationTaskFactory;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasRelationshipType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
@@ -89,8 +91,10 @@ import static org.apache.atlas.repository.graph.GraphHelper.getClassificationEnt
 import static org.apache.atlas.repository.graph.GraphHelper.getClassificationName;
 import static org.apache.atlas.repository.graph.GraphHelper.getPropagatableClassifications;
 import static org.apache.atlas.repository.graph.GraphHelper.getPropagateTags;
+import static org.apache.atlas.repository.graph.GraphHelper.getRelationshipGuid;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getState;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getTypeName;
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE;
 
 @Component
 public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
@@ -105,15 +109,17 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
     private final DeleteHandlerDelegate     deleteDelegate;
     private final GraphHelper               graphHelper;
     private final IAtlasEntityChangeNotifier entityChangeNotifier;
+    private final TaskManagement            taskManagement;
 
     @Inject
-    public AtlasRelationshipStoreV2(AtlasGraph graph, AtlasTypeRegistry typeRegistry, DeleteHandlerDelegate deleteDelegate, IAtlasEntityChangeNotifier entityChangeNotifier) {
+    public AtlasRelationshipStoreV2(AtlasGraph graph, AtlasTypeRegistry typeRegistry, DeleteHandlerDelegate deleteDelegate, IAtlasEntityChangeNotifier entityChangeNotifier, TaskManagement taskManagement) {
         this.graph                = graph;
         this.typeRegistry         = typeRegistry;
         this.graphHelper          = new GraphHelper(graph);
         this.entityRetriever      = new EntityGraphRetriever(graph, typeRegistry);
         this.deleteDelegate       = deleteDelegate;
         this.entityChangeNotifier = entityChangeNotifier;
+        this.taskManagement       = taskManagement;
     }
 
     @Override
@@ -480,6 +486,12 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
 
             List<AtlasVertex> propagationChangedClassifications = (List<AtlasVertex>) CollectionUtils.disjunction(classificationsToBlock, currBlockedClassifications);
 
+            if (isPropagationDeferred()) {
+                createPropagationTasks(edge, propagationChangedClassifications);
+
+                return;
+            }
+
             for (AtlasVertex classificationVertex : propagationChangedClassifications) {
                 List<AtlasVertex> propagationsToRemove = new ArrayList<>();
                 List<AtlasVertex> propagationsToAdd    = new ArrayList<>();
@@ -545,8 +557,17 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
         PropagateTags newTagPropagation = relationship.getPropagateTags();
 
         if (newTagPropagation != oldTagPropagation) {
-            List<AtlasVertex>                   currentClassificationVertices = getPropagatableClassifications(edge);
-            Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
+            List<AtlasVertex> currentClassificationVertices = getPropagatableClassifications(edge);
+
+            if (isPropagationDeferred()) {
+                AtlasGraphUtilsV2.setEncodedProperty(edge, RELATIONSHIPTYPE_TAG_PROPAGATION_KEY, newTagPropagation.name());
+
+                createPropagationTasks(edge, (List<AtlasVertex>) CollectionUtils.union(currentClassificationVertices, getPropagatableClassifications(edge)));
+
+                return;
+            }
+
+            Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
 
             // Update propagation edge
             AtlasGraphUtilsV2.setEncodedProperty(edge, RELATIONSHIPTYPE_TAG_PROPAGATION_KEY, newTagPropagation.name());
@@ -596,6 +617,20 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
         }
     }
 
+    private boolean isPropagationDeferred() {
+        return taskManagement != null && taskManagement.isEnabled();
+    }
+
+    private void createPropagationTasks(AtlasEdge edge, List<AtlasVertex> classificationVertices) {
+        String relationshipGuid = getRelationshipGuid(edge);
+
+        for (AtlasVertex classificationVertex : classificationVertices) {
+            String entityGuid = getClassificationEntityGuid(classificationVertex);
+
+            taskManagement.createTask(CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE, ClassificationPropagationTaskFactory.toParameters(entityGuid, classificationVertex.getIdForDisplay(), relationshipGuid));
+        }
+    }
+
     private void validateRelationship(AtlasRelationship relationship) throws AtlasBaseException {
         if (relationship == null) {
             throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "AtlasRelationship is null");
@@ -22,6 +22,7 @@ import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
+import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TimeBoundary;
 import org.apache.atlas.model.TypeCategory;
@@ -48,6 +49,8 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.tasks.ClassificationPropagationTaskFactory;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasBuiltInTypes;
 import org.apache.atlas.type.AtlasClassificationType;
@@ -107,6 +110,8 @@ import static org.apache.atlas.repository.graph.GraphHelper.string;
 import static org.apache.atlas.repository.graph.GraphHelper.updateModificationMetadata;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getIdFromVertex;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.isReference;
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.CLASSIFICATION_PROPAGATION_ADD;
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.CLASSIFICATION_PROPAGATION_DELETE;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.IN;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.OUT;
 
@@ -138,11 +143,12 @@ public class EntityGraphMapper {
     private final AtlasInstanceConverter    instanceConverter;
     private final EntityGraphRetriever      entityRetriever;
     private final IFullTextMapper fullTextMapperV2;
+    private final TaskManagement            taskManagement;
 
     @Inject
     public EntityGraphMapper(DeleteHandlerDelegate deleteDelegate, AtlasTypeRegistry typeRegistry, AtlasGraph graph,
                              AtlasRelationshipStore relationshipStore, IAtlasEntityChangeNotifier entityChangeNotifier,
-                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2) {
+                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2, TaskManagement taskManagement) {
         this.graphHelper          = new GraphHelper(graph);
         this.deleteDelegate       = deleteDelegate;
         this.typeRegistry         = typeRegistry;
@@ -152,6 +158,7 @@ public class EntityGraphMapper {
         this.instanceConverter    = instanceConverter;
         this.entityRetriever      = new EntityGraphRetriever(graph, typeRegistry);
         this.fullTextMapperV2     = fullTextMapperV2;
+        this.taskManagement       = taskManagement;
     }
 
     public AtlasVertex createVertex(AtlasEntity entity) throws AtlasBaseException {
@@ -176,6 +183,8 @@ public class EntityGraphMapper {
         AtlasGraphUtilsV2.setEncodedProperty(ret, VERSION_PROPERTY_KEY, getEntityVersion(null));
         AtlasGraphUtilsV2.setEncodedProperty(ret, IS_INCOMPLETE_PROPERTY_KEY, INCOMPLETE_ENTITY_VALUE);
 
+        RequestContext.get().recordShellEntityCreate(guid, objectId.getTypeName());
+
         // map unique attributes
         Map<String, Object>   uniqueAttributes = objectId.getUniqueAttributes();
         EntityMutationContext mutationContext  = new EntityMutationContext(context);
@@ -1952,7 +1961,9 @@ public class EntityGraphMapper {
                 //Add current Vertex to be notified
                 addedClassifications.get(classification).add(entityVertex);
 
-                if (propagateTags) {
+                if (propagateTags && isPropagationDeferred()) {
+                    createPropagationTask(CLASSIFICATION_PROPAGATION_ADD, guid, classificationVertex);
+                } else if (propagateTags) {
                     // compute propagatedEntityVertices only once
                     if (entitiesToPropagateTo == null) {
                         entitiesToPropagateTo = entityRetriever.getImpactedVerticesV2(entityVertex);
@@ -2057,7 +2068,12 @@ public class EntityGraphMapper {
         // remove classification from propagated entities if propagation is turned on
         final List<AtlasVertex> entityVertices;
 
-        if (isPropagationEnabled(classificationVertex)) {
+        if (isPropagationEnabled(classificationVertex) && isPropagationDeferred()) {
+            // propagated edges keep the classification vertex around until the task removes them
+            createPropagationTask(CLASSIFICATION_PROPAGATION_DELETE, entityGuid, classificationVertex);
+
+            entityVertices = new ArrayList<>();
+        } else if (isPropagationEnabled(classificationVertex)) {
             entityVertices = deleteDelegate.getHandler().removeTagPropagation(classificationVertex);
 
             if (LOG.isDebugEnabled()) {
@@ -2103,6 +2119,121 @@ public class EntityGraphMapper {
         AtlasPerfTracer.log(perf);
     }
 
+    /**
+     * Computes the entities that the given classification should be propagated to, but isn't yet; and the entities it
+     * is propagated to, but shouldn't be. When the classification is no longer associated with its entity, or its
+     * propagation is disabled, all current propagations are to be removed.
+     */
+    @GraphTransaction
+    public void evaluateClassificationPropagation(String classificationVertexId, List<String> entityIdsToAdd, List<String> entityIdsToRemove) {
+        AtlasVertex       classificationVertex = graph.getVertex(classificationVertexId);
+        List<AtlasVertex> entitiesToAdd        = new ArrayList<>();
+        List<AtlasVertex> entitiesToRemove     = new ArrayList<>();
+
+        if (classificationVertex == null) {
+            return;
+        }
+
+        if (isPropagationActive(classificationVertex)) {
+            entityRetriever.evaluateClassificationPropagation(classificationVertex, entitiesToAdd, entitiesToRemove);
+        } else {
+            entitiesToRemove.addAll(graphHelper.getAllPropagatedEntityVertices(classificationVertex));
+        }
+
+        for (AtlasVertex vertex : entitiesToAdd) {
+            entityIdsToAdd.add(vertex.getIdForDisplay());
+        }
+
+        for (AtlasVertex vertex : entitiesToRemove) {
+            entityIdsToRemove.add(vertex.getIdForDisplay());
+        }
+    }
+
+    @GraphTransaction
+    public void addClassificationPropagations(String classificationVertexId, List<String> entityVertexIds) throws AtlasBaseException {
+        AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+        // propagation could have been disabled, or the classification removed, since the task was created
+        if (classificationVertex == null || !isPropagationActive(classificationVertex)) {
+            return;
+        }
+
+        List<AtlasVertex> entitiesPropagatedTo = deleteDelegate.getHandler().addTagPropagation(classificationVertex, getVertices(entityVertexIds));
+
+        if (CollectionUtils.isNotEmpty(entitiesPropagatedTo)) {
+            AtlasClassification classification     = entityRetriever.toAtlasClassification(classificationVertex);
+            List<AtlasEntity>   propagatedEntities = updateClassificationText(classification, entitiesPropagatedTo);
+
+            entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+        }
+    }
+
+    @GraphTransaction
+    public void removeClassificationPropagations(String classificationVertexId, List<String> entityVertexIds) throws AtlasBaseException {
+        AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+        if (classificationVertex == null) {
+            return;
+        }
+
+        AtlasClassification classification      = entityRetriever.toAtlasClassification(classificationVertex);
+        List<AtlasVertex>   removedFromEntities = new ArrayList<>();
+
+        for (AtlasVertex entityVertex : getVertices(entityVertexIds)) {
+            AtlasEdge propagatedEdge = GraphHelper.getPropagatedClassificationEdge(entityVertex, classificationVertex);
+
+            if (propagatedEdge != null) {
+                deleteDelegate.getHandler().deletePropagatedEdge(propagatedEdge);
+
+                removedFromEntities.add(entityVertex);
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(removedFromEntities)) {
+            List<AtlasEntity> propagatedEntities = updateClassificationText(classification, removedFromEntities);
+
+            entityChangeNotifier.onClassificationsDeletedFromEntities(propagatedEntities, Collections.singletonList(classification));
+        }
+    }
+
+    /**
+     * Deletes the classification vertex once it has no references left, direct or propagated.
+     */
+    @GraphTransaction
+    public void deleteClassificationVertexIfUnreferenced(String classificationVertexId) {
+        AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+        if (classificationVertex != null) {
+            deleteDelegate.getHandler().deleteClassificationVertex(classificationVertex, true);
+        }
+    }
+
+    private boolean isPropagationDeferred() {
+        return taskManagement != null && taskManagement.isEnabled();
+    }
+
+    private void createPropagationTask(String taskType, String entityGuid, AtlasVertex classificationVertex) {
+        taskManagement.createTask(taskType, ClassificationPropagationTaskFactory.toParameters(entityGuid, classificationVertex.getIdForDisplay(), null));
+    }
+
+    private boolean isPropagationActive(AtlasVertex classificationVertex) {
+        return isPropagationEnabled(classificationVertex) && GraphHelper.getAssociatedEntityVertex(classificationVertex) != null;
+    }
+
+    private List<AtlasVertex> getVertices(List<String> vertexIds) {
+        List<AtlasVertex> ret = new ArrayList<>(vertexIds.size());
+
+        for (String vertexId : vertexIds) {
+            AtlasVertex vertex = graph.getVertex(vertexId);
+
+            if (vertex != null) {
+                ret.add(vertex);
+            }
+        }
+
+        return ret;
+    }
+
     private AtlasEntity updateClassificationText(AtlasVertex vertex) throws AtlasBaseException {
         String guid        = graphHelper.getGuid(vertex);
         AtlasEntity entity = instanceConverter.getAndCacheEntity(guid, ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES);
@@ -2268,7 +2399,9 @@ public class EntityGraphMapper {
             Boolean updatedTagPropagation = classification.isPropagate();
 
             // compute propagatedEntityVertices once and use it for subsequent iterations and notifications
-            if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation) {
+            if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation && isPropagationDeferred()) {
+                createPropagationTask(updatedTagPropagation ? CLASSIFICATION_PROPAGATION_ADD : CLASSIFICATION_PROPAGATION_DELETE, guid, classificationVertex);
+            } else if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation) {
                 if (updatedTagPropagation) {
                     if (CollectionUtils.isEmpty(entitiesToPropagateTo)) {
                         entitiesToPropagateTo = entityRetriever.getImpactedVerticesV2(entityVertex, null, classificationVertex.getIdForDisplay());
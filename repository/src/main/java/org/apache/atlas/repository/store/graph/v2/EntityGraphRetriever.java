@@ -229,6 +229,76 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Builds the headers of the given entity vertices, in the same order. Properties, term assignments and (optionally)
+     * classifications of all the vertices are loaded with multi-vertex queries, instead of separate reads per vertex.
+     */
+    public List<AtlasEntityHeader> toAtlasEntityHeaders(List<AtlasVertex> entityVertices, Set<String> attributes, boolean includeClassifications) throws AtlasBaseException {
+        List<AtlasEntityHeader> ret = new ArrayList<>(entityVertices.size());
+
+        if (entityVertices.isEmpty()) {
+            return ret;
+        }
+
+        prefetchHeaders(entityVertices);
+
+        if (includeClassifications) {
+            Map<AtlasVertex, Iterable<AtlasEdge>> classificationEdges    = graph.multiQuery(entityVertices).direction(AtlasEdgeDirection.OUT).label(CLASSIFICATION_LABEL).edges();
+            Set<AtlasVertex>                      classificationVertices = new HashSet<>();
+
+            for (Iterable<AtlasEdge> edges : classificationEdges.values()) {
+                for (AtlasEdge edge : edges) {
+                    classificationVertices.add(edge.getInVertex());
+                }
+            }
+
+            if (!classificationVertices.isEmpty()) {
+                graph.multiQuery(classificationVertices).prefetchProperties();
+            }
+        }
+
+        for (AtlasVertex entityVertex : entityVertices) {
+            AtlasEntityHeader header = mapVertexToAtlasEntityHeader(entityVertex, attributes);
+
+            if (includeClassifications) {
+                header.setClassifications(getAllClassifications(entityVertex));
+            }
+
+            ret.add(header);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Builds the headers of entities with the given guids; vertices are looked up and loaded in batches.
+     * @return map of guid to entity header
+     */
+    public Map<String, AtlasEntityHeader> toAtlasEntityHeaders(Collection<String> guids) throws AtlasBaseException {
+        Map<String, AtlasEntityHeader> ret = new HashMap<>();
+
+        if (CollectionUtils.isEmpty(guids)) {
+            return ret;
+        }
+
+        Map<String, AtlasVertex> guidVertices = findEntityVertices(guids);
+
+        for (String guid : guids) {
+            if (!guidVertices.containsKey(guid)) {
+                throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+            }
+        }
+
+        List<AtlasVertex>       vertices = new ArrayList<>(guidVertices.values());
+        List<AtlasEntityHeader> headers  = toAtlasEntityHeaders(vertices, Collections.emptySet(), false);
+
+        for (AtlasEntityHeader header : headers) {
+            ret.put(header.getGuid(), header);
+        }
+
+        return ret;
+    }
+
     public Map<String, Map<String, Object>> getBusinessMetadata(AtlasVertex entityVertex) throws AtlasBaseException {
         Map<String, Map<String, Object>>                         ret             = null;
         String                                                   entityTypeName  = getTypeName(entityVertex);
@@ -387,10 +457,19 @@ public class EntityGraphRetriever {
     }
 
     public AtlasEntitiesWithExtInfo toAtlasEntitiesWithExtInfo(List<String> guids, boolean isMinExtInfo) throws AtlasBaseException {
-        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+        AtlasEntitiesWithExtInfo ret          = new AtlasEntitiesWithExtInfo();
+        Map<String, AtlasVertex> guidVertices = AtlasGraphUtilsV2.findByGuids(this.graph, guids);
 
         for (String guid : guids) {
-            AtlasVertex vertex = getEntityVertex(guid);
+            AtlasVertex vertex = guidVertices.get(guid);
+
+            if (vertex == null) {
+                throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+            }
+
+            if (StringUtils.isEmpty(GraphHelper.getTypeName(vertex))) {
+                throw new AtlasBaseException(AtlasErrorCode.NO_TYPE_NAME_ON_VERTEX, guid);
+            }
 
             AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
 
@@ -402,6 +481,36 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    // loads the properties, term assignment edges and terms read by mapVertexToAtlasEntityHeader(), for all the vertices
+    private void prefetchHeaders(Collection<AtlasVertex> entityVertices) {
+        graph.multiQuery(entityVertices).prefetchProperties();
+
+        Map<AtlasVertex, Iterable<AtlasEdge>> termEdges    = graph.multiQuery(entityVertices).direction(AtlasEdgeDirection.IN).label(TERM_ASSIGNMENT_LABEL).edges();
+        Set<AtlasVertex>                      termVertices = new HashSet<>();
+
+        for (Iterable<AtlasEdge> edges : termEdges.values()) {
+            for (AtlasEdge edge : edges) {
+                termVertices.add(edge.getOutVertex());
+            }
+        }
+
+        if (!termVertices.isEmpty()) {
+            graph.multiQuery(termVertices).prefetchProperties();
+        }
+    }
+
+    /**
+     * Looks up vertices of the given guids, first in the caches and then in batched graph queries.
+     * @return map of guid to entity vertex; guids not found are absent
+     */
+    public Map<String, AtlasVertex> findEntityVertices(Collection<String> guids) {
+        Map<String, AtlasVertex> ret = AtlasGraphUtilsV2.findByGuids(this.graph, guids);
+
+        ret.values().removeIf(vertex -> StringUtils.isEmpty(getTypeName(vertex)));
+
+        return ret;
+    }
+
     public Map<String, Object> getEntityUniqueAttribute(AtlasVertex entityVertex) throws AtlasBaseException {
         Map<String, Object> ret        = null;
         String              typeName   = AtlasGraphUtilsV2.getTypeName(entityVertex);
@@ -429,19 +538,13 @@ public class EntityGraphRetriever {
         AtlasEntityType          entityType = typeRegistry.getEntityTypeByName(typeName);
 
         if (entityType != null) {
-            for (Map<String, Object> uniqAttributes : uniqueAttributesList) {
-                try {
-                    AtlasVertex vertex = AtlasGraphUtilsV2.getVertexByUniqueAttributes(this.graph, entityType, uniqAttributes);
+            List<AtlasVertex> vertices = AtlasGraphUtilsV2.findByUniqueAttributes(this.graph, entityType, uniqueAttributesList);
 
-                    if (vertex != null) {
-                        AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
+            for (AtlasVertex vertex : vertices) {
+                if (vertex != null) {
+                    AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
 
-                        ret.addEntity(entity);
-                    }
-                } catch(AtlasBaseException e) {
-                    if (e.getAtlasErrorCode() != AtlasErrorCode.INSTANCE_BY_UNIQUE_ATTRIBUTE_NOT_FOUND) {
-                        throw e;
-                    }
+                    ret.addEntity(entity);
                 }
             }
         }
@@ -0,0 +1,322 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Process-wide cache of guid to vertex-id, and of unique-attribute value to guid, used by
+ * AtlasGraphUtilsV2.findByGuid() and findByUniqueAttributes() to avoid index lookups across requests.
+ *
+ * Every cache hit is verified against the vertex read by its id - guid, state, type and attribute value - so a
+ * stale entry results in a regular index lookup, never in a wrong vertex. Entries of deleted and purged entities are
+ * dropped after commit; the cache is cleared when this server becomes active or passive.
+ */
+@Component
+public class EntityGuidCache implements EntityChangeListenerV2, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityGuidCache.class);
+
+    private static final boolean               IS_ENABLED        = AtlasConfiguration.ENTITY_GUID_CACHE_ENABLED.getBoolean();
+    private static final int                   MAX_SIZE          = AtlasConfiguration.ENTITY_GUID_CACHE_MAX_SIZE.getInt();
+    private static final Cache<String, String> GUID_VERTEX_IDS   = CacheBuilder.newBuilder().maximumSize(Math.max(MAX_SIZE, 0)).build();
+    private static final Cache<String, String> UNIQUE_ATTR_GUIDS = CacheBuilder.newBuilder().maximumSize(Math.max(MAX_SIZE, 0)).build();
+    private static final String                KEY_SEPARATOR     = "|";
+
+    private final AtlasTypeRegistry           typeRegistry;
+    private final ThreadLocal<InvalidateHook> invalidateHooks = new ThreadLocal<>();
+
+    static {
+        LOG.info("{}={}", AtlasConfiguration.ENTITY_GUID_CACHE_ENABLED.getPropertyName(), IS_ENABLED);
+        LOG.info("{}={}", AtlasConfiguration.ENTITY_GUID_CACHE_MAX_SIZE.getPropertyName(), MAX_SIZE);
+    }
+
+    @Inject
+    public EntityGuidCache(AtlasTypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    /**
+     * @return vertex of the entity with the given guid, null if not cached
+     */
+    public static AtlasVertex getVertex(AtlasGraph graph, String guid) {
+        if (!isEnabled() || guid == null) {
+            return null;
+        }
+
+        String vertexId = GUID_VERTEX_IDS.getIfPresent(guid);
+
+        if (vertexId == null) {
+            return null;
+        }
+
+        AtlasVertex ret = graph.getVertex(vertexId);
+
+        if (ret == null || !guid.equals(AtlasGraphUtilsV2.getIdFromVertex(ret))) {
+            GUID_VERTEX_IDS.invalidate(guid);
+
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    public static void putVertex(String guid, AtlasVertex vertex) {
+        if (isEnabled() && guid != null && vertex != null) {
+            GUID_VERTEX_IDS.put(guid, vertex.getIdForDisplay());
+        }
+    }
+
+    /**
+     * @return active entity vertex of the given type, or its sub-types, having the given unique attribute value; null if not cached
+     */
+    public static AtlasVertex getVertexByUniqueAttribute(AtlasGraph graph, AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        String key = getUniqueAttributeKey(entityType.getTypeName(), attribute.getName(), attrValue);
+
+        if (!isEnabled() || key == null) {
+            return null;
+        }
+
+        String guid = UNIQUE_ATTR_GUIDS.getIfPresent(key);
+
+        if (guid == null) {
+            return null;
+        }
+
+        AtlasVertex ret = getVertex(graph, guid);
+
+        if (ret == null || !isMatch(ret, entityType, attribute, attrValue)) {
+            UNIQUE_ATTR_GUIDS.invalidate(key);
+
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    public static void putUniqueAttribute(AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue, AtlasVertex vertex) {
+        String key = getUniqueAttributeKey(entityType.getTypeName(), attribute.getName(), attrValue);
+
+        if (isEnabled() && key != null && vertex != null) {
+            String guid = AtlasGraphUtilsV2.getIdFromVertex(vertex);
+
+            if (guid != null) {
+                UNIQUE_ATTR_GUIDS.put(key, guid);
+
+                putVertex(guid, vertex);
+            }
+        }
+    }
+
+    public static void clear() {
+        GUID_VERTEX_IDS.invalidateAll();
+        UNIQUE_ATTR_GUIDS.invalidateAll();
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        // entries cached while passive might not reflect changes made by the previously active server
+        clear();
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        clear();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.ENTITY_GUID_CACHE.getOrder();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) { }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) { }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesRemoved(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesRemoved(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) { }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) { }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) { }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) { }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) { }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) { }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) { }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) { }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) { }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) { }
+
+    private void onEntitiesRemoved(List<AtlasEntity> entities) {
+        if (!isEnabled() || CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+
+        InvalidateHook hook = getInvalidateHook();
+
+        for (AtlasEntity entity : entities) {
+            hook.guids.add(entity.getGuid());
+
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+            if (entityType == null) {
+                continue;
+            }
+
+            // lookups by any of the super-types are cached under the super-type name
+            for (String typeName : entityType.getTypeAndAllSuperTypes()) {
+                AtlasEntityType type = typeRegistry.getEntityTypeByName(typeName);
+
+                if (type == null) {
+                    continue;
+                }
+
+                for (AtlasAttribute attribute : type.getUniqAttributes().values()) {
+                    String key = getUniqueAttributeKey(typeName, attribute.getName(), entity.getAttribute(attribute.getName()));
+
+                    if (key != null) {
+                        hook.uniqueAttributeKeys.add(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private InvalidateHook getInvalidateHook() {
+        InvalidateHook ret = invalidateHooks.get();
+
+        if (ret == null) {
+            ret = new InvalidateHook();
+
+            invalidateHooks.set(ret);
+        }
+
+        return ret;
+    }
+
+    private static boolean isEnabled() {
+        return IS_ENABLED && MAX_SIZE > 0;
+    }
+
+    private static boolean isMatch(AtlasVertex vertex, AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        String typeName = vertex.getProperty(Constants.TYPE_NAME_PROPERTY_KEY, String.class);
+        String state    = vertex.getProperty(Constants.STATE_PROPERTY_KEY, String.class);
+
+        if (!entityType.getTypeName().equals(typeName) && !entityType.getAllSubTypes().contains(typeName)) {
+            return false;
+        }
+
+        if (!AtlasEntity.Status.ACTIVE.name().equals(state)) {
+            return false;
+        }
+
+        Object value = vertex.getProperty(attribute.getVertexPropertyName(), Object.class);
+
+        return value != null && Objects.equals(value.toString(), attrValue.toString());
+    }
+
+    private static String getUniqueAttributeKey(String typeName, String attrName, Object attrValue) {
+        if (attrValue instanceof String || attrValue instanceof Number || attrValue instanceof Boolean) {
+            return typeName + KEY_SEPARATOR + attrName + KEY_SEPARATOR + attrValue;
+        }
+
+        return null;
+    }
+
+    private class InvalidateHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final List<String> guids               = new ArrayList<>();
+        private final List<String> uniqueAttributeKeys = new ArrayList<>();
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            invalidateHooks.remove();
+
+            if (isSuccess) {
+                GUID_VERTEX_IDS.invalidateAll(guids);
+                UNIQUE_ATTR_GUIDS.invalidateAll(uniqueAttributeKeys);
+            }
+        }
+    }
+}
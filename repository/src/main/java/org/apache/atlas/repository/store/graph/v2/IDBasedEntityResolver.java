@@ -32,6 +32,10 @@ import org.apache.atlas.type.AtlasTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 
 public class IDBasedEntityResolver implements EntityResolver {
     private static final Logger LOG = LoggerFactory.getLogger(IDBasedEntityResolver.class);
@@ -49,11 +53,20 @@ public class IDBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "IDBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        EntityStream entityStream = context.getEntityStream();
+        EntityStream entityStream  = context.getEntityStream();
+        List<String> assignedGuids = new ArrayList<>();
+
+        for (String guid : context.getReferencedGuids()) {
+            if (AtlasTypeUtil.isAssignedGuid(guid)) {
+                assignedGuids.add(guid);
+            }
+        }
+
+        Map<String, AtlasVertex> guidVertices = AtlasGraphUtilsV2.findByGuids(this.graph, assignedGuids);
 
         for (String guid : context.getReferencedGuids()) {
             boolean isAssignedGuid = AtlasTypeUtil.isAssignedGuid(guid);
-            AtlasVertex vertex = isAssignedGuid ? AtlasGraphUtilsV2.findByGuid(this.graph, guid) : null;
+            AtlasVertex vertex = isAssignedGuid ? guidVertices.get(guid) : null;
 
             if (vertex == null && !RequestContext.get().isImportInProgress()) { // if not found in the store, look if the entity is present in the stream
                 AtlasEntity entity = entityStream.getByGuid(guid);
@@ -32,7 +32,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class UniqAttrBasedEntityResolver implements EntityResolver {
     private static final Logger LOG = LoggerFactory.getLogger(UniqAttrBasedEntityResolver.class);
@@ -53,28 +56,51 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "UniqAttrBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        //Resolve attribute references
-        List<AtlasObjectId> resolvedReferences = new ArrayList<>();
+        //Resolve attribute references, looking up the references of each type in a batch
+        Map<String, List<AtlasObjectId>> typeObjIds = new LinkedHashMap<>();
 
         for (AtlasObjectId objId : context.getReferencedByUniqAttribs()) {
+            typeObjIds.computeIfAbsent(objId.getTypeName(), k -> new ArrayList<>()).add(objId);
+        }
+
+        for (Map.Entry<String, List<AtlasObjectId>> entry : typeObjIds.entrySet()) {
             //query in graph repo that given unique attribute - check for deleted also?
-            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(objId.getTypeName());
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entry.getKey());
 
             if (entityType == null) {
-                throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), objId.getTypeName());
+                throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), entry.getKey());
             }
 
-            AtlasVertex vertex = AtlasGraphUtilsV2.findByUniqueAttributes(this.graph, entityType, objId.getUniqueAttributes());
+            List<AtlasObjectId>                   objIds        = entry.getValue();
+            List<Map<String, Object>>             uniqAttrsList = new ArrayList<>(objIds.size());
+            Map<Map<String, Object>, AtlasVertex> shellVertices = new HashMap<>();
 
-            if (vertex == null && RequestContext.get().isCreateShellEntityForNonExistingReference()) {
-                vertex = entityGraphMapper.createShellEntityVertex(objId, context);
+            for (AtlasObjectId objId : objIds) {
+                uniqAttrsList.add(objId.getUniqueAttributes());
             }
 
-            if (vertex != null) {
-                context.addResolvedIdByUniqAttribs(objId, vertex);
-                resolvedReferences.add(objId);
-            } else {
-                throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+            List<AtlasVertex> vertices = AtlasGraphUtilsV2.findByUniqueAttributes(this.graph, entityType, uniqAttrsList);
+
+            for (int i = 0; i < objIds.size(); i++) {
+                AtlasObjectId objId  = objIds.get(i);
+                AtlasVertex   vertex = vertices.get(i);
+
+                if (vertex == null && RequestContext.get().isCreateShellEntityForNonExistingReference()) {
+                    // references in the same batch having the same unique attributes should share the shell entity
+                    vertex = shellVertices.get(objId.getUniqueAttributes());
+
+                    if (vertex == null) {
+                        vertex = entityGraphMapper.createShellEntityVertex(objId, context);
+
+                        shellVertices.put(objId.getUniqueAttributes(), vertex);
+                    }
+                }
+
+                if (vertex != null) {
+                    context.addResolvedIdByUniqAttribs(objId, vertex);
+                } else {
+                    throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+                }
             }
         }
 
@@ -24,8 +24,12 @@ import java.util.List;
 import java.util.Set;
 
 public class UniqueList<T> {
+    private static final int COMPACT_THRESHOLD = 1024;
+
     private final List<T> list = new ArrayList<>();
     private final Set<T> set = new HashSet<>();
+    private int head = 0; // elements before head have been removed from the front, and are yet to be compacted
+    private long removedCount = 0;
 
     public void add(T e) {
         if(set.contains(e)) {
@@ -37,7 +41,9 @@ public class UniqueList<T> {
     }
 
     public void addAll(UniqueList<T> uniqueList) {
-        for (T item : uniqueList.list) {
+        for (int i = uniqueList.head; i < uniqueList.list.size(); i++) {
+            T item = uniqueList.list.get(i);
+
             if(set.contains(item)) continue;
 
             set.add(item);
@@ -51,9 +57,31 @@ public class UniqueList<T> {
         }
     }
 
+    public T get(int index) {
+        checkIndex(index);
+        return list.get(head + index);
+    }
+
     public T remove(int index) {
-        T e = list.remove(index);
+        checkIndex(index);
+
+        T e;
+
+        if (index == 0) { // removal from the front, as in a queue, is O(1)
+            e = list.set(head++, null);
+
+            if (head == list.size()) {
+                list.clear();
+                head = 0;
+            } else if (head >= COMPACT_THRESHOLD && head >= list.size() / 2) {
+                compact();
+            }
+        } else {
+            e = list.remove(head + index);
+        }
+
         set.remove(e);
+        removedCount++;
         return e;
     }
 
@@ -62,19 +90,44 @@ public class UniqueList<T> {
     }
 
     public int size() {
-        return list.size();
+        return list.size() - head;
     }
 
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size() == 0;
     }
 
     public void clear() {
+        removedCount += size();
+
         list.clear();
         set.clear();
+        head = 0;
+    }
+
+    /**
+     * @return number of elements removed from the list so far; when elements are removed only from the front, the
+     *         element at index i was the (removedCount + i)th element added
+     */
+    public long getRemovedCount() {
+        return removedCount;
     }
 
     public List<T> getList() {
+        compact();
         return list;
     }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private void compact() {
+        if (head > 0) {
+            list.subList(0, head).clear();
+            head = 0;
+        }
+    }
 }
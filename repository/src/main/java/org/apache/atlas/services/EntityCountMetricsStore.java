@@ -0,0 +1,620 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.DeleteType;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.Status;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.HardDeleteHandlerV1;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.discovery.SearchProcessor.AND_STR;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
+import static org.apache.atlas.repository.Constants.ENTITY_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.INCOMPLETE_ENTITY_VALUE;
+import static org.apache.atlas.repository.Constants.IS_INCOMPLETE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.METRICS_NAME_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.METRICS_VALUE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.STATE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.VERTEX_INDEX;
+
+/**
+ * Counts of entities - active, deleted and shell - per entity-type and of classifications per classification-type,
+ * maintained incrementally from entity changes, so that MetricsService doesn't have to query the index for every type.
+ *
+ * Counts are persisted in the graph periodically and reconciled with the index periodically, to correct any drift.
+ * Changes committed while the index is queried for a type are carried over to the reconciled count of the type.
+ */
+@Component
+@Order(6)
+public class EntityCountMetricsStore implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCountMetricsStore.class);
+
+    public static final String METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED   = "atlas.metrics.entity.count.incremental.enabled";
+    public static final String METRICS_ENTITY_COUNT_PERSIST_INTERVAL_MS   = "atlas.metrics.entity.count.persist.interval.ms";
+    public static final String METRICS_ENTITY_COUNT_RECONCILE_INTERVAL_MS = "atlas.metrics.entity.count.reconcile.interval.ms";
+
+    private static final String METRICS_NAME_ENTITY_COUNTS = "entityCounts";
+
+    private final    AtlasGraph                    graph;
+    private final    AtlasTypeRegistry             typeRegistry;
+    private final    Configuration                 configuration;
+    private final    boolean                       isEnabled;
+    private final    long                          persistIntervalMs;
+    private final    long                          reconcileIntervalMs;
+    private final    String                        indexSearchPrefix = AtlasGraphUtilsV2.getIndexSearchPrefix();
+    private final    AtomicBoolean                 isDirty           = new AtomicBoolean(false);
+    private final    ThreadLocal<CountsUpdateHook> countsUpdateHooks = new ThreadLocal<>();
+    private final    Object                        countsLock        = new Object();
+    private volatile EntityCounts                  counts            = new EntityCounts();
+    private          EntityCounts                  reconcileDeltas   = null; // changes committed during reconcile(); guarded by countsLock
+    private volatile boolean                       isReady           = false;
+    private          ScheduledExecutorService      scheduler;
+
+    @Inject
+    public EntityCountMetricsStore(AtlasGraph graph, AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        this.graph               = graph;
+        this.typeRegistry        = typeRegistry;
+        this.configuration       = configuration;
+        this.isEnabled           = configuration != null && configuration.getBoolean(METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED, false);
+        this.persistIntervalMs   = configuration != null ? configuration.getLong(METRICS_ENTITY_COUNT_PERSIST_INTERVAL_MS, TimeUnit.MINUTES.toMillis(1)) : TimeUnit.MINUTES.toMillis(1);
+        this.reconcileIntervalMs = configuration != null ? configuration.getLong(METRICS_ENTITY_COUNT_RECONCILE_INTERVAL_MS, TimeUnit.HOURS.toMillis(24)) : TimeUnit.HOURS.toMillis(24);
+
+        LOG.info("{}={}", METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED, isEnabled);
+        LOG.info("{}={}", METRICS_ENTITY_COUNT_PERSIST_INTERVAL_MS, persistIntervalMs);
+        LOG.info("{}={}", METRICS_ENTITY_COUNT_RECONCILE_INTERVAL_MS, reconcileIntervalMs);
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!isEnabled) {
+            LOG.info("EntityCountMetricsStore.start(): incremental entity counts disabled");
+
+            return;
+        }
+
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            startInternal();
+        } else {
+            LOG.info("EntityCountMetricsStore.start(): deferring until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        stopInternal();
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        if (isEnabled) {
+            startInternal();
+        }
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        stopInternal();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.ENTITY_COUNT_METRICS_STORE.getOrder();
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @return true if counts have been loaded from the graph or reconciled with the index
+     */
+    public boolean isReady() {
+        return isEnabled && isReady;
+    }
+
+    public long getCount(String typeName, Status status) {
+        return counts.get(status == DELETED ? counts.deleted : counts.active, typeName);
+    }
+
+    public long getShellCount(String typeName) {
+        return counts.get(counts.shell, typeName);
+    }
+
+    public long getIndexedTypeCount(String typeName, Status status) {
+        Long   ret        = null;
+        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
+                indexSearchPrefix + "\"" + STATE_PROPERTY_KEY       + "\" : (%s)";
+
+        indexQuery = String.format(indexQuery, typeName, status.name());
+
+        try {
+            ret = graph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
+        }catch (Exception e){
+            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
+        }
+
+        return ret == null ? 0L : ret;
+    }
+
+    public long getIndexedShellCount(String typeName) {
+        Long   ret        = null;
+        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
+                indexSearchPrefix + "\"" + IS_INCOMPLETE_PROPERTY_KEY + "\" : " + INCOMPLETE_ENTITY_VALUE.intValue();
+
+        indexQuery = String.format(indexQuery, typeName);
+
+        try {
+            ret = graph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
+        }catch (Exception e){
+            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
+        }
+
+        return ret == null ? 0L : ret;
+    }
+
+    /**
+     * Records changes in counts due to the given mutation. Counts are updated once the transaction is committed.
+     */
+    public void onEntitiesMutated(EntityMutationResponse response) {
+        if (!isEnabled || response == null) {
+            return;
+        }
+
+        EntityCounts   deltas         = getTransactionDeltas();
+        RequestContext requestContext = RequestContext.get();
+
+        if (response.getCreatedEntities() != null) {
+            for (AtlasEntityHeader entity : response.getCreatedEntities()) {
+                deltas.add(deltas.active, entity.getTypeName(), 1);
+
+                if (Boolean.TRUE.equals(entity.getIsIncomplete())) {
+                    deltas.add(deltas.shell, entity.getTypeName(), 1);
+                }
+            }
+        }
+
+        // shell entities are created for references to entities not in the repository; they are in ACTIVE state
+        for (String typeName : requestContext.getCreatedShellEntities().values()) {
+            deltas.add(deltas.active, typeName, 1);
+            deltas.add(deltas.shell, typeName, 1);
+        }
+
+        // a shell entity updated with all its attributes is no longer a shell, and remains counted as active
+        if (response.getUpdatedEntities() != null) {
+            for (AtlasEntityHeader entity : response.getUpdatedEntities()) {
+                if (requestContext.isCompletedShellEntity(entity.getGuid())) {
+                    deltas.add(deltas.shell, entity.getTypeName(), -1);
+                }
+            }
+        }
+
+        requestContext.clearShellEntityChanges();
+
+        if (response.getDeletedEntities() != null) {
+            boolean isHardDelete = isHardDelete();
+
+            for (AtlasEntityHeader entity : response.getDeletedEntities()) {
+                deltas.add(deltas.active, entity.getTypeName(), -1);
+
+                if (isHardDelete) {
+                    if (Boolean.TRUE.equals(entity.getIsIncomplete())) {
+                        deltas.add(deltas.shell, entity.getTypeName(), -1);
+                    }
+                } else {
+                    deltas.add(deltas.deleted, entity.getTypeName(), 1);
+                }
+
+                if (entity.getClassifications() != null) {
+                    for (AtlasClassification classification : entity.getClassifications()) {
+                        if (isDirectClassification(entity.getGuid(), classification)) {
+                            deltas.add(deltas.active, classification.getTypeName(), -1);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (response.getPurgedEntities() != null) {
+            for (AtlasEntityHeader entity : response.getPurgedEntities()) {
+                deltas.add(deltas.deleted, entity.getTypeName(), -1);
+
+                if (Boolean.TRUE.equals(entity.getIsIncomplete())) {
+                    deltas.add(deltas.shell, entity.getTypeName(), -1);
+                }
+            }
+        }
+    }
+
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onClassificationsChanged(entities, classifications, 1);
+    }
+
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onClassificationsChanged(entities, classifications, -1);
+    }
+
+    /**
+     * Recomputes counts by querying the index, to correct any drift in incrementally maintained counts.
+     */
+    public void reconcile() {
+        LOG.info("==> EntityCountMetricsStore.reconcile()");
+
+        long         startTime  = System.currentTimeMillis();
+        EntityCounts reconciled = new EntityCounts();
+
+        synchronized (countsLock) {
+            reconcileDeltas = new EntityCounts();
+        }
+
+        try {
+            for (AtlasEntityDef entityDef : typeRegistry.getAllEntityDefs()) {
+                String typeName = entityDef.getName();
+
+                clearReconcileDeltas(typeName);
+
+                reconciled.add(reconciled.active, typeName, getIndexedTypeCount(typeName, ACTIVE));
+                reconciled.add(reconciled.deleted, typeName, getIndexedTypeCount(typeName, DELETED));
+                reconciled.add(reconciled.shell, typeName, getIndexedShellCount(typeName));
+            }
+
+            for (AtlasClassificationDef classificationDef : typeRegistry.getAllClassificationDefs()) {
+                String typeName = classificationDef.getName();
+
+                clearReconcileDeltas(typeName);
+
+                reconciled.add(reconciled.active, typeName, getIndexedTypeCount(typeName, ACTIVE));
+            }
+
+            synchronized (countsLock) {
+                // changes committed after the index was queried for a type are not included in the count from the index
+                reconciled.addAll(reconcileDeltas);
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("EntityCountMetricsStore.reconcile(): before={}, after={}", counts.toMap(), reconciled.toMap());
+                }
+
+                counts  = reconciled;
+                isReady = true;
+            }
+        } finally {
+            synchronized (countsLock) {
+                reconcileDeltas = null;
+            }
+
+            graph.commit();
+        }
+
+        isDirty.set(true);
+
+        LOG.info("<== EntityCountMetricsStore.reconcile(): timeTaken={}ms", System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Saves counts in the graph, if they changed since the last save.
+     */
+    public void persist() {
+        if (!isDirty.compareAndSet(true, false)) {
+            return;
+        }
+
+        try {
+            AtlasVertex vertex = findMetricsVertex();
+
+            if (vertex == null) {
+                vertex = graph.addVertex();
+
+                AtlasGraphUtilsV2.setEncodedProperty(vertex, METRICS_NAME_PROPERTY_KEY, METRICS_NAME_ENTITY_COUNTS);
+            }
+
+            AtlasGraphUtilsV2.setEncodedProperty(vertex, METRICS_VALUE_PROPERTY_KEY, AtlasType.toJson(counts.toMap()));
+            AtlasGraphUtilsV2.setEncodedProperty(vertex, MODIFICATION_TIMESTAMP_PROPERTY_KEY, System.currentTimeMillis());
+
+            graph.commit();
+        } catch (Exception excp) {
+            LOG.error("EntityCountMetricsStore.persist(): failed to save entity counts", excp);
+
+            isDirty.set(true);
+
+            graph.rollback();
+        }
+    }
+
+    @VisibleForTesting
+    boolean load() {
+        boolean ret = false;
+
+        try {
+            AtlasVertex vertex = findMetricsVertex();
+            String      value  = vertex != null ? AtlasGraphUtilsV2.getEncodedProperty(vertex, METRICS_VALUE_PROPERTY_KEY, String.class) : null;
+
+            if (StringUtils.isNotEmpty(value)) {
+                EntityCounts loaded = EntityCounts.fromMap(AtlasType.fromJson(value, Map.class));
+
+                // replace counts in memory, which could be stale - for example, from an earlier period as the active instance
+                synchronized (countsLock) {
+                    counts  = loaded;
+                    isReady = true;
+                }
+
+                ret = true;
+            }
+        } catch (Exception excp) {
+            LOG.error("EntityCountMetricsStore.load(): failed to load entity counts", excp);
+        } finally {
+            graph.commit();
+        }
+
+        return ret;
+    }
+
+    private synchronized void startInternal() {
+        if (scheduler != null) {
+            return;
+        }
+
+        boolean isLoaded = load();
+
+        LOG.info("EntityCountMetricsStore: loaded entity counts from graph: {}", isLoaded);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-entity-count-metrics-%d").setDaemon(true).build());
+
+        scheduler.scheduleWithFixedDelay(this::runPersist, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::runReconcile, isLoaded ? reconcileIntervalMs : 0, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopInternal() {
+        if (scheduler == null) {
+            return;
+        }
+
+        scheduler.shutdownNow();
+
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException excp) {
+            LOG.warn("EntityCountMetricsStore: interrupted while waiting for scheduler to stop");
+        }
+
+        scheduler = null;
+
+        persist();
+    }
+
+    private void runPersist() {
+        try {
+            persist();
+        } catch (Throwable t) {
+            LOG.error("EntityCountMetricsStore: failed to persist entity counts", t);
+        }
+    }
+
+    private void runReconcile() {
+        try {
+            reconcile();
+        } catch (Throwable t) {
+            LOG.error("EntityCountMetricsStore: failed to reconcile entity counts", t);
+        }
+    }
+
+    private void onClassificationsChanged(List<AtlasEntity> entities, List<AtlasClassification> classifications, long delta) {
+        if (!isEnabled || CollectionUtils.isEmpty(entities) || CollectionUtils.isEmpty(classifications)) {
+            return;
+        }
+
+        EntityCounts deltas = getTransactionDeltas();
+
+        for (AtlasEntity entity : entities) {
+            for (AtlasClassification classification : classifications) {
+                // propagated classifications share the classification vertex of the entity they are propagated from
+                if (isDirectClassification(entity.getGuid(), classification)) {
+                    deltas.add(deltas.active, classification.getTypeName(), delta);
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void applyDeltas(EntityCounts deltas) {
+        synchronized (countsLock) {
+            counts.addAll(deltas);
+
+            if (reconcileDeltas != null) {
+                reconcileDeltas.addAll(deltas);
+            }
+        }
+
+        isDirty.set(true);
+    }
+
+    private void clearReconcileDeltas(String typeName) {
+        synchronized (countsLock) {
+            reconcileDeltas.remove(typeName);
+        }
+    }
+
+    private EntityCounts getTransactionDeltas() {
+        CountsUpdateHook hook = countsUpdateHooks.get();
+
+        if (hook == null) {
+            hook = new CountsUpdateHook();
+
+            countsUpdateHooks.set(hook);
+        }
+
+        return hook.deltas;
+    }
+
+    private AtlasVertex findMetricsVertex() {
+        Iterator<AtlasVertex> results = graph.query().has(METRICS_NAME_PROPERTY_KEY, METRICS_NAME_ENTITY_COUNTS).vertices().iterator();
+
+        return results.hasNext() ? results.next() : null;
+    }
+
+    private static boolean isDirectClassification(String entityGuid, AtlasClassification classification) {
+        return classification.getEntityGuid() == null || StringUtils.equals(classification.getEntityGuid(), entityGuid);
+    }
+
+    private static boolean isHardDelete() {
+        DeleteType deleteType = RequestContext.get().getDeleteType();
+
+        if (deleteType == DeleteType.HARD) {
+            return true;
+        } else if (deleteType == DeleteType.SOFT) {
+            return false;
+        }
+
+        try {
+            return HardDeleteHandlerV1.class.isAssignableFrom(AtlasRepositoryConfiguration.getDeleteHandlerV1Impl());
+        } catch (Exception excp) {
+            return false;
+        }
+    }
+
+    private class CountsUpdateHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final EntityCounts deltas = new EntityCounts();
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            countsUpdateHooks.remove();
+
+            if (isSuccess && !deltas.isEmpty()) {
+                applyDeltas(deltas);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static class EntityCounts {
+        private static final String KEY_ACTIVE  = "active";
+        private static final String KEY_DELETED = "deleted";
+        private static final String KEY_SHELL   = "shell";
+
+        final Map<String, AtomicLong> active  = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> deleted = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> shell   = new ConcurrentHashMap<>();
+
+        void add(Map<String, AtomicLong> counts, String typeName, long delta) {
+            if (typeName != null && delta != 0) {
+                counts.computeIfAbsent(typeName, k -> new AtomicLong()).addAndGet(delta);
+            }
+        }
+
+        long get(Map<String, AtomicLong> counts, String typeName) {
+            AtomicLong count = typeName != null ? counts.get(typeName) : null;
+
+            // a count can go below 0 only due to drift, until the next reconcile
+            return count != null ? Math.max(count.get(), 0) : 0;
+        }
+
+        void addAll(EntityCounts other) {
+            other.active.forEach((typeName, count) -> add(active, typeName, count.get()));
+            other.deleted.forEach((typeName, count) -> add(deleted, typeName, count.get()));
+            other.shell.forEach((typeName, count) -> add(shell, typeName, count.get()));
+        }
+
+        void remove(String typeName) {
+            active.remove(typeName);
+            deleted.remove(typeName);
+            shell.remove(typeName);
+        }
+
+        boolean isEmpty() {
+            return active.isEmpty() && deleted.isEmpty() && shell.isEmpty();
+        }
+
+        Map<String, Map<String, Long>> toMap() {
+            Map<String, Map<String, Long>> ret = new HashMap<>();
+
+            ret.put(KEY_ACTIVE, toMap(active));
+            ret.put(KEY_DELETED, toMap(deleted));
+            ret.put(KEY_SHELL, toMap(shell));
+
+            return ret;
+        }
+
+        static EntityCounts fromMap(Map<String, Map<String, Number>> map) {
+            EntityCounts ret = new EntityCounts();
+
+            if (map != null) {
+                fromMap(ret, ret.active, map.get(KEY_ACTIVE));
+                fromMap(ret, ret.deleted, map.get(KEY_DELETED));
+                fromMap(ret, ret.shell, map.get(KEY_SHELL));
+            }
+
+            return ret;
+        }
+
+        private static Map<String, Long> toMap(Map<String, AtomicLong> counts) {
+            Map<String, Long> ret = new HashMap<>();
+
+            counts.forEach((typeName, count) -> {
+                if (count.get() != 0) {
+                    ret.put(typeName, count.get());
+                }
+            });
+
+            return ret;
+        }
+
+        private static void fromMap(EntityCounts entityCounts, Map<String, AtomicLong> counts, Map<String, Number> map) {
+            if (map != null) {
+                map.forEach((typeName, count) -> entityCounts.add(counts, typeName, count != null ? count.longValue() : 0));
+            }
+        }
+    }
+}
@@ -21,13 +21,18 @@ import org.apache.atlas.annotation.AtlasService;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.authorize.AtlasTypesDefFilterRequest;
+import org.apache.atlas.discovery.LineageAdjacencyCache;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.model.instance.AtlasEntity.Status;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.model.typedef.AtlasClassificationDef;
 import org.apache.atlas.model.typedef.AtlasEntityDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.query.DSLQueryPlanCache;
+import org.apache.atlas.repository.audit.AbstractStorageBasedAuditRepository;
+import org.apache.atlas.repository.audit.AuditWriterMetrics;
+import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
-import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
@@ -43,10 +48,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.apache.atlas.discovery.SearchProcessor.AND_STR;
 import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
 import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
-import static org.apache.atlas.repository.Constants.*;
 
 @AtlasService
 public class MetricsService {
@@ -74,20 +77,35 @@ public class MetricsService {
     protected static final String METRIC_RUNTIME                    = "runtime";
     protected static final String METRIC_MEMORY                     = "memory";
     protected static final String METRIC_OS                         = "os";
+    protected static final String METRIC_LINEAGE_CACHE              = "lineageCache";
+    protected static final String METRIC_SEARCH_CACHE               = "searchCache";
+    protected static final String METRIC_DSL_PLAN_CACHE             = "dslPlanCache";
+    protected static final String METRIC_AUDIT_WRITER               = "auditWriter";
     protected static final String METRIC_ENTITY_ACTIVE_INCL_SUBTYPES = ENTITY + "Active"+"-"+TYPE_SUBTYPES;
     protected static final String METRIC_ENTITY_DELETED_INCL_SUBTYPES = ENTITY + "Deleted"+"-"+TYPE_SUBTYPES;
     protected static final String METRIC_ENTITY_SHELL_INCL_SUBTYPES = ENTITY + "Shell"+"-"+TYPE_SUBTYPES;
 
-    private final AtlasGraph        atlasGraph;
-    private final AtlasTypeRegistry typeRegistry;
-    private final AtlasMetricsUtil  metricsUtil;
-    private final String            indexSearchPrefix = AtlasGraphUtilsV2.getIndexSearchPrefix();
+    private final AtlasGraph              atlasGraph;
+    private final AtlasTypeRegistry       typeRegistry;
+    private final AtlasMetricsUtil        metricsUtil;
+    private final EntityCountMetricsStore entityCountStore;
+    private final LineageAdjacencyCache   lineageCache;
+    private final SearchResultCache       searchResultCache;
+    private final DSLQueryPlanCache       dslQueryPlanCache;
+    private final EntityAuditRepository   auditRepository;
 
     @Inject
-    public MetricsService(final AtlasGraph graph, final AtlasTypeRegistry typeRegistry, AtlasMetricsUtil metricsUtil) {
-        this.atlasGraph   = graph;
-        this.typeRegistry = typeRegistry;
-        this.metricsUtil  = metricsUtil;
+    public MetricsService(final AtlasGraph graph, final AtlasTypeRegistry typeRegistry, AtlasMetricsUtil metricsUtil, EntityCountMetricsStore entityCountStore,
+                          LineageAdjacencyCache lineageCache, SearchResultCache searchResultCache, DSLQueryPlanCache dslQueryPlanCache,
+                          EntityAuditRepository auditRepository) {
+        this.atlasGraph        = graph;
+        this.typeRegistry      = typeRegistry;
+        this.metricsUtil       = metricsUtil;
+        this.entityCountStore  = entityCountStore;
+        this.lineageCache      = lineageCache;
+        this.searchResultCache = searchResultCache;
+        this.dslQueryPlanCache = dslQueryPlanCache;
+        this.auditRepository   = auditRepository;
     }
 
     @SuppressWarnings("unchecked")
@@ -180,6 +198,17 @@ public class MetricsService {
         metrics.addMetric(GENERAL, METRIC_TAG_COUNT, getAllTagsCount());
         metrics.addMetric(GENERAL, METRIC_TYPE_UNUSED_COUNT, unusedTypeCount);
         metrics.addMetric(GENERAL, METRIC_ENTITY_COUNT, totalEntities);
+        metrics.addMetric(GENERAL, METRIC_LINEAGE_CACHE, lineageCache.getMetrics());
+        metrics.addMetric(GENERAL, METRIC_SEARCH_CACHE, searchResultCache.getMetrics());
+        metrics.addMetric(GENERAL, METRIC_DSL_PLAN_CACHE, dslQueryPlanCache.getMetrics());
+
+        if (auditRepository instanceof AbstractStorageBasedAuditRepository) {
+            AuditWriterMetrics auditWriterMetrics = ((AbstractStorageBasedAuditRepository) auditRepository).getAuditWriterMetrics();
+
+            if (auditWriterMetrics != null) {
+                metrics.addMetric(GENERAL, METRIC_AUDIT_WRITER, auditWriterMetrics.toMap());
+            }
+        }
 
         metrics.addMetric(ENTITY, METRIC_ENTITY_ACTIVE, activeEntityCount);
         metrics.addMetric(ENTITY, METRIC_ENTITY_DELETED, deletedEntityCount);
@@ -197,35 +226,11 @@ public class MetricsService {
     }
 
     private long getTypeCount(String typeName, Status status) {
-        Long   ret        = null;
-        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
-                indexSearchPrefix + "\"" + STATE_PROPERTY_KEY       + "\" : (%s)";
-
-        indexQuery = String.format(indexQuery, typeName, status.name());
-
-        try {
-            ret = atlasGraph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
-        }catch (Exception e){
-            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
-        }
-
-        return ret == null ? 0L : ret;
+        return entityCountStore.isReady() ? entityCountStore.getCount(typeName, status) : entityCountStore.getIndexedTypeCount(typeName, status);
     }
 
     private long getTypeShellCount(String typeName) {
-        Long   ret        = null;
-        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
-                indexSearchPrefix + "\"" + IS_INCOMPLETE_PROPERTY_KEY + "\" : " + INCOMPLETE_ENTITY_VALUE.intValue();
-
-        indexQuery = String.format(indexQuery, typeName);
-
-        try {
-            ret = atlasGraph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
-        }catch (Exception e){
-            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
-        }
-
-        return ret == null ? 0L : ret;
+        return entityCountStore.isReady() ? entityCountStore.getShellCount(typeName) : entityCountStore.getIndexedShellCount(typeName);
     }
 
     private int getAllTypesCount() {
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+
+import java.util.Map;
+
+/**
+ * Base class for tasks run by TaskManagement.
+ *
+ * A task can be interrupted at any point - by a failure, a restart or an HA failover - and run again from the
+ * beginning; hence run() must be idempotent.
+ */
+public abstract class AbstractTask {
+    private final AtlasTask task;
+
+    protected AbstractTask(AtlasTask task) {
+        this.task = task;
+    }
+
+    public AtlasTask getTaskDef() {
+        return task;
+    }
+
+    public abstract void run() throws AtlasBaseException;
+
+    /**
+     * @return key of the state this task updates; tasks with the same key are not run concurrently. null, if the
+     * task can run concurrently with any other task.
+     */
+    public String getSerializationKey() {
+        return null;
+    }
+
+    /**
+     * Starts a new request context for the user who created the task. Long running tasks should call this between
+     * transactions, so that entities cached in the context don't accumulate.
+     */
+    public void resetRequestContext() {
+        RequestContext.clear();
+        RequestContext.get().setUser(task.getCreatedBy(), null);
+    }
+
+    protected String getStringParameter(String name) {
+        Map<String, Object> parameters = task.getParameters();
+        Object              ret        = parameters != null ? parameters.get(name) : null;
+
+        return ret != null ? ret.toString() : null;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import com.google.common.collect.Lists;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.PARAM_CLASSIFICATION_VERTEX_ID;
+
+/**
+ * Brings the propagations of a classification in line with the current graph: propagates it to impacted entities
+ * that don't have it yet, and removes it from entities that are no longer impacted - or from all entities, once
+ * the classification is deleted or its propagation is disabled. Changes are made in transactions of at most
+ * atlas.tasks.propagation.chunk.size entities each.
+ *
+ * All task types - add, delete and relationship update - converge on the same state, so a task that is run again,
+ * or after another task for the same classification, does no harm. Tasks for the same classification are not run
+ * concurrently though, as one could add propagations that the other is removing.
+ */
+public class ClassificationPropagationTask extends AbstractTask {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassificationPropagationTask.class);
+
+    private final EntityGraphMapper entityGraphMapper;
+    private final int               chunkSize;
+
+    public ClassificationPropagationTask(AtlasTask task, EntityGraphMapper entityGraphMapper, int chunkSize) {
+        super(task);
+
+        this.entityGraphMapper = entityGraphMapper;
+        this.chunkSize         = chunkSize;
+    }
+
+    @Override
+    public void run() throws AtlasBaseException {
+        String       classificationVertexId = getStringParameter(PARAM_CLASSIFICATION_VERTEX_ID);
+        List<String> entityIdsToAdd         = new ArrayList<>();
+        List<String> entityIdsToRemove      = new ArrayList<>();
+
+        entityGraphMapper.evaluateClassificationPropagation(classificationVertexId, entityIdsToAdd, entityIdsToRemove);
+
+        LOG.info("ClassificationPropagationTask(guid={}, type={}, classificationVertexId={}): adding {} propagations, removing {} propagations",
+                 getTaskDef().getGuid(), getTaskDef().getType(), classificationVertexId, entityIdsToAdd.size(), entityIdsToRemove.size());
+
+        for (List<String> chunk : Lists.partition(entityIdsToRemove, chunkSize)) {
+            resetRequestContext();
+
+            entityGraphMapper.removeClassificationPropagations(classificationVertexId, chunk);
+        }
+
+        for (List<String> chunk : Lists.partition(entityIdsToAdd, chunkSize)) {
+            resetRequestContext();
+
+            entityGraphMapper.addClassificationPropagations(classificationVertexId, chunk);
+        }
+
+        entityGraphMapper.deleteClassificationVertexIfUnreferenced(classificationVertexId);
+    }
+
+    @Override
+    public String getSerializationKey() {
+        return getStringParameter(PARAM_CLASSIFICATION_VERTEX_ID);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates tasks that propagate a classification to - or remove its propagation from - impacted entities.
+ */
+@Component
+public class ClassificationPropagationTaskFactory implements TaskFactory {
+    public static final String CLASSIFICATION_PROPAGATION_ADD                 = "CLASSIFICATION_PROPAGATION_ADD";
+    public static final String CLASSIFICATION_PROPAGATION_DELETE              = "CLASSIFICATION_PROPAGATION_DELETE";
+    public static final String CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE = "CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE";
+
+    public static final String PARAM_ENTITY_GUID              = "entityGuid";
+    public static final String PARAM_CLASSIFICATION_VERTEX_ID = "classificationVertexId";
+    public static final String PARAM_RELATIONSHIP_GUID        = "relationshipGuid";
+
+    private static final List<String> SUPPORTED_TYPES = Arrays.asList(CLASSIFICATION_PROPAGATION_ADD, CLASSIFICATION_PROPAGATION_DELETE, CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE);
+
+    private final EntityGraphMapper entityGraphMapper;
+    private final int               chunkSize;
+
+    @Inject
+    public ClassificationPropagationTaskFactory(TaskManagement taskManagement, EntityGraphMapper entityGraphMapper) {
+        this.entityGraphMapper = entityGraphMapper;
+        this.chunkSize         = Math.max(1, AtlasConfiguration.TASKS_PROPAGATION_CHUNK_SIZE.getInt());
+
+        taskManagement.addFactory(this);
+    }
+
+    @Override
+    public List<String> getSupportedTypes() {
+        return SUPPORTED_TYPES;
+    }
+
+    @Override
+    public AbstractTask create(AtlasTask task) {
+        return new ClassificationPropagationTask(task, entityGraphMapper, chunkSize);
+    }
+
+    public static Map<String, Object> toParameters(String entityGuid, String classificationVertexId, String relationshipGuid) {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put(PARAM_ENTITY_GUID, entityGuid);
+        ret.put(PARAM_CLASSIFICATION_VERTEX_ID, classificationVertexId);
+
+        if (relationshipGuid != null) {
+            ret.put(PARAM_RELATIONSHIP_GUID, relationshipGuid);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.service.Service;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks in the background, on a pool of worker threads.
+ *
+ * Tasks are persisted in the graph by TaskRegistry in the transaction that creates them, and are queued for
+ * execution once that transaction commits. Tasks that are pending or in progress when the server stops are
+ * queued again when the server starts - or, in HA mode, when the instance becomes active. A failed task is
+ * retried up to atlas.tasks.max.attempts times; after that it is marked FAILED, and can be retried with retryTask().
+ *
+ * Tasks with the same serialization key - like propagation tasks of the same classification - don't run concurrently:
+ * a task whose key is held by a running task is queued again, without counting as an attempt.
+ */
+@Component
+@Order(7)
+public class TaskManagement implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskManagement.class);
+
+    private static final long KEY_BUSY_RETRY_DELAY_MS = 500;
+
+    private final    Configuration              configuration;
+    private final    TaskRegistry               registry;
+    private final    int                        workerCount;
+    private final    int                        maxAttempts;
+    private final    long                       retryDelayMs;
+    private final    Map<String, TaskFactory>   factories      = new ConcurrentHashMap<>();
+    private final    Set<String>                queuedTasks    = ConcurrentHashMap.newKeySet();
+    private final    Set<String>                runningKeys    = ConcurrentHashMap.newKeySet();
+    private final    ThreadLocal<TaskQueueHook> taskQueueHooks = new ThreadLocal<>();
+    private volatile boolean                    isEnabled;
+    private volatile ScheduledExecutorService   executor;
+
+    @Inject
+    public TaskManagement(Configuration configuration, TaskRegistry registry) {
+        this.configuration = configuration;
+        this.registry      = registry;
+        this.isEnabled     = AtlasConfiguration.TASKS_ENABLED.getBoolean();
+        this.workerCount   = Math.max(1, AtlasConfiguration.TASKS_WORKER_COUNT.getInt());
+        this.maxAttempts   = Math.max(1, AtlasConfiguration.TASKS_MAX_ATTEMPTS.getInt());
+        this.retryDelayMs  = AtlasConfiguration.TASKS_RETRY_DELAY_MS.getLong();
+
+        LOG.info("{}={}", AtlasConfiguration.TASKS_ENABLED.getPropertyName(), isEnabled);
+        LOG.info("{}={}", AtlasConfiguration.TASKS_WORKER_COUNT.getPropertyName(), workerCount);
+        LOG.info("{}={}", AtlasConfiguration.TASKS_MAX_ATTEMPTS.getPropertyName(), maxAttempts);
+        LOG.info("{}={}", AtlasConfiguration.TASKS_RETRY_DELAY_MS.getPropertyName(), retryDelayMs);
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!isEnabled) {
+            LOG.info("TaskManagement.start(): tasks disabled");
+
+            return;
+        }
+
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            startInternal();
+        } else {
+            LOG.info("TaskManagement.start(): deferring until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        stopInternal();
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        if (isEnabled) {
+            startInternal();
+        }
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        stopInternal();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.TASK_MANAGEMENT.getOrder();
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @VisibleForTesting
+    void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    public void addFactory(TaskFactory factory) {
+        for (String type : factory.getSupportedTypes()) {
+            factories.put(type, factory);
+        }
+    }
+
+    /**
+     * Creates a task in the current transaction; the task is queued for execution after the transaction commits.
+     */
+    public AtlasTask createTask(String type, Map<String, Object> parameters) {
+        AtlasTask ret = new AtlasTask(UUID.randomUUID().toString(), type, RequestContext.getCurrentUser(), parameters);
+
+        registry.createVertex(ret);
+
+        TaskQueueHook hook = taskQueueHooks.get();
+
+        if (hook == null) {
+            hook = new TaskQueueHook();
+
+            taskQueueHooks.set(hook);
+        }
+
+        hook.taskGuids.add(ret.getGuid());
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("TaskManagement.createTask(): created {}", ret);
+        }
+
+        return ret;
+    }
+
+    public AtlasTask getTask(String guid) throws AtlasBaseException {
+        AtlasTask ret = registry.getByGuid(guid);
+
+        if (ret == null) {
+            throw new AtlasBaseException(AtlasErrorCode.TASK_NOT_FOUND, guid);
+        }
+
+        return ret;
+    }
+
+    public List<AtlasTask> getTasks(Collection<Status> statuses, int offset, int limit) {
+        int maxLimit = AtlasConfiguration.SEARCH_MAX_LIMIT.getInt();
+
+        return registry.getTasks(statuses, Math.max(0, offset), (limit <= 0 || limit > maxLimit) ? maxLimit : limit);
+    }
+
+    /**
+     * Queues a failed task for execution again, with its attempt count reset.
+     */
+    public AtlasTask retryTask(String guid) throws AtlasBaseException {
+        AtlasTask ret = getTask(guid);
+
+        if (ret.getStatus() != Status.FAILED) {
+            throw new AtlasBaseException(AtlasErrorCode.TASK_INVALID_STATUS, guid, ret.getStatus().name());
+        }
+
+        ret.setStatus(Status.PENDING);
+        ret.setAttemptCount(0);
+        ret.setEndTime(null);
+        ret.setErrorMessage(null);
+
+        registry.updateStatus(ret);
+
+        submit(guid, 0);
+
+        return ret;
+    }
+
+    private synchronized void startInternal() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newScheduledThreadPool(workerCount, new ThreadFactoryBuilder().setNameFormat("atlas-task-worker-%d").setDaemon(true).build());
+
+        List<AtlasTask> pendingTasks = registry.getPendingTasks();
+
+        LOG.info("TaskManagement: found {} pending tasks", pendingTasks.size());
+
+        for (AtlasTask task : pendingTasks) {
+            submit(task.getGuid(), 0);
+        }
+    }
+
+    private synchronized void stopInternal() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdownNow();
+
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException excp) {
+            LOG.warn("TaskManagement: interrupted while waiting for workers to stop");
+        }
+
+        executor = null;
+
+        queuedTasks.clear();
+    }
+
+    private void submit(String guid, long delayMs) {
+        ScheduledExecutorService executor = this.executor;
+
+        if (executor == null) {
+            // will be picked up from the registry when the instance starts, or becomes active
+            return;
+        }
+
+        if (queuedTasks.add(guid)) {
+            executor.schedule(() -> execute(guid), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void execute(String guid) {
+        queuedTasks.remove(guid);
+
+        AtlasTask task             = null;
+        String    serializationKey = null;
+
+        try {
+            task = registry.getByGuid(guid);
+
+            if (task == null || task.getStatus() == Status.COMPLETE || task.getStatus() == Status.FAILED) {
+                return;
+            }
+
+            TaskFactory factory = factories.get(task.getType());
+
+            if (factory == null) {
+                throw new IllegalStateException("no factory registered for task type " + task.getType());
+            }
+
+            AbstractTask executable = factory.create(task);
+            String       key        = executable.getSerializationKey();
+
+            if (key != null) {
+                if (!runningKeys.add(key)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("TaskManagement: task {} waits for another task with key {}", guid, key);
+                    }
+
+                    submit(guid, KEY_BUSY_RETRY_DELAY_MS);
+
+                    return;
+                }
+
+                serializationKey = key;
+            }
+
+            if (task.getStartTime() == null) {
+                task.setStartTime(System.currentTimeMillis());
+            }
+
+            task.setStatus(Status.IN_PROGRESS);
+            task.setAttemptCount(task.getAttemptCount() + 1);
+
+            registry.updateStatus(task);
+
+            long startTime = System.currentTimeMillis();
+
+            executable.resetRequestContext();
+            executable.run();
+
+            task.setStatus(Status.COMPLETE);
+            task.setEndTime(System.currentTimeMillis());
+            task.setErrorMessage(null);
+
+            registry.updateStatus(task);
+
+            LOG.info("TaskManagement: completed task {} of type {} in {}ms", task.getGuid(), task.getType(), task.getEndTime() - startTime);
+        } catch (Throwable t) {
+            LOG.error("TaskManagement: failed to execute task {}", guid, t);
+
+            if (task != null) {
+                onFailure(task, t);
+            }
+        } finally {
+            if (serializationKey != null) {
+                runningKeys.remove(serializationKey);
+            }
+
+            RequestContext.clear();
+        }
+    }
+
+    private void onFailure(AtlasTask task, Throwable t) {
+        boolean isRetry = task.getAttemptCount() < maxAttempts;
+
+        task.setStatus(isRetry ? Status.PENDING : Status.FAILED);
+        task.setErrorMessage(t.getMessage() != null ? t.getMessage() : t.getClass().getName());
+
+        if (!isRetry) {
+            task.setEndTime(System.currentTimeMillis());
+        }
+
+        try {
+            registry.updateStatus(task);
+        } catch (Throwable excp) {
+            LOG.error("TaskManagement: failed to update status of task {}", task.getGuid(), excp);
+        }
+
+        if (isRetry) {
+            submit(task.getGuid(), retryDelayMs);
+        }
+    }
+
+    private class TaskQueueHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final List<String> taskGuids = new ArrayList<>();
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            taskQueueHooks.remove();
+
+            if (isSuccess) {
+                for (String guid : taskGuids) {
+                    submit(guid, 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.SortOrder;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.repository.Constants.TASK_ATTEMPT_COUNT_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_CREATED_BY_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_CREATED_TIME_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_END_TIME_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_ERROR_MESSAGE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_GUID_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_PARAMETERS_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_START_TIME_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_STATUS_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TASK_UPDATED_TIME_PROPERTY_KEY;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getEncodedProperty;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.setEncodedProperty;
+
+/**
+ * Persists tasks as vertices in the graph.
+ *
+ * createVertex() adds the task vertex in the caller's transaction, so that the task is committed - or rolled back -
+ * along with the change that created it. All other updates are committed immediately.
+ */
+@Component
+public class TaskRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskRegistry.class);
+
+    private final AtlasGraph graph;
+
+    @Inject
+    public TaskRegistry(AtlasGraph graph) {
+        this.graph = graph;
+    }
+
+    public AtlasVertex createVertex(AtlasTask task) {
+        AtlasVertex ret = graph.addVertex();
+
+        setEncodedProperty(ret, TASK_GUID_PROPERTY_KEY, task.getGuid());
+        setEncodedProperty(ret, TASK_TYPE_PROPERTY_KEY, task.getType());
+        setEncodedProperty(ret, TASK_CREATED_BY_PROPERTY_KEY, task.getCreatedBy());
+        setEncodedProperty(ret, TASK_CREATED_TIME_PROPERTY_KEY, task.getCreatedTime());
+        setEncodedProperty(ret, TASK_PARAMETERS_PROPERTY_KEY, AtlasType.toJson(task.getParameters()));
+
+        setStatusProperties(ret, task);
+
+        return ret;
+    }
+
+    public void updateStatus(AtlasTask task) {
+        try {
+            AtlasVertex vertex = findByGuid(task.getGuid());
+
+            if (vertex != null) {
+                task.setUpdatedTime(System.currentTimeMillis());
+
+                setStatusProperties(vertex, task);
+            } else {
+                LOG.warn("TaskRegistry.updateStatus(): task {} not found", task.getGuid());
+            }
+
+            graph.commit();
+        } catch (Exception excp) {
+            graph.rollback();
+
+            throw excp;
+        }
+    }
+
+    public AtlasTask getByGuid(String guid) {
+        try {
+            AtlasVertex vertex = findByGuid(guid);
+
+            return vertex != null ? toAtlasTask(vertex) : null;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public List<AtlasTask> getTasks(Collection<Status> statuses, int offset, int limit) {
+        try {
+            return toAtlasTasks(getTasksQuery(statuses).vertices(offset, limit));
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public List<AtlasTask> getPendingTasks() {
+        try {
+            return toAtlasTasks(getTasksQuery(Arrays.asList(Status.PENDING, Status.IN_PROGRESS)).vertices());
+        } finally {
+            graph.commit();
+        }
+    }
+
+    private AtlasGraphQuery getTasksQuery(Collection<Status> statuses) {
+        List<String> statusValues = new ArrayList<>();
+
+        for (Status status : (statuses == null || statuses.isEmpty() ? Arrays.asList(Status.values()) : statuses)) {
+            statusValues.add(status.name());
+        }
+
+        return graph.query().in(TASK_STATUS_PROPERTY_KEY, statusValues).orderBy(TASK_CREATED_TIME_PROPERTY_KEY, SortOrder.ASC);
+    }
+
+    private AtlasVertex findByGuid(String guid) {
+        Iterator<AtlasVertex> results = graph.query().has(TASK_GUID_PROPERTY_KEY, guid).vertices().iterator();
+
+        return results.hasNext() ? results.next() : null;
+    }
+
+    private static void setStatusProperties(AtlasVertex vertex, AtlasTask task) {
+        setEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, task.getStatus().name());
+        setEncodedProperty(vertex, TASK_UPDATED_TIME_PROPERTY_KEY, task.getUpdatedTime());
+        setEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, task.getAttemptCount());
+
+        if (task.getStartTime() != null) {
+            setEncodedProperty(vertex, TASK_START_TIME_PROPERTY_KEY, task.getStartTime());
+        }
+
+        if (task.getEndTime() != null) {
+            setEncodedProperty(vertex, TASK_END_TIME_PROPERTY_KEY, task.getEndTime());
+        }
+
+        if (task.getErrorMessage() != null) {
+            setEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, task.getErrorMessage());
+        } else {
+            vertex.removeProperty(TASK_ERROR_MESSAGE_PROPERTY_KEY);
+        }
+    }
+
+    private static List<AtlasTask> toAtlasTasks(Iterable<AtlasVertex> vertices) {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(toAtlasTask(vertex));
+        }
+
+        return ret;
+    }
+
+    private static AtlasTask toAtlasTask(AtlasVertex vertex) {
+        AtlasTask ret        = new AtlasTask();
+        String    parameters = getEncodedProperty(vertex, TASK_PARAMETERS_PROPERTY_KEY, String.class);
+        Integer   attempts   = getEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, Integer.class);
+
+        ret.setGuid(getEncodedProperty(vertex, TASK_GUID_PROPERTY_KEY, String.class));
+        ret.setType(getEncodedProperty(vertex, TASK_TYPE_PROPERTY_KEY, String.class));
+        ret.setStatus(Status.valueOf(getEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, String.class)));
+        ret.setCreatedBy(getEncodedProperty(vertex, TASK_CREATED_BY_PROPERTY_KEY, String.class));
+        ret.setCreatedTime(getEncodedProperty(vertex, TASK_CREATED_TIME_PROPERTY_KEY, Long.class));
+        ret.setUpdatedTime(getEncodedProperty(vertex, TASK_UPDATED_TIME_PROPERTY_KEY, Long.class));
+        ret.setStartTime(getEncodedProperty(vertex, TASK_START_TIME_PROPERTY_KEY, Long.class));
+        ret.setEndTime(getEncodedProperty(vertex, TASK_END_TIME_PROPERTY_KEY, Long.class));
+        ret.setAttemptCount(attempts != null ? attempts : 0);
+        ret.setErrorMessage(getEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, String.class));
+        ret.setParameters(StringUtils.isNotEmpty(parameters) ? AtlasType.fromJson(parameters, Map.class) : null);
+
+        return ret;
+    }
+}
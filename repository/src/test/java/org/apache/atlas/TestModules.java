@@ -28,11 +28,14 @@ import org.apache.atlas.discovery.AtlasDiscoveryService;
 import org.apache.atlas.discovery.AtlasLineageService;
 import org.apache.atlas.discovery.EntityDiscoveryService;
 import org.apache.atlas.discovery.EntityLineageService;
+import org.apache.atlas.discovery.LineageAdjacencyCache;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.glossary.GlossaryService;
 import org.apache.atlas.graph.GraphSandboxUtil;
 import org.apache.atlas.listener.EntityChangeListener;
 import org.apache.atlas.listener.EntityChangeListenerV2;
 import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.query.DSLQueryPlanCache;
 import org.apache.atlas.repository.audit.EntityAuditListener;
 import org.apache.atlas.repository.audit.EntityAuditListenerV2;
 import org.apache.atlas.repository.audit.EntityAuditRepository;
@@ -63,10 +66,15 @@ import org.apache.atlas.repository.store.graph.v2.AtlasRelationshipStoreV2;
 import org.apache.atlas.repository.store.graph.v2.AtlasTypeDefGraphStoreV2;
 import org.apache.atlas.repository.store.graph.v2.BulkImporterImpl;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.apache.atlas.repository.store.graph.v2.EntityGuidCache;
 import org.apache.atlas.repository.store.graph.v2.IAtlasEntityChangeNotifier;
 import org.apache.atlas.runner.LocalSolrRunner;
 import org.apache.atlas.service.Service;
+import org.apache.atlas.services.EntityCountMetricsStore;
 import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.tasks.ClassificationPropagationTaskFactory;
+import org.apache.atlas.tasks.TaskManagement;
+import org.apache.atlas.tasks.TaskRegistry;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasRepositoryConfiguration;
 import org.apache.atlas.util.SearchTracker;
@@ -142,6 +150,7 @@ public class TestModules {
             Multibinder<TypeDefChangeListener> typeDefChangeListenerMultibinder =
                     Multibinder.newSetBinder(binder(), TypeDefChangeListener.class);
             typeDefChangeListenerMultibinder.addBinding().to(GraphBackedSearchIndexer.class).asEagerSingleton();
+            typeDefChangeListenerMultibinder.addBinding().to(SearchResultCache.class);
 
             bind(SearchTracker.class).asEagerSingleton();
 
@@ -154,6 +163,14 @@ public class TestModules {
             bind(AtlasDiscoveryService.class).to(EntityDiscoveryService.class).asEagerSingleton();
 
             bind(AtlasLineageService.class).to(EntityLineageService.class).asEagerSingleton();
+            bind(LineageAdjacencyCache.class).asEagerSingleton();
+            bind(EntityGuidCache.class).asEagerSingleton();
+            bind(SearchResultCache.class).asEagerSingleton();
+            bind(DSLQueryPlanCache.class).asEagerSingleton();
+            bind(EntityCountMetricsStore.class).asEagerSingleton();
+            bind(TaskRegistry.class).asEagerSingleton();
+            bind(TaskManagement.class).asEagerSingleton();
+            bind(ClassificationPropagationTaskFactory.class).asEagerSingleton();
             bind(BulkImporter.class).to(BulkImporterImpl.class).asEagerSingleton();
             bind(GraphDBMigrator.class).to(GraphDBGraphSONMigrator.class).asEagerSingleton();
 
@@ -165,6 +182,9 @@ public class TestModules {
             Multibinder<EntityChangeListenerV2> entityChangeListenerV2Binder =
                     Multibinder.newSetBinder(binder(), EntityChangeListenerV2.class);
             entityChangeListenerV2Binder.addBinding().to(EntityAuditListenerV2.class);
+            entityChangeListenerV2Binder.addBinding().to(LineageAdjacencyCache.class);
+            entityChangeListenerV2Binder.addBinding().to(EntityGuidCache.class);
+            entityChangeListenerV2Binder.addBinding().to(SearchResultCache.class);
 
             // OGM related mappings
             Multibinder<DataTransferObject> availableDTOs = Multibinder.newSetBinder(binder(), DataTransferObject.class);
@@ -27,6 +27,7 @@ import org.apache.atlas.model.discovery.SearchParameters;
 import org.apache.atlas.model.instance.AtlasClassification;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.graph.AtlasGraphProvider;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
@@ -37,6 +38,7 @@ import org.testng.annotations.*;
 import javax.inject.Inject;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.apache.atlas.model.discovery.SearchParameters.*;
@@ -75,6 +77,35 @@ public class AtlasDiscoveryServiceTest extends BasicTestSetup {
         assertEquals(entityHeaders.size(), 10);
     }
 
+    @Test
+    public void entity_referredEntitiesAndClassifications() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(HIVE_TABLE_TYPE);
+        params.setAttributes(new HashSet<>(Arrays.asList("db")));
+        params.setIncludeClassificationAttributes(true);
+        params.setLimit(20);
+
+        AtlasSearchResult searchResult = discoveryService.searchWithParameters(params);
+
+        Assert.assertTrue(CollectionUtils.isNotEmpty(searchResult.getEntities()));
+        assertNotNull(searchResult.getReferredEntities());
+
+        for (AtlasEntityHeader e : searchResult.getEntities()) {
+            Object db = e.getAttribute("db");
+
+            Assert.assertTrue(db instanceof AtlasObjectId);
+
+            AtlasEntityHeader referredDb = searchResult.getReferredEntities().get(((AtlasObjectId) db).getGuid());
+
+            assertNotNull(referredDb);
+            assertEquals(referredDb.getTypeName(), DATABASE_TYPE);
+
+            if (CollectionUtils.isNotEmpty(e.getClassificationNames())) {
+                Assert.assertTrue(CollectionUtils.isNotEmpty(e.getClassifications()));
+            }
+        }
+    }
+
     // TSP execute and CSP,ESP filter
     @Test
     public void term_tag() throws AtlasBaseException {
@@ -42,7 +42,10 @@ import org.testng.annotations.Test;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static org.apache.atlas.model.discovery.SearchParameters.*;
@@ -63,11 +66,14 @@ public class ClassificationSearchProcessorTest extends BasicTestSetup {
     private int    dimensionTagEntities                 = 10;
     private String dimensionTagDeleteGuid;
     private String dimensionalTagGuid;
+    private ExecutorService parallelSearchExecutor;
 
     @BeforeClass
     public void setup() throws Exception {
         super.initialize();
 
+        parallelSearchExecutor = Executors.newFixedThreadPool(2);
+
         setupTestData();
         createDimensionTaggedEntityAndDelete();
         createDimensionalTaggedEntityWithAttr();
@@ -263,6 +269,109 @@ public class ClassificationSearchProcessorTest extends BasicTestSetup {
 
     }
 
+    @Test
+    public void searchByALLTagAndIndexSysFiltersWithCursor() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setClassification(ALL_CLASSIFICATION_TYPES);
+        params.setTagFilters(getSingleFilterCondition("__timestamp", Operator.LT, String.valueOf(System.currentTimeMillis())));
+        params.setLimit(100);
+
+        List<String> expected = getGuids(new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys()).getSearchProcessor().execute());
+        List<String> actual   = new ArrayList<>();
+
+        params.setLimit(3);
+
+        do {
+            SearchContext context = new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys());
+
+            actual.addAll(getGuids(context.getSearchProcessor().execute()));
+
+            params.setCursor(context.getNextCursor());
+        } while (params.getCursor() != null && actual.size() <= expected.size());
+
+        // entities with more than one classification are reached through each of them, but returned only once
+        assertEquals(new HashSet<>(actual).size(), actual.size());
+        assertEquals(actual, expected);
+    }
+
+    @Test
+    public void searchByTypeAndTagFiltersInParallel() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(HIVE_TABLE_TYPE);
+        params.setClassification(DIMENSIONAL_CLASSIFICATION);
+        params.setTagFilters(getSingleFilterCondition("attr1", Operator.EQ, "Test"));
+        params.setLimit(20);
+
+        SearchContext context = new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys(), parallelSearchExecutor);
+        ParallelIntersectSearchProcessor processor = new ParallelIntersectSearchProcessor(context);
+        List<AtlasVertex> vertices = processor.execute();
+
+        assertEquals(vertices.size(), 1);
+        assertEquals(entityRetriever.toAtlasEntityHeader(vertices.get(0)).getGuid(), dimensionalTagGuid);
+        assertEquals(processor.getResultCount(), 1);
+    }
+
+    @Test
+    public void searchByTypeAndTagFiltersInParallelMatchesSerialSearch() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(HIVE_TABLE_TYPE);
+        params.setClassification(DIMENSION_CLASSIFICATION);
+        params.setTagFilters(getSingleFilterCondition("__timestamp", Operator.LT, String.valueOf(System.currentTimeMillis())));
+        params.setLimit(20);
+
+        SearchContext                 context          = new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys(), parallelSearchExecutor);
+        ClassificationSearchProcessor serialProcessor  = new ClassificationSearchProcessor(context);
+        serialProcessor.addProcessor(new EntitySearchProcessor(context));
+
+        List<String> expected = getGuids(serialProcessor.execute());
+        List<String> parallel = getGuids(new ParallelIntersectSearchProcessor(context).execute());
+        List<String> fallback = getGuids(new ParallelIntersectSearchProcessor(context, 1).execute());
+
+        Assert.assertTrue(CollectionUtils.isNotEmpty(expected));
+        assertEquals(new HashSet<>(parallel), new HashSet<>(expected));
+        assertEquals(new HashSet<>(fallback), new HashSet<>(expected));
+    }
+
+    @Test
+    public void searchByTypeAndTagFiltersInParallelWithCursor() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(HIVE_TABLE_TYPE);
+        params.setClassification(DIMENSION_CLASSIFICATION);
+        params.setTagFilters(getSingleFilterCondition("__timestamp", Operator.LT, String.valueOf(System.currentTimeMillis())));
+        params.setLimit(20);
+
+        SearchContext                 context         = new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys(), parallelSearchExecutor);
+        ClassificationSearchProcessor serialProcessor = new ClassificationSearchProcessor(context);
+        serialProcessor.addProcessor(new EntitySearchProcessor(context));
+
+        List<String> expected = getGuids(serialProcessor.execute());
+        List<String> actual   = new ArrayList<>();
+
+        params.setLimit(2);
+
+        // later pages are read from the cached intersection
+        do {
+            context = new SearchContext(params, typeRegistry, graph, indexer.getVertexIndexKeys(), parallelSearchExecutor);
+
+            actual.addAll(getGuids(new ParallelIntersectSearchProcessor(context).execute()));
+
+            params.setCursor(context.getNextCursor());
+        } while (params.getCursor() != null && actual.size() <= expected.size());
+
+        assertEquals(new HashSet<>(actual).size(), actual.size());
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+    }
+
+    private List<String> getGuids(List<AtlasVertex> vertices) throws AtlasBaseException {
+        List<String> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(entityRetriever.toAtlasEntityHeader(vertex).getGuid());
+        }
+
+        return ret;
+    }
+
     private void createDimensionTaggedEntityAndDelete() throws AtlasBaseException {
         AtlasEntity entityToDelete = new AtlasEntity(HIVE_TABLE_TYPE);
         entityToDelete.setAttribute("name", "entity to be deleted");
@@ -301,6 +410,8 @@ public class ClassificationSearchProcessorTest extends BasicTestSetup {
 
     @AfterClass
     public void teardown() throws Exception {
+        parallelSearchExecutor.shutdown();
+
         AtlasGraphProvider.cleanup();
 
         super.cleanup();
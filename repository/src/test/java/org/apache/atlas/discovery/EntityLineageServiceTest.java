@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.lineage.AtlasLineageInfo;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
+import org.apache.atlas.repository.AtlasTestBase;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.impexp.ImportService;
+import org.apache.atlas.repository.impexp.ZipFileResourceTestUtils;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.apache.atlas.repository.impexp.ZipFileResourceTestUtils.runImportWithNoParameters;
+import static org.apache.atlas.utils.TestLoadModelUtils.loadModelFromJson;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Lineage of the graph in tag-propagation-data.zip, described in ClassificationPropagationTest.
+ */
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityLineageServiceTest extends AtlasTestBase {
+    private static final String HDFS_PATH_EMPLOYEES_GUID = "a3955120-ac17-426f-a4af-972ec8690e5f";
+    private static final String IMPORT_FILE              = "tag-propagation-data.zip";
+    private static final int    PAGE_SIZE                = 2;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private ImportService importService;
+
+    @Inject
+    private AtlasLineageService lineageService;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        RequestContext.clear();
+
+        super.initialize();
+
+        loadModelFromJson("0000-Area0/0010-base_model.json", typeDefStore, typeRegistry);
+        loadModelFromJson("1000-Hadoop/1020-fs_model.json", typeDefStore, typeRegistry);
+        loadModelFromJson("1000-Hadoop/1030-hive_model.json", typeDefStore, typeRegistry);
+
+        runImportWithNoParameters(importService, ZipFileResourceTestUtils.getFileInputStream(IMPORT_FILE));
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        super.cleanup();
+    }
+
+    @Test
+    public void testLineageWithoutLimitIsCapped() throws AtlasBaseException {
+        EntityLineageService service = (EntityLineageService) lineageService;
+
+        service.setMaxRelations(PAGE_SIZE);
+
+        try {
+            AtlasLineageInfo lineage = lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3, 0, null);
+
+            assertEquals(lineage.getRelations().size(), PAGE_SIZE);
+            assertTrue(lineage.getHasMore());
+            assertNotNull(lineage.getContinuationToken());
+        } finally {
+            service.setMaxRelations(AtlasConfiguration.LINEAGE_MAX_RELATIONS.getInt());
+        }
+    }
+
+    @Test
+    public void testLineageWithoutLimitBelowCapIsNotPaged() throws AtlasBaseException {
+        AtlasLineageInfo lineage = lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3, 0, null);
+
+        assertTrue(lineage.getRelations().size() > PAGE_SIZE);
+        assertFalse(lineage.getHasMore());
+        assertNull(lineage.getContinuationToken());
+        assertEquals(lineage.getRelations(), lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3).getRelations());
+    }
+
+    @Test
+    public void testLineagePaging() throws AtlasBaseException {
+        assertPagedLineage(false);
+    }
+
+    @Test
+    public void testLineagePagingWithoutCursor() throws AtlasBaseException {
+        // pages continue from the offset in continuationToken, when the cursor is not available - for example, in another server
+        assertPagedLineage(true);
+    }
+
+    @Test
+    public void testInvalidContinuationToken() {
+        try {
+            lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.INPUT, 3, PAGE_SIZE, "invalid-token");
+
+            fail("invalid continuationToken should have failed");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.INVALID_PARAMETERS);
+        }
+    }
+
+    @Test
+    public void testContinuationTokenOfAnotherRequest() throws AtlasBaseException {
+        AtlasLineageInfo page = lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3, PAGE_SIZE, null);
+
+        assertTrue(page.getHasMore());
+
+        try {
+            lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.INPUT, 3, PAGE_SIZE, page.getContinuationToken());
+
+            fail("continuationToken of another request should have failed");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.INVALID_PARAMETERS);
+        }
+    }
+
+    private void assertPagedLineage(boolean clearCursors) throws AtlasBaseException {
+        AtlasLineageInfo     fullLineage       = lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3);
+        Set<LineageRelation> pagedRelations    = new HashSet<>();
+        String               continuationToken = null;
+        int                  pageCount         = 0;
+        int                  relationCount     = 0;
+
+        do {
+            if (clearCursors) {
+                ((EntityLineageService) lineageService).clearLineageCursors();
+            }
+
+            AtlasLineageInfo page = lineageService.getAtlasLineageInfo(HDFS_PATH_EMPLOYEES_GUID, LineageDirection.BOTH, 3, PAGE_SIZE, continuationToken);
+
+            assertTrue(page.getRelations().size() <= PAGE_SIZE);
+            assertTrue(fullLineage.getGuidEntityMap().keySet().containsAll(page.getGuidEntityMap().keySet()));
+            assertEquals(page.getHasMore(), page.getContinuationToken() != null);
+
+            pagedRelations.addAll(page.getRelations());
+
+            relationCount    += page.getRelations().size();
+            continuationToken = page.getContinuationToken();
+            pageCount++;
+        } while (continuationToken != null && pageCount <= fullLineage.getRelations().size());
+
+        assertTrue(pageCount > 1);
+        assertEquals(relationCount, fullLineage.getRelations().size()); // no relation is returned in more than one page
+        assertEquals(pagedRelations, fullLineage.getRelations());
+    }
+}
@@ -46,6 +46,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
@@ -258,6 +259,54 @@ public class EntitySearchProcessorTest extends BasicTestSetup {
         assertEquals(processor.execute().size(), 14);
     }
 
+    @Test
+    public void entityTypesWithCursor() throws AtlasBaseException {
+        List<Object> expected = new ArrayList<>();
+        List<Object> actual   = new ArrayList<>();
+
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(DATABASE_TYPE+","+HIVE_TABLE_TYPE);
+        params.setLimit(20);
+
+        for (AtlasVertex vertex : new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet()).getSearchProcessor().execute()) {
+            expected.add(vertex.getId());
+        }
+
+        params.setLimit(4);
+
+        for (int i = 0; i < 4; i++) {
+            SearchContext     context  = new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet());
+            List<AtlasVertex> vertices = context.getSearchProcessor().execute();
+
+            assertEquals(vertices.size(), i < 3 ? 4 : 2);
+
+            for (AtlasVertex vertex : vertices) {
+                actual.add(vertex.getId());
+            }
+
+            params.setCursor(context.getNextCursor());
+        }
+
+        assertNull(params.getCursor());
+        assertEquals(actual, expected);
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void cursorOfAnotherSearch() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName(DATABASE_TYPE+","+HIVE_TABLE_TYPE);
+        params.setLimit(4);
+
+        SearchContext context = new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet());
+
+        context.getSearchProcessor().execute();
+
+        params.setTypeName(HIVE_TABLE_TYPE);
+        params.setCursor(context.getNextCursor());
+
+        new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet());
+    }
+
     @Test(expectedExceptions = AtlasBaseException.class, expectedExceptionsMessageRegExp = "Not_Exists: Unknown/invalid typename")
     public void entityTypesNotAllowed() throws AtlasBaseException {
         SearchParameters params = new SearchParameters();
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.discovery.LineageAdjacencyCache.LineageLink;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.discovery.LineageAdjacencyCache.LINEAGE_CACHE_ENABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class LineageAdjacencyCacheTest {
+    @Test
+    public void testGetPutAndInvalidate() {
+        LineageAdjacencyCache cache = createCache(true);
+        List<LineageLink>     links = Collections.singletonList(new LineageLink("2", "process-guid", "rel-1", "rel-1", "3", "table2-guid", "rel-2", "rel-2"));
+
+        assertNull(cache.get("1", true));
+
+        cache.put("1", "table1-guid", true, links, cache.getGeneration());
+
+        assertEquals(cache.get("1", true), links);
+        assertNull(cache.get("1", false));
+
+        // entry is referenced by the dataset, the process and the linked dataset
+        cache.invalidate(Collections.singletonList("table2-guid"));
+
+        assertNull(cache.get("1", true));
+
+        cache.put("1", "table1-guid", true, links, cache.getGeneration());
+        cache.invalidate(Collections.singletonList("process-guid"));
+
+        assertNull(cache.get("1", true));
+
+        cache.put("1", "table1-guid", true, links, cache.getGeneration());
+        cache.invalidate(Collections.singletonList("unrelated-guid"));
+
+        assertNotNull(cache.get("1", true));
+
+        Map<String, Object> metrics = cache.getMetrics();
+
+        assertEquals(metrics.get("hitCount"), 2L);
+        assertEquals(metrics.get("entries"), 1L);
+    }
+
+    @Test
+    public void testPutAfterInvalidationIsIgnored() {
+        LineageAdjacencyCache cache          = createCache(true);
+        long                  readGeneration = cache.getGeneration();
+
+        // links were read from the graph before a concurrent change was committed
+        cache.invalidate(Collections.singletonList("table1-guid"));
+        cache.put("1", "table1-guid", false, Collections.emptyList(), readGeneration);
+
+        assertNull(cache.get("1", false));
+    }
+
+    @Test
+    public void testPutAfterUnrelatedInvalidation() {
+        LineageAdjacencyCache cache          = createCache(true);
+        List<LineageLink>     links          = Collections.singletonList(new LineageLink("2", "process-guid", "rel-1", "rel-1", "3", "table2-guid", "rel-2", "rel-2"));
+        long                  readGeneration = cache.getGeneration();
+
+        // change to an entity not in the links, committed while the links were read
+        cache.invalidate(Collections.singletonList("unrelated-guid"));
+        cache.put("1", "table1-guid", true, links, readGeneration);
+
+        assertEquals(cache.get("1", true), links);
+
+        readGeneration = cache.getGeneration();
+
+        // change to the linked dataset, committed while the links were read
+        cache.invalidate(Collections.singletonList("table2-guid"));
+        cache.put("1", "table1-guid", false, links, readGeneration);
+
+        assertNull(cache.get("1", false));
+        assertNull(cache.get("1", true));
+    }
+
+    @Test
+    public void testDisabled() {
+        LineageAdjacencyCache cache = createCache(false);
+
+        cache.put("1", "table1-guid", true, Collections.emptyList(), cache.getGeneration());
+
+        assertNull(cache.get("1", true));
+        assertFalse((Boolean) cache.getMetrics().get("enabled"));
+    }
+
+    private static LineageAdjacencyCache createCache(boolean isEnabled) {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+
+        configuration.setProperty(LINEAGE_CACHE_ENABLED, isEnabled);
+
+        return new LineageAdjacencyCache(new AtlasTypeRegistry(), configuration);
+    }
+}
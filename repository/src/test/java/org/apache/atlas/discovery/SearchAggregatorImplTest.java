@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AggregationParameters.RangeParameters;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class SearchAggregatorImplTest {
+    private static final long JAN_15_2021 = 1610668800000L; // 2021-01-15T00:00:00Z
+    private static final long FEB_01_2021 = 1612137600000L;
+    private static final long MAR_01_2021 = 1614556800000L;
+    private static final long APR_01_2021 = 1617235200000L;
+    private static final long JAN_01_2022 = 1640995200000L;
+
+    @Test
+    public void testMonthBoundaries() throws Exception {
+        List<Long> boundaries = SearchAggregatorImpl.getCalendarBoundaries(new RangeParameters(null, FEB_01_2021, APR_01_2021, 1, "MONTH"));
+
+        assertEquals(boundaries, Arrays.asList(FEB_01_2021, MAR_01_2021, APR_01_2021));
+    }
+
+    @Test
+    public void testBoundariesAreCalendarAligned() throws Exception {
+        // months differ in length; a start within a month keeps its day of month, and the last bucket ends at the range end
+        List<Long> boundaries = SearchAggregatorImpl.getCalendarBoundaries(new RangeParameters(null, JAN_15_2021, MAR_01_2021, 1, "month"));
+
+        assertEquals(boundaries.size(), 3);
+        assertEquals(boundaries.get(0).longValue(), JAN_15_2021);
+        assertEquals(boundaries.get(1).longValue(), JAN_15_2021 + 31 * 24 * 3600 * 1000L);
+        assertEquals(boundaries.get(2).longValue(), MAR_01_2021);
+
+        assertEquals(SearchAggregatorImpl.getCalendarBoundaries(new RangeParameters(null, FEB_01_2021, JAN_01_2022, 1, "YEAR")), Arrays.asList(FEB_01_2021, JAN_01_2022));
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testInvalidGapUnit() throws Exception {
+        SearchAggregatorImpl.getCalendarBoundaries(new RangeParameters(null, FEB_01_2021, APR_01_2021, 1, "WEEK"));
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testTooManyBuckets() throws Exception {
+        SearchAggregatorImpl.getCalendarBoundaries(new RangeParameters(null, 0, 2 * JAN_01_2022, 1, "MONTH"));
+    }
+}
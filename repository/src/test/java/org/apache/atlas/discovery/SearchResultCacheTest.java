@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.discovery.SearchResultCache.CachedSearchResult;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.apache.atlas.discovery.SearchResultCache.ALL_TYPES;
+import static org.apache.atlas.discovery.SearchResultCache.SEARCH_RESULT_CACHE_ENABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class SearchResultCacheTest {
+    @Test
+    public void testGetPutAndTypeChange() {
+        SearchResultCache  cache  = createCache(true);
+        CachedSearchResult result = cache.newResult(new HashSet<>(Arrays.asList("hive_table", "hbase_table")));
+
+        result.setGuids(Arrays.asList("guid-1", "guid-2"));
+        result.setApproximateCount(2);
+
+        assertNull(cache.get("key"));
+
+        cache.put("key", result);
+
+        assertNotNull(cache.get("key"));
+        assertEquals(cache.get("key").getGuids(), Arrays.asList("guid-1", "guid-2"));
+
+        cache.onTypesChanged(Collections.singleton("hive_column"));
+
+        assertNotNull(cache.get("key"));
+
+        cache.onTypesChanged(Collections.singleton("hbase_table"));
+
+        assertNull(cache.get("key"));
+
+        Map<String, Object> metrics = cache.getMetrics();
+
+        assertEquals(metrics.get("hitCount"), 3L);
+        assertEquals(metrics.get("missCount"), 2L);
+        assertEquals(metrics.get("staleCount"), 1L);
+        assertEquals(metrics.get("entries"), 0L);
+    }
+
+    @Test
+    public void testSearchInAllTypesIsStaleOnAnyChange() {
+        SearchResultCache  cache  = createCache(true);
+        CachedSearchResult result = cache.newResult(Collections.singleton(ALL_TYPES));
+
+        result.setGuids(Collections.emptyList());
+
+        cache.put("key", result);
+        cache.onTypesChanged(Collections.singleton("hive_column"));
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testPutAfterChangeIsIgnored() {
+        SearchResultCache  cache  = createCache(true);
+        CachedSearchResult result = cache.newResult(Collections.singleton("hive_table"));
+
+        // search ran while a change to hive_table was being committed
+        cache.onTypesChanged(Collections.singleton("hive_table"));
+        cache.put("key", result);
+
+        assertNull(cache.get("key"));
+        assertEquals(cache.getMetrics().get("entries"), 0L);
+    }
+
+    @Test
+    public void testDisabled() {
+        SearchResultCache cache = createCache(false);
+
+        assertNull(cache.getKey(null));
+        assertFalse((Boolean) cache.getMetrics().get("enabled"));
+    }
+
+    private static SearchResultCache createCache(boolean isEnabled) {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+
+        configuration.setProperty(SEARCH_RESULT_CACHE_ENABLED, isEnabled);
+
+        return new SearchResultCache(configuration);
+    }
+}
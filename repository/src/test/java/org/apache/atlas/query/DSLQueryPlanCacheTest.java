@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.apache.atlas.query.DSLQueryPlanCache.DSL_PLAN_CACHE_ENABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+public class DSLQueryPlanCacheTest {
+    private AtlasTypeRegistry typeRegistry;
+
+    @BeforeMethod
+    public void setUp() throws AtlasBaseException {
+        typeRegistry = new AtlasTypeRegistry();
+
+        addEntityDef("test_table");
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals(DSLQueryPlanCache.normalize("  test_table   where\tname =  'a  b' "), "test_table where name = 'a  b'");
+        assertEquals(DSLQueryPlanCache.normalize("test_table where name = \"x\\\"  y\"   limit 10"), "test_table where name = \"x\\\"  y\" limit 10");
+    }
+
+    @Test
+    public void testPlanIsReused() throws AtlasBaseException {
+        DSLQueryPlanCache cache = createCache(true);
+        GremlinQuery      query1 = cache.getGremlinQuery("test_table", 10, 0);
+        GremlinQuery      query2 = cache.getGremlinQuery("  test_table ", 10, 0);
+
+        assertEquals(query2.queryStr(), query1.queryStr());
+        assertNotSame(query2, query1);
+
+        // limit in the query: limit/offset passed are not used
+        cache.getGremlinQuery("test_table limit 5", 10, 0);
+        cache.getGremlinQuery("test_table limit 5", 20, 5);
+
+        Map<String, Object> metrics = cache.getMetrics();
+
+        assertEquals(metrics.get("parseCount"), 2L);
+        assertEquals(metrics.get("translateCount"), 2L);
+        assertEquals(metrics.get("hitCount"), 2L);
+    }
+
+    @Test
+    public void testPlanIsSharedByPages() throws AtlasBaseException {
+        DSLQueryPlanCache cache = createCache(true);
+        GremlinQuery      page1 = cache.getGremlinQuery("test_table", 10, 0);
+        GremlinQuery      page2 = cache.getGremlinQuery("test_table", 10, 10);
+        GremlinQuery      page3 = cache.getGremlinQuery("test_table", 25, 20);
+
+        assertEquals(cache.getMetrics().get("translateCount"), 1L);
+        assertEquals(cache.getMetrics().get("hitCount"), 2L);
+
+        assertRange(page1, 10, 0);
+        assertRange(page2, 10, 10);
+        assertRange(page3, 25, 20);
+        assertEquals(page3.getLimit(), 25);
+        assertEquals(page3.getOffset(), 20);
+
+        // paging of one execution doesn't change the cached plan
+        assertRange(cache.getGremlinQuery("test_table", 10, 0), 10, 0);
+    }
+
+    @Test
+    public void testPlansDroppedOnTypeUpdate() throws AtlasBaseException {
+        DSLQueryPlanCache cache = createCache(true);
+
+        cache.getGremlinQuery("test_table", 10, 0);
+        cache.getGremlinQuery("test_table", 10, 0);
+
+        addEntityDef("test_column");
+
+        cache.getGremlinQuery("test_table", 10, 0);
+
+        Map<String, Object> metrics = cache.getMetrics();
+
+        assertEquals(metrics.get("parseCount"), 1L);
+        assertEquals(metrics.get("translateCount"), 2L);
+        assertEquals(metrics.get("hitCount"), 1L);
+    }
+
+    @Test
+    public void testDisabled() throws AtlasBaseException {
+        DSLQueryPlanCache cache = createCache(false);
+
+        cache.getGremlinQuery("test_table", 10, 0);
+        cache.getGremlinQuery("test_table", 10, 0);
+
+        Map<String, Object> metrics = cache.getMetrics();
+
+        assertEquals(metrics.get("parseCount"), 2L);
+        assertEquals(metrics.get("translateCount"), 2L);
+        assertEquals(metrics.get("entries"), 0L);
+    }
+
+    private static void assertRange(GremlinQuery query, int limit, int offset) {
+        int                                     idxRange = query.getClauses().contains(GremlinClause.RANGE);
+        GremlinQueryComposer.GremlinClauseValue range    = query.getClauses().get(idxRange);
+
+        assertEquals(range.getValues()[1], Integer.toString(offset));
+        assertEquals(range.getValues()[2], Integer.toString(limit));
+        assertTrue(query.queryStr().contains(range.getClauseWithValue()), query.queryStr());
+    }
+
+    private DSLQueryPlanCache createCache(boolean isEnabled) {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+
+        configuration.setProperty(DSL_PLAN_CACHE_ENABLED, isEnabled);
+
+        return new DSLQueryPlanCache(typeRegistry, configuration);
+    }
+
+    private void addEntityDef(String typeName) throws AtlasBaseException {
+        AtlasTransientTypeRegistry ttr = typeRegistry.lockTypeRegistryForUpdate();
+
+        try {
+            ttr.addTypes(Collections.singletonList(new AtlasEntityDef(typeName)));
+        } finally {
+            typeRegistry.releaseTypeRegistryForUpdate(ttr, true);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncAuditWriterTest {
+    private static final long WAIT_TIMEOUT_MS = 15000;
+
+    private File                     journalDir;
+    private List<EntityAuditEventV2> written;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        journalDir = Files.createTempDirectory("audit-journal").toFile();
+        written    = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        FileUtils.deleteQuietly(journalDir);
+    }
+
+    @Test
+    public void testEventsAreWrittenInBatches() throws Exception {
+        List<Integer>    batchSizes = Collections.synchronizedList(new ArrayList<>());
+        AsyncAuditWriter writer     = new AsyncAuditWriter(events -> { batchSizes.add(events.size()); written.addAll(events); }, 100, 1, 10, 0, new AuditEventJournal(journalDir, 10));
+
+        writer.add(createEvents("e", 25));
+        writer.start();
+
+        waitFor(() -> written.size() == 25);
+
+        writer.stop();
+
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(writer.getMetrics().getWrittenCount(), 25);
+        assertEquals(writer.getMetrics().getDroppedCount(), 0);
+    }
+
+    @Test
+    public void testQueueOverflowIsJournaledAndReplayed() throws Exception {
+        AuditEventJournal journal = new AuditEventJournal(journalDir, 10);
+        AsyncAuditWriter  writer  = new AsyncAuditWriter(written::addAll, 5, 1, 10, 0, journal);
+
+        writer.add(createEvents("e", 12));
+
+        assertEquals(writer.getMetrics().getQueuedCount(), 5);
+        assertEquals(writer.getMetrics().getJournaledCount(), 7);
+        assertEquals(journal.getSegmentCount(), 1);
+
+        writer.start();
+
+        waitFor(() -> written.size() == 12 && journal.getSegmentCount() == 0);
+
+        writer.stop();
+
+        assertEquals(writer.getMetrics().getReplayedCount(), 7);
+    }
+
+    @Test
+    public void testFailedBatchIsJournaled() throws Exception {
+        AtomicBoolean    isAvailable = new AtomicBoolean(false);
+        AsyncAuditWriter writer      = new AsyncAuditWriter(events -> {
+                                           if (!isAvailable.get()) {
+                                               throw new AtlasBaseException("audit store unavailable");
+                                           }
+
+                                           written.addAll(events);
+                                       }, 100, 1, 10, 0, new AuditEventJournal(journalDir, 10));
+
+        writer.start();
+        writer.add(createEvents("e", 3));
+
+        waitFor(() -> writer.getMetrics().getJournaledCount() == 3);
+
+        isAvailable.set(true);
+
+        waitFor(() -> written.size() == 3);
+
+        writer.stop();
+
+        assertEquals(writer.getMetrics().getDroppedCount(), 0);
+        assertTrue(writer.getMetrics().getFailedFlushes() > 0);
+    }
+
+    @Test
+    public void testEventsAddedDuringStopAreNotLost() throws Exception {
+        int               producerCount = 4;
+        int               batchCount    = 200;
+        AuditEventJournal journal       = new AuditEventJournal(journalDir, 10);
+        AsyncAuditWriter  writer        = new AsyncAuditWriter(written::addAll, 20, 2, 5, 0, journal);
+        List<Thread>      producers     = new ArrayList<>();
+
+        writer.start();
+
+        for (int i = 0; i < producerCount; i++) {
+            String prefix   = "p" + i + "-";
+            Thread producer = new Thread(() -> {
+                for (int j = 0; j < batchCount; j++) {
+                    writer.add(createEvents(prefix + j + "-", 2));
+                }
+            });
+
+            producers.add(producer);
+
+            producer.start();
+        }
+
+        waitFor(() -> !written.isEmpty());
+
+        writer.stop();
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        journal.close();
+
+        List<EntityAuditEventV2> journaled = new ArrayList<>();
+        AuditEventJournal        reopened  = new AuditEventJournal(journalDir, 10);
+
+        for (File segment = reopened.nextSegment(); segment != null; segment = reopened.nextSegment()) {
+            journaled.addAll(reopened.read(segment));
+
+            reopened.remove(segment);
+        }
+
+        assertEquals(writer.getMetrics().getDroppedCount(), 0);
+        assertEquals(written.size() + journaled.size(), producerCount * batchCount * 2);
+    }
+
+    @Test
+    public void testJournalSurvivesRestart() throws Exception {
+        AuditEventJournal journal = new AuditEventJournal(journalDir, 2);
+
+        journal.append(createEvents("e", 3));
+        journal.close();
+
+        AuditEventJournal reopened = new AuditEventJournal(journalDir, 2);
+
+        assertEquals(reopened.getSegmentCount(), 2);
+
+        List<EntityAuditEventV2> events = new ArrayList<>();
+
+        for (File segment = reopened.nextSegment(); segment != null; segment = reopened.nextSegment()) {
+            events.addAll(reopened.read(segment));
+
+            reopened.remove(segment);
+        }
+
+        assertEquals(events, createEvents("e", 3));
+        assertEquals(reopened.getSegmentCount(), 0);
+    }
+
+    private static List<EntityAuditEventV2> createEvents(String prefix, int count) {
+        List<EntityAuditEventV2> ret = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ret.add(new EntityAuditEventV2(prefix + i, 1000L + i, "user", EntityAuditActionV2.ENTITY_UPDATE, "details" + i, null));
+        }
+
+        return ret;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < endTime, "timed out waiting for the audit writer");
+
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.commons.lang.StringUtils;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class AuditPayloadCodecTest {
+    private static final String LARGE_PAYLOAD = "Updated: {\"typeName\":\"hive_table\",\"attributes\":{\"columns\":[" + StringUtils.repeat("{\"typeName\":\"hive_column\",\"guid\":\"1234\"},", 200) + "]}}";
+
+    @Test
+    public void testCompressedRoundTrip() {
+        AuditPayloadCodec codec   = new AuditPayloadCodec(true, 1024);
+        byte[]            encoded = codec.encode(LARGE_PAYLOAD);
+
+        assertTrue(AuditPayloadCodec.isCompressed(encoded));
+        assertTrue(encoded.length < LARGE_PAYLOAD.length());
+        assertEquals(codec.decode(encoded), LARGE_PAYLOAD);
+    }
+
+    @Test
+    public void testSmallPayloadIsNotCompressed() {
+        AuditPayloadCodec codec   = new AuditPayloadCodec(true, 1024);
+        String            payload = "Deleted entity";
+        byte[]            encoded = codec.encode(payload);
+
+        assertFalse(AuditPayloadCodec.isCompressed(encoded));
+        assertEquals(codec.decode(encoded), payload);
+    }
+
+    @Test
+    public void testUncompressedPayloadIsReadable() {
+        AuditPayloadCodec codec = new AuditPayloadCodec(true, 0);
+
+        assertEquals(codec.decode(LARGE_PAYLOAD.getBytes(StandardCharsets.UTF_8)), LARGE_PAYLOAD);
+        assertEquals(new AuditPayloadCodec(false, 0).decode(codec.encode(LARGE_PAYLOAD)), LARGE_PAYLOAD);
+        assertFalse(AuditPayloadCodec.isCompressed(new AuditPayloadCodec(false, 0).encode(LARGE_PAYLOAD)));
+        assertNull(codec.decode(null));
+    }
+}
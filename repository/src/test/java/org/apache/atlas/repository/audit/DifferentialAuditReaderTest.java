@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.type.AtlasType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class DifferentialAuditReaderTest {
+    private static final String GUID = "guid-1";
+
+    private InMemoryEntityAuditRepository repository;
+    private long                          timestamp;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = new InMemoryEntityAuditRepository();
+        timestamp  = 1000;
+    }
+
+    @Test
+    public void testDeltaPrefix() {
+        assertEquals(DifferentialAuditReader.getDeltaPrefix("Updated: "), "Updated (delta): ");
+        assertEquals(DifferentialAuditReader.getDeltaPrefix("Updated by import: "), "Updated by import (delta): ");
+        assertEquals(DifferentialAuditReader.getSnapshotPrefix("Updated: "), "Updated (snapshot): ");
+
+        EntityAuditEventV2 delta    = event(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("description", "d1"));
+        EntityAuditEventV2 snapshot = event(EntityAuditActionV2.ENTITY_UPDATE, "Updated (snapshot): ", entity("description", "d1"));
+        EntityAuditEventV2 unmarked = event(EntityAuditActionV2.ENTITY_UPDATE, "Updated: ", entity("description", "d1"));
+        EntityAuditEventV2 create   = event(EntityAuditActionV2.ENTITY_CREATE, "Created: ", entity("description", "d1"));
+        EntityAuditEventV2 tagAdd   = event(EntityAuditActionV2.CLASSIFICATION_ADD, "Added classification: ", entity("description", "d1"));
+
+        assertTrue(DifferentialAuditReader.isDelta(delta));
+        assertFalse(DifferentialAuditReader.isSnapshot(delta));
+        assertTrue(DifferentialAuditReader.isSnapshot(snapshot));
+        assertFalse(DifferentialAuditReader.isDelta(snapshot));
+        assertFalse(DifferentialAuditReader.isSnapshot(unmarked));
+        assertFalse(DifferentialAuditReader.isDelta(unmarked));
+        assertTrue(DifferentialAuditReader.isSnapshot(create));
+        assertFalse(DifferentialAuditReader.isSnapshot(tagAdd));
+    }
+
+    @Test
+    public void testResolveStateFromCreate() throws Exception {
+        put(EntityAuditActionV2.ENTITY_CREATE, "Created: ", entity("name", "t1", "owner", "o1", "description", "d0"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("owner", "o2"));
+        put(EntityAuditActionV2.CLASSIFICATION_ADD, "Added classification: ", new AtlasEntity("PII"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("description", "d1"));
+
+        List<EntityAuditEventV2> events = repository.listEventsV2(GUID, null, null, (short) 2);
+
+        DifferentialAuditReader.resolveEntityStates(repository, GUID, events);
+
+        AtlasEntity latest = events.get(0).getEntity();
+
+        assertEquals(latest.getAttribute("name"), "t1");
+        assertEquals(latest.getAttribute("owner"), "o2");
+        assertEquals(latest.getAttribute("description"), "d1");
+        assertNull(events.get(1).getEntity()); // not a differential audit
+    }
+
+    @Test
+    public void testResolveStateFromKeyframe() throws Exception {
+        put(EntityAuditActionV2.ENTITY_CREATE, "Created: ", entity("name", "t1", "owner", "o1"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("owner", "o2"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (snapshot): ", entity("name", "t1", "owner", "o3"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("description", "d1"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("owner", "o4"));
+
+        List<EntityAuditEventV2> events = repository.listEventsV2(GUID, null, null, (short) 2);
+
+        DifferentialAuditReader.resolveEntityStates(repository, GUID, events);
+
+        assertEquals(events.get(0).getEntity().getAttribute("owner"), "o4");
+        assertEquals(events.get(0).getEntity().getAttribute("description"), "d1");
+        assertEquals(events.get(1).getEntity().getAttribute("owner"), "o3");
+        assertEquals(events.get(1).getEntity().getAttribute("description"), "d1");
+    }
+
+    @Test
+    public void testResolveStateOverUnmarkedUpdates() throws Exception {
+        // unmarked updates written by differential audits before snapshots were marked hold only the changed attributes
+        put(EntityAuditActionV2.ENTITY_CREATE, "Created: ", entity("name", "t1", "owner", "o1", "description", "d0"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated: ", entity("owner", "o2"));
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("description", "d1"));
+
+        List<EntityAuditEventV2> events = repository.listEventsV2(GUID, null, null, (short) 1);
+
+        DifferentialAuditReader.resolveEntityStates(repository, GUID, events);
+
+        AtlasEntity latest = events.get(0).getEntity();
+
+        assertEquals(latest.getAttribute("name"), "t1");
+        assertEquals(latest.getAttribute("owner"), "o2");
+        assertEquals(latest.getAttribute("description"), "d1");
+    }
+
+    @Test
+    public void testResolveStateWithoutSnapshot() throws Exception {
+        put(EntityAuditActionV2.ENTITY_UPDATE, "Updated (delta): ", entity("owner", "o2"));
+
+        List<EntityAuditEventV2> events = repository.listEventsV2(GUID, null, null, (short) 10);
+
+        DifferentialAuditReader.resolveEntityStates(repository, GUID, events);
+
+        assertNull(events.get(0).getEntity());
+    }
+
+    private void put(EntityAuditActionV2 action, String prefix, AtlasEntity entity) {
+        repository.putEventsV2(event(action, prefix, entity));
+    }
+
+    private EntityAuditEventV2 event(EntityAuditActionV2 action, String prefix, AtlasEntity entity) {
+        return new EntityAuditEventV2(GUID, timestamp++, "user", action, prefix + AtlasType.toJson(entity), null);
+    }
+
+    private static AtlasEntity entity(String... attrNameValues) {
+        AtlasEntity ret = new AtlasEntity("hive_table");
+
+        ret.setGuid(GUID);
+
+        for (int i = 0; i + 1 < attrNameValues.length; i += 2) {
+            ret.setAttribute(attrNameValues[i], attrNameValues[i + 1]);
+        }
+
+        return ret;
+    }
+}
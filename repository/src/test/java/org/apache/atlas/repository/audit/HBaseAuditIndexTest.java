@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class HBaseAuditIndexTest {
+    private static final String GUID      = "a7c3f5e1-0d2b-4c8e-9f61-2b7d3e4a5c60";
+    private static final byte[] EVENT_KEY = Bytes.toBytes(GUID + ":1600000000000:0:1600000000001");
+
+    @Test
+    public void testUserIndexOrder() {
+        byte[] bob1   = HBaseAuditIndex.getUserIndexKey(GUID, "bob", 1600000000000L, EVENT_KEY);
+        byte[] bob2   = HBaseAuditIndex.getUserIndexKey(GUID, "Bob", 1600000000005L, EVENT_KEY);
+        byte[] bobby  = HBaseAuditIndex.getUserIndexKey(GUID, "bobby", 1500000000000L, EVENT_KEY);
+        byte[] prefix = HBaseAuditIndex.getUserIndexPrefix(GUID);
+
+        assertTrue(Bytes.compareTo(bob1, bob2) < 0);
+        assertTrue(Bytes.compareTo(bob2, bobby) < 0);
+        assertTrue(Bytes.startsWith(bob1, prefix));
+        assertTrue(Bytes.compareTo(bobby, HBaseAuditIndex.getStopRow(prefix)) < 0);
+    }
+
+    @Test
+    public void testActionIndexOrder() {
+        byte[] create = HBaseAuditIndex.getActionIndexKey(GUID, EntityAuditActionV2.ENTITY_CREATE, 1600000000000L, EVENT_KEY);
+        byte[] early  = HBaseAuditIndex.getActionIndexKey(GUID, EntityAuditActionV2.ENTITY_UPDATE, 999L, EVENT_KEY);
+        byte[] late   = HBaseAuditIndex.getActionIndexKey(GUID, EntityAuditActionV2.ENTITY_UPDATE, 1600000000000L, EVENT_KEY);
+
+        assertTrue(Bytes.compareTo(create, early) < 0);
+        assertTrue(Bytes.compareTo(early, late) < 0); // timestamps are zero padded
+        assertTrue(Bytes.startsWith(late, HBaseAuditIndex.getActionIndexPrefix(GUID, EntityAuditActionV2.ENTITY_UPDATE)));
+        assertTrue(Bytes.startsWith(create, HBaseAuditIndex.getActionIndexPrefix(GUID, null)));
+        assertTrue(Bytes.compareTo(HBaseAuditIndex.getSummaryKey(GUID), HBaseAuditIndex.getActionIndexPrefix(GUID, null)) > 0);
+    }
+
+    @Test
+    public void testEpochKeyIsNotInEntityRange() {
+        byte[] epochKey = HBaseAuditIndex.getEpochKey();
+
+        assertTrue(Bytes.compareTo(epochKey, HBaseAuditIndex.getUserIndexPrefix("0")) < 0);
+        assertTrue(Bytes.compareTo(epochKey, HBaseAuditIndex.getSummaryKey(GUID)) < 0);
+    }
+
+    @Test
+    public void testCursor() throws AtlasBaseException {
+        byte[] row    = HBaseAuditIndex.getUserIndexKey(GUID, "admin", 1600000000000L, EVENT_KEY);
+        String cursor = HBaseAuditIndex.toCursor(row);
+
+        assertTrue(HBaseAuditIndex.isCursor(cursor));
+        assertEquals(HBaseAuditIndex.fromCursor(cursor, HBaseAuditIndex.getUserIndexPrefix(GUID)), row);
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testCursorOfOtherIndexIsRejected() throws AtlasBaseException {
+        byte[] row = HBaseAuditIndex.getUserIndexKey(GUID, "admin", 1600000000000L, EVENT_KEY);
+
+        HBaseAuditIndex.fromCursor(HBaseAuditIndex.toCursor(row), HBaseAuditIndex.getActionIndexPrefix(GUID, null));
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testMalformedCursorIsRejected() throws AtlasBaseException {
+        HBaseAuditIndex.fromCursor("10", HBaseAuditIndex.getUserIndexPrefix(GUID));
+    }
+}
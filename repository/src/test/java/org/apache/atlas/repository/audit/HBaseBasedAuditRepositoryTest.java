@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.atlas.model.audit.EntityAuditEventsPage;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.CONFIG_INDEX_ENABLED;
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.DEFAULT_INDEX_TABLE_NAME;
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.DEFAULT_TABLE_NAME;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class HBaseBasedAuditRepositoryTest {
+    private static final String GUID = "5f1e2d3c-4b5a-4968-8776-a5b4c3d2e1f0";
+    private static final long   TS   = 1600000000000L;
+
+    private Connection         connection;
+    private InMemoryHBaseTable eventTable;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        InMemoryHBaseTable indexTable = new InMemoryHBaseTable();
+        Admin              admin      = mock(Admin.class);
+
+        eventTable = new InMemoryHBaseTable();
+
+        connection = mock(Connection.class);
+
+        when(connection.getTable(TableName.valueOf(DEFAULT_TABLE_NAME))).thenReturn(eventTable.getTable());
+        when(connection.getTable(TableName.valueOf(DEFAULT_INDEX_TABLE_NAME))).thenReturn(indexTable.getTable());
+        when(connection.getAdmin()).thenReturn(admin);
+        when(admin.tableExists(any(TableName.class))).thenReturn(true);
+    }
+
+    @AfterMethod
+    public void cleanup() {
+        RequestContext.clear();
+    }
+
+    @Test
+    public void testEventsSortedByUserArePagedFromIndex() throws Exception {
+        HBaseBasedAuditRepository repository = startRepository(true);
+
+        putEvents(repository);
+
+        EntityAuditEventsPage page1 = repository.listEventsPage(GUID, null, EntityAuditEventV2.SORT_COLUMN_USER, false, null, (short) 2);
+
+        assertEquals(getUsers(page1.getEvents()), Arrays.asList("alice", "alice"));
+        assertEquals(getTimestamps(page1.getEvents()), Arrays.asList(TS + 1, TS + 3));
+        assertEquals(page1.getTotalCount(), 4);
+        assertNotNull(page1.getNextCursor());
+
+        EntityAuditEventsPage page2 = repository.listEventsPage(GUID, null, EntityAuditEventV2.SORT_COLUMN_USER, false, page1.getNextCursor(), (short) 2);
+
+        assertEquals(getUsers(page2.getEvents()), Arrays.asList("bob", "carol"));
+
+        EntityAuditEventsPage page3 = repository.listEventsPage(GUID, null, EntityAuditEventV2.SORT_COLUMN_USER, false, page2.getNextCursor(), (short) 2);
+
+        assertEquals(page3.getEvents().size(), 0);
+        assertNull(page3.getNextCursor());
+
+        EntityAuditEventsPage desc = repository.listEventsPage(GUID, null, EntityAuditEventV2.SORT_COLUMN_USER, true, null, (short) 10);
+
+        assertEquals(getUsers(desc.getEvents()), Arrays.asList("carol", "bob", "alice", "alice"));
+        assertEquals(getTimestamps(desc.getEvents()).subList(2, 4), Arrays.asList(TS + 3, TS + 1));
+    }
+
+    @Test
+    public void testEventsOfActionAreListedFromIndex() throws Exception {
+        HBaseBasedAuditRepository repository = startRepository(true);
+
+        putEvents(repository);
+
+        EntityAuditEventsPage updates = repository.listEventsPage(GUID, EntityAuditActionV2.ENTITY_UPDATE, EntityAuditEventV2.SORT_COLUMN_TIMESTAMP, true, null, (short) 10);
+
+        assertEquals(getTimestamps(updates.getEvents()), Arrays.asList(TS + 3, TS + 2, TS + 1));
+        assertEquals(updates.getTotalCount(), 3);
+        assertEquals(repository.getEventCount(GUID, EntityAuditActionV2.ENTITY_CREATE), 1);
+
+        List<EntityAuditEventV2> byAction = repository.listEventsV2(GUID, null, EntityAuditEventV2.SORT_COLUMN_ACTION, false, 1, (short) 2);
+
+        assertEquals(getTimestamps(byAction), Arrays.asList(TS + 1, TS + 2));
+    }
+
+    @Test
+    public void testIndexIsNotUsedAfterDisableEnableCycle() throws Exception {
+        HBaseBasedAuditRepository repository = startRepository(true);
+
+        putEvents(repository);
+
+        repository.stop();
+
+        // events written while the index is disabled are not indexed
+        repository = startRepository(false);
+
+        repository.putEventsV2(new EntityAuditEventV2(GUID, TS + 4, "admin", EntityAuditActionV2.ENTITY_UPDATE, "update-4", null));
+
+        repository.stop();
+
+        repository = startRepository(true);
+
+        EntityAuditEventsPage page = repository.listEventsPage(GUID, null, EntityAuditEventV2.SORT_COLUMN_USER, false, null, (short) 10);
+
+        assertEquals(getUsers(page.getEvents()), Arrays.asList("admin", "alice", "alice", "bob", "carol"));
+        assertEquals(page.getTotalCount(), -1);
+        assertEquals(repository.getEventCount(GUID, null), -1);
+
+        List<EntityAuditEventV2> updates = repository.listEventsV2(GUID, EntityAuditActionV2.ENTITY_UPDATE, EntityAuditEventV2.SORT_COLUMN_TIMESTAMP, true, 0, (short) 10);
+
+        assertEquals(getTimestamps(updates), Arrays.asList(TS + 4, TS + 3, TS + 2, TS + 1));
+
+        // entities created after the index is enabled again are listed from it
+        String guid = GUID.replace('5', '6');
+
+        repository.putEventsV2(new EntityAuditEventV2(guid, TS, "carol", EntityAuditActionV2.ENTITY_CREATE, "create", null),
+                               new EntityAuditEventV2(guid, TS + 1, "alice", EntityAuditActionV2.ENTITY_UPDATE, "update-1", null));
+
+        page = repository.listEventsPage(guid, null, EntityAuditEventV2.SORT_COLUMN_USER, false, null, (short) 10);
+
+        assertEquals(getUsers(page.getEvents()), Arrays.asList("alice", "carol"));
+        assertEquals(page.getTotalCount(), 2);
+    }
+
+    @Test
+    public void testBatchWithFailedRowsIsReportedAsFailed() throws Exception {
+        HBaseBasedAuditRepository repository = startRepositoryWithMutator(Long.toString(TS + 2));
+
+        try {
+            putEvents(repository);
+
+            fail("batch with a failed row should be reported as failed");
+        } catch (AtlasBaseException expected) {
+            // the writer thread journals the batch
+        }
+
+        assertEquals(getTimestamps(repository.listEventsV2(GUID, null, null, (short) 10)), Arrays.asList(TS + 3, TS + 1, TS));
+
+        // failed rows of earlier batches are not reported for later ones
+        repository.putEventsV2(new EntityAuditEventV2(GUID, TS + 4, "admin", EntityAuditActionV2.ENTITY_UPDATE, "update-4", null));
+
+        assertEquals(repository.listEventsV2(GUID, null, null, (short) 10).size(), 4);
+
+        repository.stop();
+    }
+
+    private HBaseBasedAuditRepository startRepository(boolean isIndexEnabled) throws Exception {
+        Configuration             conf = new PropertiesConfiguration();
+        HBaseBasedAuditRepository ret  = new HBaseBasedAuditRepository() {
+            @Override
+            protected Connection createConnection(org.apache.hadoop.conf.Configuration hbaseConf) {
+                return connection;
+            }
+
+            @Override
+            protected boolean isAsyncWriteEnabled() {
+                return false;
+            }
+        };
+
+        conf.setProperty(CONFIG_INDEX_ENABLED, isIndexEnabled);
+
+        ret.startInternal(conf, null);
+
+        return ret;
+    }
+
+    // a repository writing through a shared BufferedMutator, which fails to write the rows whose key contains failRowKeyPart
+    private HBaseBasedAuditRepository startRepositoryWithMutator(String failRowKeyPart) throws Exception {
+        BufferedMutator             mutator = mock(BufferedMutator.class);
+        List<Mutation>              buffer  = Collections.synchronizedList(new ArrayList<>());
+        List<BufferedMutatorParams> params  = new ArrayList<>();
+
+        when(connection.getBufferedMutator(any(BufferedMutatorParams.class))).thenAnswer(invocation -> {
+            params.add((BufferedMutatorParams) invocation.getArguments()[0]);
+
+            return mutator;
+        });
+
+        doAnswer(invocation -> buffer.addAll((List<Mutation>) invocation.getArguments()[0])).when(mutator).mutate(any(List.class));
+
+        doAnswer(invocation -> {
+            List<Row>       failed = new ArrayList<>();
+            List<Throwable> errors = new ArrayList<>();
+            List<String>    hosts  = new ArrayList<>();
+
+            synchronized (buffer) {
+                for (Mutation mutation : buffer) {
+                    if (Bytes.toString(mutation.getRow()).contains(failRowKeyPart)) {
+                        failed.add(mutation);
+                        errors.add(new Exception("write failed"));
+                        hosts.add("localhost");
+                    } else {
+                        eventTable.getTable().put((Put) mutation);
+                    }
+                }
+
+                buffer.clear();
+            }
+
+            if (!failed.isEmpty()) {
+                params.get(0).getListener().onException(new RetriesExhaustedWithDetailsException(errors, failed, hosts), mutator);
+            }
+
+            return null;
+        }).when(mutator).flush();
+
+        HBaseBasedAuditRepository ret = new HBaseBasedAuditRepository() {
+            @Override
+            protected Connection createConnection(org.apache.hadoop.conf.Configuration hbaseConf) {
+                return connection;
+            }
+
+            @Override
+            protected boolean isAsyncWriteEnabled() {
+                return true;
+            }
+
+            @Override
+            protected void startAuditWriter() {
+                // events are written in the calling thread, through the mutator
+            }
+        };
+
+        ret.startInternal(new PropertiesConfiguration(), null);
+
+        return ret;
+    }
+
+    private static void putEvents(HBaseBasedAuditRepository repository) throws Exception {
+        repository.putEventsV2(new EntityAuditEventV2(GUID, TS, "carol", EntityAuditActionV2.ENTITY_CREATE, "create", null),
+                               new EntityAuditEventV2(GUID, TS + 1, "alice", EntityAuditActionV2.ENTITY_UPDATE, "update-1", null),
+                               new EntityAuditEventV2(GUID, TS + 2, "bob", EntityAuditActionV2.ENTITY_UPDATE, "update-2", null),
+                               new EntityAuditEventV2(GUID, TS + 3, "Alice", EntityAuditActionV2.ENTITY_UPDATE, "update-3", null));
+    }
+
+    private static List<String> getUsers(List<EntityAuditEventV2> events) {
+        List<String> ret = new ArrayList<>(events.size());
+
+        for (EntityAuditEventV2 event : events) {
+            ret.add(event.getUser().toLowerCase());
+        }
+
+        return ret;
+    }
+
+    private static List<Long> getTimestamps(List<EntityAuditEventV2> events) {
+        List<Long> ret = new ArrayList<>(events.size());
+
+        for (EntityAuditEventV2 event : events) {
+            ret.add(event.getTimestamp());
+        }
+
+        return ret;
+    }
+}
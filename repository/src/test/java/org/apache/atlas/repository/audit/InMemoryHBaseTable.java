@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.COLUMN_FAMILY;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mock of an HBase Table with a single column family, backed by a sorted map. Supports the calls made by
+ * HBaseBasedAuditRepository: puts, increments and gets, batches of these, and scans with start/stop rows, reversed
+ * order, limit, columns and filters.
+ */
+class InMemoryHBaseTable {
+    private final NavigableMap<byte[], NavigableMap<byte[], byte[]>> rows  = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    private final Table                                              table = mock(Table.class);
+
+    InMemoryHBaseTable() throws Exception {
+        doAnswer(invocation -> { put((Put) invocation.getArguments()[0]); return null; }).when(table).put(any(Put.class));
+        doAnswer(invocation -> { put((List<Put>) invocation.getArguments()[0]); return null; }).when(table).put(any(List.class));
+        doAnswer(invocation -> { batch((List<Row>) invocation.getArguments()[0]); return null; }).when(table).batch(any(List.class), any(Object[].class));
+
+        when(table.get(any(Get.class))).thenAnswer(invocation -> get((Get) invocation.getArguments()[0]));
+        when(table.get(any(List.class))).thenAnswer(invocation -> get((List<Get>) invocation.getArguments()[0]));
+        when(table.getScanner(any(Scan.class))).thenAnswer(invocation -> getScanner((Scan) invocation.getArguments()[0]));
+        when(table.incrementColumnValue(any(byte[].class), any(byte[].class), any(byte[].class), anyLong())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+
+            return increment((byte[]) args[0], (byte[]) args[2], (Long) args[3]);
+        });
+    }
+
+    Table getTable() {
+        return table;
+    }
+
+    private synchronized void put(Put put) {
+        NavigableMap<byte[], byte[]> row = rows.computeIfAbsent(put.getRow(), k -> new TreeMap<>(Bytes.BYTES_COMPARATOR));
+
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                row.put(CellUtil.cloneQualifier(cell), CellUtil.cloneValue(cell));
+            }
+        }
+    }
+
+    private void put(List<Put> puts) {
+        for (Put put : puts) {
+            put(put);
+        }
+    }
+
+    private void batch(List<Row> actions) {
+        for (Row action : actions) {
+            if (action instanceof Put) {
+                put((Put) action);
+            } else if (action instanceof Increment) {
+                for (List<Cell> cells : ((Increment) action).getFamilyCellMap().values()) {
+                    for (Cell cell : cells) {
+                        increment(action.getRow(), CellUtil.cloneQualifier(cell), Bytes.toLong(CellUtil.cloneValue(cell)));
+                    }
+                }
+            } else {
+                throw new UnsupportedOperationException(action.getClass().getName());
+            }
+        }
+    }
+
+    private synchronized long increment(byte[] rowKey, byte[] qualifier, long amount) {
+        NavigableMap<byte[], byte[]> row   = rows.computeIfAbsent(rowKey, k -> new TreeMap<>(Bytes.BYTES_COMPARATOR));
+        byte[]                       value = row.get(qualifier);
+        long                         ret   = (value != null ? Bytes.toLong(value) : 0) + amount;
+
+        row.put(qualifier, Bytes.toBytes(ret));
+
+        return ret;
+    }
+
+    private synchronized Result get(Get get) {
+        NavigableMap<byte[], byte[]> row = rows.get(get.getRow());
+
+        return row != null ? toResult(get.getRow(), row, get.getFamilyMap().get(COLUMN_FAMILY)) : Result.create(new ArrayList<>());
+    }
+
+    private Result[] get(List<Get> gets) {
+        Result[] ret = new Result[gets.size()];
+
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = get(gets.get(i));
+        }
+
+        return ret;
+    }
+
+    private synchronized ResultScanner getScanner(Scan scan) throws IOException {
+        NavigableMap<byte[], NavigableMap<byte[], byte[]>> range   = rows;
+        byte[]                                             start   = scan.getStartRow();
+        byte[]                                             stop    = scan.getStopRow();
+        NavigableSet<byte[]>                               columns = scan.getFamilyMap().get(COLUMN_FAMILY);
+        Filter                                             filter  = scan.getFilter();
+        List<Result>                                       results = new ArrayList<>();
+
+        if (scan.isReversed()) {
+            range = start.length > 0 ? range.headMap(start, scan.includeStartRow()) : range;
+            range = stop.length > 0 ? range.tailMap(stop, scan.includeStopRow()) : range;
+            range = range.descendingMap();
+        } else {
+            range = start.length > 0 ? range.tailMap(start, scan.includeStartRow()) : range;
+            range = stop.length > 0 ? range.headMap(stop, scan.includeStopRow()) : range;
+        }
+
+        if (filter != null) {
+            filter.setReversed(scan.isReversed());
+        }
+
+        for (Map.Entry<byte[], NavigableMap<byte[], byte[]>> entry : range.entrySet()) {
+            if (scan.getLimit() > 0 && results.size() >= scan.getLimit()) {
+                break;
+            }
+
+            Result result = toResult(entry.getKey(), entry.getValue(), columns);
+
+            if (filter != null) {
+                if (filter.filterAllRemaining()) {
+                    break;
+                }
+
+                result = filter(filter, result);
+            }
+
+            if (!result.isEmpty()) {
+                results.add(result);
+            }
+        }
+
+        Iterator<Result> iter    = results.iterator();
+        ResultScanner    scanner = mock(ResultScanner.class);
+
+        when(scanner.next()).thenAnswer(invocation -> iter.hasNext() ? iter.next() : null);
+
+        return scanner;
+    }
+
+    // evaluates the filter as a region server would, for a row read in full
+    private static Result filter(Filter filter, Result result) throws IOException {
+        List<Cell> cells = new ArrayList<>();
+
+        filter.reset();
+
+        if (result.isEmpty() || filter.filterRowKey(result.rawCells()[0])) {
+            return Result.create(cells);
+        }
+
+        for (Cell cell : result.rawCells()) {
+            Filter.ReturnCode code = filter.filterCell(cell);
+
+            if (code == Filter.ReturnCode.INCLUDE || code == Filter.ReturnCode.INCLUDE_AND_NEXT_COL || code == Filter.ReturnCode.INCLUDE_AND_SEEK_NEXT_ROW) {
+                cells.add(cell);
+            } else if (code == Filter.ReturnCode.NEXT_ROW || code == Filter.ReturnCode.SEEK_NEXT_USING_HINT) {
+                break;
+            }
+        }
+
+        if (filter.hasFilterRow()) {
+            filter.filterRowCells(cells);
+
+            if (filter.filterRow()) {
+                cells.clear();
+            }
+        }
+
+        return Result.create(cells);
+    }
+
+    private static Result toResult(byte[] rowKey, NavigableMap<byte[], byte[]> row, NavigableSet<byte[]> columns) {
+        List<Cell> cells = new ArrayList<>(row.size());
+
+        for (Map.Entry<byte[], byte[]> column : row.entrySet()) {
+            if (columns == null || columns.isEmpty() || columns.contains(column.getKey())) {
+                cells.add(new KeyValue(rowKey, COLUMN_FAMILY, column.getKey(), column.getValue()));
+            }
+        }
+
+        return Result.create(cells);
+    }
+}
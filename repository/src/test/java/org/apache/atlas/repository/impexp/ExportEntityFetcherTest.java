@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.repository.util.UniqueList;
+import org.apache.atlas.type.AtlasType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class ExportEntityFetcherTest {
+    private static final List<String> GUIDS = Arrays.asList("g1", "g2", "g3", "g4", "g5", "g6");
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void parallel_FetchesAheadAndSerializes() throws AtlasBaseException {
+        EntityGraphRetriever retriever = getRetriever();
+        AtlasGraph           graph     = mock(AtlasGraph.class);
+        ExportEntityFetcher  fetcher   = new ExportEntityFetcher(graph, retriever, executor, 4);
+        Set<String>          processed = new HashSet<>(Collections.singleton("g2"));
+
+        fetcher.prefetch(GUIDS, processed);
+
+        for (String guid : Arrays.asList("g1", "g3", "g4", "g5")) {
+            ExportEntityFetcher.Fetched fetched = fetcher.get(guid);
+
+            assertEquals(fetched.entityWithExtInfo.getEntity().getGuid(), guid);
+            assertEquals(fetched.json, AtlasType.toJson(fetched.entityWithExtInfo));
+        }
+
+        verify(retriever, never()).toAtlasEntityWithExtInfo("g2");
+        verify(retriever, never()).toAtlasEntityWithExtInfo("g6");
+        verify(graph, times(4)).rollback();
+
+        // not prefetched: retrieved in the calling thread
+        assertNull(fetcher.get("g6").json);
+
+        fetcher.close();
+    }
+
+    @Test
+    public void parallel_DiscardDropsPrefetchedEntity() throws AtlasBaseException {
+        EntityGraphRetriever retriever = getRetriever();
+        ExportEntityFetcher  fetcher   = new ExportEntityFetcher(mock(AtlasGraph.class), retriever, executor, 2);
+        UniqueList<String>   queue     = new UniqueList<>();
+
+        queue.addAll(GUIDS);
+        fetcher.prefetch(queue, new HashSet<>());
+        fetcher.discard("g1");
+
+        assertEquals(fetcher.get("g2").entityWithExtInfo.getEntity().getGuid(), "g2");
+        verify(retriever, atMost(1)).toAtlasEntityWithExtInfo("g1");
+
+        fetcher.close();
+    }
+
+    @Test
+    public void parallel_PrefetchContinuesFromQueueCursor() throws AtlasBaseException {
+        EntityGraphRetriever retriever = getRetriever();
+        ExportEntityFetcher  fetcher   = new ExportEntityFetcher(mock(AtlasGraph.class), retriever, executor, 2);
+        UniqueList<String>   queue     = new UniqueList<>();
+        Set<String>          processed = new HashSet<>();
+
+        queue.addAll(GUIDS);
+
+        while (!queue.isEmpty()) {
+            fetcher.prefetch(queue, processed);
+
+            String                      guid    = queue.remove(0);
+            ExportEntityFetcher.Fetched fetched = fetcher.get(guid);
+
+            assertEquals(fetched.json, AtlasType.toJson(fetched.entityWithExtInfo));
+
+            processed.add(guid);
+        }
+
+        for (String guid : GUIDS) {
+            verify(retriever, times(1)).toAtlasEntityWithExtInfo(guid);
+        }
+
+        fetcher.close();
+    }
+
+    @Test
+    public void serial_FetchesOnGet() throws AtlasBaseException {
+        EntityGraphRetriever retriever = getRetriever();
+        ExportEntityFetcher  fetcher   = new ExportEntityFetcher(mock(AtlasGraph.class), retriever, null, 4);
+
+        fetcher.prefetch(GUIDS, new HashSet<>());
+        verify(retriever, never()).toAtlasEntityWithExtInfo(anyString());
+
+        ExportEntityFetcher.Fetched fetched = fetcher.get("g3");
+
+        assertEquals(fetched.entityWithExtInfo.getEntity().getGuid(), "g3");
+        assertNull(fetched.json);
+        verify(retriever, times(1)).toAtlasEntityWithExtInfo("g3");
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void parallel_PropagatesRetrievalFailure() throws AtlasBaseException {
+        EntityGraphRetriever retriever = mock(EntityGraphRetriever.class);
+        ExportEntityFetcher  fetcher   = new ExportEntityFetcher(mock(AtlasGraph.class), retriever, executor, 4);
+
+        when(retriever.toAtlasEntityWithExtInfo("g1")).thenThrow(new AtlasBaseException("not found"));
+
+        fetcher.prefetch(Collections.singletonList("g1"), new HashSet<>());
+        fetcher.get("g1");
+    }
+
+    @Test
+    public void parallel_SerializesFilteredEntitiesAndTraverses() throws AtlasBaseException {
+        EntityGraphRetriever      retriever = getRetriever();
+        ExportEntityFetcher       fetcher   = new ExportEntityFetcher(mock(AtlasGraph.class), retriever, executor, 4);
+        List<Map<String, Object>> rows      = Collections.singletonList(Collections.singletonMap(EntitiesExtractor.PROPERTY_GUID, "g9"));
+
+        fetcher.setSerializeFilter(entity -> !entity.getGuid().equals("g2"));
+        fetcher.setTraversal(guid -> rows);
+        fetcher.prefetch(Arrays.asList("g1", "g2"), new HashSet<>());
+
+        ExportEntityFetcher.Fetched fetched1 = fetcher.get("g1");
+        ExportEntityFetcher.Fetched fetched2 = fetcher.get("g2");
+
+        assertEquals(fetched1.json, AtlasType.toJson(fetched1.entityWithExtInfo));
+        assertNull(fetched2.json);
+        assertEquals(fetched1.getTraversal("g1"), rows);
+        assertNull(fetched1.getTraversal("g2"));
+
+        fetcher.close();
+    }
+
+    private EntityGraphRetriever getRetriever() throws AtlasBaseException {
+        EntityGraphRetriever ret = mock(EntityGraphRetriever.class);
+
+        for (String guid : GUIDS) {
+            AtlasEntity entity = new AtlasEntity("hive_table");
+
+            entity.setGuid(guid);
+
+            when(ret.toAtlasEntityWithExtInfo(guid)).thenReturn(new AtlasEntityWithExtInfo(entity));
+        }
+
+        return ret;
+    }
+}
@@ -22,6 +22,8 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class UniqueListTest {
     private final String firstElement = "firstElement";
@@ -67,4 +69,50 @@ public class UniqueListTest {
         assertEquals(2, uniqueList2.size());
         assertEquals(firstElement, removedElement);
     }
+
+    @Test
+    public void removeFromFront_PreservesOrderAndUniqueness() {
+        UniqueList<String> queue = new UniqueList<>();
+        int                count = 5000;
+
+        for (int i = 0; i < count; i++) {
+            queue.add("guid-" + i);
+        }
+
+        for (int i = 0; i < count - 1; i++) {
+            assertEquals(queue.get(0), "guid-" + i);
+            assertEquals(queue.remove(0), "guid-" + i);
+            assertFalse(queue.contains("guid-" + i));
+
+            queue.add("guid-" + (i + 1)); // still in the list, so not added again
+        }
+
+        assertEquals(queue.size(), 1);
+        assertEquals(queue.getList().size(), 1);
+        assertEquals(queue.get(0), "guid-" + (count - 1));
+
+        queue.add("guid-0");
+        assertTrue(queue.contains("guid-0"));
+        assertEquals(queue.remove(1), "guid-0");
+        assertEquals(queue.remove(0), "guid-" + (count - 1));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void removeFromEmpty_Throws() {
+        new UniqueList<String>().remove(0);
+    }
+
+    @Test
+    public void removeAndClear_CountRemovedElements() {
+        UniqueList<String> uniqueList2 = new UniqueList<>();
+        uniqueList2.addAll(uniqueList);
+        uniqueList2.remove(0);
+
+        assertEquals(1, uniqueList2.getRemovedCount());
+
+        uniqueList2.clear();
+
+        assertEquals(3, uniqueList2.getRemovedCount());
+    }
 }
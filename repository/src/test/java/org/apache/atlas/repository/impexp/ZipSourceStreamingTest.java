@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ZipSourceStreamingTest {
+    @DataProvider(name = "zipFileStocks")
+    public static Object[][] getDataFromZipFile() throws IOException, AtlasBaseException {
+        return new Object[][] {{ new ZipSourceStreaming(ZipFileResourceTestUtils.getFileInputStream("stocks.zip")) }};
+    }
+
+    @DataProvider(name = "sales")
+    public static Object[][] getDataFromQuickStart_v1_Sales() throws IOException, AtlasBaseException {
+        return new Object[][] {{ new ZipSourceStreaming(ZipFileResourceTestUtils.getFileInputStream("sales-v1-full.zip")) }};
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void improperInit_Throws() throws IOException, AtlasBaseException {
+        new ZipSourceStreaming(new ByteArrayInputStream(new byte[10]));
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void emptyZip_Throws() throws IOException, AtlasBaseException {
+        new ZipSourceStreaming(ZipFileResourceTestUtils.getFileInputStream("empty.zip"));
+    }
+
+    @Test(dataProvider = "zipFileStocks")
+    public void examineContents_BehavesAsExpected(ZipSourceStreaming zipSource) throws AtlasBaseException {
+        List<String> creationOrder = zipSource.getCreationOrder();
+
+        assertNotNull(creationOrder);
+        assertEquals(creationOrder.size(), 4);
+        assertEquals(zipSource.size(), 4);
+
+        AtlasTypesDef typesDef = zipSource.getTypesDef();
+        assertNotNull(typesDef);
+        assertEquals(typesDef.getEntityDefs().size(), 6);
+        assertNotNull(zipSource.getExportResult());
+
+        for (String guid : creationOrder) {
+            assertNotNull(zipSource.getEntityWithExtInfo(guid));
+            assertEquals(zipSource.getByGuid(guid).getGuid(), guid);
+        }
+
+        assertNull(zipSource.getByGuid("non-existent-guid"));
+
+        zipSource.close();
+    }
+
+    @Test(dataProvider = "zipFileStocks")
+    public void iteratorBehavior_FollowsCreationOrder(ZipSourceStreaming zipSource) {
+        assertTrue(zipSource.hasNext());
+
+        List<String> creationOrder = zipSource.getCreationOrder();
+        for (int i = 0; i < creationOrder.size(); i++) {
+            AtlasEntity e = zipSource.next();
+
+            assertNotNull(e);
+            assertEquals(e.getGuid(), creationOrder.get(i));
+            assertEquals(zipSource.getPosition(), i + 1);
+        }
+
+        assertFalse(zipSource.hasNext());
+        assertNull(zipSource.getNextEntityWithExtInfo());
+
+        zipSource.reset();
+        assertTrue(zipSource.hasNext());
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(0));
+
+        zipSource.close();
+    }
+
+    @Test(dataProvider = "sales")
+    public void iteratorSetPositionBehavior(ZipSourceStreaming zipSource) {
+        List<String> creationOrder = zipSource.getCreationOrder();
+        int moveToPosition_2 = 2;
+
+        zipSource.setPosition(moveToPosition_2);
+        assertEquals(zipSource.getPosition(), moveToPosition_2);
+
+        assertTrue(zipSource.hasNext());
+        for (int i = 1; i < 4; i++) {
+            AtlasEntity e = zipSource.next();
+
+            assertEquals(e.getGuid(), creationOrder.get(moveToPosition_2 + i));
+            assertEquals(zipSource.getPosition(), moveToPosition_2 + i);
+        }
+
+        assertTrue(zipSource.hasNext());
+
+        zipSource.close();
+    }
+
+    @Test(dataProvider = "sales")
+    public void setPositionUsingEntityGuid_MovesForwardOrServesOutOfOrder(ZipSourceStreaming zipSource) {
+        List<String> creationOrder = zipSource.getCreationOrder();
+
+        zipSource.setPositionUsingEntityGuid(creationOrder.get(5));
+        assertEquals(zipSource.getPosition(), 5);
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(5));
+
+        zipSource.setPositionUsingEntityGuid(creationOrder.get(1));
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(1));
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(6));
+
+        zipSource.setPositionUsingEntityGuid("non-existent-guid");
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(7));
+
+        while (zipSource.hasNext()) {
+            zipSource.next();
+        }
+
+        zipSource.setPositionUsingEntityGuid(creationOrder.get(0));
+        assertTrue(zipSource.hasNext());
+        assertEquals(zipSource.next().getGuid(), creationOrder.get(0));
+        assertFalse(zipSource.hasNext());
+
+        zipSource.setPositionUsingEntityGuid("non-existent-guid");
+        assertFalse(zipSource.hasNext());
+
+        zipSource.close();
+    }
+
+    @Test(dataProvider = "zipFileStocks")
+    public void applyTransformation(ZipSourceStreaming zipSource) {
+        zipSource.setImportTransform(ImportTransforms.fromJson("{ \"hive_db\": { \"qualifiedName\": [ \"replace:@cl1:@cl2\" ] } }"));
+
+        boolean found = false;
+        while (zipSource.hasNext()) {
+            AtlasEntity e = zipSource.next();
+
+            if (e.getTypeName().equals("hive_db")) {
+                assertTrue(((String) e.getAttribute("qualifiedName")).contains("@cl2"));
+                found = true;
+            }
+        }
+
+        assertTrue(found);
+
+        zipSource.close();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.TestUtilsV2.NAME;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class AtlasGraphUtilsV2Test extends AtlasEntityTestBase {
+    @BeforeClass
+    public void setUp() throws Exception {
+        super.setUp();
+
+        createTypesDef(new AtlasTypesDef[] { TestUtilsV2.defineHiveTypes() });
+    }
+
+    @Test
+    public void testFindByGuids() throws Exception {
+        init();
+
+        AtlasEntityWithExtInfo db1   = TestUtilsV2.createDBEntityV2();
+        AtlasEntityWithExtInfo db2   = TestUtilsV2.createDBEntityV2();
+        String                 guid1 = entityStore.createOrUpdate(new AtlasEntityStream(db1), false).getCreatedEntities().get(0).getGuid();
+        String                 guid2 = entityStore.createOrUpdate(new AtlasEntityStream(db2), false).getCreatedEntities().get(0).getGuid();
+
+        startRequest();
+
+        Map<String, AtlasVertex> vertices = AtlasGraphUtilsV2.findByGuids(graph, Arrays.asList(guid1, "unknown-guid", guid2, guid1));
+
+        assertEquals(vertices.size(), 2);
+        assertEquals(AtlasGraphUtilsV2.getIdFromVertex(vertices.get(guid1)), guid1);
+        assertEquals(AtlasGraphUtilsV2.getIdFromVertex(vertices.get(guid2)), guid2);
+    }
+
+    @Test
+    public void testFindByUniqueAttributesBatch() throws Exception {
+        init();
+
+        AtlasEntityWithExtInfo db1        = TestUtilsV2.createDBEntityV2();
+        AtlasEntityWithExtInfo db2        = TestUtilsV2.createDBEntityV2();
+        String                 guid1      = entityStore.createOrUpdate(new AtlasEntityStream(db1), false).getCreatedEntities().get(0).getGuid();
+        String                 guid2      = entityStore.createOrUpdate(new AtlasEntityStream(db2), false).getCreatedEntities().get(0).getGuid();
+        AtlasEntityType        entityType = typeRegistry.getEntityTypeByName(TestUtilsV2.DATABASE_TYPE);
+
+        startRequest();
+
+        List<AtlasVertex> vertices = AtlasGraphUtilsV2.findByUniqueAttributes(graph, entityType, Arrays.asList(
+                Collections.singletonMap(NAME, db1.getEntity().getAttribute(NAME)),
+                Collections.singletonMap(NAME, "unknown-db"),
+                Collections.singletonMap(NAME, db2.getEntity().getAttribute(NAME))));
+
+        assertEquals(vertices.size(), 3);
+        assertEquals(AtlasGraphUtilsV2.getIdFromVertex(vertices.get(0)), guid1);
+        assertNull(vertices.get(1));
+        assertEquals(AtlasGraphUtilsV2.getIdFromVertex(vertices.get(2)), guid2);
+    }
+
+    private void startRequest() {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        GraphTransactionInterceptor.clearCache();
+        EntityGuidCache.clear();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class EntityGuidCacheTest extends AtlasEntityTestBase {
+    @BeforeClass
+    public void setUp() throws Exception {
+        super.setUp();
+
+        createTypesDef(new AtlasTypesDef[] { TestUtilsV2.defineHiveTypes() });
+    }
+
+    @Test
+    public void testLookupsAcrossRequests() throws Exception {
+        init();
+
+        AtlasEntityWithExtInfo dbEntity   = TestUtilsV2.createDBEntityV2();
+        EntityMutationResponse response   = entityStore.createOrUpdate(new AtlasEntityStream(dbEntity), false);
+        String                 guid       = response.getCreatedEntities().get(0).getGuid();
+        AtlasEntityType        entityType = typeRegistry.getEntityTypeByName(TestUtilsV2.DATABASE_TYPE);
+        AtlasAttribute         attribute  = entityType.getUniqAttributes().values().iterator().next();
+        Map<String, Object>    uniqAttrs  = Collections.singletonMap(attribute.getName(), dbEntity.getEntity().getAttribute(attribute.getName()));
+
+        startRequest();
+
+        AtlasVertex vertex = AtlasGraphUtilsV2.findByUniqueAttributes(graph, entityType, uniqAttrs);
+
+        assertNotNull(vertex);
+
+        // a new request resolves both lookups from the process-wide cache
+        startRequest();
+
+        assertEquals(EntityGuidCache.getVertex(graph, guid).getIdForDisplay(), vertex.getIdForDisplay());
+        assertEquals(EntityGuidCache.getVertexByUniqueAttribute(graph, entityType, attribute, uniqAttrs.get(attribute.getName())).getIdForDisplay(), vertex.getIdForDisplay());
+
+        entityStore.deleteById(guid);
+
+        // cached unique-attribute entry of a deleted entity must not be returned
+        startRequest();
+
+        assertNull(EntityGuidCache.getVertexByUniqueAttribute(graph, entityType, attribute, uniqAttrs.get(attribute.getName())));
+        assertNull(AtlasGraphUtilsV2.findByUniqueAttributes(graph, entityType, uniqAttrs));
+        assertNotNull(AtlasGraphUtilsV2.findByGuid(graph, guid));
+    }
+
+    @Test
+    public void testStaleEntryIsIgnored() {
+        AtlasVertex vertex = graph.addVertex();
+
+        EntityGuidCache.putVertex("guid-of-another-vertex", vertex);
+
+        assertNull(EntityGuidCache.getVertex(graph, "guid-of-another-vertex"));
+
+        graph.rollback();
+    }
+
+    private void startRequest() {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        GraphTransactionInterceptor.clearCache();
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.services.EntityCountMetricsStore.EntityCounts;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.EntityMutations.EntityOperation.CREATE;
+import static org.apache.atlas.model.instance.EntityMutations.EntityOperation.UPDATE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EntityCountMetricsStoreTest {
+    @Test
+    public void testCountsSerialization() {
+        EntityCounts counts = new EntityCounts();
+
+        counts.add(counts.active, "hive_table", 10);
+        counts.add(counts.active, "PII", 2);
+        counts.add(counts.deleted, "hive_table", 3);
+        counts.add(counts.shell, "hive_db", 1);
+
+        String       json     = AtlasType.toJson(counts.toMap());
+        EntityCounts restored = EntityCounts.fromMap(AtlasType.fromJson(json, Map.class));
+
+        assertEquals(restored.get(restored.active, "hive_table"), 10);
+        assertEquals(restored.get(restored.active, "PII"), 2);
+        assertEquals(restored.get(restored.deleted, "hive_table"), 3);
+        assertEquals(restored.get(restored.shell, "hive_db"), 1);
+        assertEquals(restored.get(restored.active, "hive_db"), 0);
+    }
+
+    @Test
+    public void testCountsAddAll() {
+        EntityCounts counts = new EntityCounts();
+        EntityCounts deltas = new EntityCounts();
+
+        assertTrue(deltas.isEmpty());
+
+        counts.add(counts.active, "hive_table", 5);
+
+        deltas.add(deltas.active, "hive_table", -1);
+        deltas.add(deltas.deleted, "hive_table", 1);
+        deltas.add(deltas.active, "hive_column", -1);
+
+        assertFalse(deltas.isEmpty());
+
+        counts.addAll(deltas);
+
+        assertEquals(counts.get(counts.active, "hive_table"), 4);
+        assertEquals(counts.get(counts.deleted, "hive_table"), 1);
+        assertEquals(counts.get(counts.active, "hive_column"), 0); // drift below 0 is not reported
+    }
+
+    @Test
+    public void testLoadReplacesCounts() throws Exception {
+        AtlasGraph   graph  = mock(AtlasGraph.class);
+        EntityCounts stored = new EntityCounts();
+
+        stored.add(stored.active, "hive_table", 10);
+
+        mockMetricsVertex(graph, AtlasType.toJson(stored.toMap()));
+
+        EntityCountMetricsStore store = new EntityCountMetricsStore(graph, mock(AtlasTypeRegistry.class), getConfiguration());
+
+        assertTrue(store.load());
+        assertTrue(store.isReady());
+        assertEquals(store.getCount("hive_table", ACTIVE), 10);
+
+        // as on a switch to active instance after being passive
+        assertTrue(store.load());
+        assertEquals(store.getCount("hive_table", ACTIVE), 10);
+    }
+
+    @Test
+    public void testReconcileRetainsChangesDuringReconcile() throws Exception {
+        AtlasGraph              graph        = mock(AtlasGraph.class);
+        AtlasTypeRegistry       typeRegistry = mock(AtlasTypeRegistry.class);
+        EntityCountMetricsStore store        = new EntityCountMetricsStore(graph, typeRegistry, getConfiguration());
+
+        when(typeRegistry.getAllEntityDefs()).thenReturn(Arrays.asList(new AtlasEntityDef("hive_table"), new AtlasEntityDef("hive_column")));
+        when(typeRegistry.getAllClassificationDefs()).thenReturn(Collections.emptyList());
+        when(graph.indexQuery(anyString(), anyString())).thenAnswer(invocation -> {
+            String query = (String) invocation.getArguments()[1];
+            long   total = 0;
+
+            if (query.contains("(hive_table)") && query.contains("(ACTIVE)")) {
+                // a hive_table and a hive_column created while the index is queried for hive_table
+                EntityCounts deltas = new EntityCounts();
+
+                deltas.add(deltas.active, "hive_table", 1);
+                deltas.add(deltas.active, "hive_column", 1);
+
+                store.applyDeltas(deltas);
+
+                total = 10;
+            } else if (query.contains("(hive_column)") && query.contains("(ACTIVE)")) {
+                total = 21; // includes the hive_column created above
+            }
+
+            final long vertexTotals = total;
+
+            return mock(AtlasIndexQuery.class, queryInvocation -> vertexTotals);
+        });
+
+        store.reconcile();
+
+        assertTrue(store.isReady());
+        assertEquals(store.getCount("hive_table", ACTIVE), 11);
+        assertEquals(store.getCount("hive_column", ACTIVE), 21);
+    }
+
+    @Test
+    public void testShellEntityCompletion() throws Throwable {
+        EntityCountMetricsStore store = new EntityCountMetricsStore(mock(AtlasGraph.class), mock(AtlasTypeRegistry.class), getConfiguration());
+
+        RequestContext.clear();
+
+        // hive_table created with a reference to a hive_db not in the repository
+        inTransaction(() -> {
+            RequestContext.get().recordShellEntityCreate("db-guid", "hive_db");
+
+            store.onEntitiesMutated(getResponse(CREATE, "table-guid", "hive_table"));
+        });
+
+        assertEquals(store.getCount("hive_table", ACTIVE), 1);
+        assertEquals(store.getCount("hive_db", ACTIVE), 1);
+        assertEquals(store.getShellCount("hive_db"), 1);
+
+        // hive_db created later, with all its attributes
+        inTransaction(() -> {
+            RequestContext.get().recordShellEntityComplete("db-guid");
+
+            store.onEntitiesMutated(getResponse(UPDATE, "db-guid", "hive_db"));
+        });
+
+        assertEquals(store.getCount("hive_db", ACTIVE), 1);
+        assertEquals(store.getShellCount("hive_db"), 0);
+
+        // hive_db updated again
+        inTransaction(() -> store.onEntitiesMutated(getResponse(UPDATE, "db-guid", "hive_db")));
+
+        assertEquals(store.getCount("hive_db", ACTIVE), 1);
+        assertEquals(store.getShellCount("hive_db"), 0);
+
+        RequestContext.clear();
+    }
+
+    @GraphTransaction
+    private static void transaction() {
+    }
+
+    private static void inTransaction(Runnable action) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+
+        when(invocation.getMethod()).thenReturn(EntityCountMetricsStoreTest.class.getDeclaredMethod("transaction"));
+        when(invocation.proceed()).thenAnswer(i -> {
+            action.run();
+
+            return null;
+        });
+
+        new GraphTransactionInterceptor(mock(AtlasGraph.class)).invoke(invocation);
+    }
+
+    private static EntityMutationResponse getResponse(EntityOperation op, String guid, String typeName) {
+        EntityMutationResponse ret    = new EntityMutationResponse();
+        AtlasEntityHeader      header = new AtlasEntityHeader(typeName);
+
+        header.setGuid(guid);
+
+        ret.addEntity(op, header);
+
+        return ret;
+    }
+
+    private static Configuration getConfiguration() {
+        Configuration ret = new PropertiesConfiguration();
+
+        ret.setProperty(EntityCountMetricsStore.METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED, true);
+
+        return ret;
+    }
+
+    private static void mockMetricsVertex(AtlasGraph graph, String value) {
+        AtlasGraphQuery query  = mock(AtlasGraphQuery.class);
+        AtlasVertex     vertex = mock(AtlasVertex.class);
+
+        when(graph.query()).thenReturn(query);
+        when(query.has(anyString(), any())).thenReturn(query);
+        when(query.vertices()).thenReturn(Collections.singletonList(vertex));
+        when(vertex.getProperty(anyString(), eq(String.class))).thenReturn(value);
+    }
+}
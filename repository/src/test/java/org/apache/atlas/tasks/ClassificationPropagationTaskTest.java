@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.AtlasTestBase;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.impexp.ImportService;
+import org.apache.atlas.repository.impexp.ZipFileResourceTestUtils;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.collections.CollectionUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.atlas.repository.impexp.ZipFileResourceTestUtils.runImportWithNoParameters;
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.CLASSIFICATION_PROPAGATION_ADD;
+import static org.apache.atlas.tasks.ClassificationPropagationTaskFactory.CLASSIFICATION_PROPAGATION_DELETE;
+import static org.apache.atlas.utils.TestLoadModelUtils.loadModelFromJson;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class ClassificationPropagationTaskTest extends AtlasTestBase {
+    private static final String HDFS_PATH_EMPLOYEES   = "a3955120-ac17-426f-a4af-972ec8690e5f";
+    private static final String EMPLOYEES1_TABLE      = "cdf0040e-739e-4590-a137-964d10e73573";
+    private static final String EMPLOYEES_UNION_TABLE = "1ceac963-1a2b-476a-a269-10396187d406";
+    private static final String TAG_NAME              = "propagationTaskTag";
+    private static final String IMPORT_FILE           = "tag-propagation-data.zip";
+    private static final long   TASK_WAIT_TIMEOUT_MS  = 60000;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private ImportService importService;
+
+    @Inject
+    private TaskManagement taskManagement;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        RequestContext.clear();
+
+        super.initialize();
+
+        loadModelFromJson("0000-Area0/0010-base_model.json", typeDefStore, typeRegistry);
+        loadModelFromJson("1000-Hadoop/1020-fs_model.json", typeDefStore, typeRegistry);
+        loadModelFromJson("1000-Hadoop/1030-hive_model.json", typeDefStore, typeRegistry);
+
+        if (typeRegistry.getClassificationDefByName(TAG_NAME) == null) {
+            typeDefStore.createTypesDef(new AtlasTypesDef(Collections.emptyList(), Collections.emptyList(),
+                                                          Collections.singletonList(new AtlasClassificationDef(TAG_NAME)),
+                                                          Collections.emptyList(), Collections.emptyList()));
+        }
+
+        runImportWithNoParameters(importService, ZipFileResourceTestUtils.getFileInputStream(IMPORT_FILE));
+
+        taskManagement.setEnabled(true);
+        taskManagement.start();
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        taskManagement.stop();
+        taskManagement.setEnabled(false);
+
+        AtlasGraphProvider.cleanup();
+
+        super.cleanup();
+    }
+
+    @Test
+    public void addClassification_PropagatedByTask() throws Exception {
+        AtlasClassification tag = new AtlasClassification(TAG_NAME);
+
+        tag.setPropagate(true);
+
+        entityStore.addClassifications(HDFS_PATH_EMPLOYEES, Collections.singletonList(tag));
+
+        List<AtlasTask> tasks = waitForTasks();
+
+        assertTrue(tasks.stream().anyMatch(t -> CLASSIFICATION_PROPAGATION_ADD.equals(t.getType())));
+
+        for (String guid : Arrays.asList(EMPLOYEES1_TABLE, EMPLOYEES_UNION_TABLE)) {
+            assertTrue(hasClassification(guid), "classification not propagated to " + guid);
+        }
+    }
+
+    @Test(dependsOnMethods = "addClassification_PropagatedByTask")
+    public void deleteClassification_RemovedByTask() throws Exception {
+        entityStore.deleteClassification(HDFS_PATH_EMPLOYEES, TAG_NAME);
+
+        List<AtlasTask> tasks = waitForTasks();
+
+        assertTrue(tasks.stream().anyMatch(t -> CLASSIFICATION_PROPAGATION_DELETE.equals(t.getType())));
+
+        for (String guid : Arrays.asList(EMPLOYEES1_TABLE, EMPLOYEES_UNION_TABLE)) {
+            assertFalse(hasClassification(guid), "propagated classification not removed from " + guid);
+        }
+    }
+
+    @Test(dependsOnMethods = "deleteClassification_RemovedByTask")
+    public void retryTask() throws Exception {
+        AtlasTask completedTask = taskManagement.getTasks(Collections.singletonList(Status.COMPLETE), 0, 1).get(0);
+
+        try {
+            taskManagement.retryTask(completedTask.getGuid());
+
+            fail("retry of a completed task should have failed");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.TASK_INVALID_STATUS);
+        }
+
+        try {
+            taskManagement.getTask("invalid-guid");
+
+            fail("get of an unknown task should have failed");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.TASK_NOT_FOUND);
+        }
+    }
+
+    private List<AtlasTask> waitForTasks() throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+
+        while (CollectionUtils.isNotEmpty(taskManagement.getTasks(Arrays.asList(Status.PENDING, Status.IN_PROGRESS), 0, 1))) {
+            if (System.currentTimeMillis() - startTime > TASK_WAIT_TIMEOUT_MS) {
+                fail("tasks did not complete in " + TASK_WAIT_TIMEOUT_MS + "ms");
+            }
+
+            Thread.sleep(100);
+        }
+
+        assertTrue(CollectionUtils.isEmpty(taskManagement.getTasks(Collections.singletonList(Status.FAILED), 0, 1)));
+
+        return taskManagement.getTasks(null, 0, 0);
+    }
+
+    private boolean hasClassification(String entityGuid) throws AtlasBaseException {
+        List<AtlasClassification> classifications = entityStore.getById(entityGuid).getEntity().getClassifications();
+
+        return classifications != null && classifications.stream().anyMatch(c -> TAG_NAME.equals(c.getTypeName()) && HDFS_PATH_EMPLOYEES.equals(c.getEntityGuid()));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TaskManagementTest {
+    private static final String TASK_TYPE = "TEST_TASK";
+    private static final String PARAM_KEY = "key";
+
+    @Test
+    public void testTasksWithSameKeyDontRunConcurrently() throws Exception {
+        AtlasTask      addTask    = new AtlasTask("task-1", TASK_TYPE, "admin", Collections.singletonMap(PARAM_KEY, "classification-1"));
+        AtlasTask      deleteTask = new AtlasTask("task-2", TASK_TYPE, "admin", Collections.singletonMap(PARAM_KEY, "classification-1"));
+        TaskRegistry   registry   = mock(TaskRegistry.class);
+        TestFactory    factory    = new TestFactory(2);
+        TaskManagement manager    = new TaskManagement(new PropertiesConfiguration(), registry);
+
+        when(registry.getByGuid(addTask.getGuid())).thenReturn(addTask);
+        when(registry.getByGuid(deleteTask.getGuid())).thenReturn(deleteTask);
+        when(registry.getPendingTasks()).thenReturn(Arrays.asList(addTask, deleteTask));
+
+        manager.addFactory(factory);
+        manager.setEnabled(true);
+
+        try {
+            manager.start();
+
+            assertTrue(factory.completed.await(30, TimeUnit.SECONDS), "tasks did not complete");
+            assertEquals(factory.maxRunning.get(), 1);
+        } finally {
+            manager.stop();
+        }
+    }
+
+    private static class TestFactory implements TaskFactory {
+        private final AtomicInteger  running    = new AtomicInteger();
+        private final AtomicInteger  maxRunning = new AtomicInteger();
+        private final CountDownLatch completed;
+
+        TestFactory(int taskCount) {
+            this.completed = new CountDownLatch(taskCount);
+        }
+
+        @Override
+        public List<String> getSupportedTypes() {
+            return Collections.singletonList(TASK_TYPE);
+        }
+
+        @Override
+        public AbstractTask create(AtlasTask task) {
+            return new AbstractTask(task) {
+                @Override
+                public void run() throws AtlasBaseException {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    try {
+                        // long enough for the other task to be picked up by another worker
+                        Thread.sleep(200);
+                    } catch (InterruptedException excp) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                        completed.countDown();
+                    }
+                }
+
+                @Override
+                public String getSerializationKey() {
+                    return getStringParameter(PARAM_KEY);
+                }
+            };
+        }
+    }
+}
@@ -17,7 +17,9 @@
  */
 package org.apache.atlas.utils;
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.springframework.util.CollectionUtils;
@@ -25,10 +27,15 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class ObjectUpdateSynchronizerTest {
     private static final GraphTransactionInterceptor.ObjectUpdateSynchronizer objectUpdateSynchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer();
@@ -48,7 +55,12 @@ public class ObjectUpdateSynchronizerTest {
         }
 
         public void run() {
-            objectUpdateSynchronizer.lockObject(CollectionUtils.arrayToList(ids));
+            try {
+                objectUpdateSynchronizer.lockObject(CollectionUtils.arrayToList(ids));
+            } catch (AtlasBaseException e) {
+                throw new RuntimeException(e);
+            }
+
             for (int i = 0; i < MAX_COUNT; i++) {
                 outputList.add(i);
                 RandomStringUtils.randomAlphabetic(20);
@@ -166,6 +178,91 @@ public class ObjectUpdateSynchronizerTest {
         assertArrayEquals(populateExpectedArrayOutput(th.length));
     }
 
+    @Test
+    public void lockWaitTimesOut() throws Exception {
+        GraphTransactionInterceptor.ObjectUpdateSynchronizer synchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer(200, 50);
+        CountDownLatch                                       locked       = new CountDownLatch(1);
+        CountDownLatch                                       release      = new CountDownLatch(1);
+        Thread                                               holder       = new Thread(() -> {
+            try {
+                synchronizer.lockObject(new ArrayList<>(Arrays.asList("1")));
+
+                locked.countDown();
+                release.await();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                synchronizer.releaseLockedObjects();
+            }
+        });
+
+        holder.start();
+        locked.await();
+
+        try {
+            synchronizer.lockObject(new ArrayList<>(Arrays.asList("1")));
+
+            fail("expected lock wait to time out");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK);
+        }
+
+        assertEquals(synchronizer.getMetrics().getTimeoutCount(), 1);
+
+        release.countDown();
+        holder.join();
+
+        // timed out waiter must not leave a reference behind; the lock should be available again
+        synchronizer.lockObject(new ArrayList<>(Arrays.asList("1")));
+        synchronizer.releaseLockedObjects();
+
+        assertEquals(synchronizer.getMetrics().getLockCount(), 2);
+        assertEquals(synchronizer.getMetrics().getContendedCount(), 0);
+    }
+
+    @Test
+    public void deadlockIsDetected() throws Exception {
+        GraphTransactionInterceptor.ObjectUpdateSynchronizer synchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer(0, 50);
+        CountDownLatch                                       locked       = new CountDownLatch(2);
+        AtomicInteger                                        failures     = new AtomicInteger();
+        Thread[]                                             threads      = new Thread[2];
+        String[][]                                           guids        = { { "1", "2" }, { "2", "1" } };
+
+        for (int i = 0; i < threads.length; i++) {
+            String[] threadGuids = guids[i];
+
+            threads[i] = new Thread(() -> {
+                try {
+                    synchronizer.lockObject(new ArrayList<>(Arrays.asList(threadGuids[0])));
+
+                    locked.countDown();
+                    locked.await();
+
+                    synchronizer.lockObject(new ArrayList<>(Arrays.asList(threadGuids[1])));
+                } catch (AtlasBaseException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    synchronizer.releaseLockedObjects();
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join(10000);
+
+            assertFalse(thread.isAlive());
+        }
+
+        assertTrue(failures.get() >= 1);
+        assertEquals(synchronizer.getMetrics().getDeadlockCount(), failures.get());
+    }
+
     private void verifyMultipleThreadRun(int limit) throws InterruptedException {
         CounterThread[] th = getCounterThreads(limit);
         startCounterThreads(th);
@@ -31,12 +31,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.atlas.model.instance.AtlasObjectId.KEY_GUID;
 
@@ -45,10 +52,18 @@ public class RequestContext {
     private static final Logger METRICS = LoggerFactory.getLogger("METRICS");
 
     private static final ThreadLocal<RequestContext> CURRENT_CONTEXT = new ThreadLocal<>();
-    private static final Set<RequestContext>         ACTIVE_REQUESTS = new HashSet<>();
     private static final boolean                     isMetricsEnabled = METRICS.isDebugEnabled();
 
+    // ordered by request time, so that the earliest active request is found without scanning all active requests
+    private static final ConcurrentSkipListSet<RequestContext> ACTIVE_REQUESTS       = new ConcurrentSkipListSet<>(Comparator.comparingLong(RequestContext::getRequestTime).thenComparingLong(RequestContext::getRequestId));
+    private static final AtomicInteger                         ACTIVE_REQUESTS_COUNT = new AtomicInteger();
+    private static final AtomicLong                            NEXT_REQUEST_ID       = new AtomicLong();
+    private static final long[]                                REQUEST_AGE_BUCKETS   = { TimeUnit.SECONDS.toMillis(1), TimeUnit.SECONDS.toMillis(5), TimeUnit.SECONDS.toMillis(30),
+                                                                                         TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(5), TimeUnit.MINUTES.toMillis(30) };
+
     private final long                                   requestTime          = System.currentTimeMillis();
+    private final long                                   requestId            = NEXT_REQUEST_ID.incrementAndGet();
+    private final String                                 threadName           = Thread.currentThread().getName();
     private final Map<String, AtlasEntityHeader>         updatedEntities      = new HashMap<>();
     private final Map<String, AtlasEntityHeader>         deletedEntities      = new HashMap<>();
     private final Map<String, AtlasEntity>               entityCache          = new HashMap<>();
@@ -61,6 +76,8 @@ public class RequestContext {
     private final Set<String>                            entitiesToSkipUpdate = new HashSet<>();
     private final Set<String>                            onlyCAUpdateEntities = new HashSet<>();
     private final Set<String>                            onlyBAUpdateEntities = new HashSet<>();
+    private final Map<String, String>                    createdShellEntities   = new HashMap<>(); // guid -> typeName
+    private final Set<String>                            completedShellEntities = new HashSet<>();
 
     private String       user;
     private Set<String>  userGroups;
@@ -75,6 +92,7 @@ public class RequestContext {
     private boolean     isInTypePatching           = false;
     private boolean     createShellEntityForNonExistingReference = false;
     private boolean     skipFailedEntities = false;
+    private int         auditEventSequence = 0;
 
     private RequestContext() {
     }
@@ -88,8 +106,8 @@ public class RequestContext {
             ret = new RequestContext();
             CURRENT_CONTEXT.set(ret);
 
-            synchronized (ACTIVE_REQUESTS) {
-                ACTIVE_REQUESTS.add(ret);
+            if (ACTIVE_REQUESTS.add(ret)) {
+                ACTIVE_REQUESTS_COUNT.incrementAndGet();
             }
         }
 
@@ -102,8 +120,8 @@ public class RequestContext {
         if (instance != null) {
             instance.clearCache();
 
-            synchronized (ACTIVE_REQUESTS) {
-                ACTIVE_REQUESTS.remove(instance);
+            if (ACTIVE_REQUESTS.remove(instance)) {
+                ACTIVE_REQUESTS_COUNT.decrementAndGet();
             }
         }
 
@@ -121,6 +139,8 @@ public class RequestContext {
         this.entitiesToSkipUpdate.clear();
         this.onlyCAUpdateEntities.clear();
         this.onlyBAUpdateEntities.clear();
+        this.createdShellEntities.clear();
+        this.completedShellEntities.clear();
 
         if (metrics != null && !metrics.isEmpty()) {
             METRICS.debug(metrics.toString());
@@ -269,6 +289,31 @@ public class RequestContext {
         return StringUtils.isNotEmpty(guid) && onlyBAUpdateEntities.contains(guid);
     }
 
+    public void recordShellEntityCreate(String guid, String typeName) {
+        if (StringUtils.isNotEmpty(guid)) {
+            createdShellEntities.put(guid, typeName);
+        }
+    }
+
+    public void recordShellEntityComplete(String guid) {
+        if (StringUtils.isNotEmpty(guid)) {
+            completedShellEntities.add(guid);
+        }
+    }
+
+    public Map<String, String> getCreatedShellEntities() {
+        return createdShellEntities;
+    }
+
+    public boolean isCompletedShellEntity(String guid) {
+        return completedShellEntities.contains(guid);
+    }
+
+    public void clearShellEntityChanges() {
+        createdShellEntities.clear();
+        completedShellEntities.clear();
+    }
+
     public void recordEntityDelete(AtlasEntityHeader entity) {
         if (entity != null && entity.getGuid() != null) {
             deletedEntities.put(entity.getGuid(), entity);
@@ -290,23 +335,82 @@ public class RequestContext {
     }
 
     public static int getActiveRequestsCount() {
-        return ACTIVE_REQUESTS.size();
+        return ACTIVE_REQUESTS_COUNT.get();
     }
 
     public static long earliestActiveRequestTime() {
-        long ret = System.currentTimeMillis();
+        long                     ret      = System.currentTimeMillis();
+        Iterator<RequestContext> iter     = ACTIVE_REQUESTS.iterator();
+        RequestContext           earliest = iter.hasNext() ? iter.next() : null;
 
-        synchronized (ACTIVE_REQUESTS) {
-            for (RequestContext context : ACTIVE_REQUESTS) {
-                if (ret > context.getRequestTime()) {
-                    ret = context.getRequestTime();
-                }
+        if (earliest != null && ret > earliest.getRequestTime()) {
+            ret = earliest.getRequestTime();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns number of active requests by age: under 1s, 1s-5s, 5s-30s, 30s-1m, 1m-5m, 5m-30m and 30m or more.
+     */
+    public static Map<String, Integer> getActiveRequestAgeHistogram() {
+        long  now    = System.currentTimeMillis();
+        int[] counts = new int[REQUEST_AGE_BUCKETS.length + 1];
+
+        for (RequestContext context : ACTIVE_REQUESTS) {
+            long age    = now - context.getRequestTime();
+            int  bucket = 0;
+
+            while (bucket < REQUEST_AGE_BUCKETS.length && age >= REQUEST_AGE_BUCKETS[bucket]) {
+                bucket++;
+            }
+
+            counts[bucket]++;
+        }
+
+        Map<String, Integer> ret = new LinkedHashMap<>();
+
+        for (int i = 0; i < counts.length; i++) {
+            String lower = i == 0 ? "0s" : formatAge(REQUEST_AGE_BUCKETS[i - 1]);
+            String upper = i == REQUEST_AGE_BUCKETS.length ? "" : formatAge(REQUEST_AGE_BUCKETS[i]);
+
+            ret.put(lower + "-" + upper, counts[i]);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns details of the oldest active requests - to help find stuck requests.
+     */
+    public static List<Map<String, Object>> getOldestActiveRequests(int maxCount) {
+        long                      now = System.currentTimeMillis();
+        List<Map<String, Object>> ret = new ArrayList<>();
+
+        for (RequestContext context : ACTIVE_REQUESTS) { // iterates in order of request time
+            if (ret.size() >= maxCount) {
+                break;
             }
+
+            Map<String, Object> request = new LinkedHashMap<>();
+
+            request.put("requestId", context.getRequestId());
+            request.put("requestTime", context.getRequestTime());
+            request.put("ageMs", now - context.getRequestTime());
+            request.put("user", context.getUser());
+            request.put("clientIPAddress", context.getClientIPAddress());
+            request.put("thread", context.threadName);
+
+            ret.add(request);
         }
 
         return ret;
     }
 
+    private static String formatAge(long ageMs) {
+        return ageMs < TimeUnit.MINUTES.toMillis(1) ? (TimeUnit.MILLISECONDS.toSeconds(ageMs) + "s") : (TimeUnit.MILLISECONDS.toMinutes(ageMs) + "m");
+    }
+
     public void recordRemovedPropagation(String guid, AtlasClassification classification) {
         if (StringUtils.isNotEmpty(guid) && classification != null) {
             List<AtlasClassification> classifications = removedPropagations.get(guid);
@@ -393,6 +497,18 @@ public class RequestContext {
         return requestTime;
     }
 
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * @return sequence number of the next audit event of this request. Audit events of a request share the request
+     *         time as timestamp; the sequence number keeps them in the order they were generated
+     */
+    public int nextAuditEventSequence() {
+        return auditEventSequence++;
+    }
+
     public boolean isUpdatedEntity(String guid) {
         return updatedEntities.containsKey(guid);
     }
@@ -32,7 +32,10 @@ public interface ActiveStateChangeHandler {
         TYPEDEF_STORE_INITIALIZER(2),
         ATLAS_PATCH_SERVICE(3),
         DEFAULT_METADATA_SERVICE(4),
-        NOTIFICATION_HOOK_CONSUMER(5);
+        NOTIFICATION_HOOK_CONSUMER(5),
+        ENTITY_COUNT_METRICS_STORE(6),
+        TASK_MANAGEMENT(7),
+        ENTITY_GUID_CACHE(8);
 
 
         private final int order;
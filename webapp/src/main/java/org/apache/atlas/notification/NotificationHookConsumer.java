@@ -58,6 +58,7 @@ import org.apache.atlas.service.Service;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.atlas.web.filters.AuditFilter;
 import org.apache.atlas.web.filters.AuditFilter.AuditLog;
@@ -88,9 +89,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -137,6 +143,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_MAX_RETRY_INTERVAL       = "atlas.notification.consumer.max.retry.interval";
     public static final String CONSUMER_COMMIT_BATCH_SIZE        = "atlas.notification.consumer.commit.batch.size";
     public static final String CONSUMER_DISABLED                 = "atlas.notification.consumer.disabled";
+    public static final String CONSUMER_BATCH_ENABLED            = "atlas.notification.consumer.batch.enabled";
+    public static final String CONSUMER_BATCH_MAX_MESSAGES       = "atlas.notification.consumer.batch.max.messages";
+    public static final String CONSUMER_LANES                    = "atlas.notification.consumer.lanes";
+    public static final String CONSUMER_LANE_QUEUE_SIZE          = "atlas.notification.consumer.lane.queue.size";
 
 
     public static final String CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633                  = "atlas.notification.consumer.skip.hive_column_lineage.hive-20633";
@@ -158,6 +168,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
     public static final int SERVER_READY_WAIT_TIME_MS = 1000;
 
+
     private final AtlasEntityStore              atlasEntityStore;
     private final ServiceState                  serviceState;
     private final AtlasInstanceConverter        instanceConverter;
@@ -168,6 +179,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     private final int                           minWaitDuration;
     private final int                           maxWaitDuration;
     private final int                           commitBatchSize;
+    private final boolean                       batchEnabled;
+    private final int                           batchMaxMessages;
+    private final int                           numLanes;
+    private final int                           laneQueueSize;
     private final boolean                       skipHiveColumnLineageHive20633;
     private final int                           skipHiveColumnLineageHive20633InputsThreshold;
     private final boolean                       updateHiveProcessNameWithQualifiedName;
@@ -217,6 +232,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         minWaitDuration       = applicationProperties.getInt(CONSUMER_MIN_RETRY_INTERVAL, consumerRetryInterval); // 500 ms  by default
         maxWaitDuration       = applicationProperties.getInt(CONSUMER_MAX_RETRY_INTERVAL, minWaitDuration * 60);  //  30 sec by default
         commitBatchSize       = applicationProperties.getInt(CONSUMER_COMMIT_BATCH_SIZE, 50);
+        batchEnabled          = applicationProperties.getBoolean(CONSUMER_BATCH_ENABLED, false);
+        batchMaxMessages      = applicationProperties.getInt(CONSUMER_BATCH_MAX_MESSAGES, 100);
+        numLanes              = applicationProperties.getInt(CONSUMER_LANES, 1);
+        laneQueueSize         = applicationProperties.getInt(CONSUMER_LANE_QUEUE_SIZE, 1000);
 
         skipHiveColumnLineageHive20633                = applicationProperties.getBoolean(CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633, false);
         skipHiveColumnLineageHive20633InputsThreshold = applicationProperties.getInt(CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633_INPUTS_THRESHOLD, 15); // skip if avg # of inputs is > 15
@@ -228,7 +247,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
         int authnCacheTtlSeconds = applicationProperties.getInt(CONSUMER_AUTHORIZE_AUTHN_CACHE_TTL_SECONDS, 300);
 
-        authnCache = (authorizeUsingMessageUser && authnCacheTtlSeconds > 0) ? new PassiveExpiringMap<>(authnCacheTtlSeconds * 1000) : null;
+        authnCache = (authorizeUsingMessageUser && authnCacheTtlSeconds > 0) ? Collections.synchronizedMap(new PassiveExpiringMap<>(authnCacheTtlSeconds * 1000)) : null;
 
         String[] patternHiveTablesToIgnore = applicationProperties.getStringArray(CONSUMER_PREPROCESS_HIVE_TABLE_IGNORE_PATTERN);
         String[] patternHiveTablesToPrune  = applicationProperties.getStringArray(CONSUMER_PREPROCESS_HIVE_TABLE_PRUNE_PATTERN);
@@ -260,7 +279,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
 
         if (!hiveTablesToIgnore.isEmpty() || !hiveTablesToPrune.isEmpty()) {
-            hiveTablesCache = new LruCache<>(applicationProperties.getInt(CONSUMER_PREPROCESS_HIVE_TABLE_CACHE_SIZE, 10000), 0);
+            hiveTablesCache = Collections.synchronizedMap(new LruCache<>(applicationProperties.getInt(CONSUMER_PREPROCESS_HIVE_TABLE_CACHE_SIZE, 10000), 0));
         } else {
             hiveTablesCache = Collections.emptyMap();
         }
@@ -315,6 +334,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         LOG.info("{}={}", CONSUMER_PREPROCESS_RDBMS_TYPES_REMOVE_OWNEDREF_ATTRS, rdbmsTypesRemoveOwnedRefAttrs);
         LOG.info("{}={}", CONSUMER_COMMIT_BATCH_SIZE, commitBatchSize);
         LOG.info("{}={}", CONSUMER_DISABLED, consumerDisabled);
+        LOG.info("{}={}", CONSUMER_BATCH_ENABLED, batchEnabled);
+        LOG.info("{}={}", CONSUMER_BATCH_MAX_MESSAGES, batchMaxMessages);
+        LOG.info("{}={}", CONSUMER_LANES, numLanes);
+        LOG.info("{}={}", CONSUMER_LANE_QUEUE_SIZE, laneQueueSize);
     }
 
     @Override
@@ -483,7 +506,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
 
         public void pause(Exception ex) {
-            setWaitDurations();
+            long waitDuration = setWaitDurations();
 
             try {
                 if (LOG.isDebugEnabled()) {
@@ -498,7 +521,8 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
-        private void setWaitDurations() {
+        // synchronized, as lanes of a HookConsumer share its waiter
+        private synchronized long setWaitDurations() {
             long timeSinceLastWait = (lastWaitAt == 0) ? 0 : System.currentTimeMillis() - lastWaitAt;
 
             lastWaitAt = System.currentTimeMillis();
@@ -511,20 +535,28 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     waitDuration = maxDuration;
                 }
             }
+
+            return waitDuration;
         }
     }
 
     @VisibleForTesting
     class HookConsumer extends ShutdownableThread {
         private final NotificationConsumer<HookNotification> consumer;
-        private final AtomicBoolean                          shouldRun      = new AtomicBoolean(false);
-        private final List<String>                           failedMessages = new ArrayList<>();
+        private final List<String>                           failedMessages = Collections.synchronizedList(new ArrayList<>());
         private final AdaptiveWaiter                         adaptiveWaiter = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
 
+        @VisibleForTesting
+        final AtomicBoolean shouldRun = new AtomicBoolean(false);
+
+        @VisibleForTesting
+        final HookMessageDispatcher dispatcher;
+
         public HookConsumer(NotificationConsumer<HookNotification> consumer) {
             super("atlas-hook-consumer-thread", false);
 
-            this.consumer = consumer;
+            this.consumer   = consumer;
+            this.dispatcher = numLanes > 1 ? new HookMessageDispatcher(this, numLanes, laneQueueSize) : null;
         }
 
         @Override
@@ -537,13 +569,24 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                 return;
             }
 
+            if (dispatcher != null) {
+                dispatcher.start();
+            }
+
             try {
                 while (shouldRun.get()) {
                     try {
                         List<AtlasKafkaMessage<HookNotification>> messages = consumer.receiveWithCheckedCommit(lastCommittedPartitionOffset);
 
-                        for (AtlasKafkaMessage<HookNotification> msg : messages) {
-                            handleMessage(msg);
+                        if (dispatcher != null) {
+                            dispatcher.dispatch(messages);
+                            dispatcher.commitProcessedOffsets();
+                        } else if (batchEnabled && messages.size() > 1) {
+                            handleMessages(messages);
+                        } else {
+                            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                                handleMessage(msg);
+                            }
                         }
                     } catch (IllegalStateException ex) {
                         adaptiveWaiter.pause(ex);
@@ -558,6 +601,16 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     }
                 }
             } finally {
+                if (dispatcher != null) {
+                    dispatcher.stop();
+
+                    try {
+                        dispatcher.commitProcessedOffsets();
+                    } catch (Exception e) {
+                        LOG.warn("failed to commit offsets of processed messages", e);
+                    }
+                }
+
                 if (consumer != null) {
                     LOG.info("closing NotificationConsumer");
 
@@ -570,6 +623,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
         @VisibleForTesting
         void handleMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) throws AtlasServiceException, AtlasException {
+            handleMessage(kafkaMsg, null, false);
+        }
+
+        private void handleMessage(AtlasKafkaMessage<HookNotification> kafkaMsg, PreprocessorContext context, boolean isPreprocessed) throws AtlasServiceException, AtlasException {
             AtlasPerfTracer  perf           = null;
             HookNotification message        = kafkaMsg.getMessage();
             String           messageUser    = message.getUser();
@@ -586,38 +643,15 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
 
             try {
-                // covert V1 messages to V2 to enable preProcess
-                try {
-                    switch (message.getType()) {
-                        case ENTITY_CREATE: {
-                            final EntityCreateRequest      createRequest = (EntityCreateRequest) message;
-                            final AtlasEntitiesWithExtInfo entities      = instanceConverter.toAtlasEntities(createRequest.getEntities());
-                            final EntityCreateRequestV2    v2Request     = new EntityCreateRequestV2(message.getUser(), entities);
-
-                            kafkaMsg = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
-                            message  = kafkaMsg.getMessage();
-                        }
-                        break;
-
-                        case ENTITY_FULL_UPDATE: {
-                            final EntityUpdateRequest      updateRequest = (EntityUpdateRequest) message;
-                            final AtlasEntitiesWithExtInfo entities      = instanceConverter.toAtlasEntities(updateRequest.getEntities());
-                            final EntityUpdateRequestV2    v2Request     = new EntityUpdateRequestV2(messageUser, entities);
-
-                            kafkaMsg = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
-                            message  = kafkaMsg.getMessage();
-                        }
-                        break;
+                if (!isPreprocessed) {
+                    kafkaMsg = convertToV2Message(kafkaMsg);
+                    message  = kafkaMsg.getMessage();
+                    context  = preProcessNotificationMessage(kafkaMsg);
+
+                    if (isEmptyMessage(kafkaMsg)) {
+                        commit(kafkaMsg);
+                        return;
                     }
-                } catch (AtlasBaseException excp) {
-                    LOG.error("handleMessage(): failed to convert V1 message to V2", message.getType().name());
-                }
-
-                PreprocessorContext context = preProcessNotificationMessage(kafkaMsg);
-
-                if (isEmptyMessage(kafkaMsg)) {
-                    commit(kafkaMsg);
-                    return;
                 }
 
                 // Used for intermediate conversions during create and update
@@ -803,6 +837,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                             if (failedMessages.size() >= failedMsgCacheSize) {
                                 recordFailedMessages();
                             }
+
+                            if (dispatcher != null) { // offset of a failed message is committed along with the messages that follow it
+                                dispatcher.onProcessed(kafkaMsg);
+                            }
                             return;
                         } else if (e instanceof org.apache.atlas.repository.graphdb.AtlasSchemaViolationException) {
                             LOG.warn("{}: Continuing: {}", exceptionClassName, e.getMessage());
@@ -860,6 +898,236 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        /**
+         * Processes messages received in a single poll, merging consecutive compatible messages into one transaction.
+         * Messages that can't be merged, and messages of a batch that failed to commit, are processed one at a time.
+         */
+        @VisibleForTesting
+        void handleMessages(List<AtlasKafkaMessage<HookNotification>> kafkaMsgs) throws AtlasServiceException, AtlasException {
+            MessageBatch batch = null;
+
+            for (AtlasKafkaMessage<HookNotification> kafkaMsg : kafkaMsgs) {
+                kafkaMsg = convertToV2Message(kafkaMsg);
+
+                PreprocessorContext context = preProcessNotificationMessage(kafkaMsg);
+
+                if (isEmptyMessage(kafkaMsg)) {
+                    if (batch != null) { // offsets must be committed in order
+                        handleMessageBatch(batch);
+
+                        batch = null;
+                    }
+
+                    commit(kafkaMsg);
+
+                    continue;
+                }
+
+                MessageBatchEntry entry = toMessageBatchEntry(kafkaMsg, context);
+
+                if (batch != null && (entry == null || !batch.canAdd(entry))) {
+                    handleMessageBatch(batch);
+
+                    batch = null;
+                }
+
+                if (entry == null) {
+                    handleMessage(kafkaMsg, context, true);
+                } else {
+                    if (batch == null) {
+                        batch = new MessageBatch(entry.getUser(), entry.isPartialUpdate());
+                    }
+
+                    batch.add(entry);
+                }
+            }
+
+            if (batch != null) {
+                handleMessageBatch(batch);
+            }
+        }
+
+        private void handleMessageBatch(MessageBatch batch) throws AtlasServiceException, AtlasException {
+            List<MessageBatchEntry> entries = batch.getEntries();
+
+            if (entries.size() == 1) {
+                MessageBatchEntry entry = entries.get(0);
+
+                handleMessage(entry.getKafkaMessage(), entry.getContext(), true);
+
+                return;
+            }
+
+            AtlasPerfTracer  perf      = null;
+            long             startTime = System.currentTimeMillis();
+            NotificationStat stats     = new NotificationStat();
+            boolean          isSuccess = false;
+
+            if (authorizeUsingMessageUser) {
+                setCurrentUser(batch.getUser());
+            }
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "handleMessageBatch(count=" + entries.size() + ", entities=" + batch.getEntityCount() + ")");
+            }
+
+            try {
+                RequestContext requestContext = RequestContext.get();
+
+                requestContext.setAttemptCount(1);
+                requestContext.setMaxAttempts(maxRetries);
+
+                requestContext.setUser(batch.getUser(), null);
+                requestContext.setInNotificationProcessing(true);
+                requestContext.setCreateShellEntityForNonExistingReference(createShellEntityForNonExistingReference);
+
+                EntityMutationResponse response = atlasEntityStore.createOrUpdate(new AtlasEntityStream(batch.getEntities()), batch.isPartialUpdate());
+
+                if (response != null) {
+                    stats.updateStats(response);
+                }
+
+                isSuccess = true;
+            } catch (Throwable e) {
+                RequestContext.get().resetEntityGuidUpdates();
+
+                LOG.warn("handleMessageBatch(count={}): failed to process batch; will process messages one at a time. error={}", entries.size(), e.getMessage());
+            } finally {
+                RequestContext.clear();
+
+                AtlasPerfTracer.log(perf);
+            }
+
+            if (!isSuccess) {
+                for (MessageBatchEntry entry : entries) {
+                    handleMessage(entry.getKafkaMessage(), entry.getContext(), true);
+                }
+
+                return;
+            }
+
+            long timeTakenMs   = System.currentTimeMillis() - startTime;
+            long timePerMsgMs  = timeTakenMs / entries.size();
+            int  lastEntryIdx  = entries.size() - 1;
+
+            Map<TopicPartition, AtlasKafkaMessage<HookNotification>> lastMessageByPartition = new LinkedHashMap<>();
+
+            for (int i = 0; i < entries.size(); i++) {
+                AtlasKafkaMessage<HookNotification> kafkaMsg = entries.get(i).getKafkaMessage();
+                NotificationStat                    msgStats = (i == lastEntryIdx) ? stats : new NotificationStat();
+
+                msgStats.timeTakenMs = timePerMsgMs;
+
+                metricsUtil.onNotificationProcessingComplete(kafkaMsg.getTopic(), kafkaMsg.getPartition(), kafkaMsg.getOffset(), msgStats);
+
+                AuditLog auditLog = getAuditLog(kafkaMsg.getMessage());
+
+                if (auditLog != null) {
+                    auditLog.setHttpStatus(SC_OK);
+                    auditLog.setTimeTaken(timePerMsgMs);
+
+                    AuditFilter.audit(auditLog);
+                }
+
+                if (dispatcher != null) { // each message must be marked processed, to release the entity keys it holds
+                    commit(kafkaMsg);
+                } else {
+                    lastMessageByPartition.put(kafkaMsg.getTopicPartition(), kafkaMsg);
+                }
+            }
+
+            for (AtlasKafkaMessage<HookNotification> kafkaMsg : lastMessageByPartition.values()) {
+                commit(kafkaMsg);
+            }
+
+            if (timeTakenMs > largeMessageProcessingTimeThresholdMs) {
+                LOG.warn("batchProcessingTime={}, batchSize={}, entities={}, topicOffset={}", timeTakenMs, entries.size(), batch.getEntityCount(), entries.get(lastEntryIdx).getKafkaMessage().getOffset());
+            }
+        }
+
+        private MessageBatchEntry toMessageBatchEntry(AtlasKafkaMessage<HookNotification> kafkaMsg, PreprocessorContext context) {
+            if (context != null && CollectionUtils.isNotEmpty(context.getPostUpdateEntities())) { // post-update needs guids assigned while processing this message
+                return null;
+            }
+
+            final HookNotification         message         = kafkaMsg.getMessage();
+            final AtlasEntitiesWithExtInfo entities;
+            final boolean                  isPartialUpdate;
+
+            switch (message.getType()) {
+                case ENTITY_CREATE_V2:
+                    entities        = ((EntityCreateRequestV2) message).getEntities();
+                    isPartialUpdate = false;
+                break;
+
+                case ENTITY_FULL_UPDATE_V2:
+                    entities        = ((EntityUpdateRequestV2) message).getEntities();
+                    isPartialUpdate = false;
+                break;
+
+                case ENTITY_PARTIAL_UPDATE: {
+                    final EntityPartialUpdateRequest partialUpdateRequest = (EntityPartialUpdateRequest) message;
+
+                    try {
+                        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(partialUpdateRequest.getTypeName());
+                        String          guid       = AtlasGraphUtilsV2.getGuidByUniqueAttributes(entityType, Collections.singletonMap(partialUpdateRequest.getAttribute(), (Object) partialUpdateRequest.getAttributeValue()));
+
+                        entities = instanceConverter.toAtlasEntity(partialUpdateRequest.getEntity());
+
+                        // There should only be one root entity
+                        entities.getEntities().get(0).setGuid(guid);
+                    } catch (Exception excp) { // entity may be created by a message that is not yet committed; process this message by itself
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("toMessageBatchEntry(): message at offset {} can't be batched", kafkaMsg.getOffset(), excp);
+                        }
+
+                        return null;
+                    }
+
+                    isPartialUpdate = true;
+                }
+                break;
+
+                default:
+                    return null;
+            }
+
+            if (entities == null || CollectionUtils.isEmpty(entities.getEntities())) {
+                return null;
+            }
+
+            // a batch must be committed in a single transaction, hence can't exceed commitBatchSize
+            if (commitBatchSize > 0 && entities.getEntities().size() > commitBatchSize) {
+                return null;
+            }
+
+            return new MessageBatchEntry(kafkaMsg, context, entities, isPartialUpdate);
+        }
+
+        private AuditLog getAuditLog(HookNotification message) {
+            final AuditLog ret;
+
+            switch (message.getType()) {
+                case ENTITY_CREATE_V2:
+                    ret = new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClientV2.API_V2.CREATE_ENTITY.getMethod(), AtlasClientV2.API_V2.CREATE_ENTITY.getNormalizedPath());
+                break;
+
+                case ENTITY_FULL_UPDATE_V2:
+                    ret = new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClientV2.API_V2.UPDATE_ENTITY.getMethod(), AtlasClientV2.API_V2.UPDATE_ENTITY.getNormalizedPath());
+                break;
+
+                case ENTITY_PARTIAL_UPDATE:
+                    ret = new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClientV2.API_V2.UPDATE_ENTITY_BY_ATTRIBUTE.getMethod(), String.format(AtlasClientV2.API_V2.UPDATE_ENTITY_BY_ATTRIBUTE.getNormalizedPath(), ((EntityPartialUpdateRequest) message).getTypeName()));
+                break;
+
+                default:
+                    ret = null;
+                break;
+            }
+
+            return ret;
+        }
+
         private void createOrUpdate(AtlasEntitiesWithExtInfo entities, boolean isPartialUpdate, NotificationStat stats, PreprocessorContext context) throws AtlasBaseException {
             List<AtlasEntity> entitiesList = entities.getEntities();
             AtlasEntityStream entityStream = new AtlasEntityStream(entities);
@@ -905,20 +1173,31 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
 
         private void recordFailedMessages() {
-            //logging failed messages
-            for (String message : failedMessages) {
-                FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", message);
-            }
+            synchronized (failedMessages) {
+                //logging failed messages
+                for (String message : failedMessages) {
+                    FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", message);
+                }
 
-            failedMessages.clear();
+                failedMessages.clear();
+            }
         }
 
         private void commit(AtlasKafkaMessage<HookNotification> kafkaMessage) {
             recordFailedMessages();
 
-            long commitOffset = kafkaMessage.getOffset() + 1;
-            lastCommittedPartitionOffset.put(kafkaMessage.getTopicPartition(), commitOffset);
-            consumer.commit(kafkaMessage.getTopicPartition(), commitOffset);
+            if (dispatcher != null) { // offsets are committed by the consumer thread, once messages at lower offsets are processed by all lanes
+                dispatcher.onProcessed(kafkaMessage);
+
+                return;
+            }
+
+            commit(kafkaMessage.getTopicPartition(), kafkaMessage.getOffset() + 1);
+        }
+
+        private void commit(TopicPartition topicPartition, long commitOffset) {
+            lastCommittedPartitionOffset.put(topicPartition, commitOffset);
+            consumer.commit(topicPartition, commitOffset);
         }
 
         boolean serverAvailable(Timer timer) {
@@ -969,6 +1248,430 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
     }
 
+    // covert V1 messages to V2 to enable preProcess
+    private AtlasKafkaMessage<HookNotification> convertToV2Message(AtlasKafkaMessage<HookNotification> kafkaMsg) {
+        AtlasKafkaMessage<HookNotification> ret     = kafkaMsg;
+        HookNotification                    message = kafkaMsg.getMessage();
+
+        try {
+            switch (message.getType()) {
+                case ENTITY_CREATE: {
+                    final EntityCreateRequest      createRequest = (EntityCreateRequest) message;
+                    final AtlasEntitiesWithExtInfo entities      = instanceConverter.toAtlasEntities(createRequest.getEntities());
+                    final EntityCreateRequestV2    v2Request     = new EntityCreateRequestV2(message.getUser(), entities);
+
+                    ret = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
+                }
+                break;
+
+                case ENTITY_FULL_UPDATE: {
+                    final EntityUpdateRequest      updateRequest = (EntityUpdateRequest) message;
+                    final AtlasEntitiesWithExtInfo entities      = instanceConverter.toAtlasEntities(updateRequest.getEntities());
+                    final EntityUpdateRequestV2    v2Request     = new EntityUpdateRequestV2(message.getUser(), entities);
+
+                    ret = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
+                }
+                break;
+            }
+        } catch (AtlasBaseException excp) {
+            LOG.error("handleMessage(): failed to convert V1 message to V2", message.getType().name());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Dispatches messages received by a HookConsumer to worker lanes, by hash of the key of the message's primary entity
+     * (HookNotification.getEntityKey(): typeName:qualifiedName). Messages for the same entity are processed in the order
+     * received, by the same lane; messages without an entity key are kept in the order of their partition. Entities referred
+     * to by a message are not used for routing, so that a commonly referred entity (like a hive_db) doesn't route most
+     * messages to one lane. Offset of a partition is committed only up to the lowest offset yet to be processed by a lane;
+     * a message is considered processed once it is handled successfully, or after retries are exhausted and it is recorded in
+     * the failed-messages log. Only the consumer thread interacts with the Kafka consumer, as it is not thread-safe.
+     */
+    class HookMessageDispatcher {
+        private final HookConsumer                                hookConsumer;
+        private final List<HookMessageLane>                       lanes;
+        private final Map<TopicPartition, PartitionOffsetTracker> offsetTrackers = new ConcurrentHashMap<>();
+        private       ExecutorService                             laneExecutor;
+
+        HookMessageDispatcher(HookConsumer hookConsumer, int numLanes, int laneQueueSize) {
+            this.hookConsumer = hookConsumer;
+            this.lanes        = new ArrayList<>(numLanes);
+
+            for (int i = 0; i < numLanes; i++) {
+                lanes.add(new HookMessageLane(laneQueueSize));
+            }
+        }
+
+        void start() {
+            laneExecutor = Executors.newFixedThreadPool(lanes.size(), new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + " lane-%d").setDaemon(true).build());
+
+            for (HookMessageLane lane : lanes) {
+                laneExecutor.submit(lane);
+            }
+        }
+
+        void stop() {
+            for (HookMessageLane lane : lanes) {
+                lane.stop();
+            }
+
+            if (laneExecutor != null) {
+                laneExecutor.shutdown();
+
+                try {
+                    if (!laneExecutor.awaitTermination(5000, TimeUnit.MILLISECONDS)) {
+                        LOG.error("Timed out waiting for consumer lanes to shut down");
+                    }
+                } catch (InterruptedException e) {
+                    LOG.error("Interrupted while waiting for consumer lanes to shut down");
+                }
+
+                laneExecutor = null;
+            }
+        }
+
+        void dispatch(List<AtlasKafkaMessage<HookNotification>> messages) throws InterruptedException {
+            for (AtlasKafkaMessage<HookNotification> message : messages) {
+                String          key  = message.getMessage().getEntityKey();
+                HookMessageLane lane = lanes.get(Math.floorMod(key != null ? key.hashCode() : message.getPartition(), lanes.size()));
+
+                getOffsetTracker(message.getTopicPartition()).add(message.getOffset());
+
+                // while the lane is full, keep committing offsets of messages processed by other lanes
+                while (!lane.offer(message, SERVER_READY_WAIT_TIME_MS)) {
+                    if (!shouldRunConsumer()) {
+                        return;
+                    }
+
+                    commitProcessedOffsets();
+                }
+            }
+        }
+
+        void commitProcessedOffsets() {
+            for (Map.Entry<TopicPartition, PartitionOffsetTracker> entry : offsetTrackers.entrySet()) {
+                PartitionOffsetTracker tracker      = entry.getValue();
+                long                   commitOffset = tracker.getCommitOffset();
+
+                if (commitOffset > tracker.getCommittedOffset()) {
+                    hookConsumer.commit(entry.getKey(), commitOffset);
+
+                    tracker.setCommittedOffset(commitOffset);
+                }
+            }
+        }
+
+        /**
+         * Marks the message as processed. Marking a message more than once has no effect.
+         */
+        void onProcessed(AtlasKafkaMessage<HookNotification> message) {
+            getOffsetTracker(message.getTopicPartition()).remove(message.getOffset());
+        }
+
+        boolean isPending(AtlasKafkaMessage<HookNotification> message) {
+            return getOffsetTracker(message.getTopicPartition()).isPending(message.getOffset());
+        }
+
+        private PartitionOffsetTracker getOffsetTracker(TopicPartition topicPartition) {
+            return offsetTrackers.computeIfAbsent(topicPartition, k -> new PartitionOffsetTracker());
+        }
+
+        private boolean shouldRunConsumer() {
+            return hookConsumer.shouldRun.get();
+        }
+
+        private class HookMessageLane implements Runnable {
+            private final BlockingQueue<AtlasKafkaMessage<HookNotification>> queue;
+            private final AtomicBoolean                                      shouldRun = new AtomicBoolean(true);
+
+            HookMessageLane(int queueSize) {
+                this.queue = new ArrayBlockingQueue<>(queueSize);
+            }
+
+            boolean offer(AtlasKafkaMessage<HookNotification> message, long timeoutMs) throws InterruptedException {
+                return queue.offer(message, timeoutMs, TimeUnit.MILLISECONDS);
+            }
+
+            void stop() {
+                shouldRun.set(false);
+            }
+
+            @Override
+            public void run() {
+                List<AtlasKafkaMessage<HookNotification>> messages = new ArrayList<>();
+
+                while (shouldRun.get()) {
+                    try {
+                        AtlasKafkaMessage<HookNotification> message = queue.poll(SERVER_READY_WAIT_TIME_MS, TimeUnit.MILLISECONDS);
+
+                        if (message == null) {
+                            continue;
+                        }
+
+                        messages.add(message);
+
+                        if (batchEnabled) {
+                            queue.drainTo(messages, batchMaxMessages - 1);
+                        }
+
+                        handleMessages(messages);
+                    } catch (InterruptedException e) {
+                        LOG.info("HookMessageLane: interrupted; exiting");
+
+                        break;
+                    } finally {
+                        messages.clear();
+                    }
+                }
+            }
+
+            /**
+             * Messages are marked processed by the HookConsumer as they are handled. On an exception, messages not yet
+             * processed are retried; once retries are exhausted, these are recorded as failed messages. Messages left
+             * pending at shutdown are not committed, and hence will be redelivered.
+             */
+            private void handleMessages(List<AtlasKafkaMessage<HookNotification>> messages) throws InterruptedException {
+                for (int numRetries = 0; !messages.isEmpty(); numRetries++) {
+                    try {
+                        if (messages.size() > 1) {
+                            hookConsumer.handleMessages(messages);
+                        } else {
+                            hookConsumer.handleMessage(messages.get(0));
+                        }
+
+                        break;
+                    } catch (Exception e) {
+                        List<AtlasKafkaMessage<HookNotification>> pendingMessages = new ArrayList<>();
+
+                        for (AtlasKafkaMessage<HookNotification> message : messages) {
+                            if (isPending(message)) {
+                                pendingMessages.add(message);
+                            }
+                        }
+
+                        if (pendingMessages.isEmpty() || !shouldRun.get()) {
+                            break;
+                        }
+
+                        if (numRetries >= (maxRetries - 1)) {
+                            LOG.warn("Max retries exceeded for {} messages in NotificationHookConsumer lane", pendingMessages.size(), e);
+
+                            for (AtlasKafkaMessage<HookNotification> message : pendingMessages) {
+                                hookConsumer.failedMessages.add(AbstractNotification.getMessageJson(message.getMessage()));
+                            }
+
+                            hookConsumer.recordFailedMessages();
+
+                            for (AtlasKafkaMessage<HookNotification> message : pendingMessages) {
+                                onProcessed(message);
+                            }
+
+                            break;
+                        }
+
+                        LOG.warn("Exception in NotificationHookConsumer lane; retrying {} messages", pendingMessages.size(), e);
+
+                        hookConsumer.adaptiveWaiter.pause(e);
+
+                        messages = pendingMessages;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tracks offsets of a partition dispatched to lanes, to find the offset that can be committed: the lowest offset yet
+     * to be processed, or the offset following the last dispatched message.
+     */
+    @VisibleForTesting
+    static class PartitionOffsetTracker {
+        private final TreeSet<Long> pendingOffsets  = new TreeSet<>();
+        private       long          nextOffset      = -1;
+        private       long          committedOffset = -1;
+
+        synchronized void add(long offset) {
+            pendingOffsets.add(offset);
+
+            if (offset >= nextOffset) {
+                nextOffset = offset + 1;
+            }
+        }
+
+        // returns false if the offset is not pending
+        synchronized boolean remove(long offset) {
+            return pendingOffsets.remove(offset);
+        }
+
+        synchronized boolean isPending(long offset) {
+            return pendingOffsets.contains(offset);
+        }
+
+        synchronized long getCommitOffset() {
+            return pendingOffsets.isEmpty() ? nextOffset : pendingOffsets.first();
+        }
+
+        long getCommittedOffset() { return committedOffset; }
+
+        void setCommittedOffset(long committedOffset) { this.committedOffset = committedOffset; }
+    }
+
+    /**
+     * Messages from a single poll that are committed together in one transaction. Only consecutive messages of the same user
+     * and the same kind of update (full or partial) are merged. A message that refers to an entity already present in the batch
+     * is merged only when it can't change the order of updates to that entity: i.e. only a referred entity present in both
+     * messages with identical content (for example a hive_db referred by two hive_table updates) is allowed.
+     */
+    private class MessageBatch {
+        private final String                   user;
+        private final boolean                  isPartialUpdate;
+        private final List<MessageBatchEntry>  entries            = new ArrayList<>();
+        private final AtlasEntitiesWithExtInfo entities           = new AtlasEntitiesWithExtInfo();
+        private final Set<String>              entityKeys            = new HashSet<>();
+        private final Map<String, AtlasEntity> referredEntitiesByKey = new HashMap<>();
+
+        MessageBatch(String user, boolean isPartialUpdate) {
+            this.user            = user;
+            this.isPartialUpdate = isPartialUpdate;
+        }
+
+        String getUser() { return user; }
+
+        boolean isPartialUpdate() { return isPartialUpdate; }
+
+        List<MessageBatchEntry> getEntries() { return entries; }
+
+        AtlasEntitiesWithExtInfo getEntities() { return entities; }
+
+        int getEntityCount() { return entities.getEntities() != null ? entities.getEntities().size() : 0; }
+
+        boolean canAdd(MessageBatchEntry entry) {
+            if (entries.size() >= batchMaxMessages || isPartialUpdate != entry.isPartialUpdate() || !StringUtils.equals(user, entry.getUser())) {
+                return false;
+            }
+
+            if (commitBatchSize > 0 && (getEntityCount() + entry.getEntities().getEntities().size()) > commitBatchSize) {
+                return false;
+            }
+
+            for (String key : entry.getEntityKeys()) {
+                if (entityKeys.contains(key) || referredEntitiesByKey.containsKey(key)) {
+                    return false;
+                }
+            }
+
+            for (String key : entry.getReferredEntityKeys()) {
+                if (entityKeys.contains(key)) {
+                    return false;
+                }
+            }
+
+            Map<String, AtlasEntity> referredEntities = entry.getEntities().getReferredEntities();
+
+            if (referredEntities != null) {
+                for (AtlasEntity referredEntity : referredEntities.values()) {
+                    // a referred entity already in the batch is written once; allowed only when both messages carry the same content
+                    for (String key : MessageBatchEntry.getEntityKeys(referredEntity)) {
+                        AtlasEntity existing = referredEntitiesByKey.get(key);
+
+                        if (existing != null && !existing.equals(referredEntity)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        void add(MessageBatchEntry entry) {
+            AtlasEntitiesWithExtInfo msgEntities = entry.getEntities();
+
+            for (AtlasEntity entity : msgEntities.getEntities()) {
+                entities.addEntity(entity);
+            }
+
+            if (msgEntities.getReferredEntities() != null) {
+                for (Map.Entry<String, AtlasEntity> referredEntity : msgEntities.getReferredEntities().entrySet()) {
+                    entities.addReferredEntity(referredEntity.getKey(), referredEntity.getValue());
+
+                    for (String key : MessageBatchEntry.getEntityKeys(referredEntity.getValue())) {
+                        referredEntitiesByKey.put(key, referredEntity.getValue());
+                    }
+                }
+            }
+
+            entityKeys.addAll(entry.getEntityKeys());
+            entries.add(entry);
+        }
+    }
+
+    private static class MessageBatchEntry {
+        private final AtlasKafkaMessage<HookNotification> kafkaMessage;
+        private final PreprocessorContext                 context;
+        private final AtlasEntitiesWithExtInfo            entities;
+        private final boolean                             isPartialUpdate;
+        private final Set<String>                         entityKeys         = new HashSet<>();
+        private final Set<String>                         referredEntityKeys = new HashSet<>();
+
+        MessageBatchEntry(AtlasKafkaMessage<HookNotification> kafkaMessage, PreprocessorContext context, AtlasEntitiesWithExtInfo entities, boolean isPartialUpdate) {
+            this.kafkaMessage    = kafkaMessage;
+            this.context         = context;
+            this.entities        = entities;
+            this.isPartialUpdate = isPartialUpdate;
+
+            for (AtlasEntity entity : entities.getEntities()) {
+                addEntityKeys(entity, entityKeys);
+            }
+
+            if (entities.getReferredEntities() != null) {
+                for (AtlasEntity entity : entities.getReferredEntities().values()) {
+                    addEntityKeys(entity, referredEntityKeys);
+                }
+            }
+        }
+
+        AtlasKafkaMessage<HookNotification> getKafkaMessage() { return kafkaMessage; }
+
+        PreprocessorContext getContext() { return context; }
+
+        AtlasEntitiesWithExtInfo getEntities() { return entities; }
+
+        boolean isPartialUpdate() { return isPartialUpdate; }
+
+        String getUser() { return kafkaMessage.getMessage().getUser(); }
+
+        Set<String> getEntityKeys() { return entityKeys; }
+
+        Set<String> getReferredEntityKeys() { return referredEntityKeys; }
+
+        static Set<String> getEntityKeys(AtlasEntity entity) {
+            Set<String> ret = new HashSet<>();
+
+            addEntityKeys(entity, ret);
+
+            return ret;
+        }
+
+        private static void addEntityKeys(AtlasEntity entity, Set<String> keys) {
+            if (entity == null) {
+                return;
+            }
+
+            if (AtlasTypeUtil.isAssignedGuid(entity.getGuid())) {
+                keys.add(entity.getGuid());
+            }
+
+            Object qualifiedName = entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME);
+
+            if (qualifiedName != null) {
+                keys.add(HookNotification.getEntityKey(entity.getTypeName(), qualifiedName, null));
+            }
+        }
+    }
+
     private PreprocessorContext preProcessNotificationMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) {
         PreprocessorContext context = null;
 
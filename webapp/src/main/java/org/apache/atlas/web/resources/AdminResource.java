@@ -22,6 +22,9 @@ import com.sun.jersey.multipart.FormDataParam;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasClient;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.ObjectLockMetrics;
+import org.apache.atlas.RequestContext;
 import org.apache.atlas.authorize.AtlasAdminAccessRequest;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.authorize.AtlasEntityAccessRequest;
@@ -103,6 +106,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -700,6 +704,64 @@ public class AdminResource {
         return null != terminate;
     }
 
+    /**
+     * Returns count, age histogram and details of oldest of the requests being processed by this server.
+     *
+     * @param maxOldest maximum number of oldest requests to return details for
+     */
+    @GET
+    @Path("activeRequests")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, Object> getActiveRequests(@QueryParam("maxOldest") @DefaultValue("10") int maxOldest) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.getActiveRequests({})", maxOldest);
+        }
+
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        ret.put("activeCount", RequestContext.getActiveRequestsCount());
+        ret.put("earliestRequestTime", RequestContext.earliestActiveRequestTime());
+        ret.put("ageHistogram", RequestContext.getActiveRequestAgeHistogram());
+        ret.put("oldestRequests", RequestContext.getOldestActiveRequests(maxOldest));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.getActiveRequests({})", maxOldest);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns wait-time metrics of entity guid locks, with details of the most contended guids.
+     *
+     * @param maxGuids maximum number of most contended guids to return details for
+     */
+    @GET
+    @Path("entityLocks")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, Object> getEntityLockMetrics(@QueryParam("maxGuids") @DefaultValue("10") int maxGuids) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.getEntityLockMetrics({})", maxGuids);
+        }
+
+        ObjectLockMetrics   metrics = GraphTransactionInterceptor.getObjectLockMetrics();
+        Map<String, Object> ret     = new LinkedHashMap<>();
+
+        ret.put("lockCount", metrics.getLockCount());
+        ret.put("contendedCount", metrics.getContendedCount());
+        ret.put("timeoutCount", metrics.getTimeoutCount());
+        ret.put("deadlockCount", metrics.getDeadlockCount());
+        ret.put("avgWaitTimeMs", metrics.getAvgWaitTimeMs());
+        ret.put("maxWaitTimeMs", metrics.getMaxWaitTimeMs());
+        ret.put("mostContendedGuids", metrics.getMostContendedGuids(maxGuids));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.getEntityLockMetrics({})", maxGuids);
+        }
+
+        return ret;
+    }
+
     @POST
     @Path("checkstate")
     @Produces(Servlets.JSON_MEDIA_TYPE)
@@ -18,6 +18,7 @@
 package org.apache.atlas.web.rest;
 
 import org.apache.atlas.AtlasClient;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
@@ -32,6 +33,7 @@ import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.atlas.web.util.SearchResultStreamer;
 import org.apache.atlas.web.util.Servlets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
@@ -53,8 +55,10 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -75,6 +79,7 @@ public class DiscoveryREST {
 
     private final AtlasTypeRegistry     typeRegistry;
     private final AtlasDiscoveryService discoveryService;
+    private final SearchResultStreamer  resultStreamer;
 
     @Inject
     public DiscoveryREST(AtlasTypeRegistry typeRegistry, AtlasDiscoveryService discoveryService, Configuration configuration) {
@@ -82,6 +87,9 @@ public class DiscoveryREST {
         this.discoveryService       = discoveryService;
         this.maxFullTextQueryLength = configuration.getInt(Constants.MAX_FULLTEXT_QUERY_STR_LENGTH, 4096);
         this.maxDslQueryLength      = configuration.getInt(Constants.MAX_DSL_QUERY_STR_LENGTH, 4096);
+        this.resultStreamer         = new SearchResultStreamer(discoveryService, Math.min(AtlasConfiguration.SEARCH_STREAM_PAGE_SIZE.getInt(),
+                                                                                          AtlasConfiguration.SEARCH_MAX_LIMIT.getInt()),
+                                                               AtlasConfiguration.SEARCH_STREAM_MAX_OFFSET_PAGES.getInt());
     }
 
     /**
@@ -178,6 +186,7 @@ public class DiscoveryREST {
      * @param classification limit the result to only entities tagged with the given classification or or its sub-types
      * @param limit          limit the result set to only include the specified number of entries
      * @param offset         start offset of the result set (useful for pagination)
+     * @param cursor         nextCursor returned by the previous page of this search; when given, offset is ignored
      * @return Search results
      * @throws AtlasBaseException
      * @HTTP 200 On successful FullText lookup with some results, might return an empty list if execution succeeded
@@ -193,10 +202,12 @@ public class DiscoveryREST {
                                               @QueryParam("sortOrder")              SortOrder sortOrder,
                                               @QueryParam("excludeDeletedEntities") boolean excludeDeletedEntities,
                                               @QueryParam("limit")                  int     limit,
-                                              @QueryParam("offset")                 int     offset) throws AtlasBaseException {
+                                              @QueryParam("offset")                 int     offset,
+                                              @QueryParam("cursor")                 String  cursor) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
         Servlets.validateQueryParamLength("classification", classification);
         Servlets.validateQueryParamLength("sortBy", sortByAttribute);
+        Servlets.validateQueryParamLength("cursor", cursor);
         if (StringUtils.isNotEmpty(query) && query.length() > maxFullTextQueryLength) {
             throw new AtlasBaseException(AtlasErrorCode.INVALID_QUERY_LENGTH, Constants.MAX_FULLTEXT_QUERY_STR_LENGTH);
         }
@@ -218,6 +229,7 @@ public class DiscoveryREST {
             searchParameters.setOffset(offset);
             searchParameters.setSortBy(sortByAttribute);
             searchParameters.setSortOrder(sortOrder);
+            searchParameters.setCursor(cursor);
 
             return discoveryService.searchWithParameters(searchParameters);
         } finally {
@@ -258,42 +270,8 @@ public class DiscoveryREST {
                         attrValuePrefix + "," + typeName + "," + limit + "," + offset + ")");
             }
 
-            if (StringUtils.isEmpty(attrName) && StringUtils.isEmpty(attrValuePrefix)) {
-                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS,
-                        String.format("attrName : %s, attrValue: %s for attribute search.", attrName, attrValuePrefix));
-            }
-
-            if (StringUtils.isEmpty(attrName)) {
-                AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
-
-                if (entityType != null) {
-                    String[] defaultAttrNames = new String[] { AtlasClient.QUALIFIED_NAME, AtlasClient.NAME };
-
-                    for (String defaultAttrName : defaultAttrNames) {
-                        AtlasStructType.AtlasAttribute attribute = entityType.getAttribute(defaultAttrName);
-
-                        if (attribute != null) {
-                            attrName = defaultAttrName;
-
-                            break;
-                        }
-                    }
-                }
-
-                if (StringUtils.isEmpty(attrName)) {
-                    attrName = AtlasClient.QUALIFIED_NAME;
-                }
-            }
-
-            SearchParameters searchParams = new SearchParameters();
-            FilterCriteria   attrFilter   = new FilterCriteria();
-
-            attrFilter.setAttributeName(StringUtils.isEmpty(attrName) ? AtlasClient.QUALIFIED_NAME : attrName);
-            attrFilter.setOperator(SearchParameters.Operator.STARTS_WITH);
-            attrFilter.setAttributeValue(attrValuePrefix);
+            SearchParameters searchParams = toAttributeSearchParameters(attrName, attrValuePrefix, typeName);
 
-            searchParams.setTypeName(typeName);
-            searchParams.setEntityFilters(attrFilter);
             searchParams.setOffset(offset);
             searchParams.setLimit(limit);
 
@@ -322,26 +300,150 @@ public class DiscoveryREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters(" + parameters + ")");
             }
 
-            if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
-            }
+            validateBasicSearchParameters(parameters);
 
-            if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
-            }
+            return discoveryService.searchWithParameters(parameters);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
 
-            if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
+    /**
+     * Stream all results of the specified DSL as newline-delimited JSON: one entity header per line, or for
+     * queries with a select clause one JSON object per row. The result set is not limited by atlas.search.maxlimit:
+     * the query is executed once and its result is written as it is read. Queries with select or groupby clauses are
+     * instead re-run page by page with a higher offset; after atlas.search.stream.max.offset.pages such pages the stream
+     * ends with an error line giving the offset to continue from.
+     *
+     * @param query          DSL query
+     * @param typeName       limit the result to only entities of specified type or its sub-types
+     * @param classification limit the result to only entities tagged with the given classification or or its sub-types
+     * @return NDJSON stream of search results
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful DSL validation; errors during execution are written as the last line of the stream
+     * @HTTP 400 Invalid DSL or query parameters
+     */
+    @GET
+    @Path("/dsl/stream")
+    @Produces(SearchResultStreamer.NDJSON_MEDIA_TYPE)
+    public Response streamUsingDSL(@QueryParam("query")          String query,
+                                   @QueryParam("typeName")       String typeName,
+                                   @QueryParam("classification") String classification) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("typeName", typeName);
+        Servlets.validateQueryParamLength("classification", classification);
+
+        if (StringUtils.isNotEmpty(query) && query.length() > maxDslQueryLength) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_QUERY_LENGTH, Constants.MAX_DSL_QUERY_STR_LENGTH);
+        }
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            query = Servlets.decodeQueryString(query);
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.streamUsingDSL(" + query + "," + typeName
+                        + "," + classification + ")");
             }
 
-            if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) &&
-                StringUtils.isEmpty(parameters.getQuery()) && StringUtils.isEmpty(parameters.getTermName())) {
-                throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+            String queryStr = discoveryService.getDslQueryUsingTypeNameClassification(query, typeName, classification);
+
+            return Response.ok(resultStreamer.streamDslSearch(queryStr)).build();
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Stream all results of the specified basic search as newline-delimited JSON, one entity header per line
+     *
+     * @param query          Fulltext query
+     * @param typeName       limit the result to only entities of specified type or its sub-types
+     * @param classification limit the result to only entities tagged with the given classification or or its sub-types
+     * @return NDJSON stream of entity headers
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful validation; errors during execution are written as the last line of the stream
+     * @HTTP 400 Invalid fulltext or query parameters
+     */
+    @GET
+    @Path("/basic/stream")
+    @Produces(SearchResultStreamer.NDJSON_MEDIA_TYPE)
+    public Response streamUsingBasic(@QueryParam("query")                  String    query,
+                                     @QueryParam("typeName")               String    typeName,
+                                     @QueryParam("classification")         String    classification,
+                                     @QueryParam("sortBy")                 String    sortByAttribute,
+                                     @QueryParam("sortOrder")              SortOrder sortOrder,
+                                     @QueryParam("excludeDeletedEntities") boolean   excludeDeletedEntities) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("typeName", typeName);
+        Servlets.validateQueryParamLength("classification", classification);
+        Servlets.validateQueryParamLength("sortBy", sortByAttribute);
+
+        if (StringUtils.isNotEmpty(query) && query.length() > maxFullTextQueryLength) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_QUERY_LENGTH, Constants.MAX_FULLTEXT_QUERY_STR_LENGTH);
+        }
+
+        SearchParameters searchParameters = new SearchParameters();
+        searchParameters.setTypeName(typeName);
+        searchParameters.setClassification(classification);
+        searchParameters.setQuery(query);
+        searchParameters.setExcludeDeletedEntities(excludeDeletedEntities);
+        searchParameters.setSortBy(sortByAttribute);
+        searchParameters.setSortOrder(sortOrder);
+
+        return streamWithParameters(searchParameters);
+    }
+
+    /**
+     * Stream all entities matching the specified attribute search as newline-delimited JSON, one entity header per line
+     *
+     * @param attrName        Attribute name
+     * @param attrValuePrefix Attibute value to search on
+     * @param typeName        limit the result to only entities of specified type or its sub-types
+     * @return NDJSON stream of entity headers
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful validation; errors during execution are written as the last line of the stream
+     * @HTTP 400 Invalid wildcard or query parameters
+     */
+    @GET
+    @Path("/attribute/stream")
+    @Produces(SearchResultStreamer.NDJSON_MEDIA_TYPE)
+    public Response streamUsingAttribute(@QueryParam("attrName")        String attrName,
+                                         @QueryParam("attrValuePrefix") String attrValuePrefix,
+                                         @QueryParam("typeName")        String typeName) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("attrName", attrName);
+        Servlets.validateQueryParamLength("attrValuePrefix", attrValuePrefix);
+        Servlets.validateQueryParamLength("typeName", typeName);
+
+        return streamWithParameters(toAttributeSearchParameters(attrName, attrValuePrefix, typeName));
+    }
+
+    /**
+     * Stream all entities satisfying the search parameters as newline-delimited JSON, one entity header per line.
+     * limit and cursor are ignored; offset, when given, is the position of the first entity streamed.
+     *
+     * @param parameters Search parameters
+     * @return NDJSON stream of entity headers
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful validation; errors during execution are written as the last line of the stream
+     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name
+     */
+    @Path("basic/stream")
+    @POST
+    @Produces(SearchResultStreamer.NDJSON_MEDIA_TYPE)
+    public Response streamWithParameters(SearchParameters parameters) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.streamWithParameters(" + parameters + ")");
             }
 
-            validateSearchParameters(parameters);
+            parameters.setLimit(0);
+            parameters.setCursor(null);
 
-            return discoveryService.searchWithParameters(parameters);
+            validateBasicSearchParameters(parameters);
+
+            return Response.ok(resultStreamer.streamBasicSearch(parameters)).build();
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -663,6 +765,44 @@ public class DiscoveryREST {
         }
     }
 
+    /**
+     * Count entities satisfying the search parameters by attribute values, classifications and range buckets - for
+     * example by owner, or by create time per month (range gap 1, gapUnit MONTH). Buckets of numeric attributes have a
+     * fixed size; date attributes also support calendar buckets, in UTC. Computed by facets of the index backend,
+     * without fetching entities
+     *
+     * @param parameters search parameters and aggregations to compute
+     * @return value counts keyed by attribute name; classification counts are under __traitNames and __propagatedTraitNames
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful aggregation
+     * @HTTP 400 Unknown or non-indexed attribute, invalid range, gapUnit for a non-date attribute, or invalid search parameters
+     */
+    @Path("aggregation")
+    @POST
+    public Map<String, List<AtlasAggregationEntry>> getAggregations(AggregationParameters parameters) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.getAggregations(" + parameters + ")");
+            }
+
+            if (parameters == null || parameters.getSearchParameters() == null) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+            }
+
+            if (parameters.getLimit() < 0) {
+                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit should be non-negative");
+            }
+
+            validateBasicSearchParameters(parameters.getSearchParameters());
+
+            return discoveryService.getAggregations(parameters);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     @Path("suggestions")
     @GET
     public AtlasSuggestionsResult getSuggestions(@QueryParam("prefixString") String prefixString, @QueryParam("fieldName") String fieldName) {
@@ -706,6 +846,68 @@ public class DiscoveryREST {
         }
     }
 
+    private void validateBasicSearchParameters(SearchParameters parameters) throws AtlasBaseException {
+        if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) &&
+            StringUtils.isEmpty(parameters.getQuery()) && StringUtils.isEmpty(parameters.getTermName())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+        }
+
+        validateSearchParameters(parameters);
+    }
+
+    private SearchParameters toAttributeSearchParameters(String attrName, String attrValuePrefix, String typeName) throws AtlasBaseException {
+        if (StringUtils.isEmpty(attrName) && StringUtils.isEmpty(attrValuePrefix)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS,
+                    String.format("attrName : %s, attrValue: %s for attribute search.", attrName, attrValuePrefix));
+        }
+
+        if (StringUtils.isEmpty(attrName)) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            if (entityType != null) {
+                String[] defaultAttrNames = new String[] { AtlasClient.QUALIFIED_NAME, AtlasClient.NAME };
+
+                for (String defaultAttrName : defaultAttrNames) {
+                    AtlasStructType.AtlasAttribute attribute = entityType.getAttribute(defaultAttrName);
+
+                    if (attribute != null) {
+                        attrName = defaultAttrName;
+
+                        break;
+                    }
+                }
+            }
+
+            if (StringUtils.isEmpty(attrName)) {
+                attrName = AtlasClient.QUALIFIED_NAME;
+            }
+        }
+
+        SearchParameters searchParams = new SearchParameters();
+        FilterCriteria   attrFilter   = new FilterCriteria();
+
+        attrFilter.setAttributeName(StringUtils.isEmpty(attrName) ? AtlasClient.QUALIFIED_NAME : attrName);
+        attrFilter.setOperator(SearchParameters.Operator.STARTS_WITH);
+        attrFilter.setAttributeValue(attrValuePrefix);
+
+        searchParams.setTypeName(typeName);
+        searchParams.setEntityFilters(attrFilter);
+
+        return searchParams;
+    }
+
     private void validateSearchParameters(SearchParameters parameters) throws AtlasBaseException {
         if (parameters != null) {
             Servlets.validateQueryParamLength("typeName", parameters.getTypeName());
@@ -28,6 +28,7 @@ import org.apache.atlas.bulkimport.BulkImportResponse;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.audit.EntityAuditEventsPage;
 import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
 import org.apache.atlas.model.instance.AtlasClassification;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
@@ -37,6 +38,7 @@ import org.apache.atlas.model.instance.AtlasEntityHeaders;
 import org.apache.atlas.model.instance.ClassificationAssociateRequest;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
+import org.apache.atlas.repository.audit.DifferentialAuditReader;
 import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
@@ -804,7 +806,8 @@ public class EntityREST {
                                                    @QueryParam("count") @DefaultValue("100") short count,
                                                    @QueryParam("offset") @DefaultValue("-1") int offset,
                                                    @QueryParam("sortBy") String sortBy,
-                                                   @QueryParam("sortOrder") String sortOrder) throws AtlasBaseException {
+                                                   @QueryParam("sortOrder") String sortOrder,
+                                                   @QueryParam("resolveState") @DefaultValue("false") boolean resolveState) throws AtlasBaseException {
         AtlasPerfTracer perf = null;
 
         try {
@@ -812,18 +815,7 @@ public class EntityREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getAuditEvents(" + guid + ", " + startKey + ", " + count + ")");
             }
 
-            // Enforces authorization for entity-read
-            try {
-                entitiesStore.getHeaderById(guid);
-            } catch (AtlasBaseException e) {
-                if (e.getAtlasErrorCode() == AtlasErrorCode.INSTANCE_GUID_NOT_FOUND) {
-                    AtlasEntityHeader entityHeader = getEntityHeaderFromPurgedAudit(guid);
-
-                    AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, entityHeader), "read entity audit: guid=", guid);
-                } else {
-                    throw e;
-                }
-            }
+            verifyAuditReadAccess(guid);
 
             List<EntityAuditEventV2> ret = new ArrayList<>();
 
@@ -845,12 +837,68 @@ public class EntityREST {
                 }
             }
 
+            if (resolveState) {
+                DifferentialAuditReader.resolveEntityStates(auditRepository, guid, ret);
+            }
+
+            return ret;
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Returns a page of audit events of the entity, in the given sort order. The first page is fetched without a cursor;
+     * nextCursor of a page fetches the following page, with the same auditAction, sortBy and sortOrder.
+     * @param guid GUID of the entity
+     * @param cursor nextCursor of the previous page
+     * @return page of audit events, with the total number of matching events when available
+     * @throws AtlasBaseException
+     */
+    @GET
+    @Path("{guid}/audit/page")
+    public EntityAuditEventsPage getAuditEventsPage(@PathParam("guid") String guid, @QueryParam("cursor") String cursor,
+                                                    @QueryParam("auditAction") EntityAuditActionV2 auditAction,
+                                                    @QueryParam("count") @DefaultValue("100") short count,
+                                                    @QueryParam("sortBy") String sortBy,
+                                                    @QueryParam("sortOrder") String sortOrder,
+                                                    @QueryParam("resolveState") @DefaultValue("false") boolean resolveState) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getAuditEventsPage(" + guid + ", " + cursor + ", " + count + ")");
+            }
+
+            verifyAuditReadAccess(guid);
+
+            EntityAuditEventsPage ret = auditRepository.listEventsPage(guid, auditAction, sortBy, StringUtils.equalsIgnoreCase(sortOrder, "desc"), cursor, count);
+
+            if (resolveState) {
+                DifferentialAuditReader.resolveEntityStates(auditRepository, guid, ret.getEvents());
+            }
+
             return ret;
         } finally {
             AtlasPerfTracer.log(perf);
         }
     }
 
+    // enforces authorization for entity-read
+    private void verifyAuditReadAccess(String guid) throws AtlasBaseException {
+        try {
+            entitiesStore.getHeaderById(guid);
+        } catch (AtlasBaseException e) {
+            if (e.getAtlasErrorCode() == AtlasErrorCode.INSTANCE_GUID_NOT_FOUND) {
+                AtlasEntityHeader entityHeader = getEntityHeaderFromPurgedAudit(guid);
+
+                AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, entityHeader), "read entity audit: guid=", guid);
+            } else {
+                throw e;
+            }
+        }
+    }
+
     @GET
     @Path("bulk/headers")
     @Produces(Servlets.JSON_MEDIA_TYPE)
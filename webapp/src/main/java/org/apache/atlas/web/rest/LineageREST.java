@@ -66,6 +66,7 @@ public class LineageREST {
     private final AtlasLineageService atlasLineageService;
     private static final String DEFAULT_DIRECTION = "BOTH";
     private static final String DEFAULT_DEPTH     = "3";
+    private static final String DEFAULT_LIMIT     = "0";
 
     @Context
     private HttpServletRequest httpServletRequest;
@@ -81,6 +82,8 @@ public class LineageREST {
      * @param guid - unique entity id
      * @param direction - input, output or both
      * @param depth - number of hops for lineage
+     * @param limit - maximum number of relations to return, up to the server configured maximum; 0 for the server configured maximum
+     * @param continuationToken - continuationToken from the previous response, to get the next page of lineage
      * @return AtlasLineageInfo
      * @throws AtlasBaseException
      * @HTTP 200 If Lineage exists for the given entity
@@ -91,7 +94,9 @@ public class LineageREST {
     @Path("/{guid}")
     public AtlasLineageInfo getLineageGraph(@PathParam("guid") String guid,
                                             @QueryParam("direction") @DefaultValue(DEFAULT_DIRECTION)  LineageDirection direction,
-                                            @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth) throws AtlasBaseException {
+                                            @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth,
+                                            @QueryParam("limit") @DefaultValue(DEFAULT_LIMIT) int limit,
+                                            @QueryParam("continuationToken") String continuationToken) throws AtlasBaseException {
         Servlets.validateQueryParamLength("guid", guid);
 
         AtlasPerfTracer perf = null;
@@ -102,7 +107,7 @@ public class LineageREST {
                                                                "," + depth + ")");
             }
 
-            return atlasLineageService.getAtlasLineageInfo(guid, direction, depth);
+            return atlasLineageService.getAtlasLineageInfo(guid, direction, depth, limit, continuationToken);
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -120,6 +125,8 @@ public class LineageREST {
      * @param typeName - typeName of entity
      * @param direction - input, output or both
      * @param depth - number of hops for lineage
+     * @param limit - maximum number of relations to return, up to the server configured maximum; 0 for the server configured maximum
+     * @param continuationToken - continuationToken from the previous response, to get the next page of lineage
      * @return AtlasLineageInfo
      * @throws AtlasBaseException
      * @HTTP 200 If Lineage exists for the given entity
@@ -131,7 +138,8 @@ public class LineageREST {
     @Consumes(Servlets.JSON_MEDIA_TYPE)
     @Produces(Servlets.JSON_MEDIA_TYPE)
     public AtlasLineageInfo getLineageByUniqueAttribute(@PathParam("typeName") String typeName, @QueryParam("direction") @DefaultValue(DEFAULT_DIRECTION) LineageDirection direction,
-                                                        @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth, @Context HttpServletRequest servletRequest) throws AtlasBaseException {
+                                                        @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth, @QueryParam("limit") @DefaultValue(DEFAULT_LIMIT) int limit,
+                                                        @QueryParam("continuationToken") String continuationToken, @Context HttpServletRequest servletRequest) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
         AtlasPerfTracer perf = null;
 
@@ -145,7 +153,7 @@ public class LineageREST {
                         "," + depth + ")");
             }
 
-            return atlasLineageService.getAtlasLineageInfo(guid, direction, depth);
+            return atlasLineageService.getAtlasLineageInfo(guid, direction, depth, limit, continuationToken);
         } finally {
             AtlasPerfTracer.log(perf);
         }
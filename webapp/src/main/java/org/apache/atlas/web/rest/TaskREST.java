@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.rest;
+
+import org.apache.atlas.authorize.AtlasAdminAccessRequest;
+import org.apache.atlas.authorize.AtlasAuthorizationUtils;
+import org.apache.atlas.authorize.AtlasPrivilege;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.tasks.TaskManagement;
+import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.atlas.web.util.Servlets;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * REST interface for background tasks, like classification propagation.
+ */
+@Path("v2/tasks")
+@Singleton
+@Service
+@Consumes({Servlets.JSON_MEDIA_TYPE, MediaType.APPLICATION_JSON})
+@Produces({Servlets.JSON_MEDIA_TYPE, MediaType.APPLICATION_JSON})
+public class TaskREST {
+    private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.TaskREST");
+
+    private static final String DEFAULT_OFFSET = "0";
+    private static final String DEFAULT_LIMIT  = "100";
+
+    private final TaskManagement taskManagement;
+
+    @Inject
+    public TaskREST(TaskManagement taskManagement) {
+        this.taskManagement = taskManagement;
+    }
+
+    /**
+     * Returns tasks, oldest first.
+     * @param status - statuses of tasks to return; all tasks when not specified
+     * @param offset - offset of the first task to return
+     * @param limit - maximum number of tasks to return
+     * @return list of tasks
+     * @HTTP 200 On successful retrieval of tasks
+     */
+    @GET
+    public List<AtlasTask> getTasks(@QueryParam("status") List<Status> status,
+                                    @QueryParam("offset") @DefaultValue(DEFAULT_OFFSET) int offset,
+                                    @QueryParam("limit") @DefaultValue(DEFAULT_LIMIT) int limit) {
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaskREST.getTasks(" + status + "," + offset + "," + limit + ")");
+            }
+
+            return taskManagement.getTasks(status, offset, limit);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Returns the task with the given guid.
+     * @param guid - guid of the task
+     * @return the task
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful retrieval of the task
+     * @HTTP 404 If no task exists with the given guid
+     */
+    @GET
+    @Path("/{guid}")
+    public AtlasTask getTask(@PathParam("guid") String guid) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("guid", guid);
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaskREST.getTask(" + guid + ")");
+            }
+
+            return taskManagement.getTask(guid);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Queues a failed task for execution again.
+     * @param guid - guid of the task
+     * @return the task
+     * @throws AtlasBaseException
+     * @HTTP 200 If the task was queued for execution
+     * @HTTP 400 If the task has not failed
+     * @HTTP 403 If the user is not authorized to manage tasks
+     * @HTTP 404 If no task exists with the given guid
+     */
+    @POST
+    @Path("/{guid}/retry")
+    public AtlasTask retryTask(@PathParam("guid") String guid) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("guid", guid);
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaskREST.retryTask(" + guid + ")");
+            }
+
+            AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_TASKS), "retry task: guid=", guid);
+
+            return taskManagement.retryTask(guid);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+}
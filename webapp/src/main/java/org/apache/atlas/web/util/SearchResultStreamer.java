@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.util;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.discovery.AtlasDiscoveryService;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.query.AtlasDSL;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes search results as newline-delimited JSON, one entity header (or one DSL select row) per line.
+ *
+ * Results are written one page at a time, and every page is flushed to the client before the next one is read;
+ * server memory is bounded by the page size and a slow client blocks the next read. Errors after the first line has been written cannot change the HTTP status, so they
+ * are reported as a final {"errorCode": ..., "errorMessage": ...} line.
+ *
+ * A DSL query is executed once, and its result is read from the graph traversal as it is written, in a single graph
+ * transaction. Queries that can't be read this way - select and groupby queries, whose rows are projections/aggregates
+ * of the complete result - are paged instead, re-running the query with a growing offset that the graph traversal has
+ * to skip; so do basic searches for which no cursor is returned. As the cost of such pages grows with the offset, the
+ * stream is ended after maxOffsetPages of them, with a SEARCH_STREAM_TRUNCATED error line that gives the offset to
+ * continue from. Basic search otherwise resumes each page from the cursor returned with the previous page.
+ */
+public class SearchResultStreamer {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResultStreamer.class);
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final AtlasDiscoveryService discoveryService;
+    private final int                   pageSize;
+    private final int                   maxOffsetPages;
+
+    public SearchResultStreamer(AtlasDiscoveryService discoveryService, int pageSize, int maxOffsetPages) {
+        this.discoveryService = discoveryService;
+        this.pageSize         = pageSize;
+        this.maxOffsetPages   = maxOffsetPages;
+    }
+
+    public StreamingOutput streamBasicSearch(final SearchParameters searchParameters) {
+        return outputStream -> {
+            Writer writer      = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long   count       = 0;
+            int    offsetPages = 0;
+
+            try {
+                searchParameters.setLimit(pageSize);
+
+                while (true) {
+                    if (searchParameters.getCursor() == null && ++offsetPages > maxOffsetPages) {
+                        throw new AtlasBaseException(AtlasErrorCode.SEARCH_STREAM_TRUNCATED, String.valueOf(searchParameters.getOffset()), String.valueOf(maxOffsetPages));
+                    }
+
+                    AtlasSearchResult       result    = discoveryService.searchWithParameters(searchParameters);
+                    List<AtlasEntityHeader> entities  = result.getEntities();
+                    int                     pageCount = writeEntities(writer, entities);
+
+                    writer.flush();
+
+                    count += pageCount;
+
+                    if (pageCount == 0 || (result.getNextCursor() == null && pageCount < pageSize)) {
+                        break;
+                    }
+
+                    searchParameters.setCursor(result.getNextCursor());
+                    searchParameters.setOffset(searchParameters.getOffset() + pageCount);
+                }
+            } catch (AtlasBaseException e) {
+                LOG.error("streamBasicSearch({}): failed after {} entities", searchParameters, count, e);
+
+                writeError(writer, e);
+            } finally {
+                writer.flush();
+            }
+
+            LOG.debug("streamBasicSearch({}): wrote {} entities", searchParameters, count);
+        };
+    }
+
+    public StreamingOutput streamDslSearch(final String query) throws AtlasBaseException {
+        // a query with its own limit/offset clause ignores the supplied paging, so it is executed only once
+        final boolean isSinglePage = AtlasDSL.Parser.hasLimitOffset(query);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long[] count  = new long[] { 0 };
+
+            try {
+                boolean isStreamed = !isSinglePage && discoveryService.streamUsingDslQuery(query, pageSize, batch -> {
+                    count[0] += writeEntities(writer, batch.getEntities());
+
+                    writer.flush();
+                });
+
+                if (!isStreamed) {
+                    writeDslPages(writer, query, isSinglePage, count);
+                }
+            } catch (AtlasBaseException e) {
+                LOG.error("streamDslSearch({}): failed after {} results", query, count[0], e);
+
+                writeError(writer, e);
+            } finally {
+                writer.flush();
+            }
+
+            LOG.debug("streamDslSearch({}): wrote {} results", query, count[0]);
+        };
+    }
+
+    private void writeDslPages(Writer writer, String query, boolean isSinglePage, long[] count) throws AtlasBaseException, IOException {
+        int offset = 0;
+
+        for (int offsetPages = 1; ; offsetPages++) {
+            if (offsetPages > maxOffsetPages) {
+                throw new AtlasBaseException(AtlasErrorCode.SEARCH_STREAM_TRUNCATED, String.valueOf(offset), String.valueOf(maxOffsetPages));
+            }
+
+            AtlasSearchResult result    = discoveryService.searchUsingDslQuery(query, pageSize, offset);
+            int               pageCount = writeEntities(writer, result.getEntities()) + writeRows(writer, result.getAttributes());
+
+            writer.flush();
+
+            offset   += pageCount;
+            count[0] += pageCount;
+
+            if (isSinglePage || pageCount < pageSize) {
+                break;
+            }
+        }
+    }
+
+    private static int writeEntities(Writer writer, List<AtlasEntityHeader> entities) throws IOException {
+        if (CollectionUtils.isEmpty(entities)) {
+            return 0;
+        }
+
+        for (AtlasEntityHeader entity : entities) {
+            writeLine(writer, entity);
+        }
+
+        return entities.size();
+    }
+
+    private static int writeRows(Writer writer, AttributeSearchResult attributes) throws IOException {
+        if (attributes == null || CollectionUtils.isEmpty(attributes.getValues())) {
+            return 0;
+        }
+
+        List<String> names = attributes.getName();
+
+        for (List<Object> values : attributes.getValues()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+
+            for (int i = 0; i < values.size(); i++) {
+                row.put(names != null && i < names.size() ? names.get(i) : String.valueOf(i), values.get(i));
+            }
+
+            writeLine(writer, row);
+        }
+
+        return attributes.getValues().size();
+    }
+
+    private static void writeError(Writer writer, AtlasBaseException e) throws IOException {
+        Map<String, String> error = new LinkedHashMap<>();
+
+        error.put("errorCode", e.getAtlasErrorCode().getErrorCode());
+        error.put("errorMessage", e.getMessage());
+
+        writeLine(writer, error);
+    }
+
+    private static void writeLine(Writer writer, Object obj) throws IOException {
+        writer.write(AtlasType.toJson(obj));
+        writer.write('\n');
+    }
+}
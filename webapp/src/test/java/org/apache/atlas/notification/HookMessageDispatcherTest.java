@@ -0,0 +1,312 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.kafka.KafkaNotification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
+import org.apache.atlas.notification.NotificationHookConsumer.HookConsumer;
+import org.apache.atlas.notification.NotificationHookConsumer.HookMessageDispatcher;
+import org.apache.atlas.notification.NotificationHookConsumer.PartitionOffsetTracker;
+import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v2.EntityStream;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.apache.atlas.util.AtlasMetricsUtil;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.web.service.ServiceState;
+import org.apache.kafka.common.TopicPartition;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class HookMessageDispatcherTest {
+    private static final TopicPartition TOPIC_PARTITION = new TopicPartition(KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    private static final String         SLOW_ENTITY     = "slow_table";
+    private static final long           WAIT_TIME_MS    = 10000;
+
+    @Mock
+    private NotificationInterface notificationInterface;
+
+    @Mock
+    private AtlasEntityStore atlasEntityStore;
+
+    @Mock
+    private ServiceState serviceState;
+
+    @Mock
+    private AtlasInstanceConverter instanceConverter;
+
+    @Mock
+    private AtlasTypeRegistry typeRegistry;
+
+    @Mock
+    private AtlasMetricsUtil metricsUtil;
+
+    @Mock
+    private NotificationConsumer<HookNotification> consumer;
+
+    private final List<String> processedMessages = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        ApplicationProperties.get().setProperty(NotificationHookConsumer.CONSUMER_LANES, 2);
+        ApplicationProperties.get().setProperty(NotificationHookConsumer.CONSUMER_RETRY_INTERVAL, 10);
+
+        processedMessages.clear();
+
+        when(typeRegistry.getType(anyString())).thenReturn(mock(AtlasType.class));
+
+        // records qualifiedNames of entities in each call, in the order processed
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean())).thenAnswer(invocation -> {
+            EntityStream  stream = (EntityStream) invocation.getArguments()[0];
+            StringBuilder sb     = new StringBuilder();
+
+            while (stream.hasNext()) {
+                AtlasEntity entity        = stream.next();
+                Object      qualifiedName = entity.getAttribute("qualifiedName");
+                Object      description   = entity.getAttribute("description");
+
+                if (SLOW_ENTITY.equals(qualifiedName)) {
+                    Thread.sleep(500);
+                }
+
+                sb.append(sb.length() > 0 ? "," : "").append(qualifiedName).append(description != null ? "#" + description : "");
+            }
+
+            processedMessages.add(sb.toString());
+
+            return mock(EntityMutationResponse.class);
+        });
+    }
+
+    @AfterMethod
+    public void cleanup() throws AtlasException {
+        ApplicationProperties.get().clearProperty(NotificationHookConsumer.CONSUMER_LANES);
+        ApplicationProperties.get().clearProperty(NotificationHookConsumer.CONSUMER_RETRY_INTERVAL);
+    }
+
+    @Test
+    public void testCommitOffsetIsLowestPendingOffset() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+
+        tracker.add(5);
+        tracker.add(6);
+        tracker.add(7);
+
+        assertEquals(tracker.getCommitOffset(), 5L);
+
+        assertTrue(tracker.remove(6));
+        assertEquals(tracker.getCommitOffset(), 5L);
+
+        assertTrue(tracker.remove(5));
+        assertEquals(tracker.getCommitOffset(), 7L);
+        assertFalse(tracker.remove(5));
+
+        tracker.remove(7);
+
+        assertFalse(tracker.isPending(7));
+        assertEquals(tracker.getCommitOffset(), 8L);
+    }
+
+    @Test
+    public void testEntityKeyIsPrimaryEntity() {
+        HookNotification message = createMessage(SLOW_ENTITY, "db1", 0).getMessage();
+
+        assertEquals(message.getEntityKey(), "hive_table:" + SLOW_ENTITY);
+    }
+
+    @Test
+    public void testMessagesForSameEntityAreProcessedInOrder() throws Exception {
+        HookConsumer          hookConsumer = createHookConsumer();
+        HookMessageDispatcher dispatcher   = hookConsumer.dispatcher;
+        AtlasEntity           update1      = createTable(SLOW_ENTITY);
+        AtlasEntity           update2      = createTable(SLOW_ENTITY);
+
+        update1.setAttribute("description", "1");
+        update2.setAttribute("description", "2");
+
+        dispatcher.start();
+
+        try {
+            dispatcher.dispatch(Arrays.asList(createMessage(update1, 0), createMessage(update2, 1), createMessage("t3", "db2", 2)));
+
+            waitForProcessedMessages(3);
+
+            assertTrue(processedMessages.indexOf(SLOW_ENTITY + "#1") < processedMessages.indexOf(SLOW_ENTITY + "#2"), processedMessages.toString());
+
+            dispatcher.commitProcessedOffsets();
+
+            verify(consumer).commit(TOPIC_PARTITION, 3L);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testMessagesSharingReferredEntityAreProcessedInParallel() throws Exception {
+        HookConsumer          hookConsumer = createHookConsumer();
+        HookMessageDispatcher dispatcher   = hookConsumer.dispatcher;
+        String                otherTable   = getTableOfOtherLane(SLOW_ENTITY);
+
+        dispatcher.start();
+
+        try {
+            // both refer to db1; otherTable is processed while the slow table is in progress in the other lane
+            dispatcher.dispatch(Arrays.asList(createMessage(SLOW_ENTITY, "db1", 0), createMessage(otherTable, "db1", 1)));
+
+            waitForProcessedMessages(2);
+
+            assertEquals(processedMessages, Arrays.asList(otherTable, SLOW_ENTITY));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testLaneRetriesMessageNotProcessed() throws Exception {
+        HookConsumer          hookConsumer = createHookConsumer();
+        HookMessageDispatcher dispatcher   = hookConsumer.dispatcher;
+        Referenceable         table        = new Referenceable("hive_table");
+
+        table.set("qualifiedName", "t1");
+
+        // an exception outside of handleMessage() retries, hence thrown to the lane
+        when(instanceConverter.toAtlasEntities(anyList())).thenThrow(new RuntimeException("test")).thenReturn(new AtlasEntitiesWithExtInfo(createTable("t1")));
+
+        dispatcher.start();
+
+        try {
+            dispatcher.dispatch(Collections.singletonList(new AtlasKafkaMessage<>(new EntityCreateRequest("user", table), 0, TOPIC_PARTITION.topic(), TOPIC_PARTITION.partition())));
+
+            waitForProcessedMessages(1);
+
+            assertEquals(processedMessages, Collections.singletonList("t1"));
+
+            dispatcher.commitProcessedOffsets();
+
+            verify(instanceConverter, times(2)).toAtlasEntities(anyList());
+            verify(consumer).commit(TOPIC_PARTITION, 1L);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testStopLeavesPendingMessagesUncommitted() throws Exception {
+        HookConsumer                        hookConsumer = createHookConsumer();
+        HookMessageDispatcher               dispatcher   = hookConsumer.dispatcher;
+        AtlasKafkaMessage<HookNotification> message      = createMessage("t1", "db1", 10);
+
+        // lanes are not started, hence dispatched messages stay pending
+        dispatcher.dispatch(Arrays.asList(message, createMessage("t2", "db2", 11)));
+        dispatcher.stop();
+        dispatcher.commitProcessedOffsets();
+
+        assertTrue(dispatcher.isPending(message));
+        verify(consumer).commit(TOPIC_PARTITION, 10L);
+        verify(consumer, never()).commit(TOPIC_PARTITION, 12L);
+
+        dispatcher.onProcessed(message);
+        dispatcher.onProcessed(message);
+        dispatcher.commitProcessedOffsets();
+
+        verify(consumer).commit(TOPIC_PARTITION, 11L);
+    }
+
+    private HookConsumer createHookConsumer() throws AtlasException {
+        NotificationHookConsumer notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        HookConsumer             ret                      = notificationHookConsumer.new HookConsumer(consumer);
+
+        ret.shouldRun.set(true);
+
+        return ret;
+    }
+
+    private void waitForProcessedMessages(int count) throws InterruptedException {
+        for (long endTime = System.currentTimeMillis() + WAIT_TIME_MS; processedMessages.size() < count && System.currentTimeMillis() < endTime; ) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(processedMessages.size(), count, processedMessages.toString());
+    }
+
+    private AtlasKafkaMessage<HookNotification> createMessage(String tableName, String dbName, long offset) {
+        AtlasEntity db    = new AtlasEntity("hive_db");
+        AtlasEntity table = createTable(tableName);
+
+        db.setGuid("-1");
+        db.setAttribute("qualifiedName", dbName);
+
+        table.setAttribute("db", AtlasTypeUtil.getAtlasObjectId(db));
+
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo(table);
+
+        entities.addReferredEntity(db);
+
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2("user", entities), offset, TOPIC_PARTITION.topic(), TOPIC_PARTITION.partition());
+    }
+
+    private AtlasKafkaMessage<HookNotification> createMessage(AtlasEntity table, long offset) {
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(table)), offset, TOPIC_PARTITION.topic(), TOPIC_PARTITION.partition());
+    }
+
+    // lanes are selected by hash of the message key, among the 2 lanes configured in setup()
+    private String getTableOfOtherLane(String tableName) {
+        int lane = Math.floorMod(("hive_table:" + tableName).hashCode(), 2);
+
+        for (int i = 0; ; i++) {
+            String ret = "t" + i;
+
+            if (Math.floorMod(("hive_table:" + ret).hashCode(), 2) != lane) {
+                return ret;
+            }
+        }
+    }
+
+    private AtlasEntity createTable(String qualifiedName) {
+        AtlasEntity ret = new AtlasEntity("hive_table");
+
+        ret.setAttribute("qualifiedName", qualifiedName);
+
+        return ret;
+    }
+}
@@ -26,6 +26,8 @@ import org.apache.atlas.kafka.KafkaNotification;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.util.AtlasMetricsUtil;
@@ -36,6 +38,7 @@ import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v2.EntityStream;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.web.service.ServiceState;
 import org.apache.commons.configuration.Configuration;
 import org.apache.kafka.common.TopicPartition;
@@ -157,6 +160,69 @@ public class NotificationHookConsumerTest {
         verifyZeroInteractions(consumer);
     }
 
+    @Test
+    public void testCompatibleMessagesAreProcessedInSingleBatch() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessages(Arrays.asList(createV2Message("user", "qn1", 0), createV2Message("user", "qn2", 1), createV2Message("user", "qn3", 2)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(1)).commit(any(TopicPartition.class), eq(3L));
+    }
+
+    @Test
+    public void testBatchIsSplitOnUserChangeAndSameEntity() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessages(Arrays.asList(createV2Message("user1", "qn1", 0), createV2Message("user1", "qn1", 1), createV2Message("user2", "qn2", 2)));
+
+        verify(atlasEntityStore, times(3)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(3)).commit(any(TopicPartition.class), anyLong());
+    }
+
+    @Test
+    public void testMessagesSharingReferredEntityAreProcessedInSingleBatch() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessages(Arrays.asList(createV2MessageWithDb("user", "db1.tbl1", "db1", "owner1", 0), createV2MessageWithDb("user", "db1.tbl2", "db1", "owner1", 1)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(1)).commit(any(TopicPartition.class), eq(2L));
+    }
+
+    @Test
+    public void testBatchIsSplitOnDifferentContentOfReferredEntity() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessages(Arrays.asList(createV2MessageWithDb("user", "db1.tbl1", "db1", "owner1", 0), createV2MessageWithDb("user", "db1.tbl2", "db1", "owner2", 1)));
+
+        verify(atlasEntityStore, times(2)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(2)).commit(any(TopicPartition.class), anyLong());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedOneMessageAtATime() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean())).thenThrow(new RuntimeException("Simulating exception in processing batch"))
+                                                                                    .thenReturn(mock(EntityMutationResponse.class));
+
+        hookConsumer.handleMessages(Arrays.asList(createV2Message("user", "qn1", 0), createV2Message("user", "qn2", 1)));
+
+        verify(atlasEntityStore, times(3)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(2)).commit(any(TopicPartition.class), anyLong());
+    }
+
     @Test
     public void testConsumerProceedsWithFalseIfInterrupted() throws Exception {
         NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
@@ -321,6 +387,32 @@ public class NotificationHookConsumerTest {
         assertFalse(notificationHookConsumer.consumers.get(0).isAlive());
     }
 
+    private AtlasKafkaMessage<HookNotification> createV2Message(String user, String qualifiedName, long offset) {
+        AtlasEntity entity = new AtlasEntity("test_type");
+
+        entity.setAttribute("qualifiedName", qualifiedName);
+
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2(user, new AtlasEntitiesWithExtInfo(entity)), offset, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    }
+
+    private AtlasKafkaMessage<HookNotification> createV2MessageWithDb(String user, String tableName, String dbName, String dbOwner, long offset) {
+        AtlasEntity db    = new AtlasEntity("hive_db");
+        AtlasEntity table = new AtlasEntity("hive_table");
+
+        db.setGuid("-1");
+        db.setAttribute("qualifiedName", dbName);
+        db.setAttribute("owner", dbOwner);
+
+        table.setAttribute("qualifiedName", tableName);
+        table.setAttribute("db", AtlasTypeUtil.getAtlasObjectId(db));
+
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo(table);
+
+        entities.addReferredEntity(db);
+
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2(user, entities), offset, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    }
+
     private NotificationHookConsumer setupNotificationHookConsumer() throws AtlasException {
         List<NotificationConsumer<Object>> consumers                = new ArrayList();
         NotificationConsumer               notificationConsumerMock = mock(NotificationConsumer.class);
@@ -20,6 +20,7 @@ package org.apache.atlas.web.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.atlas.RequestContext;
 import org.apache.atlas.utils.AtlasJson;
 import org.apache.atlas.web.service.ServiceState;
 import org.mockito.Mock;
@@ -31,10 +32,13 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Response;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class AdminResourceTest {
 
@@ -70,4 +74,32 @@ public class AdminResourceTest {
         assertEquals(entity.get("Status").asText(), "PASSIVE");
 
     }
+
+    @Test
+    public void testActiveRequests() {
+        RequestContext.clear();
+
+        RequestContext requestContext = RequestContext.get();
+
+        requestContext.setUser("admin", null);
+
+        try {
+            AdminResource       adminResource  = new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null);
+            Map<String, Object> activeRequests = adminResource.getActiveRequests(10);
+
+            assertTrue((Integer) activeRequests.get("activeCount") >= 1);
+            assertTrue((Long) activeRequests.get("earliestRequestTime") <= requestContext.getRequestTime());
+
+            Map<String, Integer> ageHistogram = (Map<String, Integer>) activeRequests.get("ageHistogram");
+
+            assertEquals(ageHistogram.size(), 7);
+            assertEquals(ageHistogram.values().stream().mapToInt(Integer::intValue).sum(), (int) (Integer) activeRequests.get("activeCount"));
+
+            List<Map<String, Object>> oldestRequests = (List<Map<String, Object>>) activeRequests.get("oldestRequests");
+
+            assertTrue(oldestRequests.stream().anyMatch(r -> r.get("requestId").equals(requestContext.getRequestId()) && "admin".equals(r.get("user"))));
+        } finally {
+            RequestContext.clear();
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.util;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.discovery.AtlasDiscoveryService;
+import org.apache.atlas.discovery.AtlasDiscoveryService.SearchResultConsumer;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class SearchResultStreamerTest {
+    private static final int    PAGE_SIZE        = 2;
+    private static final int    MAX_OFFSET_PAGES = 3;
+    private static final String SELECT_QUERY     = "hive_table select name";
+
+    @Mock
+    private AtlasDiscoveryService discoveryService;
+
+    private SearchResultStreamer streamer;
+
+    @BeforeMethod
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        streamer = new SearchResultStreamer(discoveryService, PAGE_SIZE, MAX_OFFSET_PAGES);
+    }
+
+    @Test
+    public void basicSearchFollowsCursorUntilLastPage() throws Exception {
+        when(discoveryService.searchWithParameters(any(SearchParameters.class))).thenReturn(result("cursor-1", "g1", "g2"))
+                                                                                .thenReturn(result(null, "g3", "g4"))
+                                                                                .thenReturn(result(null, "g5"));
+
+        SearchParameters params = new SearchParameters();
+
+        params.setTypeName("hive_table");
+
+        String[] lines = write(streamer.streamBasicSearch(params));
+
+        assertEquals(lines.length, 5);
+        assertTrue(lines[0].contains("\"guid\":\"g1\""));
+        assertTrue(lines[4].contains("\"guid\":\"g5\""));
+        assertEquals(params.getLimit(), PAGE_SIZE);
+        assertEquals(params.getOffset(), 4);
+        verify(discoveryService, times(3)).searchWithParameters(params);
+    }
+
+    @Test
+    public void dslSearchIsStreamedInOnePass() throws Exception {
+        when(discoveryService.streamUsingDslQuery(eq("hive_table"), eq(PAGE_SIZE), any(SearchResultConsumer.class))).thenAnswer(invocation -> {
+            SearchResultConsumer consumer = (SearchResultConsumer) invocation.getArguments()[2];
+
+            consumer.accept(result(null, "g1", "g2"));
+            consumer.accept(result(null, "g3", "g4"));
+            consumer.accept(result(null, "g5"));
+
+            return true;
+        });
+
+        String[] lines = write(streamer.streamDslSearch("hive_table"));
+
+        assertEquals(lines.length, 5);
+        assertTrue(lines[4].contains("\"guid\":\"g5\""));
+        verify(discoveryService, never()).searchUsingDslQuery(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void dslSearchThatCannotBeStreamedPagesByOffset() throws Exception {
+        when(discoveryService.searchUsingDslQuery(SELECT_QUERY, PAGE_SIZE, 0)).thenReturn(result(null, "g1", "g2"));
+        when(discoveryService.searchUsingDslQuery(SELECT_QUERY, PAGE_SIZE, 2)).thenReturn(result(null));
+
+        String[] lines = write(streamer.streamDslSearch(SELECT_QUERY));
+
+        assertEquals(lines.length, 2);
+        verify(discoveryService, times(1)).streamUsingDslQuery(eq(SELECT_QUERY), anyInt(), any(SearchResultConsumer.class));
+        verify(discoveryService, times(2)).searchUsingDslQuery(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void dslSearchWithLimitClauseRunsOnce() throws Exception {
+        when(discoveryService.searchUsingDslQuery(eq("hive_table limit 5"), anyInt(), anyInt())).thenReturn(result(null, "g1", "g2"));
+
+        String[] lines = write(streamer.streamDslSearch("hive_table limit 5"));
+
+        assertEquals(lines.length, 2);
+        verify(discoveryService, never()).streamUsingDslQuery(anyString(), anyInt(), any(SearchResultConsumer.class));
+        verify(discoveryService, times(1)).searchUsingDslQuery(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void dslSearchIsTruncatedAfterMaxOffsetPages() throws Exception {
+        when(discoveryService.searchUsingDslQuery(eq(SELECT_QUERY), eq(PAGE_SIZE), anyInt())).thenReturn(result(null, "g1", "g2"));
+
+        String[] lines = write(streamer.streamDslSearch(SELECT_QUERY));
+
+        assertEquals(lines.length, MAX_OFFSET_PAGES * PAGE_SIZE + 1);
+        assertTrue(lines[lines.length - 1].contains("\"errorCode\":\"" + AtlasErrorCode.SEARCH_STREAM_TRUNCATED.getErrorCode() + "\""));
+        verify(discoveryService, times(MAX_OFFSET_PAGES)).searchUsingDslQuery(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void errorIsWrittenAsLastLine() throws Exception {
+        when(discoveryService.searchWithParameters(any(SearchParameters.class))).thenReturn(result("cursor-1", "g1", "g2"))
+                                                                                .thenThrow(new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "boom"));
+
+        SearchParameters params = new SearchParameters();
+
+        params.setTypeName("hive_table");
+
+        String[] lines = write(streamer.streamBasicSearch(params));
+
+        assertEquals(lines.length, 3);
+        assertTrue(lines[2].contains("\"errorCode\":\"" + AtlasErrorCode.INTERNAL_ERROR.getErrorCode() + "\""));
+    }
+
+    private static String[] write(StreamingOutput output) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        output.write(out);
+
+        String ret = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        return ret.isEmpty() ? new String[0] : ret.split("\n");
+    }
+
+    private static AtlasSearchResult result(String nextCursor, String... guids) {
+        AtlasSearchResult       ret      = new AtlasSearchResult();
+        List<AtlasEntityHeader> entities = new ArrayList<>();
+
+        for (String guid : guids) {
+            entities.add(new AtlasEntityHeader("hive_table", guid, null));
+        }
+
+        ret.setEntities(entities);
+        ret.setNextCursor(nextCursor);
+
+        return ret;
+    }
+}